@@ -28,10 +28,21 @@ public abstract class CommonDecoderImpl
 {
     public static final int INCORRECT_DATA_FORMAT_FOR_VALUE = 6;
 
+    /**
+     * Returned by a generated decoder's field ordinal lookup for a tag that it doesn't decode.
+     */
+    public static final int NO_FIELD_ORDINAL = -1;
+
     protected int invalidTagId = Decoder.NO_ERROR;
     protected int rejectReason = Decoder.NO_ERROR;
     protected AsciiBuffer buffer;
 
+    /**
+     * Incremented on every decode and reset by lazy decoders, a field's cached value is valid only if it was
+     * parsed during the current generation.
+     */
+    protected long decodeGeneration;
+
     public int invalidTagId()
     {
         return invalidTagId;
@@ -42,6 +53,26 @@ public abstract class CommonDecoderImpl
         return rejectReason;
     }
 
+    /**
+     * Find the lowest field ordinal set in a bitset of fields, as used by validation in generated decoders.
+     *
+     * @param fieldBits the bitset of field ordinals.
+     * @return the lowest field ordinal in the bitset or {@link #NO_FIELD_ORDINAL} if it is empty.
+     */
+    public static int firstFieldOrdinal(final long[] fieldBits)
+    {
+        for (int word = 0; word < fieldBits.length; word++)
+        {
+            final long bits = fieldBits[word];
+            if (bits != 0)
+            {
+                return word * Long.SIZE + Long.numberOfTrailingZeros(bits);
+            }
+        }
+
+        return NO_FIELD_ORDINAL;
+    }
+
     public int getInt(
         final AsciiBuffer buffer,
         final int startInclusive, final int endExclusive, final int tag, final boolean validation)
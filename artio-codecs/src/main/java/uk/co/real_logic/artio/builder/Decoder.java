@@ -17,6 +17,7 @@ package uk.co.real_logic.artio.builder;
 
 import uk.co.real_logic.artio.decoder.SessionHeaderDecoder;
 import uk.co.real_logic.artio.util.AsciiBuffer;
+import uk.co.real_logic.artio.util.MutableAsciiBuffer;
 
 /**
  * Parent interface that all Artio decoders implement.
@@ -76,6 +77,18 @@ public interface Decoder extends CharAppender
      */
     StringBuilder appendTo(StringBuilder builder, int level);
 
+    /**
+     * Write the same JSON representation as {@link #appendTo(StringBuilder, int)} into a buffer, without
+     * allocating. This suits logging every message in a human readable form. The buffer must have enough capacity
+     * for the representation.
+     *
+     * @param buffer the buffer to write the JSON representation into.
+     * @param offset the offset within the buffer to start writing at.
+     * @param level the whitespace indentation level to use.
+     * @return the number of bytes written.
+     */
+    int appendTo(MutableAsciiBuffer buffer, int offset, int level);
+
     /**
      * Copies the field values on the Encoder to be the same as this Decoder. This also sets all child components and
      * repeating group values to be the same.
@@ -16,9 +16,33 @@
 package uk.co.real_logic.artio.builder;
 
 import uk.co.real_logic.artio.util.AsciiBuffer;
+import uk.co.real_logic.artio.util.MutableAsciiBuffer;
 
 @FunctionalInterface
 public interface Printer
 {
     String toString(AsciiBuffer input, int offset, int length, long messageType);
+
+    /**
+     * Write the same representation as {@link #toString(AsciiBuffer, int, int, long)} into a buffer. Generated
+     * printers do this without allocating, this default implementation delegates to <code>toString</code>.
+     *
+     * @param input the buffer containing the message.
+     * @param offset the offset of the message within the input buffer.
+     * @param length the length of the message.
+     * @param messageType the packed message type of the message.
+     * @param output the buffer to write the representation into.
+     * @param outputOffset the offset within the output buffer to start writing at.
+     * @return the number of bytes written.
+     */
+    default int appendTo(
+        final AsciiBuffer input,
+        final int offset,
+        final int length,
+        final long messageType,
+        final MutableAsciiBuffer output,
+        final int outputOffset)
+    {
+        return output.putAscii(outputOffset, toString(input, offset, length, messageType));
+    }
 }
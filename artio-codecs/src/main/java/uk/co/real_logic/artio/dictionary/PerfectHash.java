@@ -0,0 +1,127 @@
+/*
+ * Copyright 2015-2024 Real Logic Limited.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.co.real_logic.artio.dictionary;
+
+import uk.co.real_logic.artio.util.AsciiBuffer;
+
+/**
+ * Hash functions behind the minimal perfect hash tables that generated enums use to decode their string
+ * representations.
+ *
+ * A key is hashed once, the hash selects a bucket and the bucket's displacement then selects the key's slot in a
+ * table with exactly one slot per key. The seed and displacements are chosen when the enum is generated so that
+ * every known representation has its own slot, so decoding is a hash, two array reads and a single comparison.
+ */
+public final class PerfectHash
+{
+    private static final int FNV_PRIME = 0x01000193;
+    private static final int GOLDEN_RATIO = 0x9E3779B9;
+
+    private PerfectHash()
+    {
+    }
+
+    public static int hash(final char[] value, final int offset, final int length, final int seed)
+    {
+        int hash = seed;
+        for (int i = offset; i < offset + length; i++)
+        {
+            hash = (hash ^ value[i]) * FNV_PRIME;
+        }
+
+        return hash;
+    }
+
+    public static int hash(final AsciiBuffer buffer, final int offset, final int length, final int seed)
+    {
+        int hash = seed;
+        for (int i = offset; i < offset + length; i++)
+        {
+            hash = (hash ^ (buffer.getByte(i) & 0xFF)) * FNV_PRIME;
+        }
+
+        return hash;
+    }
+
+    public static int bucket(final int hash, final int bucketCount)
+    {
+        return range(mix(hash), bucketCount);
+    }
+
+    public static int slot(final int hash, final int displacement, final int size)
+    {
+        return range(mix(hash ^ (displacement * GOLDEN_RATIO)), size);
+    }
+
+    public static int slot(final int hash, final int[] displacements, final int size)
+    {
+        return slot(hash, displacements[bucket(hash, displacements.length)], size);
+    }
+
+    public static boolean matches(final char[] key, final char[] value, final int offset, final int length)
+    {
+        if (key.length != length)
+        {
+            return false;
+        }
+
+        for (int i = 0; i < length; i++)
+        {
+            if (key[i] != value[offset + i])
+            {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    public static boolean matches(final char[] key, final AsciiBuffer buffer, final int offset, final int length)
+    {
+        if (key.length != length)
+        {
+            return false;
+        }
+
+        for (int i = 0; i < length; i++)
+        {
+            if (key[i] != (buffer.getByte(offset + i) & 0xFF))
+            {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    // Murmur3 finalizer: spreads every input bit across the whole hash before it is reduced to a range.
+    private static int mix(final int value)
+    {
+        int hash = value;
+        hash ^= hash >>> 16;
+        hash *= 0x85EBCA6B;
+        hash ^= hash >>> 13;
+        hash *= 0xC2B2AE35;
+        hash ^= hash >>> 16;
+        return hash;
+    }
+
+    // Maps a hash onto [0, size) with a multiply and shift rather than a division.
+    private static int range(final int hash, final int size)
+    {
+        return (int)(((hash & 0xFFFFFFFFL) * size) >>> 32);
+    }
+}
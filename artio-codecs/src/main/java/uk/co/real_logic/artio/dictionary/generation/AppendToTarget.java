@@ -0,0 +1,194 @@
+/*
+ * Copyright 2015-2024 Real Logic Limited.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.co.real_logic.artio.dictionary.generation;
+
+import uk.co.real_logic.artio.dictionary.ir.Field;
+
+/**
+ * The sink that a generated appendTo method writes its JSON representation into. Both sinks generate the same
+ * representation, so the appendTo generation code is shared and only the statements that write to the sink differ.
+ */
+enum AppendToTarget
+{
+    STRING_BUILDER
+    {
+        String appendToMethods(final String body)
+        {
+            return
+                "    public String toString()\n" +
+                "    {\n" +
+                "        return appendTo(new StringBuilder()).toString();\n" +
+                "    }\n\n" +
+                "    public StringBuilder appendTo(final StringBuilder builder)\n" +
+                "    {\n" +
+                "        return appendTo(builder, 1);\n" +
+                "    }\n\n" +
+                "    public StringBuilder appendTo(final StringBuilder builder, final int level)\n" +
+                "    {\n" +
+                body +
+                "        return builder;\n" +
+                "    }\n\n";
+        }
+
+        String sinkArguments()
+        {
+            return "builder";
+        }
+
+        String statement(final String expression)
+        {
+            return expression + ";\n";
+        }
+
+        String appendString(final String value)
+        {
+            return "builder.append(\"" + value + "\")";
+        }
+
+        String appendChar(final String value)
+        {
+            return "builder.append('" + value + "')";
+        }
+
+        String appendChars(final String value, final String length)
+        {
+            return "builder.append(" + value + ", 0, " + length + ")";
+        }
+
+        String appendFloat(final String value)
+        {
+            return value + ".appendTo(builder)";
+        }
+
+        String appendValue(final Field.Type type, final String value)
+        {
+            return "builder.append(" + value + ")";
+        }
+    },
+
+    MUTABLE_ASCII_BUFFER
+    {
+        String appendToMethods(final String body)
+        {
+            return
+                "    public int appendTo(final MutableAsciiBuffer output, final int offset)\n" +
+                "    {\n" +
+                "        return appendTo(output, offset, 1);\n" +
+                "    }\n\n" +
+                "    public int appendTo(final MutableAsciiBuffer output, final int offset, final int level)\n" +
+                "    {\n" +
+                "        int outputPosition = offset;\n" +
+                body +
+                "        return outputPosition - offset;\n" +
+                "    }\n\n";
+        }
+
+        String sinkArguments()
+        {
+            return "output, outputPosition";
+        }
+
+        // Each write returns the number of bytes that it wrote
+        String statement(final String expression)
+        {
+            return "outputPosition += " + expression + ";\n";
+        }
+
+        String appendString(final String value)
+        {
+            return "output.putStringWithoutLengthAscii(outputPosition, \"" + value + "\")";
+        }
+
+        String appendChar(final String value)
+        {
+            return "output.putCharAscii(outputPosition, '" + value + "')";
+        }
+
+        String appendChars(final String value, final String length)
+        {
+            return call("appendChars", value, length);
+        }
+
+        String appendFloat(final String value)
+        {
+            return call("appendFloat", value);
+        }
+
+        String appendValue(final Field.Type type, final String value)
+        {
+            switch (type)
+            {
+                case LONG:
+                    return "output.putLongAscii(outputPosition, " + value + ")";
+
+                case CHAR:
+                    return "output.putCharAscii(outputPosition, " + value + ")";
+
+                case BOOLEAN:
+                    return call("appendBoolean", value);
+
+                default:
+                    return "output.putIntAscii(outputPosition, " + value + ")";
+            }
+        }
+    };
+
+    /**
+     * Generate the public appendTo methods for this sink.
+     *
+     * @param body the statements that write the representation, each ending in a newline.
+     * @return the source code of the methods.
+     */
+    abstract String appendToMethods(String body);
+
+    abstract String sinkArguments();
+
+    abstract String statement(String expression);
+
+    // value is the escaped content of a Java String literal
+    abstract String appendString(String value);
+
+    // value is the escaped content of a Java char literal
+    abstract String appendChar(String value);
+
+    abstract String appendChars(String value, String length);
+
+    abstract String appendFloat(String value);
+
+    abstract String appendValue(Field.Type type, String value);
+
+    String indent(final String level)
+    {
+        return call("indent", level);
+    }
+
+    String appendTo(final String appender, final String level)
+    {
+        return appender + ".appendTo(" + sinkArguments() + ", " + level + ")";
+    }
+
+    /**
+     * Call a {@link CodecUtil} method that takes the sink as its leading arguments.
+     *
+     * @param method the name of the method.
+     * @param arguments the arguments after the sink.
+     * @return the call expression.
+     */
+    String call(final String method, final String... arguments)
+    {
+        return method + "(" + sinkArguments() + ", " + String.join(", ", arguments) + ")";
+    }
+}
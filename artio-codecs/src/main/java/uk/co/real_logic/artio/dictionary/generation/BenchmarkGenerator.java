@@ -0,0 +1,365 @@
+/*
+ * Copyright 2015-2024 Real Logic Limited.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.co.real_logic.artio.dictionary.generation;
+
+import org.agrona.collections.IntHashSet;
+import org.agrona.generation.OutputManager;
+import uk.co.real_logic.artio.dictionary.Generated;
+import uk.co.real_logic.artio.dictionary.ir.Aggregate;
+import uk.co.real_logic.artio.dictionary.ir.Component;
+import uk.co.real_logic.artio.dictionary.ir.Dictionary;
+import uk.co.real_logic.artio.dictionary.ir.Entry;
+import uk.co.real_logic.artio.dictionary.ir.Field;
+import uk.co.real_logic.artio.dictionary.ir.Group;
+import uk.co.real_logic.artio.dictionary.ir.Message;
+import uk.co.real_logic.artio.util.MutableAsciiBuffer;
+
+import static uk.co.real_logic.artio.dictionary.SessionConstants.BODY_LENGTH;
+import static uk.co.real_logic.artio.dictionary.SessionConstants.CHECKSUM;
+import static uk.co.real_logic.artio.dictionary.SessionConstants.MESSAGE_TYPE;
+import static uk.co.real_logic.artio.dictionary.generation.DecoderGenerator.decoderClassName;
+import static uk.co.real_logic.artio.dictionary.generation.EncoderGenerator.encoderClassName;
+import static uk.co.real_logic.artio.dictionary.generation.GenerationUtil.GENERATED_ANNOTATION;
+import static uk.co.real_logic.artio.dictionary.generation.GenerationUtil.fileHeader;
+import static uk.co.real_logic.artio.dictionary.generation.GenerationUtil.importFor;
+
+/**
+ * Generates a JMH benchmark for every message in a dictionary. Each benchmark decodes a sample message with every
+ * field set and two entries in every repeating group, and measures encoding, decoding with and without validation,
+ * flyweight decoding and <code>appendTo</code>.
+ */
+class BenchmarkGenerator
+{
+    static final String CLASS_SUFFIX = "Benchmark";
+    static final String SAMPLE_MESSAGE = "SAMPLE_MESSAGE";
+
+    static final int GROUP_SIZE = 2;
+    static final String SAMPLE_STRING = "ABC";
+
+    private static final int BEGIN_STRING = 8;
+    private static final char START_OF_HEADER = '\001';
+
+    private final Dictionary dictionary;
+    private final String benchmarkPackage;
+    private final String encoderPackage;
+    private final String decoderPackage;
+    private final String decoderFlyweightPackage;
+    private final OutputManager outputManager;
+    private final IntHashSet dataLengthTags = new IntHashSet();
+
+    BenchmarkGenerator(
+        final Dictionary dictionary,
+        final String benchmarkPackage,
+        final String encoderPackage,
+        final String decoderPackage,
+        final String decoderFlyweightPackage,
+        final OutputManager outputManager)
+    {
+        this.dictionary = dictionary;
+        this.benchmarkPackage = benchmarkPackage;
+        this.encoderPackage = encoderPackage;
+        this.decoderPackage = decoderPackage;
+        this.decoderFlyweightPackage = decoderFlyweightPackage;
+        this.outputManager = outputManager;
+
+        for (final Field field : dictionary.fields().values())
+        {
+            final Field lengthField = field.associatedLengthField();
+            if (lengthField != null)
+            {
+                dataLengthTags.add(lengthField.number());
+            }
+        }
+    }
+
+    public void generate()
+    {
+        for (final Message message : dictionary.messages())
+        {
+            generateBenchmark(message);
+        }
+    }
+
+    private void generateBenchmark(final Message message)
+    {
+        final String name = message.name();
+        final String className = name + CLASS_SUFFIX;
+        final String decoderClassName = decoderClassName(name);
+        final String encoderClassName = encoderClassName(name);
+
+        outputManager.withOutput(className, (out) ->
+        {
+            out.append(fileHeader(benchmarkPackage));
+            out.append("import org.openjdk.jmh.annotations.*;\n");
+            out.append("import org.openjdk.jmh.infra.Blackhole;\n");
+            out.append(importFor(Generated.class));
+            out.append(importFor(MutableAsciiBuffer.class));
+            out.append(importFor(encoderPackage + "." + encoderClassName));
+            out.append(importFor(decoderPackage + "." + decoderClassName));
+            out.append("\nimport java.util.concurrent.TimeUnit;\n\n");
+            out.append("import static java.nio.charset.StandardCharsets.US_ASCII;\n");
+
+            out.append("\n" + GENERATED_ANNOTATION);
+            out.append(
+                "@State(Scope.Benchmark)\n" +
+                "@BenchmarkMode(Mode.AverageTime)\n" +
+                "@OutputTimeUnit(TimeUnit.NANOSECONDS)\n" +
+                "@Warmup(iterations = 5)\n" +
+                "@Measurement(iterations = 10)\n" +
+                "@Fork(1)\n");
+            out.append("public class " + className + "\n{\n");
+            out.append(String.format(
+                "    public static final String %s =\n" +
+                "        \"%s\";\n\n",
+                SAMPLE_MESSAGE,
+                javaString(sampleMessage(message))));
+
+            out.append(String.format(
+                "    private final %1$s decoder = new %1$s();\n" +
+                "%3$s" +
+                "    private final %2$s encoder = new %2$s();\n" +
+                "    private final MutableAsciiBuffer buffer = new MutableAsciiBuffer(%4$s.getBytes(US_ASCII));\n" +
+                "    private final MutableAsciiBuffer encodeBuffer = new MutableAsciiBuffer(new byte[%5$d]);\n" +
+                "    private final StringBuilder builder = new StringBuilder();\n\n",
+                decoderClassName,
+                encoderClassName,
+                decoderFlyweightPackage == null ? "" : String.format(
+                "    private final %1$s.%2$s flyweightDecoder = new %1$s.%2$s();\n",
+                decoderFlyweightPackage,
+                decoderClassName),
+                SAMPLE_MESSAGE,
+                16 * 1024));
+
+            out.append(
+                "    @Setup\n" +
+                "    public void setup()\n" +
+                "    {\n" +
+                "        decoder.decode(buffer, 0, buffer.capacity());\n" +
+                "        decoder.toEncoder(encoder);\n" +
+                "        decoder.header().toEncoder(encoder.header());\n" +
+                "    }\n\n" +
+
+                "    @Benchmark\n" +
+                "    public long encode()\n" +
+                "    {\n" +
+                "        return encoder.encode(encodeBuffer, 0);\n" +
+                "    }\n\n" +
+
+                "    @Benchmark\n" +
+                "    public int decode()\n" +
+                "    {\n" +
+                "        decoder.reset();\n" +
+                "        return decoder.decode(buffer, 0, buffer.capacity());\n" +
+                "    }\n\n" +
+
+                "    /**\n" +
+                "     * Validation only checks the message when the JVM runs with codec validation enabled, so\n" +
+                "     * compare runs with and without <code>-Dfix.codecs.no_validation=true</code>.\n" +
+                "     *\n" +
+                "     * @param bh the black hole consuming the results.\n" +
+                "     */\n" +
+                "    @Benchmark\n" +
+                "    public void decodeAndValidate(final Blackhole bh)\n" +
+                "    {\n" +
+                "        decoder.reset();\n" +
+                "        bh.consume(decoder.decode(buffer, 0, buffer.capacity()));\n" +
+                "        bh.consume(decoder.validate());\n" +
+                "    }\n\n");
+
+            if (decoderFlyweightPackage != null)
+            {
+                out.append(
+                    "    @Benchmark\n" +
+                    "    public int flyweightDecode()\n" +
+                    "    {\n" +
+                    "        flyweightDecoder.reset();\n" +
+                    "        return flyweightDecoder.decode(buffer, 0, buffer.capacity());\n" +
+                    "    }\n\n");
+            }
+
+            out.append(
+                "    @Benchmark\n" +
+                "    public StringBuilder appendTo()\n" +
+                "    {\n" +
+                "        builder.setLength(0);\n" +
+                "        return decoder.appendTo(builder);\n" +
+                "    }\n" +
+                "}\n");
+        });
+    }
+
+    /**
+     * Build a valid sample message with every field of the message, its header, its trailer and its components set.
+     * Repeating groups have {@link #GROUP_SIZE} entries.
+     *
+     * @param message the message to build a sample of.
+     * @return the sample message with start of header separators.
+     */
+    String sampleMessage(final Message message)
+    {
+        final StringBuilder body = new StringBuilder();
+        appendField(body, MESSAGE_TYPE, message.fullType());
+        appendAggregate(body, dictionary.header());
+        appendAggregate(body, message);
+        appendAggregate(body, dictionary.trailer());
+
+        final StringBuilder sample = new StringBuilder();
+        appendField(sample, BEGIN_STRING, dictionary.beginString());
+        appendField(sample, BODY_LENGTH, String.valueOf(body.length()));
+        sample.append(body);
+
+        int checksum = 0;
+        for (int i = 0; i < sample.length(); i++)
+        {
+            checksum += sample.charAt(i);
+        }
+        appendField(sample, CHECKSUM, String.format("%03d", checksum & 0xFF));
+
+        return sample.toString();
+    }
+
+    private void appendAggregate(final StringBuilder out, final Aggregate aggregate)
+    {
+        if (aggregate == null)
+        {
+            return;
+        }
+
+        for (final Entry entry : aggregate.entries())
+        {
+            final Entry.Element element = entry.element();
+            if (element instanceof Field)
+            {
+                appendField(out, (Field)element);
+            }
+            else if (element instanceof Group)
+            {
+                final Group group = (Group)element;
+                appendField(out, group.numberField().number(), String.valueOf(GROUP_SIZE));
+                for (int i = 0; i < GROUP_SIZE; i++)
+                {
+                    appendAggregate(out, group);
+                }
+            }
+            else if (element instanceof Component)
+            {
+                appendAggregate(out, (Component)element);
+            }
+        }
+    }
+
+    private void appendField(final StringBuilder out, final Field field)
+    {
+        final int tag = field.number();
+        if (tag == BEGIN_STRING || tag == BODY_LENGTH || tag == MESSAGE_TYPE || tag == CHECKSUM ||
+            dataLengthTags.contains(tag))
+        {
+            return;
+        }
+
+        final Field lengthField = field.associatedLengthField();
+        if (lengthField != null)
+        {
+            appendField(out, lengthField.number(), String.valueOf(SAMPLE_STRING.length()));
+        }
+
+        appendField(out, tag, sampleValue(field));
+    }
+
+    private static void appendField(final StringBuilder out, final int tag, final String value)
+    {
+        out.append(tag).append('=').append(value).append(START_OF_HEADER);
+    }
+
+    private static String sampleValue(final Field field)
+    {
+        if (field.isEnum())
+        {
+            return field.values().get(0).representation();
+        }
+
+        switch (field.type())
+        {
+            case INT:
+            case LENGTH:
+            case SEQNUM:
+            case NUMINGROUP:
+            case DAYOFMONTH:
+            case LONG:
+                return "1";
+
+            case FLOAT:
+            case PRICE:
+            case PRICEOFFSET:
+            case QTY:
+            case QUANTITY:
+            case PERCENTAGE:
+            case AMT:
+                return "100.25";
+
+            case CHAR:
+                return "A";
+
+            case BOOLEAN:
+                return "Y";
+
+            case UTCTIMESTAMP:
+                return "20240102-09:30:00.123";
+
+            case UTCTIMEONLY:
+                return "09:30:00.123";
+
+            case UTCDATEONLY:
+            case LOCALMKTDATE:
+                return "20240102";
+
+            case MONTHYEAR:
+                return "202401";
+
+            case TZTIMEONLY:
+                return "09:30:00Z";
+
+            case TZTIMESTAMP:
+                return "20240102-09:30:00Z";
+
+            case CURRENCY:
+                return "USD";
+
+            case COUNTRY:
+                return "GB";
+
+            case LANGUAGE:
+                return "en";
+
+            case EXCHANGE:
+                return "XLON";
+
+            case TENOR:
+                return "M1";
+
+            default:
+                return SAMPLE_STRING;
+        }
+    }
+
+    private static String javaString(final String value)
+    {
+        return value
+            .replace("\\", "\\\\")
+            .replace("\"", "\\\"")
+            .replace(String.valueOf(START_OF_HEADER), "\\001");
+    }
+}
@@ -54,14 +54,39 @@ public final class CodecConfiguration
     public static final String WRAP_EMPTY_BUFFER = "fix.codecs.wrap_empty_buffer";
     public static final String PARENT_PACKAGE_PROPERTY = "fix.codecs.parent_package";
     public static final String FLYWEIGHTS_ENABLED_PROPERTY = "fix.codecs.flyweight";
+
+    /**
+     * Boolean system property to generate the main codecs: enums, constants, encoders, decoders and, when enabled,
+     * flyweight decoders. Defaults to true, set it to false to only generate the lazy decoders or benchmarks for
+     * codecs that have already been generated.
+     */
+    public static final String MAIN_CODECS_ENABLED_PROPERTY = "fix.codecs.main_codecs";
+
+    /**
+     * Boolean system property to generate lazy decoders into a <code>decoder_lazy</code> package. These only record
+     * the offset and length of each field when decoding and parse a field's value on first access, caching it
+     * until the next decode.
+     */
+    public static final String LAZY_DECODERS_ENABLED_PROPERTY = "fix.codecs.lazy";
+
+    /**
+     * String system property for the path where JMH benchmarks for every message in the dictionary are generated,
+     * into a <code>benchmark</code> package. Benchmarks aren't generated when it's unset.
+     */
+    public static final String BENCHMARKS_OUTPUT_PATH_PROPERTY = "fix.codecs.benchmarks_output_path";
     public static final String REJECT_UNKNOWN_ENUM_VALUE_PROPERTY = "reject.unknown.enum.value";
     public static final String FIX_TAGS_IN_JAVADOC = "fix.codecs.tags_in_javadoc";
 
     public static final String DEFAULT_PARENT_PACKAGE = "uk.co.real_logic.artio";
     public static final String DEFAULT_FIX_TAGS_IN_JAVADOC = "true";
+    public static final String DEFAULT_MAIN_CODECS_ENABLED = "true";
 
     private String parentPackage = System.getProperty(PARENT_PACKAGE_PROPERTY, DEFAULT_PARENT_PACKAGE);
+    private boolean mainCodecsEnabled = Boolean.parseBoolean(System.getProperty(
+        MAIN_CODECS_ENABLED_PROPERTY, DEFAULT_MAIN_CODECS_ENABLED));
     private boolean flyweightsEnabled = Boolean.getBoolean(FLYWEIGHTS_ENABLED_PROPERTY);
+    private boolean lazyDecodersEnabled = Boolean.getBoolean(LAZY_DECODERS_ENABLED_PROPERTY);
+    private String benchmarksOutputPath = System.getProperty(BENCHMARKS_OUTPUT_PATH_PROPERTY);
     private boolean wrapEmptyBuffer = Boolean.getBoolean(WRAP_EMPTY_BUFFER);
     private boolean fixTagsInJavadoc = Boolean.parseBoolean(System.getProperty(
         FIX_TAGS_IN_JAVADOC, DEFAULT_FIX_TAGS_IN_JAVADOC));
@@ -108,12 +133,62 @@ public final class CodecConfiguration
         return this;
     }
 
+    /**
+     * Generate the main codecs: enums, constants, encoders, decoders and, when enabled, flyweight decoders. Disabling
+     * them means that only the lazy decoders or benchmarks are generated, which reference codecs that have already
+     * been generated into the same parent package.
+     *
+     * Defaults to the value of {@link #MAIN_CODECS_ENABLED_PROPERTY} system property.
+     *
+     * @param mainCodecsEnabled true to generate the main codecs (default), false otherwise.
+     * @return this
+     */
+    public CodecConfiguration mainCodecsEnabled(final boolean mainCodecsEnabled)
+    {
+        this.mainCodecsEnabled = mainCodecsEnabled;
+        return this;
+    }
+
     public CodecConfiguration flyweightsEnabled(final boolean flyweightsEnabled)
     {
         this.flyweightsEnabled = flyweightsEnabled;
         return this;
     }
 
+    /**
+     * Generate lazy decoders in addition to the normal decoders. Lazy decoders only index the offset and length of
+     * each field when a message is decoded, a getter parses its field on first access and returns the cached value
+     * until the decoder is next decoded or reset. This suits messages where only a few fields are read.
+     *
+     * Defaults to the value of {@link #LAZY_DECODERS_ENABLED_PROPERTY} system property.
+     *
+     * @param lazyDecodersEnabled true to generate lazy decoders, false otherwise (default).
+     * @return this
+     */
+    public CodecConfiguration lazyDecodersEnabled(final boolean lazyDecodersEnabled)
+    {
+        this.lazyDecodersEnabled = lazyDecodersEnabled;
+        return this;
+    }
+
+    /**
+     * Sets the path where a JMH benchmark is generated for every message in the dictionary. Benchmarks go into a
+     * separate path from the codecs because they depend upon JMH. Each benchmark uses a sample message with every
+     * field set and measures encoding, decoding with and without validation, flyweight decoding when flyweights are
+     * enabled and <code>appendTo</code>.
+     *
+     * Defaults to the value of {@link #BENCHMARKS_OUTPUT_PATH_PROPERTY} system property, benchmarks aren't
+     * generated when it's null.
+     *
+     * @param benchmarksOutputPath the output path where benchmarks are generated.
+     * @return this
+     */
+    public CodecConfiguration benchmarksOutputPath(final String benchmarksOutputPath)
+    {
+        this.benchmarksOutputPath = benchmarksOutputPath;
+        return this;
+    }
+
     /**
      * Suppresses checks for the presence of optional string fields (i.e. no exception is
      * thrown when unset, instead the AsciiSequenceView wraps an empty buffer).
@@ -238,11 +313,26 @@ public final class CodecConfiguration
         return parentPackage;
     }
 
+    boolean mainCodecsEnabled()
+    {
+        return mainCodecsEnabled;
+    }
+
     boolean flyweightsEnabled()
     {
         return flyweightsEnabled;
     }
 
+    boolean lazyDecodersEnabled()
+    {
+        return lazyDecodersEnabled;
+    }
+
+    String benchmarksOutputPath()
+    {
+        return benchmarksOutputPath;
+    }
+
     boolean wrapEmptyBuffer()
     {
         return wrapEmptyBuffer;
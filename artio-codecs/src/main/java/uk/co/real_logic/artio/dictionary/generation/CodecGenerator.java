@@ -140,7 +140,70 @@ public final class CodecGenerator
         final String encoderPackage = parentPackage + ".builder";
         final String decoderPackage = parentPackage + ".decoder";
         final String decoderFlyweightPackage = parentPackage + ".decoder_flyweight";
+        final String decoderLazyPackage = parentPackage + ".decoder_lazy";
 
+        final BiFunction<String, String, OutputManager> outputManagerFactory =
+            configuration.outputManagerFactory();
+
+        if (configuration.mainCodecsEnabled())
+        {
+            generateMainCodecs(
+                configuration,
+                outputPath,
+                codecRejectUnknownEnumValueEnabled,
+                dictionary,
+                parentPackage,
+                encoderPackage,
+                decoderPackage,
+                decoderFlyweightPackage);
+        }
+
+        if (configuration.lazyDecodersEnabled())
+        {
+            final PackageOutputManager lazyDecoderOutput =
+                new PackageOutputManager(outputPath, decoderLazyPackage);
+
+            new DecoderGenerator(
+                dictionary,
+                1,
+                decoderLazyPackage,
+                parentPackage,
+                encoderPackage,
+                lazyDecoderOutput,
+                Validation.class,
+                RejectUnknownField.class,
+                RejectUnknownEnumValue.class,
+                true,
+                configuration.wrapEmptyBuffer(),
+                codecRejectUnknownEnumValueEnabled,
+                configuration.fixTagsInJavadoc(),
+                true).generate();
+        }
+
+        final String benchmarksOutputPath = configuration.benchmarksOutputPath();
+        if (benchmarksOutputPath != null && !dictionary.shared())
+        {
+            final String benchmarkPackage = parentPackage + ".benchmark";
+            new BenchmarkGenerator(
+                dictionary,
+                benchmarkPackage,
+                encoderPackage,
+                decoderPackage,
+                configuration.flyweightsEnabled() ? decoderFlyweightPackage : null,
+                outputManagerFactory.apply(benchmarksOutputPath, benchmarkPackage)).generate();
+        }
+    }
+
+    private static void generateMainCodecs(
+        final CodecConfiguration configuration,
+        final String outputPath,
+        final String codecRejectUnknownEnumValueEnabled,
+        final Dictionary dictionary,
+        final String parentPackage,
+        final String encoderPackage,
+        final String decoderPackage,
+        final String decoderFlyweightPackage)
+    {
         final BiFunction<String, String, OutputManager> outputManagerFactory =
             configuration.outputManagerFactory();
         final OutputManager parentOutput = outputManagerFactory.apply(outputPath, parentPackage);
@@ -21,6 +21,7 @@ import org.agrona.MutableDirectBuffer;
 
 
 import uk.co.real_logic.artio.fields.ReadOnlyDecimalFloat;
+import uk.co.real_logic.artio.util.MutableAsciiBuffer;
 
 import static java.nio.charset.StandardCharsets.US_ASCII;
 
@@ -247,6 +248,51 @@ public final class CodecUtil
         }
     }
 
+    // The following methods write the same representation as their StringBuilder equivalents into a buffer, each
+    // returns the number of bytes written.
+
+    public static int indent(final MutableAsciiBuffer buffer, final int offset, final int level)
+    {
+        final int numberOfSpaces = 2 * level;
+        buffer.setMemory(offset, numberOfSpaces, (byte)' ');
+        return numberOfSpaces;
+    }
+
+    public static int appendData(
+        final MutableAsciiBuffer buffer, final int offset, final byte[] dataField, final int length)
+    {
+        if (length > 0)
+        {
+            buffer.putBytes(offset, dataField, 0, length);
+        }
+        return length;
+    }
+
+    public static int appendChars(
+        final MutableAsciiBuffer buffer, final int offset, final char[] value, final int length)
+    {
+        for (int i = 0; i < length; i++)
+        {
+            buffer.putByte(offset + i, (byte)value[i]);
+        }
+        return length;
+    }
+
+    public static int appendBoolean(final MutableAsciiBuffer buffer, final int offset, final boolean value)
+    {
+        return buffer.putStringWithoutLengthAscii(offset, value ? "true" : "false");
+    }
+
+    public static int appendFloat(final MutableAsciiBuffer buffer, final int offset, final ReadOnlyDecimalFloat value)
+    {
+        if (value.isNaNValue())
+        {
+            return buffer.putStringWithoutLengthAscii(offset, "NaN");
+        }
+
+        return buffer.putFloatAscii(offset, value);
+    }
+
     public static boolean copyInto(
         final MutableDirectBuffer buffer, final byte[] data, final int offset, final int length)
     {
@@ -39,6 +39,8 @@ import static java.util.Collections.emptySet;
 import static java.util.stream.Collectors.joining;
 import static java.util.stream.Collectors.toList;
 import static uk.co.real_logic.artio.dictionary.generation.AggregateType.*;
+import static uk.co.real_logic.artio.dictionary.generation.AppendToTarget.MUTABLE_ASCII_BUFFER;
+import static uk.co.real_logic.artio.dictionary.generation.AppendToTarget.STRING_BUILDER;
 import static uk.co.real_logic.artio.dictionary.generation.ConstantGenerator.sizeHashSet;
 import static uk.co.real_logic.artio.dictionary.generation.EncoderGenerator.encoderClassName;
 import static uk.co.real_logic.artio.dictionary.generation.EnumGenerator.NULL_VAL_NAME;
@@ -119,6 +121,11 @@ class DecoderGenerator extends Generator
      * Wrap empty buffer instead of throwing an exception if an optional string is unset.
      */
     private final boolean wrapEmptyBuffer;
+    /**
+     * Cache values parsed by flyweight getters until the next decode or reset, rather than re-parsing them on
+     * every access.
+     */
+    private final boolean lazyDecodingEnabled;
 
     DecoderGenerator(
         final Dictionary dictionary,
@@ -134,12 +141,34 @@ class DecoderGenerator extends Generator
         final boolean wrapEmptyBuffer,
         final String codecRejectUnknownEnumValueEnabled,
         final boolean fixTagsInJavadoc)
+    {
+        this(dictionary, initialBufferSize, thisPackage, commonPackage, encoderPackage, outputManager,
+            validationClass, rejectUnknownFieldClass, rejectUnknownEnumValueClass, flyweightsEnabled,
+            wrapEmptyBuffer, codecRejectUnknownEnumValueEnabled, fixTagsInJavadoc, false);
+    }
+
+    DecoderGenerator(
+        final Dictionary dictionary,
+        final int initialBufferSize,
+        final String thisPackage,
+        final String commonPackage,
+        final String encoderPackage,
+        final OutputManager outputManager,
+        final Class<?> validationClass,
+        final Class<?> rejectUnknownFieldClass,
+        final Class<?> rejectUnknownEnumValueClass,
+        final boolean flyweightsEnabled,
+        final boolean wrapEmptyBuffer,
+        final String codecRejectUnknownEnumValueEnabled,
+        final boolean fixTagsInJavadoc,
+        final boolean lazyDecodingEnabled)
     {
         super(dictionary, thisPackage, commonPackage, outputManager, validationClass, rejectUnknownFieldClass,
             rejectUnknownEnumValueClass, flyweightsEnabled, codecRejectUnknownEnumValueEnabled, fixTagsInJavadoc);
         this.initialBufferSize = initialBufferSize;
         this.encoderPackage = encoderPackage;
         this.wrapEmptyBuffer = wrapEmptyBuffer;
+        this.lazyDecodingEnabled = flyweightsEnabled && lazyDecodingEnabled;
     }
 
     public void generate()
@@ -277,8 +306,9 @@ class DecoderGenerator extends Generator
         generateGetters(out, className, aggregate.entries(), aggregate.isInParent());
         out.append(decodeMethod(aggregate.entries(), aggregate, type));
         out.append(completeResetMethod(
-            isMessage, aggregate.entries(), additionalReset(isGroup), aggregate.isInParent()));
-        out.append(generateAppendTo(aggregate, isMessage));
+            isMessage, aggregate.entries(), additionalReset(aggregate, isGroup), aggregate.isInParent()));
+        out.append(generateAppendTo(aggregate, isMessage, STRING_BUILDER));
+        out.append(generateAppendTo(aggregate, isMessage, MUTABLE_ASCII_BUFFER));
         out.append(generateToEncoder(aggregate));
         out.append("}\n");
         pop();
@@ -480,21 +510,123 @@ class DecoderGenerator extends Generator
         return resetFieldValue(field, "MISSING_LONG");
     }
 
-    private String additionalReset(final boolean isGroup)
+    private String additionalReset(final Aggregate aggregate, final boolean isGroup)
     {
+        final int fieldWords = fieldWords(aggregate);
         return
             "        buffer = null;\n" +
+            (lazyDecodingEnabled ? "        decodeGeneration++;\n" : "") +
             "        if (" + CODEC_VALIDATION_ENABLED + ")\n" +
             "        {\n" +
             "            invalidTagId = Decoder.NO_ERROR;\n" +
             "            rejectReason = Decoder.NO_ERROR;\n" +
-            "            missingRequiredFields.clear();\n" +
+            clearFieldBits("missingRequiredFields", fieldWords, "            ") +
             (isGroup ? "" :
                 "            unknownFields.clear();\n" +
-                "            alreadyVisitedFields.clear();\n") +
+                clearFieldBits("alreadyVisitedFields", fieldWords, "            ")) +
             "        }\n";
     }
 
+    // Fields that have a case in the decode method's switch, their index is the field's ordinal within the aggregate
+    private List<Field> decodedFields(final Aggregate aggregate)
+    {
+        return decodedFields(aggregate.entries()).collect(toList());
+    }
+
+    private Stream<Field> decodedFields(final List<Entry> entries)
+    {
+        return entries
+            .stream()
+            .flatMap(this::extractDecodedFields);
+    }
+
+    private Stream<Field> extractDecodedFields(final Entry entry)
+    {
+        return entry.match(
+            (e, field) -> Stream.of(field),
+            (e, group) -> Stream.of((Field)group.numberField().element()),
+            (e, component) -> decodedFields(component.entries()),
+            (e, anyFields) -> Stream.empty());
+    }
+
+    private int fieldWords(final Aggregate aggregate)
+    {
+        return Math.max(1, (decodedFields(aggregate).size() + Long.SIZE - 1) / Long.SIZE);
+    }
+
+    private static String clearFieldBits(final String name, final int fieldWords, final String prefix)
+    {
+        final StringBuilder code = new StringBuilder();
+        for (int word = 0; word < fieldWords; word++)
+        {
+            code.append(String.format("%1$s%2$s[%3$d] = 0L;\n", prefix, name, word));
+        }
+        return code.toString();
+    }
+
+    private String resetMissingRequiredFields(final Aggregate aggregate)
+    {
+        final List<Field> decodedFields = decodedFields(aggregate);
+        final long[] requiredFieldBits = new long[fieldWords(aggregate)];
+        requiredFields(aggregate.entries()).forEach((field) ->
+        {
+            final int ordinal = decodedFields.indexOf(field);
+            requiredFieldBits[ordinal / Long.SIZE] |= 1L << ordinal;
+        });
+
+        final StringBuilder code = new StringBuilder();
+        for (int word = 0; word < requiredFieldBits.length; word++)
+        {
+            code.append(String.format(
+                "            missingRequiredFields[%1$d] = 0x%2$XL;\n", word, requiredFieldBits[word]));
+        }
+        return code.toString();
+    }
+
+    private String fieldOrdinalMethods(final Aggregate aggregate)
+    {
+        final List<Field> decodedFields = decodedFields(aggregate);
+        final StringBuilder ordinalCases = new StringBuilder();
+        for (int ordinal = 0; ordinal < decodedFields.size(); ordinal++)
+        {
+            ordinalCases.append(String.format(
+                "            case Constants.%1$s:\n" +
+                "                return %2$d;\n",
+                constantName(decodedFields.get(ordinal).name()),
+                ordinal));
+        }
+
+        final String tagCases = requiredFields(aggregate.entries())
+            .map((field) -> String.format(
+                "            case %1$d:\n" +
+                "                return Constants.%2$s;\n",
+                decodedFields.indexOf(field),
+                constantName(field.name())))
+            .collect(joining());
+
+        return String.format(
+            "    private int fieldOrdinal(final int tag)\n" +
+            "    {\n" +
+            "        switch (tag)\n" +
+            "        {\n" +
+            "%1$s" +
+            "            default:\n" +
+            "                return NO_FIELD_ORDINAL;\n" +
+            "        }\n" +
+            "    }\n\n" +
+            "    private int requiredFieldTag(final int fieldOrdinal)\n" +
+            "    {\n" +
+            "        switch (fieldOrdinal)\n" +
+            "        {\n" +
+            "%2$s" +
+            "            default:\n" +
+            "                return NO_FIELD_ORDINAL;\n" +
+            "        }\n" +
+            "    }\n\n",
+            ordinalCases,
+            tagCases);
+    }
+
     private void generateValidation(final Writer out, final Aggregate aggregate, final AggregateType type)
         throws IOException
     {
@@ -556,9 +688,9 @@ class DecoderGenerator extends Generator
 
         out.append(String.format(
             (isGroup ? generateAllGroupFields(aggregate) :
-            "    private final IntHashSet alreadyVisitedFields = new IntHashSet(%5$d);\n\n" +
+            "    private final long[] alreadyVisitedFields = new long[%1$d];\n\n" +
             "    private final IntHashSet unknownFields = new IntHashSet(10);\n\n") +
-            "    private final IntHashSet missingRequiredFields = new IntHashSet(%1$d);\n\n" +
+            "    private final long[] missingRequiredFields = new long[%1$d];\n\n" +
             "    public boolean validate()\n" +
             "    {\n" +
             // validation for some tags performed in the decode method
@@ -566,24 +698,25 @@ class DecoderGenerator extends Generator
             "        {\n" +
             "            return false;\n" +
             "        }\n" +
-            "        final IntIterator missingFieldsIterator = missingRequiredFields.iterator();\n" +
             (isMessage ? "        final IntIterator unknownFieldsIterator = unknownFields.iterator();\n" : "") +
             "%2$s" +
-            "        if (missingFieldsIterator.hasNext())\n" +
+            "        final int missingFieldOrdinal = firstFieldOrdinal(missingRequiredFields);\n" +
+            "        if (missingFieldOrdinal != NO_FIELD_ORDINAL)\n" +
             "        {\n" +
-            "            invalidTagId = missingFieldsIterator.nextValue();\n" +
+            "            invalidTagId = requiredFieldTag(missingFieldOrdinal);\n" +
             "            rejectReason = " + REQUIRED_TAG_MISSING + ";\n" +
             "            return false;\n" +
             "        }\n" +
             "%3$s" +
             "%4$s" +
             "        return true;\n" +
-            "    }\n\n",
-            sizeHashSet(requiredFields),
+            "    }\n\n" +
+            "%5$s",
+            fieldWords(aggregate),
             messageValidation,
             enumValidation,
             groupValidation,
-            2 * aggregate.allFieldsIncludingComponents().count()));
+            fieldOrdinalMethods(aggregate)));
     }
 
     private String generateAllGroupFields(final Aggregate groupAggregate)
@@ -652,17 +785,13 @@ class DecoderGenerator extends Generator
 
         final boolean isPrimitive = type.isIntBased() || type == Type.CHAR;
 
-        final String enumValidation = String.format(
-            "        if (" + codecRejectUnknownEnumValueEnabled + " && !%1$s.isValid(%2$s%4$s))\n" +
+        final String enumValidationFormat =
+            "        if (" + codecRejectUnknownEnumValueEnabled + " && !%1$s.isValid(%2$s))\n" +
             "        {\n" +
             "            invalidTagId = %3$s;\n" +
             "            rejectReason = " + VALUE_IS_INCORRECT + ";\n" +
             "            return false;\n" +
-            "        }\n",
-            enumName(name),
-            propertyName,
-            tagNumber,
-            isPrimitive ? "()" : "Wrapper");
+            "        }\n";
 
         final String enumValidationMethod;
         if (type.isMultiValue())
@@ -674,26 +803,23 @@ class DecoderGenerator extends Generator
                     "          {\n" +
                     "              if (this.%1$s()[i] == ' ')\n" +
                     "              {\n" +
-                    "                  %1$sWrapper.wrap(this.%1$s(), %1$sOffset, i - %1$sOffset);\n" +
                     "%2$s" +
                     "                  %1$sOffset = i + 1;\n" +
                     "              }\n" +
                     "          }\n" +
-                    "          %1$sWrapper.wrap(this.%1$s(), %1$sOffset, %1$sLength - %1$sOffset);\n" +
-                    "%2$s",
+                    "%3$s",
                     propertyName,
-                    enumValidation
+                    String.format(enumValidationFormat, enumName(name),
+                        String.format("this.%1$s(), %1$sOffset, i - %1$sOffset", propertyName), tagNumber),
+                    String.format(enumValidationFormat, enumName(name),
+                        String.format("this.%1$s(), %1$sOffset, %1$sLength - %1$sOffset", propertyName), tagNumber)
                 );
         }
         else
         {
-            enumValidationMethod =
-                String.format(
-                    (isPrimitive ? "" : "        %1$sWrapper.wrap(this.%1$s(), %1$sLength);\n") +
-                    "%2$s",
-                    propertyName,
-                    enumValidation
-                );
+            enumValidationMethod = String.format(enumValidationFormat, enumName(name),
+                isPrimitive ? propertyName + "()" : String.format("this.%1$s(), 0, %1$sLength", propertyName),
+                tagNumber);
         }
 
         return
@@ -964,9 +1090,9 @@ class DecoderGenerator extends Generator
                 "    {\n" +
                 "        return next;\n" +
                 "    }\n\n" +
-                "    private IntHashSet seenFields = new IntHashSet(%2$d);\n\n",
+                "    private final long[] seenFields = new long[%2$d];\n\n",
                 groupClassName(group),
-                sizeHashSet(group.entries())));
+                fieldWords(group)));
         }
     }
 
@@ -1347,31 +1473,29 @@ class DecoderGenerator extends Generator
 
         final String enumValueDecoder = String.format(
             type.isStringBased() ?
-            "%1$s.decode(%2$sWrapper)" :
+            "%1$s.decode(this.%2$s(), 0, %2$sLength)" :
             // Need to ensure that decode the field
             (flyweightsEnabled && (type.isIntBased() || type.isFloatBased())) ?
             "%1$s.decode(this.%2$s())" :
             "%1$s.decode(%2$s)",
             enumName(name),
             fieldName);
-        final String enumStringBasedWrapperField =
-            String.format("    %2$s final CharArrayWrapper %1$sWrapper = new CharArrayWrapper();\n", fieldName, scope);
         final String enumDecoder = shouldGenerateClassEnumMethods(field) ?
             String.format(
-            "%4$s" +
-            "    %7$spublic %6$s %2$sAsEnum()\n" +
+            "    %6$spublic %5$s %2$sAsEnum()\n" +
             "    {\n" +
-            (!entry.required() ? "        if (!has%1$s)\n return %6$s.%5$s;\n" : "") +
-            (type.isStringBased() ? "        %2$sWrapper.wrap(this.%2$s(), %2$sLength);\n" : "") +
+            (!entry.required() ? "        if (!has%1$s)\n return %5$s.%4$s;\n" : "") +
             "        return %3$s;\n" +
             "    }\n\n",
-            name, fieldName, enumValueDecoder, enumStringBasedWrapperField, NULL_VAL_NAME, enumName(name),
-            javadoc) : (field.type().isMultiValue() || field.type() == Type.STRING) ? enumStringBasedWrapperField : "";
+            name, fieldName, enumValueDecoder, NULL_VAL_NAME, enumName(name), javadoc) : "";
 
         final String lazyInitialisation = fieldLazyInstantialisation(field, fieldName);
+        final boolean cacheDecodedValue = lazyDecodingEnabled && type != Type.NUMINGROUP &&
+            !lazyInitialisation.isEmpty();
 
         return String.format(
             "    %10$s %1$s %2$s%3$s;\n\n" +
+            "%12$s" +
             "%4$s" +
             "    %11$spublic %1$s %2$s()\n" +
             "    {\n" +
@@ -1390,9 +1514,28 @@ class DecoderGenerator extends Generator
             optionalGetter(entry),
             offsetField,
             enumDecoder,
-            flyweightsEnabled ? lazyInitialisation : "",
+            flyweightsEnabled ? cachedLazyInitialisation(fieldName, lazyInitialisation, cacheDecodedValue) : "",
             scope,
-            javadoc);
+            javadoc,
+            cacheDecodedValue ? String.format("    %1$s long %2$sDecodedAt = -1;\n\n", scope, fieldName) : "");
+    }
+
+    private static String cachedLazyInitialisation(
+        final String fieldName, final String lazyInitialisation, final boolean cacheDecodedValue)
+    {
+        if (!cacheDecodedValue)
+        {
+            return lazyInitialisation;
+        }
+
+        return String.format(
+            "        if (%1$sDecodedAt != decodeGeneration)\n" +
+            "        {\n" +
+            "    %2$s" +
+            "            %1$sDecodedAt = decodeGeneration;\n" +
+            "        }\n",
+            fieldName,
+            lazyInitialisation.replace("\n        ", "\n            "));
     }
 
     private String wrapEmptyBuffer(final Entry entry)
@@ -1681,14 +1824,8 @@ class DecoderGenerator extends Generator
 
         final String suffix =
             "            default:\n" +
-            "                if (!" + CODEC_REJECT_UNKNOWN_FIELD_ENABLED + ")\n" +
-            "                {\n" +
-            (isGroup ?
-            "                    seenFields.remove(tag);\n" :
-            "                    alreadyVisitedFields.remove(tag);\n") +
-            "                }\n" +
             (isGroup ? "" :
-            "                else\n" +
+            "                if (" + CODEC_REJECT_UNKNOWN_FIELD_ENABLED + ")\n" +
             "                {\n" +
             "                    if (!" + unknownFieldPredicate(type) + ")\n" +
             "                    {\n" +
@@ -1727,23 +1864,25 @@ class DecoderGenerator extends Generator
             "        int seenFieldCount = 0;\n" +
             "        if (" + CODEC_VALIDATION_ENABLED + ")\n" +
             "        {\n" +
-            "            missingRequiredFields.copy(" + REQUIRED_FIELDS + ");\n" +
-            (isGroup ? "" : "            alreadyVisitedFields.clear();\n") +
+            resetMissingRequiredFields(aggregate) +
+            (isGroup ? "" : clearFieldBits("alreadyVisitedFields", fieldWords(aggregate), "            ")) +
             "        }\n" +
             "        this.buffer = buffer;\n" +
+            (lazyDecodingEnabled ? "        decodeGeneration++;\n" : "") +
             "        final int end = offset + length;\n" +
             "        int position = offset;\n" +
             (hasCommonCompounds ? "        position += header.decode(buffer, position, length);\n" : "") +
-            (isGroup ? "        seenFields.clear();\n" : "") +
+            (isGroup ? clearFieldBits("seenFields", fieldWords(aggregate), "        ") : "") +
             "        int tag;\n\n" +
             "        while (position < end)\n" +
             "        {\n" +
-            "            final int equalsPosition = buffer.scan(position, end, '=');\n" +
+            "            final long tagAndEqualsPosition = buffer.scanTag(position, end);\n" +
+            "            final int equalsPosition = AsciiBuffer.scannedEqualsIndex(tagAndEqualsPosition);\n" +
             "            if (equalsPosition == AsciiBuffer.UNKNOWN_INDEX)\n" +
             "            {\n" +
             "               return position;\n" +
             "            }\n" +
-            "            tag = buffer.getInt(position, equalsPosition);\n" +
+            "            tag = AsciiBuffer.scannedTag(tagAndEqualsPosition);\n" +
             endGroupCheck +
             "            final int valueOffset = equalsPosition + 1;\n" +
             "            int endOfField = buffer.scan(valueOffset, end, START_OF_HEADER);\n" +
@@ -1767,12 +1906,21 @@ class DecoderGenerator extends Generator
             "                }\n" +
             headerValidation(isHeader) +
             (isGroup ? "" :
-            "                if (!alreadyVisitedFields.add(tag))\n" +
+            // Unknown tags are skipped or end the decode, so can't repeat within it
+            "                final int fieldOrdinal = fieldOrdinal(tag);\n") +
+            "                if (fieldOrdinal != NO_FIELD_ORDINAL)\n" +
             "                {\n" +
-            "                    invalidTagId = tag;\n" +
-            "                    rejectReason = " + TAG_APPEARS_MORE_THAN_ONCE + ";\n" +
-            "                }\n") +
-            "                missingRequiredFields.remove(tag);\n" +
+            "                    final int fieldWord = fieldOrdinal >>> 6;\n" +
+            "                    final long fieldBit = 1L << fieldOrdinal;\n" +
+            (isGroup ? "" :
+            "                    if ((alreadyVisitedFields[fieldWord] & fieldBit) != 0)\n" +
+            "                    {\n" +
+            "                        invalidTagId = tag;\n" +
+            "                        rejectReason = " + TAG_APPEARS_MORE_THAN_ONCE + ";\n" +
+            "                    }\n" +
+            "                    alreadyVisitedFields[fieldWord] |= fieldBit;\n") +
+            "                    missingRequiredFields[fieldWord] &= ~fieldBit;\n" +
+            "                }\n" +
             "                seenFieldCount++;\n" +
             "            }\n\n" +
             "            switch (tag)\n" +
@@ -1808,14 +1956,22 @@ class DecoderGenerator extends Generator
         final String endGroupCheck;
         if (isGroup)
         {
+            // Unknown tags are skipped or end the group, so never start the next entry in the group
             endGroupCheck = String.format(
-                "            if (!seenFields.add(tag))\n" +
+                "            final int fieldOrdinal = fieldOrdinal(tag);\n" +
+                "            if (fieldOrdinal != NO_FIELD_ORDINAL)\n" +
                 "            {\n" +
-                "                if (next == null)\n" +
+                "                final int fieldWord = fieldOrdinal >>> 6;\n" +
+                "                final long fieldBit = 1L << fieldOrdinal;\n" +
+                "                if ((seenFields[fieldWord] & fieldBit) != 0)\n" +
                 "                {\n" +
-                "                    next = new %1$s(trailer, %2$s);\n" +
+                "                    if (next == null)\n" +
+                "                    {\n" +
+                "                        next = new %1$s(trailer, %2$s);\n" +
+                "                    }\n" +
+                "                    return position - offset;\n" +
                 "                }\n" +
-                "                return position - offset;\n" +
+                "                seenFields[fieldWord] |= fieldBit;\n" +
                 "            }\n",
                 decoderClassName(aggregate),
                 MESSAGE_FIELDS);
@@ -1868,12 +2024,12 @@ class DecoderGenerator extends Generator
             .collect(joining("\n", "", "\n"));
     }
 
-    protected String componentAppendTo(final Component component)
+    protected String componentAppendTo(final Component component, final AppendToTarget target)
     {
         return component
             .entries()
             .stream()
-            .map(this::generateEntryAppendTo)
+            .map(entry -> generateEntryAppendTo(entry, target))
             .collect(joining("\n"));
     }
 
@@ -1917,10 +2073,11 @@ class DecoderGenerator extends Generator
             "                }\n" +
             "                if (" + CODEC_VALIDATION_ENABLED + ")\n" +
             "                {\n" +
-            "                    final int checkEqualsPosition = buffer.scan(position, end, '=');\n" +
-            "                    if (checkEqualsPosition != AsciiBuffer.UNKNOWN_INDEX)\n" +
+            "                    final long checkTagAndEqualsPosition = buffer.scanTag(position, end);\n" +
+            "                    if (AsciiBuffer.scannedEqualsIndex(checkTagAndEqualsPosition) != " +
+            "AsciiBuffer.UNKNOWN_INDEX)\n" +
             "                    {\n" +
-            "                        final int checkTag = buffer.getInt(position, checkEqualsPosition);\n" +
+            "                        final int checkTag = AsciiBuffer.scannedTag(checkTagAndEqualsPosition);\n" +
             "                        if (%1$s." + ALL_GROUP_FIELDS + ".contains(checkTag))\n" +
             "                        {\n" +
             "                            invalidTagId = tag;\n" +
@@ -2083,31 +2240,31 @@ class DecoderGenerator extends Generator
         return prefix + decodeMethod + ";\n";
     }
 
-    protected String stringAppendTo(final String fieldName)
+    protected String stringAppendTo(final String fieldName, final AppendToTarget target)
     {
-        return String.format("builder.append(this.%1$s(), 0, %1$sLength())", fieldName);
+        return target.appendChars("this." + fieldName + "()", fieldName + "Length()");
     }
 
-    protected String dataAppendTo(final Field field, final String fieldName)
+    protected String dataAppendTo(final Field field, final String fieldName, final AppendToTarget target)
     {
         final String lengthName = formatPropertyName(field.associatedLengthField().name());
 
         if (flyweightsEnabled)
         {
-            return String.format("appendData(builder, this.%1$s(), this.%2$s())", fieldName, lengthName);
+            return target.call("appendData", "this." + fieldName + "()", "this." + lengthName + "()");
         }
 
-        return String.format("appendData(builder, %1$s, %2$s)", fieldName, lengthName);
+        return target.call("appendData", fieldName, lengthName);
     }
 
-    protected String timeAppendTo(final String fieldName)
+    protected String timeAppendTo(final String fieldName, final AppendToTarget target)
     {
         if (flyweightsEnabled)
         {
-            return String.format("appendData(builder, this.%1$s(), %1$sLength())", fieldName);
+            return target.call("appendData", "this." + fieldName + "()", fieldName + "Length()");
         }
 
-        return String.format("appendData(builder, %1$s, %1$sLength)", fieldName);
+        return target.call("appendData", fieldName, fieldName + "Length");
     }
 
     protected boolean hasFlag(final Entry entry, final Field field)
@@ -2141,7 +2298,7 @@ class DecoderGenerator extends Generator
             formatPropertyName(name));
     }
 
-    protected String groupEntryAppendTo(final Group group, final String name)
+    protected String groupEntryAppendTo(final Group group, final String name, final AppendToTarget target)
     {
         if (isSharedParent())
         {
@@ -2149,30 +2306,31 @@ class DecoderGenerator extends Generator
         }
 
         final String numberField = group.numberField().name();
+        final String groupField = formatPropertyName(name);
         return String.format(
             "        if (has%2$s)\n" +
             "        {\n" +
-            "            indent(builder, level);\n" +
-            "            builder.append(\"\\\"%1$s\\\": [\\n\");\n" +
+            "            " + target.statement(target.indent("level")) +
+            "            " + target.statement(target.appendString("\\\"%1$s\\\": [\\n")) +
             "            %3$s %4$s = this.%4$s;\n" +
             "            for (int i = 0, size = this.%5$s; i < size; i++)\n" +
             "            {\n" +
-            "                indent(builder, level);\n" +
-            "                %4$s.appendTo(builder, level + 1);\n" +
+            "                " + target.statement(target.indent("level")) +
+            "                " + target.statement(target.appendTo(groupField, "level + 1")) +
             "                if (%4$s.next() != null)\n" +
             "                {\n" +
-            "                    builder.append(',');\n" +
+            "                    " + target.statement(target.appendChar(",")) +
             "                }\n" +
-            "                builder.append('\\n');\n" +
-            "                %4$s = %4$s.next();" +
+            "                " + target.statement(target.appendChar("\\n")) +
+            "                %4$s = %4$s.next();\n" +
             "            }\n" +
-            "            indent(builder, level);\n" +
-            "            builder.append(\"],\\n\");\n" +
+            "            " + target.statement(target.indent("level")) +
+            "            " + target.statement(target.appendString("],\\n")) +
             "        }\n",
             name,
             numberField,
             decoderClassName(name),
-            formatPropertyName(name),
+            groupField,
             formatPropertyName(numberField));
     }
 
@@ -2379,7 +2537,7 @@ class DecoderGenerator extends Generator
         return hasFlag(entry, field);
     }
 
-    protected String anyFieldsAppendTo(final AnyFields element)
+    protected String anyFieldsAppendTo(final AnyFields element, final AppendToTarget target)
     {
         return "";
     }
@@ -38,8 +38,10 @@ import java.util.stream.IntStream;
 
 import static java.util.Collections.*;
 import static java.util.stream.Collectors.joining;
+import static org.agrona.BitUtil.SIZE_OF_INT;
 import static uk.co.real_logic.artio.dictionary.generation.AggregateType.GROUP;
 import static uk.co.real_logic.artio.dictionary.generation.AggregateType.HEADER;
+import static uk.co.real_logic.artio.dictionary.generation.AppendToTarget.STRING_BUILDER;
 import static uk.co.real_logic.artio.dictionary.generation.EnumGenerator.enumName;
 import static uk.co.real_logic.artio.dictionary.generation.GenerationUtil.GENERATED_ANNOTATION;
 import static uk.co.real_logic.artio.dictionary.generation.GenerationUtil.fileHeader;
@@ -62,6 +64,9 @@ class EncoderGenerator extends Generator
         "SequenceResetEncoder",
         "BusinessMessageRejectEncoder"));
 
+    // Longest tag header, for example "553=", that MutableAsciiBuffer.putTagHeader() writes from a packed int
+    private static final int MAX_TAG_HEADER_TEMPLATE_LENGTH = SIZE_OF_INT;
+
     private static final String TRAILER_ENCODE_PREFIX =
         "    long finishMessage(final MutableAsciiBuffer buffer, final int messageStart, final int offset)\n" +
         "    {\n" +
@@ -314,7 +319,7 @@ class EncoderGenerator extends Generator
         out.append(encodeMethod(aggregate.entries(), type));
         final String resetMethod = completeResetMethod(aggregate, isMessage, type);
         out.append(resetMethod);
-        out.append(generateAppendTo(aggregate, isMessage));
+        out.append(generateAppendTo(aggregate, isMessage, STRING_BUILDER));
         out.append(generateCopyTo(aggregate));
         out.append("}\n");
 
@@ -1075,7 +1080,7 @@ class EncoderGenerator extends Generator
         }
 
         final String enablingSuffix = enablingSuffix(name, mustCheckFlag, mustCheckLength, needsMissingThrow);
-        final String tag = formatTag(fieldName, enablingPrefix);
+        final String tag = formatTag(field, fieldName, enablingPrefix);
         final String indent = indent(needsIndent);
         switch (type)
         {
@@ -1247,22 +1252,23 @@ class EncoderGenerator extends Generator
             formatPropertyName(entry.name()));
     }
 
-    protected String anyFieldsAppendTo(final AnyFields element)
+    protected String anyFieldsAppendTo(final AnyFields element, final AppendToTarget target)
     {
         if (isSharedParent())
         {
             return "";
         }
 
+        final String name = formatPropertyName(element.name());
         return String.format(
             "        if (!%1$s.isEmpty())\n" +
             "        {\n" +
-            "            indent(builder, level);\n" +
-            "            builder.append(\"\\\"%2$s\\\": \\\"\");\n" +
-            "            %1$s.appendTo(builder);\n" +
-            "            builder.append(\"\\\",\\n\");\n" +
+            "            " + target.statement(target.indent("level")) +
+            "            " + target.statement(target.appendString("\\\"%2$s\\\": \\\"")) +
+            "            " + target.statement(name + ".appendTo(" + target.sinkArguments() + ")") +
+            "            " + target.statement(target.appendString("\\\",\\n")) +
             "        }\n",
-            formatPropertyName(element.name()),
+            name,
             element.name());
     }
 
@@ -1279,9 +1285,20 @@ class EncoderGenerator extends Generator
             encoderName);
     }
 
-    private String formatTag(final String fieldName, final String optionalPrefix)
+    private String formatTag(final Field field, final String fieldName, final String optionalPrefix)
     {
         final String indent = indent(!optionalPrefix.isEmpty());
+        if (tagHeaderLength(field) <= MAX_TAG_HEADER_TEMPLATE_LENGTH)
+        {
+            return String.format(
+                "%1$s" +
+                "%3$s        buffer.putTagHeader(position, %2$sHeaderTemplate);\n" +
+                "%3$s        position += %2$sHeaderLength;\n",
+                optionalPrefix,
+                fieldName,
+                indent);
+        }
+
         return String.format(
             "%1$s" +
             "%3$s        buffer.putBytes(position, %2$sHeader, 0, %2$sHeaderLength);\n" +
@@ -1346,32 +1363,56 @@ class EncoderGenerator extends Generator
 
         out.append(String.format(
             "    %4$s static final int %sHeaderLength = %d;\n" +
-            "    %4$s static final byte[] %1$sHeader = new byte[] {%s};\n\n",
+            "    %4$s static final byte[] %1$sHeader = new byte[] {%s};\n",
             fieldName,
             length + 1,
             bytes,
             scope));
+
+        if (length + 1 <= MAX_TAG_HEADER_TEMPLATE_LENGTH)
+        {
+            // The tag and '=' packed little endian, so that short headers are written with a single int store
+            int template = '=' << (length * Byte.SIZE);
+            for (int i = 0; i < length; i++)
+            {
+                template |= (buffer[i] & 0xFF) << (i * Byte.SIZE);
+            }
+
+            out.append(String.format(
+                "    %3$s static final int %1$sHeaderTemplate = 0x%2$08x;\n",
+                fieldName,
+                template,
+                scope));
+        }
+
+        out.append("\n");
     }
 
-    protected String stringAppendTo(final String fieldName)
+    private static int tagHeaderLength(final Field field)
     {
-        return String.format("appendBuffer(builder, %1$s, %1$sOffset, %1$sLength)", fieldName);
+        final String tag = Integer.toString(field.number());
+        return tag.length() + 1;
     }
 
-    protected String timeAppendTo(final String fieldName)
+    protected String stringAppendTo(final String fieldName, final AppendToTarget target)
     {
-        return stringAppendTo(fieldName);
+        return target.call("appendBuffer", fieldName, fieldName + "Offset", fieldName + "Length");
     }
 
-    protected String dataAppendTo(final Field field, final String fieldName)
+    protected String timeAppendTo(final String fieldName, final AppendToTarget target)
+    {
+        return stringAppendTo(fieldName, target);
+    }
+
+    protected String dataAppendTo(final Field field, final String fieldName, final AppendToTarget target)
     {
         final Field associatedLengthField = field.associatedLengthField();
         Objects.requireNonNull(associatedLengthField, "Length field for: " + fieldName);
         final String lengthName = formatPropertyName(associatedLengthField.name());
-        return String.format("appendData(builder, %1$s, %2$s)", fieldName, lengthName);
+        return target.call("appendData", fieldName, lengthName);
     }
 
-    protected String componentAppendTo(final Component component)
+    protected String componentAppendTo(final Component component, final AppendToTarget target)
     {
         // appendTo shared components in children
         if (isSharedParent())
@@ -1381,13 +1422,11 @@ class EncoderGenerator extends Generator
         else
         {
             final String name = component.name();
-            return String.format(
-                "    indent(builder, level);\n" +
-                "    builder.append(\"\\\"%1$s\\\": \");\n" +
-                "    %2$s.appendTo(builder, level + 1);\n" +
-                "    builder.append(\"\\n\");\n",
-                name,
-                formatPropertyName(name));
+            return
+                "    " + target.statement(target.indent("level")) +
+                "    " + target.statement(target.appendString("\\\"" + name + "\\\": ")) +
+                "    " + target.statement(target.appendTo(formatPropertyName(name), "level + 1")) +
+                "    " + target.statement(target.appendChar("\\n"));
         }
     }
 
@@ -1483,7 +1522,7 @@ class EncoderGenerator extends Generator
         return resetLength(name);
     }
 
-    protected String groupEntryAppendTo(final Group group, final String name)
+    protected String groupEntryAppendTo(final Group group, final String name, final AppendToTarget target)
     {
         // only append groups in the children
         if (isSharedParent())
@@ -1492,32 +1531,33 @@ class EncoderGenerator extends Generator
         }
 
         final Entry numberField = group.numberField();
+        final String groupField = formatPropertyName(name);
 
         return String.format(
             "        if (has%2$s)\n" +
             "        {\n" +
-            "            indent(builder, level);\n" +
-            "            builder.append(\"\\\"%1$s\\\": [\\n\");\n" +
+            "            " + target.statement(target.indent("level")) +
+            "            " + target.statement(target.appendString("\\\"%1$s\\\": [\\n")) +
             "            final int %3$s = this.%3$s;\n" +
             "            %5$s %4$s = this.%4$s;\n" +
             "            for (int i = 0; i < %3$s; i++)\n" +
             "            {\n" +
-            "                indent(builder, level);\n" +
-            "                %4$s.appendTo(builder, level + 1);\n" +
+            "                " + target.statement(target.indent("level")) +
+            "                " + target.statement(target.appendTo(groupField, "level + 1")) +
             "                if (i < (%3$s - 1))\n" +
             "                {\n" +
-            "                    builder.append(',');\n" +
+            "                    " + target.statement(target.appendChar(",")) +
             "                }\n" +
-            "                builder.append('\\n');\n" +
+            "                " + target.statement(target.appendChar("\\n")) +
             "                %4$s = %4$s.next();\n" +
             "            }\n" +
-            "            indent(builder, level);\n" +
-            "            builder.append(\"],\\n\");\n" +
+            "            " + target.statement(target.indent("level")) +
+            "            " + target.statement(target.appendString("],\\n")) +
             "        }\n",
             name,
             group.numberField().name(),
             formatPropertyName(numberField.name()),
-            formatPropertyName(name),
+            groupField,
             encoderClassName(name));
     }
 
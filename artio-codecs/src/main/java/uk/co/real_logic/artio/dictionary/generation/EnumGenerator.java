@@ -24,14 +24,18 @@ import uk.co.real_logic.artio.builder.StringRepresentable;
 import uk.co.real_logic.artio.dictionary.CharArrayMap;
 import uk.co.real_logic.artio.dictionary.CharArrayWrapper;
 import uk.co.real_logic.artio.dictionary.Generated;
+import uk.co.real_logic.artio.dictionary.PerfectHash;
 import uk.co.real_logic.artio.dictionary.ir.Dictionary;
 import uk.co.real_logic.artio.dictionary.ir.Field;
 import uk.co.real_logic.artio.dictionary.ir.Field.Type;
 import uk.co.real_logic.artio.dictionary.ir.Field.Value;
+import uk.co.real_logic.artio.util.AsciiBuffer;
 
 import java.io.IOException;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 
@@ -143,6 +147,8 @@ final class EnumGenerator
                 out.append(importFor(IntHashSet.class));
                 out.append(importFor(Map.class));
                 out.append(importFor(HashMap.class));
+                out.append(importFor(PerfectHash.class));
+                out.append(importFor(AsciiBuffer.class));
                 out.append(interfaceToImport);
                 out.append(importFor(Generated.class));
                 out.append("\n" + GENERATED_ANNOTATION);
@@ -316,16 +322,91 @@ final class EnumGenerator
                             "            return %3$s;\n" +
                             "        }\n" +
                             "        return value;\n" +
-                    "    }\n",
+                    "    }\n" +
+                    "\n" +
+                    "%4$s",
                     typeName,
                     entries,
-                    UNKNOWN_NAME);
+                    UNKNOWN_NAME,
+                    perfectHashDecode(typeName, allValues, type));
 
             default:
                 return "";
         }
     }
 
+    private String perfectHashDecode(final String typeName, final List<Value> allValues, final Type type)
+    {
+        // Later values replace earlier ones with the same representation, as they do in the charMap
+        final Map<String, Value> valuesByRepresentation = new LinkedHashMap<>();
+        for (final Value value : allValues)
+        {
+            valuesByRepresentation.remove(value.representation());
+            valuesByRepresentation.put(value.representation(), value);
+        }
+
+        final PerfectHashTable table = PerfectHashTable.build(new ArrayList<>(valuesByRepresentation.keySet()));
+        final String[] slots = table.slots();
+
+        final String displacements = Arrays
+            .stream(table.displacements())
+            .mapToObj(Integer::toString)
+            .collect(joining(", "));
+
+        final StringBuilder keys = new StringBuilder();
+        final StringBuilder values = new StringBuilder();
+        for (final String slot : slots)
+        {
+            final Value value = valuesByRepresentation.get(slot);
+            keys.append(format("        %s.toCharArray(),\n", literal(value, type)));
+            values.append(format("        %s,\n", value.description()));
+        }
+
+        return format(
+            "    private static final int PERFECT_HASH_SEED = %2$d;\n" +
+            "    private static final int[] PERFECT_HASH_DISPLACEMENTS = { %3$s };\n" +
+            "    private static final char[][] PERFECT_HASH_KEYS =\n" +
+            "    {\n" +
+            "%4$s" +
+            "    };\n" +
+            "    private static final %1$s[] PERFECT_HASH_VALUES =\n" +
+            "    {\n" +
+            "%5$s" +
+            "    };\n" +
+            "\n" +
+            "    public static %1$s decode(final char[] value, final int offset, final int length)\n" +
+            "    {\n" +
+            "        final int slot = PerfectHash.slot(\n" +
+            "            PerfectHash.hash(value, offset, length, PERFECT_HASH_SEED),\n" +
+            "            PERFECT_HASH_DISPLACEMENTS,\n" +
+            "            PERFECT_HASH_VALUES.length);\n" +
+            "        return PerfectHash.matches(PERFECT_HASH_KEYS[slot], value, offset, length) ?\n" +
+            "            PERFECT_HASH_VALUES[slot] : %6$s;\n" +
+            "    }\n" +
+            "\n" +
+            "    public static %1$s decode(final AsciiBuffer buffer, final int offset, final int length)\n" +
+            "    {\n" +
+            "        final int slot = PerfectHash.slot(\n" +
+            "            PerfectHash.hash(buffer, offset, length, PERFECT_HASH_SEED),\n" +
+            "            PERFECT_HASH_DISPLACEMENTS,\n" +
+            "            PERFECT_HASH_VALUES.length);\n" +
+            "        return PerfectHash.matches(PERFECT_HASH_KEYS[slot], buffer, offset, length) ?\n" +
+            "            PERFECT_HASH_VALUES[slot] : %6$s;\n" +
+            "    }\n" +
+            "\n" +
+            "    public static boolean isValid(final char[] value, final int offset, final int length)\n" +
+            "    {\n" +
+            "        return decode(value, offset, length) != %6$s;\n" +
+            "    }\n" +
+            "\n",
+            typeName,
+            table.seed(),
+            displacements,
+            keys,
+            values,
+            UNKNOWN_NAME);
+    }
+
     private boolean hasGeneratedValueOf(final Type type)
     {
         switch (type)
@@ -452,53 +452,40 @@ public abstract class Generator
             resetValue);
     }
 
-    protected String generateAppendTo(final Aggregate aggregate, final boolean hasCommonCompounds)
+    protected String generateAppendTo(
+        final Aggregate aggregate, final boolean hasCommonCompounds, final AppendToTarget target)
     {
         final String entriesToString = aggregate
             .entries()
             .stream()
-            .map(this::generateEntryAppendTo)
+            .map(entry -> generateEntryAppendTo(entry, target))
             .collect(joining("\n"));
 
         final String prefix;
         if (hasCommonCompounds && !isSharedParent())
         {
             prefix =
-                "        builder.append(\"  \\\"header\\\": \");\n" +
-                "        header.appendTo(builder, level + 1);\n" +
-                "        builder.append(\"\\n\");\n";
+                "        " + target.statement(target.appendString("  \\\"header\\\": ")) +
+                "        " + target.statement(target.appendTo("header", "level + 1")) +
+                "        " + target.statement(target.appendChar("\\n"));
         }
         else
         {
             prefix = "";
         }
 
-        return String.format(
-            "    public String toString()\n" +
-            "    {\n" +
-            "        return appendTo(new StringBuilder()).toString();\n" +
-            "    }\n\n" +
-            "    public StringBuilder appendTo(final StringBuilder builder)\n" +
-            "    {\n" +
-            "        return appendTo(builder, 1);\n" +
-            "    }\n\n" +
-            "    public StringBuilder appendTo(final StringBuilder builder, final int level)\n" +
-            "    {\n" +
-            "        builder.append(\"{\\n\");" +
-            "        indent(builder, level);\n" +
-            "        builder.append(\"\\\"MessageName\\\": \\\"%1$s\\\",\\n\");\n" +
-            "%2$s" +
-            "%3$s" +
-            "        indent(builder, level - 1);\n" +
-            "        builder.append(\"}\");\n" +
-            "        return builder;\n" +
-            "    }\n\n",
-            aggregate.name(),
-            prefix,
-            entriesToString);
+        final String messageName = "\\\"MessageName\\\": \\\"" + aggregate.name() + "\\\",\\n";
+        return target.appendToMethods(
+            "        " + target.statement(target.appendString("{\\n")) +
+            "        " + target.statement(target.indent("level")) +
+            "        " + target.statement(target.appendString(messageName)) +
+            prefix +
+            entriesToString +
+            "        " + target.statement(target.indent("level - 1")) +
+            "        " + target.statement(target.appendChar("}")));
     }
 
-    protected String generateEntryAppendTo(final Entry entry)
+    protected String generateEntryAppendTo(final Entry entry, final AppendToTarget target)
     {
         //"  \"OnBehalfOfCompID\": \"abc\",\n" +
 
@@ -512,15 +499,13 @@ public abstract class Generator
         if (element instanceof Field)
         {
             final Field field = (Field)element;
-            final String value = fieldAppendTo(field);
+            final String value = fieldAppendTo(field, target);
 
-            final String fieldAppender = String.format(
-                "        indent(builder, level);\n" +
-                "        builder.append(\"\\\"%1$s\\\": \\\"\");\n" +
-                "        %2$s;\n" +
-                "        builder.append(\"\\\",\\n\");\n",
-                name,
-                value);
+            final String fieldAppender =
+                "        " + target.statement(target.indent("level")) +
+                "        " + target.statement(target.appendString("\\\"" + name + "\\\": \\\"")) +
+                "        " + target.statement(value) +
+                "        " + target.statement(target.appendString("\\\",\\n"));
 
             if (appendToChecksHasGetter(entry, field))
             {
@@ -542,15 +527,15 @@ public abstract class Generator
         }
         else if (element instanceof Group)
         {
-            return groupEntryAppendTo((Group)element, name);
+            return groupEntryAppendTo((Group)element, name, target);
         }
         else if (element instanceof Component)
         {
-            return componentAppendTo((Component)element);
+            return componentAppendTo((Component)element, target);
         }
         else if (element instanceof AnyFields)
         {
-            return anyFieldsAppendTo((AnyFields)element);
+            return anyFieldsAppendTo((AnyFields)element, target);
         }
 
         return "";
@@ -558,9 +543,9 @@ public abstract class Generator
 
     protected abstract boolean appendToChecksHasGetter(Entry entry, Field field);
 
-    protected abstract String groupEntryAppendTo(Group element, String name);
+    protected abstract String groupEntryAppendTo(Group element, String name, AppendToTarget target);
 
-    protected abstract String anyFieldsAppendTo(AnyFields element);
+    protected abstract String anyFieldsAppendTo(AnyFields element, AppendToTarget target);
 
     protected abstract boolean hasFlag(Entry entry, Field field);
 
@@ -574,9 +559,9 @@ public abstract class Generator
             name);
     }
 
-    protected abstract String componentAppendTo(Component component);
+    protected abstract String componentAppendTo(Component component, AppendToTarget target);
 
-    protected String fieldAppendTo(final Field field)
+    protected String fieldAppendTo(final Field field, final AppendToTarget target)
     {
         final String fieldName = formatPropertyName(field.name());
         switch (field.type())
@@ -589,7 +574,7 @@ public abstract class Generator
             case EXCHANGE:
             case COUNTRY:
             case LANGUAGE:
-                return stringAppendTo(fieldName);
+                return stringAppendTo(fieldName, target);
 
             // Call the getter for other choices in order to ensure that the flyweight version is populated
             case UTCTIMEONLY:
@@ -599,7 +584,7 @@ public abstract class Generator
             case MONTHYEAR:
             case TZTIMEONLY:
             case TZTIMESTAMP:
-                return timeAppendTo(fieldName);
+                return timeAppendTo(fieldName, target);
 
             case FLOAT:
             case PRICE:
@@ -610,28 +595,28 @@ public abstract class Generator
             case AMT:
                 if (flyweightsEnabled)
                 {
-                    return String.format("this.%1$s().appendTo(builder)", fieldName);
+                    return target.appendFloat(String.format("this.%1$s()", fieldName));
                 }
 
-                return String.format("%1$s.appendTo(builder)", fieldName);
+                return target.appendFloat(fieldName);
 
             case DATA:
             case XMLDATA:
-                return dataAppendTo(field, fieldName);
+                return dataAppendTo(field, fieldName, target);
 
             default:
                 if (flyweightsEnabled)
                 {
-                    return String.format("builder.append(this.%1$s())", fieldName);
+                    return target.appendValue(field.type(), String.format("this.%1$s()", fieldName));
                 }
 
-                return String.format("builder.append(%1$s)", fieldName);
+                return target.appendValue(field.type(), fieldName);
         }
     }
 
-    protected abstract String timeAppendTo(String fieldName);
+    protected abstract String timeAppendTo(String fieldName, AppendToTarget target);
 
-    protected abstract String dataAppendTo(Field field, String fieldName);
+    protected abstract String dataAppendTo(Field field, String fieldName, AppendToTarget target);
 
     protected boolean isCheckSum(final Entry entry)
     {
@@ -704,7 +689,7 @@ public abstract class Generator
         return whichPackage.replace("." + dictionary.name(), "");
     }
 
-    protected abstract String stringAppendTo(String fieldName);
+    protected abstract String stringAppendTo(String fieldName, AppendToTarget target);
 
     protected String indent(final int times, final String suffix)
     {
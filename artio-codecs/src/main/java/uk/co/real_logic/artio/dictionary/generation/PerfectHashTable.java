@@ -0,0 +1,189 @@
+/*
+ * Copyright 2015-2024 Real Logic Limited.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.co.real_logic.artio.dictionary.generation;
+
+import uk.co.real_logic.artio.dictionary.PerfectHash;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Builds a minimal perfect hash table over a set of keys using hash and displace: keys are hashed into buckets,
+ * buckets are placed largest first and each bucket searches for a displacement that moves all of its keys into free
+ * slots. The resulting seed and displacements are emitted into generated code and evaluated with
+ * {@link PerfectHash}.
+ */
+final class PerfectHashTable
+{
+    private static final int KEYS_PER_BUCKET = 2;
+    private static final int MAX_SEEDS = 1024;
+    private static final int MAX_DISPLACEMENT = 1 << 20;
+
+    private final int seed;
+    private final int[] displacements;
+    private final String[] slots;
+
+    private PerfectHashTable(final int seed, final int[] displacements, final String[] slots)
+    {
+        this.seed = seed;
+        this.displacements = displacements;
+        this.slots = slots;
+    }
+
+    int seed()
+    {
+        return seed;
+    }
+
+    int[] displacements()
+    {
+        return displacements;
+    }
+
+    /**
+     * Get the keys in slot order.
+     *
+     * @return the keys in slot order.
+     */
+    String[] slots()
+    {
+        return slots;
+    }
+
+    static PerfectHashTable build(final List<String> keys)
+    {
+        final Set<String> distinctKeys = new HashSet<>(keys);
+        if (distinctKeys.size() != keys.size())
+        {
+            throw new IllegalArgumentException("Duplicate keys in " + keys);
+        }
+
+        final int size = keys.size();
+        final int bucketCount = Math.max(1, size / KEYS_PER_BUCKET);
+        final char[][] chars = new char[size][];
+        for (int i = 0; i < size; i++)
+        {
+            chars[i] = keys.get(i).toCharArray();
+        }
+
+        for (int seed = 0; seed < MAX_SEEDS; seed++)
+        {
+            final PerfectHashTable table = tryBuild(keys, chars, seed, bucketCount);
+            if (table != null)
+            {
+                return table;
+            }
+        }
+
+        throw new IllegalStateException("Unable to find a perfect hash for " + keys);
+    }
+
+    private static PerfectHashTable tryBuild(
+        final List<String> keys, final char[][] chars, final int seed, final int bucketCount)
+    {
+        final int size = keys.size();
+        final int[] hashes = new int[size];
+        final List<List<Integer>> buckets = new ArrayList<>(bucketCount);
+        for (int i = 0; i < bucketCount; i++)
+        {
+            buckets.add(new ArrayList<>());
+        }
+
+        for (int i = 0; i < size; i++)
+        {
+            final int hash = PerfectHash.hash(chars[i], 0, chars[i].length, seed);
+            final List<Integer> bucket = buckets.get(PerfectHash.bucket(hash, bucketCount));
+            for (final int other : bucket)
+            {
+                // No displacement can separate two keys with the same hash in the same bucket.
+                if (hashes[other] == hash)
+                {
+                    return null;
+                }
+            }
+            hashes[i] = hash;
+            bucket.add(i);
+        }
+
+        final List<Integer> order = new ArrayList<>(bucketCount);
+        for (int i = 0; i < bucketCount; i++)
+        {
+            order.add(i);
+        }
+        order.sort((a, b) -> Integer.compare(buckets.get(b).size(), buckets.get(a).size()));
+
+        final int[] displacements = new int[bucketCount];
+        final String[] slots = new String[size];
+        final int[] bucketSlots = new int[size];
+        for (final int bucketIndex : order)
+        {
+            final List<Integer> bucket = buckets.get(bucketIndex);
+            if (bucket.isEmpty())
+            {
+                break;
+            }
+
+            final int displacement = place(bucket, hashes, slots, bucketSlots);
+            if (displacement < 0)
+            {
+                return null;
+            }
+
+            displacements[bucketIndex] = displacement;
+            for (int i = 0; i < bucket.size(); i++)
+            {
+                slots[bucketSlots[i]] = keys.get(bucket.get(i));
+            }
+        }
+
+        return new PerfectHashTable(seed, displacements, slots);
+    }
+
+    private static int place(
+        final List<Integer> bucket, final int[] hashes, final String[] slots, final int[] bucketSlots)
+    {
+        final int size = slots.length;
+        final int bucketSize = bucket.size();
+        nextDisplacement:
+        for (int displacement = 0; displacement < MAX_DISPLACEMENT; displacement++)
+        {
+            for (int i = 0; i < bucketSize; i++)
+            {
+                final int slot = PerfectHash.slot(hashes[bucket.get(i)], displacement, size);
+                if (slots[slot] != null)
+                {
+                    continue nextDisplacement;
+                }
+
+                for (int j = 0; j < i; j++)
+                {
+                    if (bucketSlots[j] == slot)
+                    {
+                        continue nextDisplacement;
+                    }
+                }
+
+                bucketSlots[i] = slot;
+            }
+
+            return displacement;
+        }
+
+        return -1;
+    }
+}
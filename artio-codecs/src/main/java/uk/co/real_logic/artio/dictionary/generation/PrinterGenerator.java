@@ -22,6 +22,7 @@ import uk.co.real_logic.artio.dictionary.ir.Aggregate;
 import uk.co.real_logic.artio.dictionary.ir.Dictionary;
 import uk.co.real_logic.artio.dictionary.ir.Message;
 import uk.co.real_logic.artio.util.AsciiBuffer;
+import uk.co.real_logic.artio.util.MutableAsciiBuffer;
 import uk.co.real_logic.sbe.generation.java.JavaUtil;
 
 import java.util.function.Function;
@@ -39,6 +40,7 @@ class PrinterGenerator
     private static final String CLASS_DECLARATION =
         importFor(Printer.class) +
         importFor(AsciiBuffer.class) +
+        importFor(MutableAsciiBuffer.class) +
         importFor(Generated.class) +
         "\n" +
         GENERATED_ANNOTATION +
@@ -70,6 +72,7 @@ class PrinterGenerator
                 out.append(CLASS_DECLARATION);
                 out.append(generateDecoderFields());
                 out.append(generateToString());
+                out.append(generateAppendTo());
                 out.append("}\n");
             });
     }
@@ -123,6 +126,33 @@ class PrinterGenerator
             "    }\n\n";
     }
 
+    private String generateAppendTo()
+    {
+        final Function<Message, String> mapper = (aggregate) -> String.format(
+            "        if (messageType == %sL)\n" +
+            "        {\n" +
+            "            %s.decode(input, offset, length);\n" +
+            "            return %2$s.appendTo(output, outputOffset);\n" +
+            "        }\n\n",
+            aggregate.packedType(),
+            decoderFieldName(aggregate));
+
+        final String cases = messages().map(mapper).collect(joining());
+
+        return
+            "    public int appendTo(\n" +
+            "        final AsciiBuffer input,\n" +
+            "        final int offset,\n" +
+            "        final int length,\n" +
+            "        final long messageType,\n" +
+            "        final MutableAsciiBuffer output,\n" +
+            "        final int outputOffset)\n" +
+            "    {\n" +
+            cases +
+            "        throw new IllegalArgumentException(\"Unknown Message Type: \" + messageType);\n" +
+            "    }\n\n";
+    }
+
     private Stream<Message> messages()
     {
         return dictionary.messages().stream();
@@ -108,13 +108,19 @@ public final class OtfParser
 
         while (position < end)
         {
-            final int equalsPosition = string.scan(position, end, '=');
+            final long tagAndEqualsPosition = string.scanTag(position, end);
+            final int equalsPosition = AsciiBuffer.scannedEqualsIndex(tagAndEqualsPosition);
             if (!validatePosition(equalsPosition, acceptor))
             {
                 return position;
             }
 
-            tag = string.getNatural(position, equalsPosition);
+            tag = AsciiBuffer.scannedTag(tagAndEqualsPosition);
+            if (tag < 0)
+            {
+                // Tags are natural numbers, so reject signed or empty tags the way getNatural always has.
+                tag = string.getNatural(position, equalsPosition);
+            }
             final int valueOffset = equalsPosition + 1;
             final int endOfField = string.scan(valueOffset, end, START_OF_HEADER);
             if (!validatePosition(endOfField, acceptor))
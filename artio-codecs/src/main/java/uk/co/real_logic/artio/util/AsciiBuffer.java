@@ -85,5 +85,26 @@ public interface AsciiBuffer extends DirectBuffer
 
     int scan(int startInclusive, int endExclusive, byte terminator);
 
+    /**
+     * Scans for the '=' that ends a field's tag, parsing the tag number in the same pass over the bytes. Tags that
+     * aren't short runs of digits are parsed with {@link #getInt(int, int)}.
+     *
+     * @param startInclusive the start of the field.
+     * @param endExclusive the end of the region to scan.
+     * @return the tag and index of the '=' packed into a long, read them with {@link #scannedTag(long)} and
+     * {@link #scannedEqualsIndex(long)}, or {@link #UNKNOWN_INDEX} if there's no '='.
+     */
+    long scanTag(int startInclusive, int endExclusive);
+
+    static int scannedTag(final long tagAndEqualsIndex)
+    {
+        return (int)(tagAndEqualsIndex >> 32);
+    }
+
+    static int scannedEqualsIndex(final long tagAndEqualsIndex)
+    {
+        return (int)tagAndEqualsIndex;
+    }
+
     int computeChecksum(int startInclusive, int endExclusive);
 }
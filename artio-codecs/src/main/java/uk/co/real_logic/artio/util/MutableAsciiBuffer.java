@@ -25,7 +25,9 @@ import uk.co.real_logic.artio.util.float_parsing.DecimalFloatParser;
 
 import java.nio.ByteBuffer;
 
+import static java.nio.ByteOrder.LITTLE_ENDIAN;
 import static java.nio.charset.StandardCharsets.US_ASCII;
+import static org.agrona.BitUtil.SIZE_OF_LONG;
 import static uk.co.real_logic.artio.dictionary.generation.CodecUtil.MISSING_INT;
 
 public final class MutableAsciiBuffer extends UnsafeBuffer implements AsciiBuffer
@@ -36,6 +38,14 @@ public final class MutableAsciiBuffer extends UnsafeBuffer implements AsciiBuffe
     private static final byte Y = (byte)'Y';
     private static final byte N = (byte)'N';
 
+    private static final long ONE_IN_EACH_BYTE = 0x0101010101010101L;
+    private static final long HIGH_BIT_IN_EACH_BYTE = 0x8080808080808080L;
+    private static final long LOW_BYTE_IN_EACH_SHORT = 0x00FF00FF00FF00FFL;
+    private static final long ONE_IN_EACH_SHORT = 0x0001000100010001L;
+    private static final byte EQUALS = (byte)'=';
+    // Longest tag that can be accumulated into an int without overflow checks
+    private static final int MAX_FUSED_TAG_DIGITS = 9;
+
     public MutableAsciiBuffer()
     {
         super(0, 0);
@@ -218,24 +228,92 @@ public final class MutableAsciiBuffer extends UnsafeBuffer implements AsciiBuffe
 
     public int scan(final int startInclusive, final int endExclusive, final byte terminator)
     {
-        int indexValue = UNKNOWN_INDEX;
-        for (int i = startInclusive; i < endExclusive; i++)
+        final long pattern = (terminator & 0xFFL) * ONE_IN_EACH_BYTE;
+        int index = startInclusive;
+
+        final int lastWordStart = endExclusive - SIZE_OF_LONG;
+        while (index <= lastWordStart)
         {
-            final byte value = getByte(i);
-            if (value == terminator)
+            // Zero bytes in the xor are matches, the lowest flagged byte is always a real match
+            final long word = getLong(index, LITTLE_ENDIAN) ^ pattern;
+            final long matches = (word - ONE_IN_EACH_BYTE) & ~word & HIGH_BIT_IN_EACH_BYTE;
+            if (matches != 0)
+            {
+                return index + (Long.numberOfTrailingZeros(matches) >>> 3);
+            }
+
+            index += SIZE_OF_LONG;
+        }
+
+        for (; index < endExclusive; index++)
+        {
+            if (getByte(index) == terminator)
+            {
+                return index;
+            }
+        }
+
+        return UNKNOWN_INDEX;
+    }
+
+    public long scanTag(final int startInclusive, final int endExclusive)
+    {
+        final int lastIndex = Math.min(endExclusive, startInclusive + MAX_FUSED_TAG_DIGITS + 1);
+        int tag = 0;
+        for (int index = startInclusive; index < lastIndex; index++)
+        {
+            final byte value = getByte(index);
+            if (value == EQUALS)
+            {
+                if (index == startInclusive)
+                {
+                    break;
+                }
+
+                return tagAndEqualsIndex(tag, index);
+            }
+
+            final int digit = value - ZERO;
+            if (digit < 0 || digit > 9)
             {
-                indexValue = i;
                 break;
             }
+            tag = tag * 10 + digit;
+        }
+
+        // Empty, signed, overly long or malformed tags keep the getInt() semantics
+        final int equalsIndex = scan(startInclusive, endExclusive, EQUALS);
+        if (equalsIndex == UNKNOWN_INDEX)
+        {
+            return UNKNOWN_INDEX;
         }
 
-        return indexValue;
+        return tagAndEqualsIndex(getInt(startInclusive, equalsIndex), equalsIndex);
+    }
+
+    private static long tagAndEqualsIndex(final int tag, final int equalsIndex)
+    {
+        return ((long)tag << 32) | (equalsIndex & 0xFFFFFFFFL);
     }
 
     public int computeChecksum(final int startInclusive, final int endExclusive)
     {
+        // Bytes are summed as signed values, so each byte with its high bit set is corrected by 256
         int total = 0;
-        for (int index = startInclusive; index < endExclusive; index++)
+        int index = startInclusive;
+
+        final int lastWordStart = endExclusive - SIZE_OF_LONG;
+        while (index <= lastWordStart)
+        {
+            final long word = getLong(index);
+            final long pairSums = (word & LOW_BYTE_IN_EACH_SHORT) + ((word >>> 8) & LOW_BYTE_IN_EACH_SHORT);
+            final int unsignedSum = (int)((pairSums * ONE_IN_EACH_SHORT) >>> 48);
+            total += unsignedSum - (Long.bitCount(word & HIGH_BIT_IN_EACH_BYTE) << 8);
+
+            index += SIZE_OF_LONG;
+        }
+
+        for (; index < endExclusive; index++)
         {
             total += getByte(index);
         }
@@ -256,6 +334,19 @@ public final class MutableAsciiBuffer extends UnsafeBuffer implements AsciiBuffe
         putByte(index, SEPARATOR);
     }
 
+    /**
+     * Puts a tag header, for example <code>35=</code>, that the encoder generator has packed little endian into an
+     * int. This always writes four bytes, so bytes beyond a shorter header must be overwritten by the field's value
+     * and separator afterwards.
+     *
+     * @param index the index to put the header at.
+     * @param packedTagHeader the tag and '=' packed little endian into an int.
+     */
+    public void putTagHeader(final int index, final int packedTagHeader)
+    {
+        putInt(index, packedTagHeader, LITTLE_ENDIAN);
+    }
+
     public int putBooleanAscii(final int offset, final boolean value)
     {
         putByte(offset, value ? Y : N);
@@ -2,11 +2,19 @@ package uk.co.real_logic.artio.util.float_parsing;
 
 import uk.co.real_logic.artio.util.AsciiBuffer;
 
+import static java.nio.ByteOrder.LITTLE_ENDIAN;
+import static org.agrona.BitUtil.SIZE_OF_LONG;
+
 public final class AsciiBufferCharReader implements CharReader<AsciiBuffer>
 {
     private static final byte SPACE = ' ';
     private static final byte ZERO = '0';
 
+    private static final long ZERO_IN_EACH_BYTE = 0x3030303030303030L;
+    private static final long HIGH_NIBBLE_IN_EACH_BYTE = 0xF0F0F0F0F0F0F0F0L;
+    private static final long SIX_IN_EACH_BYTE = 0x0606060606060606L;
+    private static final long THREE_IN_EACH_NIBBLE = 0x3333333333333333L;
+
     public static final AsciiBufferCharReader INSTANCE = new AsciiBufferCharReader();
 
     private AsciiBufferCharReader()
@@ -48,4 +56,28 @@ public final class AsciiBufferCharReader implements CharReader<AsciiBuffer>
 
         return charValue - 0x30;
     }
+
+    @Override
+    public int getEightDigits(final AsciiBuffer data, final int index, final int end)
+    {
+        if (end - index < SIZE_OF_LONG)
+        {
+            return NOT_EIGHT_DIGITS;
+        }
+
+        final long word = data.getLong(index, LITTLE_ENDIAN);
+
+        // Every byte is a digit iff its high nibble is 3 and adding 6 doesn't carry out of its low nibble
+        if (((word & HIGH_NIBBLE_IN_EACH_BYTE) |
+            (((word + SIX_IN_EACH_BYTE) & HIGH_NIBBLE_IN_EACH_BYTE) >>> 4)) != THREE_IN_EACH_NIBBLE)
+        {
+            return NOT_EIGHT_DIGITS;
+        }
+
+        // Combine adjacent digits into pairs, then pairs into fours and fours into the final value
+        long value = word - ZERO_IN_EACH_BYTE;
+        value = (value * 10) + (value >>> 8);
+        return (int)((((value & 0x000000FF000000FFL) * 0x000F424000000064L) +
+            (((value >>> 16) & 0x000000FF000000FFL) * 0x0000271000000001L)) >>> 32);
+    }
 }
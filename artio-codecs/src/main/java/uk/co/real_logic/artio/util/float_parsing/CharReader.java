@@ -11,4 +11,12 @@ public interface CharReader<Data>
     boolean isZero(Data data, int index);
 
     int getDigit(Data data, int index, char charValue);
+
+    int NOT_EIGHT_DIGITS = -1;
+
+    // Readers that can load eight characters at once override this to parse runs of digits in one step
+    default int getEightDigits(final Data data, final int index, final int end)
+    {
+        return NOT_EIGHT_DIGITS;
+    }
 }
@@ -13,6 +13,11 @@ public final class DecimalFloatParser
     private static final char MINUS = '-';
     private static final byte DOT = '.';
 
+    private static final long HUNDRED_MILLION = 100_000_000L;
+    // Eight more digits can be added to a value up to this without overflowing, otherwise parse digit by digit
+    private static final long MAX_VALUE_BEFORE_EIGHT_DIGITS = (Long.MAX_VALUE - (HUNDRED_MILLION - 1)) /
+        HUNDRED_MILLION;
+
     public static <Data> DecimalFloat extract(
         final DecimalFloat number,
         final CharReader<Data> charReader,
@@ -63,6 +68,17 @@ public final class DecimalFloatParser
         long value = 0;
         for (int index = workingOffset; index < endOfSignificand; index++)
         {
+            if (value <= MAX_VALUE_BEFORE_EIGHT_DIGITS)
+            {
+                final int eightDigits = charReader.getEightDigits(data, index, endOfSignificand);
+                if (eightDigits != CharReader.NOT_EIGHT_DIGITS)
+                {
+                    value = value * HUNDRED_MILLION + eightDigits;
+                    index += 7;
+                    continue;
+                }
+            }
+
             final char charValue = charReader.charAt(data, index);
             if (charValue == DOT)
             {
@@ -82,15 +82,20 @@ public abstract class AbstractDecoderGeneratorTest
     private final MutableAsciiBuffer buffer = new MutableAsciiBuffer(new byte[CAPACITY]);
 
     static void generate(final boolean flyweightStringsEnabled) throws Exception
+    {
+        generate(flyweightStringsEnabled, false);
+    }
+
+    static void generate(final boolean flyweightStringsEnabled, final boolean lazyDecodingEnabled) throws Exception
     {
         sourcesWithValidation = generateSources(
-            true, false, true, flyweightStringsEnabled, false);
+            true, false, true, flyweightStringsEnabled, false, lazyDecodingEnabled);
         final Map<String, CharSequence> sourcesWithNoEnumValueValidation = generateSources(
-            true, false, false, flyweightStringsEnabled, false);
+            true, false, false, flyweightStringsEnabled, false, lazyDecodingEnabled);
         final Map<String, CharSequence> sourcesWithoutValidation = generateSources(
-            false, false, true, flyweightStringsEnabled, true);
+            false, false, true, flyweightStringsEnabled, true, lazyDecodingEnabled);
         final Map<String, CharSequence> sourcesRejectingUnknownFields = generateSources(
-            true, true, true, flyweightStringsEnabled, false);
+            true, true, true, flyweightStringsEnabled, false, lazyDecodingEnabled);
         heartbeat = compileInMemory(HEARTBEAT_DECODER, sourcesWithValidation);
         if (heartbeat == null || CODEC_LOGGING)
         {
@@ -117,7 +122,7 @@ public abstract class AbstractDecoderGeneratorTest
 
     private static Map<String, CharSequence> generateSources(
         final boolean validation, final boolean rejectingUnknownFields, final boolean rejectingUnknownEnumValue,
-        final boolean flyweightStringsEnabled, final boolean wrapEmptyBuffer)
+        final boolean flyweightStringsEnabled, final boolean wrapEmptyBuffer, final boolean lazyDecodingEnabled)
     {
         final Class<?> validationClass = validation ? ValidationOn.class : ValidationOff.class;
         final Class<?> rejectUnknownField = rejectingUnknownFields ?
@@ -132,7 +137,7 @@ public abstract class AbstractDecoderGeneratorTest
             MESSAGE_EXAMPLE, 1, TEST_PACKAGE, TEST_PARENT_PACKAGE, TEST_PACKAGE,
             outputManager, validationClass, rejectUnknownField,
             rejectUnknownEnumValue, flyweightStringsEnabled, wrapEmptyBuffer,
-            String.valueOf(rejectingUnknownEnumValue), true);
+            String.valueOf(rejectingUnknownEnumValue), true, lazyDecodingEnabled);
         final EncoderGenerator encoderGenerator = new EncoderGenerator(MESSAGE_EXAMPLE, TEST_PACKAGE,
             TEST_PARENT_PACKAGE, outputManager, ValidationOn.class, RejectUnknownFieldOn.class,
             RejectUnknownEnumValueOn.class, RUNTIME_REJECT_UNKNOWN_ENUM_VALUE_PROPERTY, true);
@@ -541,6 +546,10 @@ public abstract class AbstractDecoderGeneratorTest
         assertThat(decoder.toString(), matcher);
 
         assertAppendToMatches(decoder::appendTo, matcher);
+
+        final MutableAsciiBuffer output = new MutableAsciiBuffer(new byte[CAPACITY]);
+        final int length = decoder.appendTo(output, 1, 1);
+        assertThat(output.getAscii(1, length), matcher);
     }
 
     static void assertAppendToMatches(
@@ -1809,7 +1818,7 @@ public abstract class AbstractDecoderGeneratorTest
         return (boolean)get(decoder, "hasNoEgGroupGroupCounter");
     }
 
-    private int getGroupField(final Object group) throws Exception
+    int getGroupField(final Object group) throws Exception
     {
         return (int)get(group, "groupField");
     }
@@ -1914,7 +1923,7 @@ public abstract class AbstractDecoderGeneratorTest
         return (long)get(decoder, LONG_FIELD);
     }
 
-    private char[] getOnBehalfOfCompId(final Decoder decoder) throws Exception
+    char[] getOnBehalfOfCompId(final Decoder decoder) throws Exception
     {
         return getCharArray(decoder, ON_BEHALF_OF_COMP_ID);
     }
@@ -2024,7 +2033,7 @@ public abstract class AbstractDecoderGeneratorTest
         }
     }
 
-    private Decoder enumTestMessageDecoder() throws Exception
+    Decoder enumTestMessageDecoder() throws Exception
     {
         return (Decoder)enumTestMessage.getConstructor().newInstance();
     }
@@ -0,0 +1,152 @@
+/*
+ * Copyright 2015-2024 Real Logic Limited.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.co.real_logic.artio.dictionary.generation;
+
+import org.agrona.generation.StringWriterOutputManager;
+import org.junit.Test;
+import uk.co.real_logic.artio.dictionary.ir.Message;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.junit.Assert.assertEquals;
+import static uk.co.real_logic.artio.dictionary.ExampleDictionary.*;
+import static uk.co.real_logic.artio.dictionary.generation.CodecConfiguration.DEFAULT_PARENT_PACKAGE;
+import static uk.co.real_logic.artio.dictionary.generation.CodecGenerationWrapper.dictionaryStream;
+import static uk.co.real_logic.artio.util.Reflection.call;
+import static uk.co.real_logic.artio.util.Reflection.getField;
+
+public class BenchmarkGeneratorTest
+{
+    private static final String BENCHMARK_PACKAGE = TEST_PARENT_PACKAGE + ".benchmark";
+    private static final String FLYWEIGHT_PACKAGE = TEST_PARENT_PACKAGE + ".decoder_flyweight";
+
+    private final StringWriterOutputManager outputManager = new StringWriterOutputManager();
+    private final Message heartbeat = MESSAGE_EXAMPLE.messages().get(0);
+
+    @Test
+    public void shouldFrameSampleMessage()
+    {
+        final String sample = sampleMessage();
+
+        assertThat(sample, startsWith("8=FIX.4.4\0019="));
+        final int bodyStart = sample.indexOf('\001', 2) + 1;
+        final int checksumStart = sample.lastIndexOf("10=");
+        final int bodyLength = Integer.parseInt(sample.substring(sample.indexOf("9=") + 2, bodyStart - 1));
+        assertEquals(checksumStart - bodyStart, bodyLength);
+
+        int checksum = 0;
+        for (int i = 0; i < checksumStart; i++)
+        {
+            checksum += sample.charAt(i);
+        }
+        assertEquals(String.format("10=%03d\001", checksum & 0xFF), sample.substring(checksumStart));
+    }
+
+    @Test
+    public void shouldFillTrailerBeforeChecksum()
+    {
+        assertThat(sampleMessage(), containsString("\00193=3\00189=ABC\00110="));
+    }
+
+    @Test
+    public void shouldFillRepeatingGroups()
+    {
+        assertThat(sampleMessage(), containsString(
+            "\001120=2\001121=1\001122=2\001123=1\001123=1\001121=1\001122=2\001123=1\001123=1\001"));
+    }
+
+    @Test
+    public void shouldPrefixDataWithItsLength()
+    {
+        assertThat(sampleMessage(), containsString("\001200=3\001119=ABC\001"));
+    }
+
+    @Test
+    public void shouldGenerateBenchmarkForEveryMessage()
+    {
+        generator(FLYWEIGHT_PACKAGE).generate();
+
+        assertEquals(MESSAGE_EXAMPLE.messages().size(), outputManager.getSources().size());
+
+        final String benchmark = heartbeatBenchmark();
+        assertThat(benchmark, containsString("public class HeartbeatBenchmark"));
+        assertThat(benchmark, containsString("public long encode()"));
+        assertThat(benchmark, containsString("public int decode()"));
+        assertThat(benchmark, containsString("public void decodeAndValidate(final Blackhole bh)"));
+        assertThat(benchmark, containsString("new " + FLYWEIGHT_PACKAGE + ".HeartbeatDecoder()"));
+        assertThat(benchmark, containsString("public StringBuilder appendTo()"));
+    }
+
+    @Test
+    public void shouldOnlyBenchmarkFlyweightDecodersWhenGenerated()
+    {
+        generator(null).generate();
+
+        assertThat(heartbeatBenchmark(), not(containsString("flyweightDecode")));
+    }
+
+    @Test
+    public void shouldOnlyGenerateBenchmarksWhenMainCodecsDisabled() throws Exception
+    {
+        final CodecGenerationWrapper wrapper = new CodecGenerationWrapper();
+        wrapper.generate(config -> config
+            .fileStreams(dictionaryStream("example_many_fields_dictionary"))
+            .mainCodecsEnabled(false)
+            .benchmarksOutputPath("benchmarks"));
+
+        assertThat(wrapper.sources().keySet(), contains(
+            DEFAULT_PARENT_PACKAGE + ".benchmark.ManyFieldsMessageBenchmark"));
+    }
+
+    @Test
+    public void shouldCompileBenchmarkThatDecodesItsSampleMessage() throws Exception
+    {
+        final CodecGenerationWrapper wrapper = new CodecGenerationWrapper();
+        wrapper.generate(config -> config
+            .fileStreams(dictionaryStream("example_many_fields_dictionary"))
+            .benchmarksOutputPath("benchmarks"));
+
+        final Class<?> benchmarkClass = wrapper.compile(
+            DEFAULT_PARENT_PACKAGE + ".benchmark.ManyFieldsMessageBenchmark");
+        final Object benchmark = benchmarkClass.getConstructor().newInstance();
+        call(benchmark, "setup");
+
+        final String sample = (String)getField(benchmark, BenchmarkGenerator.SAMPLE_MESSAGE);
+        assertEquals(sample.length(), call(benchmark, "decode"));
+    }
+
+    private String sampleMessage()
+    {
+        return generator(null).sampleMessage(heartbeat);
+    }
+
+    private String heartbeatBenchmark()
+    {
+        return outputManager.getSources().get(BENCHMARK_PACKAGE + ".HeartbeatBenchmark").toString();
+    }
+
+    private BenchmarkGenerator generator(final String decoderFlyweightPackage)
+    {
+        outputManager.setPackageName(BENCHMARK_PACKAGE);
+        return new BenchmarkGenerator(
+            MESSAGE_EXAMPLE,
+            BENCHMARK_PACKAGE,
+            TEST_PACKAGE,
+            TEST_PACKAGE,
+            decoderFlyweightPackage,
+            outputManager);
+    }
+}
@@ -0,0 +1,117 @@
+/*
+ * Copyright 2015-2024 Real Logic Limited.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.co.real_logic.artio.dictionary.generation;
+
+import org.junit.BeforeClass;
+import org.junit.Test;
+import uk.co.real_logic.artio.builder.Decoder;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static uk.co.real_logic.artio.dictionary.ExampleDictionary.*;
+import static uk.co.real_logic.artio.util.Reflection.*;
+
+public class DecoderGeneratorLazyTest extends AbstractDecoderGeneratorTest
+{
+    @BeforeClass
+    public static void generate() throws Exception
+    {
+        generate(true, true);
+    }
+
+    @Test
+    public void shouldReturnCachedValueOnRepeatedAccess() throws Exception
+    {
+        final Decoder decoder = decodeHeartbeat(DERIVED_FIELDS_MESSAGE);
+
+        assertEquals(2, getIntField(decoder));
+        assertEquals(2, getIntField(decoder));
+    }
+
+    @Test
+    public void shouldReparseValueAfterDecodingAnotherMessage() throws Exception
+    {
+        final Decoder decoder = decodeHeartbeat(DERIVED_FIELDS_MESSAGE);
+        assertEquals(2, getIntField(decoder));
+
+        decode(TAG_SPECIFIED_WHERE_INT_VALUE_IS_LARGE, decoder);
+
+        assertEquals(99, getIntField(decoder));
+    }
+
+    @Test
+    public void shouldReparseValueAfterResetAndDecode() throws Exception
+    {
+        final Decoder decoder = decodeHeartbeat(DERIVED_FIELDS_MESSAGE);
+        assertEquals(2, getIntField(decoder));
+
+        decoder.reset();
+        decode(TAG_SPECIFIED_WHERE_INT_VALUE_IS_LARGE, decoder);
+
+        assertEquals(99, getIntField(decoder));
+    }
+
+    @Test
+    public void shouldReparseStringAfterDecodingAnotherMessage() throws Exception
+    {
+        final Decoder decoder = decodeHeartbeat(DERIVED_FIELDS_MESSAGE);
+        assertArrayEquals("abc".toCharArray(), getOnBehalfOfCompId(decoder));
+        assertArrayEquals("abc".toCharArray(), getOnBehalfOfCompId(decoder));
+
+        decode(SHORTER_STRING_MESSAGE, decoder);
+
+        assertArrayEquals("ab".toCharArray(), getOnBehalfOfCompId(decoder));
+    }
+
+    @Test
+    public void shouldReparseEnumsAfterDecodingAnotherMessage() throws Exception
+    {
+        final Decoder decoder = enumTestMessageDecoder();
+        decode(ET_ALL_FIELDS, decoder);
+        assertEquals(30, getRepresentation(get(decoder, INT_ENUM_REQ + "AsEnum")));
+        assertEquals("gamma", getRepresentation(get(decoder, STRING_ENUM_REQ + "AsEnum")));
+
+        decode(ET_ONLY_REQ_FIELDS, decoder);
+
+        assertEquals(40, getRepresentation(get(decoder, INT_ENUM_REQ + "AsEnum")));
+        assertEquals("delta", getRepresentation(get(decoder, STRING_ENUM_REQ + "AsEnum")));
+    }
+
+    @Test
+    public void shouldReparseGroupFieldsAfterDecodingAnotherMessage() throws Exception
+    {
+        final Decoder decoder = decodeHeartbeat(REPEATING_GROUP_MESSAGE);
+        final Object group = getEgGroup(decoder);
+        assertEquals(1, getGroupField(group));
+        assertEquals(2, getGroupField(next(group)));
+
+        decode(SINGLE_REPEATING_GROUP_MESSAGE, decoder);
+
+        assertEquals(2, getGroupField(getEgGroup(decoder)));
+    }
+
+    @Test
+    public void shouldReparseGroupFieldsAfterResetAndDecode() throws Exception
+    {
+        final Decoder decoder = decodeHeartbeat(REPEATING_GROUP_MESSAGE);
+        assertEquals(1, getGroupField(getEgGroup(decoder)));
+
+        decoder.reset();
+        decode(SINGLE_REPEATING_GROUP_MESSAGE, decoder);
+
+        assertEquals(2, getGroupField(getEgGroup(decoder)));
+    }
+}
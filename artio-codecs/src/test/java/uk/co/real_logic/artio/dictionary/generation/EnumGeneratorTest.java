@@ -20,10 +20,13 @@ import org.agrona.generation.StringWriterOutputManager;
 import org.junit.BeforeClass;
 import org.junit.Test;
 import uk.co.real_logic.artio.dictionary.CharArrayWrapper;
+import uk.co.real_logic.artio.util.AsciiBuffer;
+import uk.co.real_logic.artio.util.MutableAsciiBuffer;
 
 import java.lang.reflect.Method;
 import java.util.Map;
 
+import static java.nio.charset.StandardCharsets.US_ASCII;
 import static junit.framework.TestCase.assertTrue;
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.*;
@@ -153,6 +156,30 @@ public class EnumGeneratorTest
         assertEquals(values[2], decode.invoke(null, wrapper));
     }
 
+    @Test
+    public void generatesPerfectHashBasedDecode() throws Exception
+    {
+        final Enum<?>[] values = getStringEnumConstants();
+        final Method decode = stringEnumClass.getMethod("decode", char[].class, int.class, int.class);
+        final char[] chars = " 0 A AA ".toCharArray();
+
+        assertEquals(values[0], decode.invoke(null, chars, 1, 1));
+        assertEquals(values[1], decode.invoke(null, chars, 3, 1));
+        assertEquals(values[2], decode.invoke(null, chars, 5, 2));
+        assertEquals(values[values.length - 1], decode.invoke(null, chars, 0, 2));
+    }
+
+    @Test
+    public void generatesAsciiBufferBasedDecode() throws Exception
+    {
+        final Enum<?>[] values = getStringEnumConstants();
+        final Method decode = stringEnumClass.getMethod("decode", AsciiBuffer.class, int.class, int.class);
+        final MutableAsciiBuffer buffer = new MutableAsciiBuffer(" AA AB".getBytes(US_ASCII));
+
+        assertEquals(values[2], decode.invoke(null, buffer, 1, 2));
+        assertEquals(values[values.length - 1], decode.invoke(null, buffer, 4, 2));
+    }
+
     @Test
     public void shouldReturnSentinelValueWhenDecodingUnknownRepresentation() throws Exception
     {
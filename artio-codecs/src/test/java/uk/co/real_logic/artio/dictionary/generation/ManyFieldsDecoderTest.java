@@ -0,0 +1,140 @@
+/*
+ * Copyright 2015-2024 Real Logic Limited.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.co.real_logic.artio.dictionary.generation;
+
+import org.junit.Before;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import uk.co.real_logic.artio.builder.Decoder;
+
+import static org.junit.Assert.*;
+import static uk.co.real_logic.artio.dictionary.generation.CodecGenerationWrapper.dictionaryStream;
+import static uk.co.real_logic.artio.dictionary.generation.DecoderGenerator.REQUIRED_TAG_MISSING;
+import static uk.co.real_logic.artio.dictionary.generation.DecoderGenerator.TAG_APPEARS_MORE_THAN_ONCE;
+import static uk.co.real_logic.artio.util.Reflection.getInt;
+
+/**
+ * Decoders track their fields in bitsets of a long per 64 fields, this message has enough fields to need two.
+ */
+public class ManyFieldsDecoderTest
+{
+    private static final CodecGenerationWrapper WRAPPER = new CodecGenerationWrapper();
+
+    private static final int FIRST_REQUIRED_FIELD_TAG = 2002;
+    private static final int LAST_REQUIRED_FIELD_TAG = 2001;
+    private static final int MANY_FIELDS_COUNT = 68;
+    private static final int FIRST_MANY_FIELD_TAG = 1001;
+
+    private static Class<?> manyFieldsDecoder;
+
+    private Decoder decoder;
+
+    @BeforeClass
+    public static void setup() throws Exception
+    {
+        WRAPPER.generate(config -> config.fileStreams(dictionaryStream("example_many_fields_dictionary")));
+
+        WRAPPER.compile(WRAPPER.decoder(null, "ManyFieldsMessage"));
+        manyFieldsDecoder = WRAPPER.decoder("ManyFieldsMessage");
+    }
+
+    @Before
+    public void init() throws Exception
+    {
+        decoder = (Decoder)manyFieldsDecoder.getDeclaredConstructor().newInstance();
+    }
+
+    @Test
+    public void shouldDecodeAndValidateAllFields() throws Exception
+    {
+        WRAPPER.decode(decoder, message(field(FIRST_REQUIRED_FIELD_TAG, 1) + manyFields() +
+            field(LAST_REQUIRED_FIELD_TAG, 2)));
+
+        assertTrue("Failed validation when it should have passed", decoder.validate());
+        assertEquals(1, getInt(decoder, "firstRequiredField"));
+        assertEquals(1, getInt(decoder, "manyField1"));
+        assertEquals(MANY_FIELDS_COUNT, getInt(decoder, "manyField" + MANY_FIELDS_COUNT));
+        assertEquals(2, getInt(decoder, "lastRequiredField"));
+    }
+
+    @Test
+    public void shouldValidateMissingRequiredFieldBeyondFirst64Fields()
+    {
+        WRAPPER.decode(decoder, message(field(FIRST_REQUIRED_FIELD_TAG, 1) + manyFields()));
+
+        assertInvalid(REQUIRED_TAG_MISSING, LAST_REQUIRED_FIELD_TAG);
+    }
+
+    @Test
+    public void shouldReportFirstMissingRequiredFieldInDictionaryOrder()
+    {
+        WRAPPER.decode(decoder, message(manyFields()));
+
+        // Reported before the last required field, despite having the higher tag
+        assertInvalid(REQUIRED_TAG_MISSING, FIRST_REQUIRED_FIELD_TAG);
+    }
+
+    @Test
+    public void shouldValidateDuplicateFieldBeyondFirst64Fields()
+    {
+        final int lastManyFieldTag = FIRST_MANY_FIELD_TAG + MANY_FIELDS_COUNT - 1;
+        WRAPPER.decode(decoder, message(field(FIRST_REQUIRED_FIELD_TAG, 1) + manyFields() +
+            field(lastManyFieldTag, 1) + field(LAST_REQUIRED_FIELD_TAG, 2)));
+
+        assertInvalid(TAG_APPEARS_MORE_THAN_ONCE, lastManyFieldTag);
+    }
+
+    @Test
+    public void shouldClearFieldsBeyondFirst64FieldsOnReset()
+    {
+        WRAPPER.decode(decoder, message(field(FIRST_REQUIRED_FIELD_TAG, 1) + manyFields()));
+        assertInvalid(REQUIRED_TAG_MISSING, LAST_REQUIRED_FIELD_TAG);
+
+        decoder.reset();
+        WRAPPER.decode(decoder, message(field(FIRST_REQUIRED_FIELD_TAG, 1) + manyFields() +
+            field(LAST_REQUIRED_FIELD_TAG, 2)));
+
+        assertTrue("Failed validation when it should have passed", decoder.validate());
+    }
+
+    private void assertInvalid(final int rejectReason, final int tagId)
+    {
+        assertFalse("Passed validation with invalid fields", decoder.validate());
+        assertEquals("Wrong reject reason", rejectReason, decoder.rejectReason());
+        assertEquals("Wrong tag id", tagId, decoder.invalidTagId());
+    }
+
+    private static String message(final String body)
+    {
+        return "8=FIXR.7.2\0019=0\00135=U3\00149=sender\00156=target\00134=1\00152= \001" + body + "10=000\001";
+    }
+
+    // Each field's value is its position within the many fields
+    private static String manyFields()
+    {
+        final StringBuilder fields = new StringBuilder();
+        for (int i = 0; i < MANY_FIELDS_COUNT; i++)
+        {
+            fields.append(field(FIRST_MANY_FIELD_TAG + i, i + 1));
+        }
+        return fields.toString();
+    }
+
+    private static String field(final int tag, final int value)
+    {
+        return tag + "=" + value + "\001";
+    }
+}
@@ -0,0 +1,73 @@
+/*
+ * Copyright 2015-2024 Real Logic Limited.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.co.real_logic.artio.dictionary.generation;
+
+import org.junit.Test;
+import uk.co.real_logic.artio.dictionary.PerfectHash;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+
+public class PerfectHashTableTest
+{
+    @Test
+    public void shouldGiveEveryKeyItsOwnSlot()
+    {
+        assertPerfect(Arrays.asList("0", "A", "AA"));
+        assertPerfect(Arrays.asList("8", "D", "AE", "BZ", "CD", "UDS", "XLR"));
+    }
+
+    @Test
+    public void shouldHashLargeKeySets()
+    {
+        final List<String> keys = new ArrayList<>();
+        for (int i = 0; i < 2000; i++)
+        {
+            keys.add(Integer.toString(i, Character.MAX_RADIX).toUpperCase());
+        }
+
+        assertPerfect(keys);
+    }
+
+    @Test
+    public void shouldHashSingleKey()
+    {
+        assertPerfect(Arrays.asList("Y"));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void shouldRejectDuplicateKeys()
+    {
+        PerfectHashTable.build(Arrays.asList("A", "B", "A"));
+    }
+
+    private static void assertPerfect(final List<String> keys)
+    {
+        final PerfectHashTable table = PerfectHashTable.build(keys);
+        final String[] slots = table.slots();
+
+        assertEquals(keys.size(), slots.length);
+        for (final String key : keys)
+        {
+            final char[] chars = key.toCharArray();
+            final int hash = PerfectHash.hash(chars, 0, chars.length, table.seed());
+            assertEquals(key, slots[PerfectHash.slot(hash, table.displacements(), slots.length)]);
+        }
+    }
+}
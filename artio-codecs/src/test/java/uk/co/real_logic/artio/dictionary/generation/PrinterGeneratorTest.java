@@ -81,6 +81,18 @@ public class PrinterGeneratorTest
         assertThat(string, containsString(STRING_ENCODED_MESSAGE_EXAMPLE));
     }
 
+    @Test
+    public void shouldPrettyPrintAMessageIntoABuffer() throws Exception
+    {
+        final Printer printer = printer();
+        buffer.putAscii(1, ENCODED_MESSAGE);
+        final MutableAsciiBuffer output = new MutableAsciiBuffer(new byte[8 * 1024]);
+
+        final int length = printer.appendTo(buffer, 1, ENCODED_MESSAGE.length(), HEARTBEAT_TYPE, output, 0);
+
+        assertThat(output.getAscii(0, length), containsString(STRING_ENCODED_MESSAGE_EXAMPLE));
+    }
+
     private Printer printer()
         throws InstantiationException, IllegalAccessException, NoSuchMethodException, InvocationTargetException
     {
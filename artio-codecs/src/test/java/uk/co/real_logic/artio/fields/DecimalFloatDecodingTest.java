@@ -93,6 +93,9 @@ public class DecimalFloatDecodingTest
             {"0.00000001", 1, 8},
             {"6456.123456789", 6456123456789L, 9},
             {"6456.000000001", 6456000000001L, 9},
+            {"12345678", 12345678L, 0},
+            {"123456789.12345678", 12345678912345678L, 8},
+            {"-1234567890123456.78", -123456789012345678L, 2},
 
             {"0", 0L, 0},
             {"00", 0L, 0},
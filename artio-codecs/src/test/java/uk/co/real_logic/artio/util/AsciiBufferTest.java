@@ -21,6 +21,7 @@ import org.junit.Test;
 import static java.nio.charset.StandardCharsets.US_ASCII;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotEquals;
+import static uk.co.real_logic.artio.dictionary.generation.CodecUtil.MISSING_INT;
 import static uk.co.real_logic.artio.util.AsciiBuffer.UNKNOWN_INDEX;
 
 public class AsciiBufferTest
@@ -68,6 +69,92 @@ public class AsciiBufferTest
         assertEquals(UNKNOWN_INDEX, value);
     }
 
+    @Test
+    public void shouldFindCharactersWhenScanningForwards()
+    {
+        assertEquals(OFFSET + 1, buffer.scan(OFFSET, OFFSET + BYTES.length, '='));
+        assertEquals(OFFSET + 9, buffer.scan(OFFSET + 2, OFFSET + BYTES.length, 'A'));
+        assertEquals(OFFSET + 12, buffer.scan(OFFSET + 10, OFFSET + BYTES.length, '='));
+        assertEquals(OFFSET + 17, buffer.scan(OFFSET + 14, OFFSET + BYTES.length, ' '));
+    }
+
+    @Test
+    public void shouldNotFindCharactersBeyondEndWhenScanningForwards()
+    {
+        assertEquals(UNKNOWN_INDEX, buffer.scan(OFFSET, OFFSET + BYTES.length, 'Z'));
+        assertEquals(UNKNOWN_INDEX, buffer.scan(OFFSET + 2, OFFSET + 9, 'A'));
+        assertEquals(UNKNOWN_INDEX, buffer.scan(OFFSET + 14, OFFSET + 17, ' '));
+    }
+
+    @Test
+    public void shouldParseTagWhenScanningForEquals()
+    {
+        assertTagAndEqualsIndex(8, OFFSET + 1, buffer.scanTag(OFFSET, OFFSET + BYTES.length));
+        assertTagAndEqualsIndex(9, OFFSET + 12, buffer.scanTag(OFFSET + 11, OFFSET + BYTES.length));
+        assertEquals(UNKNOWN_INDEX, buffer.scanTag(OFFSET + 2, OFFSET + 9));
+    }
+
+    @Test
+    public void shouldParseTagsOutsideOfFastPathWhenScanningForEquals()
+    {
+        assertTagAndEqualsIndex(1234567890, 110, scanTagOf("1234567890=A"));
+        assertTagAndEqualsIndex(-5, 102, scanTagOf("-5=A"));
+        assertTagAndEqualsIndex(MISSING_INT, 100, scanTagOf("=A"));
+    }
+
+    private long scanTagOf(final String field)
+    {
+        buffer.putAscii(100, field);
+        return buffer.scanTag(100, 100 + field.length());
+    }
+
+    private static void assertTagAndEqualsIndex(final int tag, final int equalsIndex, final long tagAndEqualsIndex)
+    {
+        assertEquals(tag, AsciiBuffer.scannedTag(tagAndEqualsIndex));
+        assertEquals(equalsIndex, AsciiBuffer.scannedEqualsIndex(tagAndEqualsIndex));
+    }
+
+    @Test
+    public void shouldFindEveryPositionWhenScanningForwards()
+    {
+        final int length = 64;
+        for (int i = 0; i < length; i++)
+        {
+            buffer.setMemory(0, length, (byte)'a');
+            buffer.putByte(i, (byte)'\001');
+
+            for (int start = 0; start <= i; start++)
+            {
+                assertEquals(i, buffer.scan(start, length, (byte)'\001'));
+            }
+            assertEquals(UNKNOWN_INDEX, buffer.scan(0, i, (byte)'\001'));
+        }
+    }
+
+    @Test
+    public void shouldComputeSameChecksumAsByteAtATimeSum()
+    {
+        final int length = 603;
+        for (int i = 0; i < length; i++)
+        {
+            buffer.putByte(i, (byte)(i * 31 + 7));
+        }
+
+        for (int start = 0; start < 16; start++)
+        {
+            for (int end = start; end < length; end += 13)
+            {
+                int total = 0;
+                for (int i = start; i < end; i++)
+                {
+                    total += buffer.getByte(i);
+                }
+
+                assertEquals(total % 256, buffer.computeChecksum(start, end));
+            }
+        }
+    }
+
     @Test
     public void shouldGetIntegerValuesAtSpecifiedOffset()
     {
@@ -47,7 +47,12 @@ public class FixCounters implements AutoCloseable
         CURRENT_REPLAY_COUNT_TYPE_ID(10_008),
         NEGATIVE_TIMESTAMP_TYPE_ID(10_009),
         FAILED_ADMIN_TYPE_ID(10_010),
-        FAILED_ADMIN_REPLY_TYPE_ID(10_011);
+        FAILED_ADMIN_REPLY_TYPE_ID(10_011),
+        RECEIVER_HOT_POLLING_TYPE_ID(10_012),
+        RESEND_CACHE_HITS_TYPE_ID(10_013),
+        RESEND_CACHE_MISSES_TYPE_ID(10_014),
+        ENQUEUED_REPLAY_COUNT_TYPE_ID(10_015),
+        REPLAY_LATENCY_TYPE_ID(10_016);
 
         final int id;
 
@@ -68,6 +73,7 @@ public class FixCounters implements AutoCloseable
     private final AtomicCounter failedReplayPublications;
     private final AtomicCounter failedAdminReplyPublications;
     private final AtomicCounter currentReplayCount;
+    private final AtomicCounter enqueuedReplayCount;
     private final AtomicCounter negativeTimestamps;
     private final Aeron aeron;
 
@@ -112,10 +118,13 @@ public class FixCounters implements AutoCloseable
         {
             currentReplayCount = newCounter(FixCountersId.CURRENT_REPLAY_COUNT_TYPE_ID.id(),
                 "Current Replay Count");
+            enqueuedReplayCount = newCounter(FixCountersId.ENQUEUED_REPLAY_COUNT_TYPE_ID.id(),
+                "Enqueued Replay Count");
         }
         else
         {
             currentReplayCount = null;
+            enqueuedReplayCount = null;
         }
     }
 
@@ -144,6 +153,11 @@ public class FixCounters implements AutoCloseable
         return currentReplayCount;
     }
 
+    public AtomicCounter enqueuedReplayCount()
+    {
+        return enqueuedReplayCount;
+    }
+
     public AtomicCounter negativeTimestamps()
     {
         return negativeTimestamps;
@@ -167,6 +181,28 @@ public class FixCounters implements AutoCloseable
                 "Invalid Library Attempts for " + address + " id = " + connectionId);
     }
 
+    public AtomicCounter receiverHotPolling(final long connectionId, final String address)
+    {
+        return newCounter(FixCountersId.RECEIVER_HOT_POLLING_TYPE_ID.id(),
+                "Hot polled receiver for " + address + " id = " + connectionId);
+    }
+
+    public AtomicCounter resendCacheHits()
+    {
+        return newCounter(FixCountersId.RESEND_CACHE_HITS_TYPE_ID.id(), "Resend cache hits");
+    }
+
+    public AtomicCounter resendCacheMisses()
+    {
+        return newCounter(FixCountersId.RESEND_CACHE_MISSES_TYPE_ID.id(), "Resend cache misses");
+    }
+
+    public AtomicCounter replayLatency(final long connectionId, final long sessionId)
+    {
+        return newCounter(FixCountersId.REPLAY_LATENCY_TYPE_ID.id(),
+            "Last Replay Latency in ns connId=" + connectionId + ",sessId=" + sessionId);
+    }
+
     public AtomicCounter sentMsgSeqNo(final long connectionId, final long sessionId)
     {
         return newCounter(
@@ -104,6 +104,11 @@ public final class EngineConfiguration extends CommonConfiguration implements Au
      */
     public static final String INDEX_CHECKSUM_ENABLED_PROP = "logging.checksum.enabled";
 
+    /**
+     * Property name for enabling the delta-compressed block format for new replay index files
+     */
+    public static final String REPLAY_INDEX_COMPRESSION_ENABLED_PROP = "logging.index.compression.enabled";
+
     /**
      * Deprecated property name for size of logging index files. Do not use this, set
      * {@link #REPLAY_INDEX_RECORD_CAPACITY_PROP} instead.
@@ -161,6 +166,48 @@ public final class EngineConfiguration extends CommonConfiguration implements Au
      * Property name for the maximum number of bytes to allow in the quarantine buffer before disconnection
      */
     public static final String SENDER_MAX_BYTES_IN_BUFFER_PROP = "fix.core.sender_max_bytes_in_buffer";
+    /**
+     * Property name for enabling gathering of outbound messages to the same connection into a single socket write
+     */
+    public static final String GATHERING_WRITES_ENABLED_PROP = "fix.core.gathering_writes_enabled";
+    /**
+     * Property name for enabling pooling of receive buffers between FIX connections
+     */
+    public static final String POOLED_RECEIVER_BUFFERS_ENABLED_PROP = "fix.core.pooled_receiver_buffers_enabled";
+    /**
+     * Property name for enabling adaptive polling of FIX connections, that directly polls connections which receive
+     * data frequently and selects the remainder
+     */
+    public static final String ADAPTIVE_RECEIVER_POLLING_ENABLED_PROP = "fix.core.adaptive_receiver_polling_enabled";
+    /**
+     * Property name for the maximum number of recently sent messages per session kept in memory to serve resend
+     * requests, 0 disables the resend cache
+     */
+    public static final String RESEND_CACHE_MAX_MESSAGES_PROP = "fix.core.resend_cache_max_messages";
+    /**
+     * Property name for the maximum number of bytes of recently sent messages per session kept in the resend cache
+     */
+    public static final String RESEND_CACHE_MAX_BYTES_PROP = "fix.core.resend_cache_max_bytes";
+    /**
+     * Property name for the maximum age in milliseconds of a message that can be served from the resend cache
+     */
+    public static final String RESEND_CACHE_MAX_AGE_IN_MS_PROP = "fix.core.resend_cache_max_age_in_ms";
+    /**
+     * Property name for the maximum number of bytes that a single session's replay reads from the archive in one
+     * duty cycle of the replayer, 0 disables the replay scheduler
+     */
+    public static final String REPLAY_CHUNK_SIZE_IN_BYTES_PROP = "fix.core.replay_chunk_size_in_bytes";
+    /**
+     * Property name for the rate in bytes per second that a single session's replay can read from the archive,
+     * 0 leaves the rate unlimited
+     */
+    public static final String REPLAY_SESSION_RATE_IN_BYTES_PER_SECOND_PROP =
+        "fix.core.replay_session_rate_in_bytes_per_second";
+    /**
+     * Property name for whether resend requests with overlapping recording ranges are served from a single shared
+     * archive replay
+     */
+    public static final String SHARED_REPLAYS_ENABLED_PROP = "fix.core.shared_replays_enabled";
     /**
      * Property name for the timeout before a connection that hasn't sent a logon is disconnected
      */
@@ -209,6 +256,16 @@ public final class EngineConfiguration extends CommonConfiguration implements Au
     public static final long DEFAULT_DUPLICATE_ENGINE_TIMEOUT_IN_MS = SECONDS.toMillis(10);
     public static final int NO_THROTTLE_WINDOW = MISSING_INT;
     public static final boolean DEFAULT_INDEX_CHECKSUM_ENABLED = true;
+    public static final boolean DEFAULT_REPLAY_INDEX_COMPRESSION_ENABLED = false;
+    public static final boolean DEFAULT_GATHERING_WRITES_ENABLED = false;
+    public static final boolean DEFAULT_POOLED_RECEIVER_BUFFERS_ENABLED = false;
+    public static final boolean DEFAULT_ADAPTIVE_RECEIVER_POLLING_ENABLED = false;
+    public static final int DEFAULT_RESEND_CACHE_MAX_MESSAGES = 0;
+    public static final int DEFAULT_RESEND_CACHE_MAX_BYTES = 256 * 1024;
+    public static final int DEFAULT_RESEND_CACHE_MAX_AGE_IN_MS = (int)SECONDS.toMillis(10);
+    public static final int DEFAULT_REPLAY_CHUNK_SIZE_IN_BYTES = 0;
+    public static final int DEFAULT_REPLAY_SESSION_RATE_IN_BYTES_PER_SECOND = 0;
+    public static final boolean DEFAULT_SHARED_REPLAYS_ENABLED = false;
 
     public static final long MAX_COD_TIMEOUT_IN_NS = 60_000_000_000L;
     public static final long MAX_COD_TIMEOUT_IN_MS = 60_000L;
@@ -241,6 +298,8 @@ public final class EngineConfiguration extends CommonConfiguration implements Au
     private int replayIndexFileRecordCapacity = getInteger(
         REPLAY_INDEX_RECORD_CAPACITY_PROP, DEFAULT_REPLAY_INDEX_RECORD_CAPACITY);
     private int replayIndexSegmentRecordCapacity = DEFAULT_REPLAY_INDEX_SEGMENT_CAPACITY;
+    private boolean replayIndexCompressionEnabled =
+        getBoolean(REPLAY_INDEX_COMPRESSION_ENABLED_PROP, DEFAULT_REPLAY_INDEX_COMPRESSION_ENABLED);
     private String logFileDir = getProperty(LOG_FILE_DIR_PROP, DEFAULT_LOG_FILE_DIR);
     private int loggerCacheNumSets = DEFAULT_LOGGER_CACHE_NUM_SETS;
     private int loggerCacheSetSize = DEFAULT_LOGGER_CACHE_SET_SIZE;
@@ -282,6 +341,23 @@ public final class EngineConfiguration extends CommonConfiguration implements Au
     private int noLogonDisconnectTimeoutInMs =
         getInteger(NO_LOGON_DISCONNECT_TIMEOUT_PROP, DEFAULT_NO_LOGON_DISCONNECT_TIMEOUT_IN_MS);
     private boolean indexChecksumEnabled = getBoolean(INDEX_CHECKSUM_ENABLED_PROP, DEFAULT_INDEX_CHECKSUM_ENABLED);
+    private boolean gatheringWritesEnabled =
+        getBoolean(GATHERING_WRITES_ENABLED_PROP, DEFAULT_GATHERING_WRITES_ENABLED);
+    private boolean pooledReceiverBuffersEnabled =
+        getBoolean(POOLED_RECEIVER_BUFFERS_ENABLED_PROP, DEFAULT_POOLED_RECEIVER_BUFFERS_ENABLED);
+    private boolean adaptiveReceiverPollingEnabled =
+        getBoolean(ADAPTIVE_RECEIVER_POLLING_ENABLED_PROP, DEFAULT_ADAPTIVE_RECEIVER_POLLING_ENABLED);
+    private int resendCacheMaxMessages =
+        getInteger(RESEND_CACHE_MAX_MESSAGES_PROP, DEFAULT_RESEND_CACHE_MAX_MESSAGES);
+    private int resendCacheMaxBytes =
+        getInteger(RESEND_CACHE_MAX_BYTES_PROP, DEFAULT_RESEND_CACHE_MAX_BYTES);
+    private int resendCacheMaxAgeInMs =
+        getInteger(RESEND_CACHE_MAX_AGE_IN_MS_PROP, DEFAULT_RESEND_CACHE_MAX_AGE_IN_MS);
+    private int replayChunkSizeInBytes =
+        getInteger(REPLAY_CHUNK_SIZE_IN_BYTES_PROP, DEFAULT_REPLAY_CHUNK_SIZE_IN_BYTES);
+    private int replaySessionRateInBytesPerSecond =
+        getInteger(REPLAY_SESSION_RATE_IN_BYTES_PER_SECOND_PROP, DEFAULT_REPLAY_SESSION_RATE_IN_BYTES_PER_SECOND);
+    private boolean sharedReplaysEnabled = getBoolean(SHARED_REPLAYS_ENABLED_PROP, DEFAULT_SHARED_REPLAYS_ENABLED);
 
     private String libraryAeronChannel = null;
     private Function<EngineConfiguration, TcpChannelSupplier> channelSupplierFactory = DefaultTcpChannelSupplier::new;
@@ -408,6 +484,41 @@ public final class EngineConfiguration extends CommonConfiguration implements Au
         return this;
     }
 
+    /**
+     * Enables pooling of receive buffers between FIX connections. Rather than every connection allocating a buffer of
+     * {@link #receiverBufferSize(int)} up front, connections read into a single shared buffer and only hold a buffer
+     * of their own, taken from a pool, whilst they have data that hasn't been processed, for example a partially
+     * received message. This greatly reduces memory usage when there are a large number of mostly idle connections.
+     *
+     * @param pooledReceiverBuffersEnabled true to enable, false to disable
+     * @return this
+     * @see EngineConfiguration#POOLED_RECEIVER_BUFFERS_ENABLED_PROP
+     */
+    public EngineConfiguration pooledReceiverBuffersEnabled(final boolean pooledReceiverBuffersEnabled)
+    {
+        this.pooledReceiverBuffersEnabled = pooledReceiverBuffersEnabled;
+        return this;
+    }
+
+    /**
+     * Enables adaptive polling of FIX connections. By default the Framer either polls every connection on each duty
+     * cycle or uses a selector to find the connections with data, depending upon whether the number of connections
+     * is above the <code>fix.core.iteration.threshold</code> system property. With adaptive polling the Framer tracks
+     * how often each connection receives data: frequently active connections are polled directly on every duty cycle
+     * and the remainder are polled through the selector. This suits a mix of a small number of very active
+     * connections and a large number of mostly idle connections. Whether each connection is being polled directly is
+     * exposed through a counter.
+     *
+     * @param adaptiveReceiverPollingEnabled true to enable, false to disable
+     * @return this
+     * @see EngineConfiguration#ADAPTIVE_RECEIVER_POLLING_ENABLED_PROP
+     */
+    public EngineConfiguration adaptiveReceiverPollingEnabled(final boolean adaptiveReceiverPollingEnabled)
+    {
+        this.adaptiveReceiverPollingEnabled = adaptiveReceiverPollingEnabled;
+        return this;
+    }
+
     /**
      * Sets the receiver socket buffer size.
      *
@@ -488,6 +599,27 @@ public final class EngineConfiguration extends CommonConfiguration implements Au
         return this;
     }
 
+    /**
+     * Enables the delta-compressed block format for replay index files. Rather than storing a fixed size record per
+     * message, each block stores the recording id, sequence index and first message in full followed by varint
+     * encoded deltas for the messages after it. A typical message then costs a few bytes rather than
+     * {@link ReplayIndexDescriptor#RECORD_LENGTH}, so the same index file size can answer resend requests from much
+     * further back in history and more of it stays in the page cache.
+     *
+     * The format is chosen when a session's index is created, so existing index files keep the format that they were
+     * written in until the session's sequence numbers are reset. Compressed index files require segments that are at
+     * least {@link ReplayIndexDescriptor#BLOCK_LENGTH} bytes long, see {@link #replayIndexSegmentRecordCapacity(int)}.
+     *
+     * @param replayIndexCompressionEnabled true to enable, false to disable
+     * @return this
+     * @see EngineConfiguration#REPLAY_INDEX_COMPRESSION_ENABLED_PROP
+     */
+    public EngineConfiguration replayIndexCompressionEnabled(final boolean replayIndexCompressionEnabled)
+    {
+        this.replayIndexCompressionEnabled = replayIndexCompressionEnabled;
+        return this;
+    }
+
     /**
      * Convert the number of records in a replay index file to a file size. Note: because replay index file sizes must
      * be a power of two this method can return a file size greater than the requested number of records but never less.
@@ -647,6 +779,22 @@ public final class EngineConfiguration extends CommonConfiguration implements Au
         return this;
     }
 
+    /**
+     * Enables gathering of the outbound messages for a FIX connection that are read from libraries in the same duty
+     * cycle into a single socket write, rather than writing each message to the socket as it is read. This reduces
+     * the number of system calls made when sending bursts of messages to a connection. Messages that can't be written
+     * are retried as normal.
+     *
+     * @param gatheringWritesEnabled true to enable, false to disable
+     * @return this
+     * @see EngineConfiguration#GATHERING_WRITES_ENABLED_PROP
+     */
+    public EngineConfiguration gatheringWritesEnabled(final boolean gatheringWritesEnabled)
+    {
+        this.gatheringWritesEnabled = gatheringWritesEnabled;
+        return this;
+    }
+
     /**
      * Set the timeout in milliseconds for TCP connections which don't send a logon message.
      *
@@ -1058,6 +1206,94 @@ public final class EngineConfiguration extends CommonConfiguration implements Au
         return this;
     }
 
+    /**
+     * Configures an in-memory cache of recently sent messages for each session. Resend requests whose range is
+     * entirely held within the cache are served from memory rather than by replaying the archive, which avoids the
+     * setup latency of an archive replay when a counter-party has only missed a few recent messages. Requests that
+     * aren't covered by the cache are replayed from the archive as normal. Cache hits and misses are exposed through
+     * counters. Only used when outbound messages are logged.
+     *
+     * @param maxMessages the maximum number of messages cached per session, 0 disables the cache.
+     * @param maxBytes the maximum number of bytes cached per session.
+     * @param maxAgeInMs the maximum age of a message that can be served from the cache.
+     * @return this
+     * @see EngineConfiguration#RESEND_CACHE_MAX_MESSAGES_PROP
+     * @see EngineConfiguration#RESEND_CACHE_MAX_BYTES_PROP
+     * @see EngineConfiguration#RESEND_CACHE_MAX_AGE_IN_MS_PROP
+     */
+    public EngineConfiguration resendCache(final int maxMessages, final int maxBytes, final int maxAgeInMs)
+    {
+        if (maxMessages < 0 || maxBytes < 0 || maxAgeInMs < 0)
+        {
+            throw new IllegalArgumentException(
+                "Unable to configure resend cache, parameters must be >= 0 but are maxMessages=" + maxMessages +
+                ", maxBytes=" + maxBytes + ", maxAgeInMs=" + maxAgeInMs);
+        }
+
+        this.resendCacheMaxMessages = maxMessages;
+        this.resendCacheMaxBytes = maxBytes;
+        this.resendCacheMaxAgeInMs = maxAgeInMs;
+        return this;
+    }
+
+    /**
+     * Configures the replay scheduler, which shares the archive replay stream fairly between sessions that are
+     * replaying messages at the same time. Without it a session that requested a resend of a large range of messages
+     * can delay the resends of every other session until its replay has completed.
+     *
+     * When enabled each session's replay reads at most chunkSizeInBytes from the archive in each duty cycle of the
+     * replayer, and sessions with the fewest bytes left to replay are polled first, so that small resends complete
+     * quickly while large ones are in progress. A session's replay can also be limited to a rate, in which case
+     * it can read a chunk in a burst and then at most sessionRateInBytesPerSecond.
+     *
+     * @param chunkSizeInBytes the maximum number of bytes a session's replay reads in a duty cycle, 0 disables the
+     *                         replay scheduler.
+     * @param sessionRateInBytesPerSecond the maximum rate that a session's replay reads at, 0 for no limit.
+     * @return this
+     * @see EngineConfiguration#REPLAY_CHUNK_SIZE_IN_BYTES_PROP
+     * @see EngineConfiguration#REPLAY_SESSION_RATE_IN_BYTES_PER_SECOND_PROP
+     */
+    public EngineConfiguration replayScheduler(final int chunkSizeInBytes, final int sessionRateInBytesPerSecond)
+    {
+        if (chunkSizeInBytes < 0 || sessionRateInBytesPerSecond < 0)
+        {
+            throw new IllegalArgumentException(
+                "Unable to configure replay scheduler, parameters must be >= 0 but are chunkSizeInBytes=" +
+                chunkSizeInBytes + ", sessionRateInBytesPerSecond=" + sessionRateInBytesPerSecond);
+        }
+
+        if (chunkSizeInBytes == 0 && sessionRateInBytesPerSecond != 0)
+        {
+            throw new IllegalArgumentException(
+                "Unable to configure replay scheduler, a sessionRateInBytesPerSecond of " +
+                sessionRateInBytesPerSecond + " requires a chunkSizeInBytes > 0");
+        }
+
+        this.replayChunkSizeInBytes = chunkSizeInBytes;
+        this.replaySessionRateInBytesPerSecond = sessionRateInBytesPerSecond;
+        return this;
+    }
+
+    /**
+     * Enables sharing of archive replays between resend requests. When several sessions reconnect at the same time
+     * their resend requests often cover overlapping ranges of the same outbound recording, when this is enabled
+     * those requests are served from a single archive replay rather than each starting its own one, which reduces
+     * archive reads and replay setup cost. Requests that are received in the same duty cycle of the replayer are
+     * merged, and a later request can join a shared replay that covers its range and hasn't yet reached its start.
+     *
+     * A shared replay moves at the pace of its slowest session, so a session that is back-pressured delays the
+     * resends of the others sharing its replay.
+     *
+     * @param sharedReplaysEnabled true to enable, false to disable
+     * @return this
+     * @see EngineConfiguration#SHARED_REPLAYS_ENABLED_PROP
+     */
+    public EngineConfiguration sharedReplaysEnabled(final boolean sharedReplaysEnabled)
+    {
+        this.sharedReplaysEnabled = sharedReplaysEnabled;
+        return this;
+    }
+
     /**
      * Sets the initial sequenceIndex for the new session.
      * Doesnt affects existing session.
@@ -1674,6 +1910,26 @@ public final class EngineConfiguration extends CommonConfiguration implements Au
         return receiverBufferSize;
     }
 
+    /**
+     * See {@link #pooledReceiverBuffersEnabled(boolean)} for details.
+     *
+     * @return true if receive buffers are pooled between FIX connections
+     */
+    public boolean pooledReceiverBuffersEnabled()
+    {
+        return pooledReceiverBuffersEnabled;
+    }
+
+    /**
+     * See {@link #adaptiveReceiverPollingEnabled(boolean)} for details.
+     *
+     * @return true if adaptive polling of FIX connections is enabled
+     */
+    public boolean adaptiveReceiverPollingEnabled()
+    {
+        return adaptiveReceiverPollingEnabled;
+    }
+
     /**
      * See {@link #receiverSocketBufferSize(int)} for details.
      *
@@ -1719,6 +1975,11 @@ public final class EngineConfiguration extends CommonConfiguration implements Au
         return replayIndexSegmentRecordCapacity;
     }
 
+    public boolean replayIndexCompressionEnabled()
+    {
+        return replayIndexCompressionEnabled;
+    }
+
     public int loggerCacheSetSize()
     {
         return loggerCacheSetSize;
@@ -1928,6 +2189,36 @@ public final class EngineConfiguration extends CommonConfiguration implements Au
         return maxConcurrentSessionReplays;
     }
 
+    public int resendCacheMaxMessages()
+    {
+        return resendCacheMaxMessages;
+    }
+
+    public int resendCacheMaxBytes()
+    {
+        return resendCacheMaxBytes;
+    }
+
+    public int resendCacheMaxAgeInMs()
+    {
+        return resendCacheMaxAgeInMs;
+    }
+
+    public int replayChunkSizeInBytes()
+    {
+        return replayChunkSizeInBytes;
+    }
+
+    public int replaySessionRateInBytesPerSecond()
+    {
+        return replaySessionRateInBytesPerSecond;
+    }
+
+    public boolean sharedReplaysEnabled()
+    {
+        return sharedReplaysEnabled;
+    }
+
     public int replayPositionBufferSize()
     {
         return replayPositionBufferSize;
@@ -2043,6 +2334,11 @@ public final class EngineConfiguration extends CommonConfiguration implements Au
         return indexChecksumEnabled;
     }
 
+    public boolean gatheringWritesEnabled()
+    {
+        return gatheringWritesEnabled;
+    }
+
     public EngineReproductionConfiguration reproductionConfiguration()
     {
         return reproductionConfiguration;
@@ -73,6 +73,7 @@ public class EngineContext implements AutoCloseable
     // Indexers are owned by the indexingAgent
     private Indexer inboundIndexer;
     private Indexer outboundIndexer;
+    private ResendCache resendCache;
     private Agent indexingAgent;
     private ReplayQuery pruneInboundReplayQuery;
     private ReplayQuery outboundReplayQuery;
@@ -201,6 +202,7 @@ public class EngineContext implements AutoCloseable
             reader,
             configuration.timeIndexReplayFlushIntervalInNs(),
             indexChecksumEnabled,
+            configuration.replayIndexCompressionEnabled(),
             evictionHandler);
     }
 
@@ -223,7 +225,8 @@ public class EngineContext implements AutoCloseable
             NoOpReplayQueryListener.INSTANCE,
             archiveReplayStream,
             configuration.replayIndexFileRecordCapacity(),
-            configuration.replayIndexSegmentRecordCapacity());
+            configuration.replayIndexSegmentRecordCapacity(),
+            configuration.sharedReplaysEnabled());
     }
 
     private Replayer newReplayer(
@@ -248,11 +251,12 @@ public class EngineContext implements AutoCloseable
             configuration.senderMaxBytesInBuffer(),
             replayerCommandQueue,
             epochFractionFormat,
-            fixCounters.currentReplayCount(),
+            fixCounters,
             configuration.maxConcurrentSessionReplays(),
             clock,
             configuration.supportedFixPProtocolType(),
-            configuration);
+            configuration,
+            resendCache);
     }
 
     private void newIndexers()
@@ -305,6 +309,20 @@ public class EngineContext implements AutoCloseable
                     indexChecksumEnabled,
                     outboundEvictionHandler);
                 outboundIndices.add(outboundReplayIndex);
+
+                final int resendCacheMaxMessages = configuration.resendCacheMaxMessages();
+                if (resendCacheMaxMessages > 0)
+                {
+                    resendCache = new ResendCache(
+                        configuration.outboundLibraryStream(),
+                        resendCacheMaxMessages,
+                        configuration.resendCacheMaxBytes(),
+                        configuration.resendCacheMaxAgeInMs(),
+                        clock,
+                        fixCounters.resendCacheHits(),
+                        fixCounters.resendCacheMisses());
+                    outboundIndices.add(resendCache);
+                }
             }
             outboundIndices.add(sentSequenceNumberIndex);
 
@@ -322,6 +340,7 @@ public class EngineContext implements AutoCloseable
         {
             suppressingClose(inboundReplayIndex, e);
             suppressingClose(outboundReplayIndex, e);
+            suppressingClose(resendCache, e);
             throw e;
         }
     }
@@ -0,0 +1,129 @@
+/*
+ * Copyright 2015-2024 Real Logic Limited.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.co.real_logic.artio.engine.framer;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.RandomAccess;
+
+/**
+ * A list that is appended to by a single writer thread and read from other threads. Unlike a
+ * {@link java.util.concurrent.CopyOnWriteArrayList} an append doesn't copy the list, the backing array is only
+ * copied when it grows. Readers see a consistent snapshot on each operation and iterators are snapshots.
+ * <p>
+ * Modifications through the {@link java.util.List} interface aren't supported.
+ *
+ * @param <E> the type of elements.
+ */
+class AppendOnlyList<E> extends AbstractList<E> implements RandomAccess
+{
+    private static final int INITIAL_CAPACITY = 16;
+
+    private volatile Snapshot<E> snapshot = new Snapshot<>(new Object[INITIAL_CAPACITY], 0);
+
+    /**
+     * Append an element, only called from the writer thread.
+     *
+     * @param element the element to append.
+     * @return the index of the element.
+     */
+    int append(final E element)
+    {
+        final Snapshot<E> snapshot = this.snapshot;
+        Object[] elements = snapshot.elements;
+        final int size = snapshot.size;
+        if (size == elements.length)
+        {
+            elements = Arrays.copyOf(elements, size << 1);
+        }
+
+        // Slots past the size of the current snapshot aren't visible to readers, so can be written before publishing
+        elements[size] = element;
+        this.snapshot = new Snapshot<>(elements, size + 1);
+
+        return size;
+    }
+
+    /**
+     * Overwrite an element in place, only called from the writer thread before the list is shared with readers.
+     * Unlike an append this changes the snapshots that have already been taken.
+     *
+     * @param index the index of the element to overwrite.
+     * @param element the element to overwrite it with.
+     */
+    void overwrite(final int index, final E element)
+    {
+        final Snapshot<E> snapshot = this.snapshot;
+        if (index < 0 || index >= snapshot.size)
+        {
+            throw new IndexOutOfBoundsException("index=" + index + ", size=" + snapshot.size);
+        }
+
+        snapshot.elements[index] = element;
+    }
+
+    /**
+     * Remove all elements, only called from the writer thread.
+     */
+    void reset()
+    {
+        snapshot = new Snapshot<>(new Object[INITIAL_CAPACITY], 0);
+    }
+
+    public E get(final int index)
+    {
+        return snapshot.get(index);
+    }
+
+    public int size()
+    {
+        return snapshot.size;
+    }
+
+    public Iterator<E> iterator()
+    {
+        return snapshot.iterator();
+    }
+
+    static final class Snapshot<E> extends AbstractList<E> implements RandomAccess
+    {
+        private final Object[] elements;
+        private final int size;
+
+        Snapshot(final Object[] elements, final int size)
+        {
+            this.elements = elements;
+            this.size = size;
+        }
+
+        @SuppressWarnings("unchecked")
+        public E get(final int index)
+        {
+            if (index < 0 || index >= size)
+            {
+                throw new IndexOutOfBoundsException("index=" + index + ", size=" + size);
+            }
+
+            return (E)elements[index];
+        }
+
+        public int size()
+        {
+            return size;
+        }
+    }
+}
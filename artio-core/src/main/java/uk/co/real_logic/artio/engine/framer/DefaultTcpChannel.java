@@ -51,6 +51,16 @@ public class DefaultTcpChannel extends TcpChannel
         return written;
     }
 
+    public long write(final ByteBuffer[] srcs, final int[] seqNums, final int length) throws IOException
+    {
+        final long written = socketChannel.write(srcs, 0, length);
+        if (written < 0)
+        {
+            throw new IOException("Disconnected " + remoteAddress + ", written=" + written);
+        }
+        return written;
+    }
+
     public int read(final ByteBuffer dst) throws IOException
     {
         return socketChannel.read(dst);
@@ -16,7 +16,9 @@
 package uk.co.real_logic.artio.engine.framer;
 
 import org.agrona.ErrorHandler;
+import org.agrona.collections.Long2ObjectHashMap;
 import org.agrona.collections.LongHashSet;
+import org.agrona.collections.Object2ObjectHashMap;
 import org.agrona.concurrent.AtomicBuffer;
 import org.agrona.concurrent.UnsafeBuffer;
 import uk.co.real_logic.artio.dictionary.FixDictionary;
@@ -35,11 +37,7 @@ import uk.co.real_logic.artio.storage.messages.SessionIdEncoder;
 
 import java.io.File;
 import java.nio.ByteBuffer;
-import java.util.HashMap;
 import java.util.List;
-import java.util.Map;
-import java.util.Map.Entry;
-import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.zip.CRC32;
 
 import static uk.co.real_logic.artio.engine.EngineConfiguration.DEFAULT_INITIAL_SEQUENCE_INDEX;
@@ -93,8 +91,10 @@ public class FixContexts implements SessionContexts
     private final int actingVersion = sessionIdEncoder.sbeSchemaVersion();
 
     private final LongHashSet currentlyAuthenticatedSessionIds = new LongHashSet();
-    private final CopyOnWriteArrayList<SessionInfo> allSessions = new CopyOnWriteArrayList<>();
-    private final Map<CompositeKey, SessionContext> compositeToContext = new HashMap<>();
+    private final AppendOnlyList<SessionInfo> allSessions = new AppendOnlyList<>();
+    private final Object2ObjectHashMap<CompositeKey, SessionContext> compositeToContext =
+        new Object2ObjectHashMap<>();
+    private final Long2ObjectHashMap<SessionContext> idToContext = new Long2ObjectHashMap<>();
 
     private final CRC32 crc32 = new CRC32();
     private final SectorFramer sectorFramer;
@@ -126,7 +126,6 @@ public class FixContexts implements SessionContexts
         this.initialSequenceIndex = initialSequenceIndex;
         this.errorHandler = errorHandler;
         loadBuffer();
-        allSessions.addAll(compositeToContext.values());
     }
 
     private void loadBuffer()
@@ -142,12 +141,18 @@ public class FixContexts implements SessionContexts
         if (needsUpgrading || requiresCompaction)
         {
             resetBuffer();
-            compositeToContext.values().forEach(this::allocateNewSlot);
+            final List<SessionInfo> allSessions = this.allSessions;
+            for (int i = 0, size = allSessions.size(); i < size; i++)
+            {
+                allocateNewSlot((SessionContext)allSessions.get(i));
+            }
         }
     }
 
     private boolean readFileSessionInfos(final FixDictionary dictionary)
     {
+        // Most sessions share a handful of dictionaries, so avoid a reflective lookup per record
+        final Object2ObjectHashMap<String, FixDictionary> nameToDictionary = new Object2ObjectHashMap<>();
         boolean requiresCompaction = false;
         int sectorEnd = 0;
         filePosition = HEADER_SIZE;
@@ -206,13 +211,22 @@ public class FixContexts implements SessionContexts
 
                 try
                 {
-                    final FixDictionary thisDictionary = (dictionary == null) ?
-                        FixDictionary.of(FixDictionary.find(lastFixDictionary)) : dictionary;
+                    FixDictionary thisDictionary = dictionary;
+                    if (thisDictionary == null)
+                    {
+                        thisDictionary = nameToDictionary.get(lastFixDictionary);
+                        if (thisDictionary == null)
+                        {
+                            thisDictionary = FixDictionary.of(FixDictionary.find(lastFixDictionary));
+                            nameToDictionary.put(lastFixDictionary, thisDictionary);
+                        }
+                    }
+
                     final SessionContext sessionContext = new SessionContext(compositeKey,
                         sessionId, sequenceIndex, lastLogonTime, lastSequenceResetTime, this,
                         sessionIdDecoder.offset(),
                         initialSequenceIndex, thisDictionary, reproductionEnabled);
-                    compositeToContext.put(compositeKey, sessionContext);
+                    addContext(sessionContext);
                 }
                 catch (final Exception e)
                 {
@@ -295,10 +309,12 @@ public class FixContexts implements SessionContexts
 
     SessionContext newSessionContext(final CompositeKey compositeKey, final FixDictionary fixDictionary)
     {
-        final SessionContext context = compositeToContext.computeIfAbsent(
-            compositeKey,
-            key -> onNewLogon(key, fixDictionary));
-        if (context.lastFixDictionary() != fixDictionary)
+        SessionContext context = compositeToContext.get(compositeKey);
+        if (context == null)
+        {
+            context = onNewLogon(compositeKey, fixDictionary);
+        }
+        else if (context.lastFixDictionary() != fixDictionary)
         {
             context.ensureFixDictionary(fixDictionary);
         }
@@ -313,10 +329,30 @@ public class FixContexts implements SessionContexts
             sessionId,
             SessionInfo.UNKNOWN_SEQUENCE_INDEX,
             fixDictionary);
-        allSessions.add(sessionContext);
+        addContext(sessionContext);
         return sessionContext;
     }
 
+    private void addContext(final SessionContext sessionContext)
+    {
+        final SessionContext oldContext = compositeToContext.put(sessionContext.sessionKey(), sessionContext);
+        if (oldContext == null)
+        {
+            idToContext.put(sessionContext.sessionId(), sessionContext);
+            sessionContext.allSessionsIndex(allSessions.append(sessionContext));
+        }
+        else
+        {
+            // A file that hasn't been compacted can hold several records for a session, the last one is current.
+            // This only happens whilst loading, before allSessions is shared, so the slot can be overwritten.
+            idToContext.remove(oldContext.sessionId());
+            idToContext.put(sessionContext.sessionId(), sessionContext);
+            final int allSessionsIndex = oldContext.allSessionsIndex();
+            sessionContext.allSessionsIndex(allSessionsIndex);
+            allSessions.overwrite(allSessionsIndex, sessionContext);
+        }
+    }
+
     private SessionContext assignSessionId(
         final CompositeKey compositeKey,
         final long sessionId,
@@ -401,35 +437,25 @@ public class FixContexts implements SessionContexts
 
     public void sequenceReset(final long sessionId, final long resetTimeInNs)
     {
-        final Entry<CompositeKey, SessionContext> entry = lookupById(sessionId);
-        if (entry != null)
+        final SessionContext context = lookupById(sessionId);
+        if (context != null)
         {
-            final SessionContext context = entry.getValue();
             context.onSequenceReset(resetTimeInNs);
         }
     }
 
     public void onSequenceIndex(final long sessionId, final long resetTimeInNs, final int sequenceIndex)
     {
-        final Entry<CompositeKey, SessionContext> entry = lookupById(sessionId);
-        if (entry != null)
+        final SessionContext context = lookupById(sessionId);
+        if (context != null)
         {
-            final SessionContext context = entry.getValue();
             context.onSequenceIndex(resetTimeInNs, sequenceIndex);
         }
     }
 
-    Entry<CompositeKey, SessionContext> lookupById(final long sessionId)
+    SessionContext lookupById(final long sessionId)
     {
-        for (final Entry<CompositeKey, SessionContext> entry : compositeToContext.entrySet())
-        {
-            if (entry.getValue().sessionId() == sessionId)
-            {
-                return entry;
-            }
-        }
-
-        return null;
+        return idToContext.get(sessionId);
     }
 
     // TODO: optimisation, more efficient checksumming, only checksum new data
@@ -460,7 +486,8 @@ public class FixContexts implements SessionContexts
 
         counter = LOWEST_VALID_SESSION_ID;
         compositeToContext.clear();
-        allSessions.clear();
+        idToContext.clear();
+        allSessions.reset();
 
         if (backupLocation != null)
         {
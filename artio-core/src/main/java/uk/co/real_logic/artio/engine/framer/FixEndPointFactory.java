@@ -38,6 +38,7 @@ class FixEndPointFactory
     private final FixGatewaySessions gatewaySessions;
     private final SenderSequenceNumbers senderSequenceNumbers;
     private final MessageTimingHandler messageTimingHandler;
+    private final ReceiveBufferPool receiveBufferPool;
 
     FixEndPointFactory(
         final EngineConfiguration configuration,
@@ -59,6 +60,8 @@ class FixEndPointFactory
         this.gatewaySessions = gatewaySessions;
         this.senderSequenceNumbers = senderSequenceNumbers;
         this.messageTimingHandler = messageTimingHandler;
+        receiveBufferPool = configuration.pooledReceiverBuffersEnabled() ?
+            new ReceiveBufferPool(configuration.receiverBufferSize()) : null;
     }
 
     FixReceiverEndPoint receiverEndPoint(
@@ -87,7 +90,8 @@ class FixEndPointFactory
             receiverFormatters,
             configuration.throttleWindowInMs(),
             configuration.throttleLimitOfMessages(),
-            configuration.isReproductionEnabled());
+            configuration.isReproductionEnabled(),
+            receiveBufferPool);
     }
 
     FixSenderEndPoint senderEndPoint(
@@ -115,6 +119,7 @@ class FixEndPointFactory
             senderSequenceNumbers.onNewSender(connectionId, bytesInBuffer),
             messageTimingHandler,
             receiverEndPoint,
-            senderFormatters);
+            senderFormatters,
+            configuration.gatheringWritesEnabled());
     }
 }
@@ -205,6 +205,11 @@ class FixGatewaySession extends GatewaySession implements ConnectedSessionInfo,
         return NO_REQUIRED_POSITION;
     }
 
+    public void onPollRequired(final Session session)
+    {
+        // Engine managed sessions are polled on every duty cycle.
+    }
+
     private <T> T unsupported()
     {
         throw new UnsupportedOperationException("Should never be invoked inside the Engine.");
@@ -74,7 +74,7 @@ abstract class FixPReceiverEndPoint extends ReceiverEndPoint
         final FixPRejectRefIdExtractor fixPRejectRefIdExtractor)
     {
         super(publication, channel, connectionId, bufferSize, errorHandler, framer, libraryId,
-            throttleWindowInMs, throttleLimitOfMessages);
+            throttleWindowInMs, throttleLimitOfMessages, null);
         inboundPublication = publication.dataPublication();
         this.epochNanoClock = epochNanoClock;
         this.correlationId = correlationId;
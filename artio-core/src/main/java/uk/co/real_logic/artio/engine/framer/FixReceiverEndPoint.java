@@ -29,7 +29,6 @@ import uk.co.real_logic.artio.dictionary.generation.Exceptions;
 import uk.co.real_logic.artio.engine.ByteBufferUtil;
 import uk.co.real_logic.artio.messages.DisconnectReason;
 import uk.co.real_logic.artio.protocol.GatewayPublication;
-import uk.co.real_logic.artio.session.CompositeKey;
 import uk.co.real_logic.artio.util.AsciiBuffer;
 import uk.co.real_logic.artio.util.CharFormatter;
 import uk.co.real_logic.artio.util.MutableAsciiBuffer;
@@ -38,7 +37,6 @@ import java.io.IOException;
 import java.nio.ByteOrder;
 import java.nio.channels.ClosedChannelException;
 import java.util.Arrays;
-import java.util.Map;
 import java.util.Objects;
 
 import static java.nio.charset.StandardCharsets.US_ASCII;
@@ -192,10 +190,11 @@ class FixReceiverEndPoint extends ReceiverEndPoint
         final FixReceiverEndPointFormatters formatters,
         final int throttleWindowInMs,
         final int throttleLimitOfMessages,
-        final boolean reproductionEnabled)
+        final boolean reproductionEnabled,
+        final ReceiveBufferPool bufferPool)
     {
         super(publication, channel, connectionId, bufferSize, errorHandler, framer, libraryId,
-            throttleWindowInMs, throttleLimitOfMessages);
+            throttleWindowInMs, throttleLimitOfMessages, bufferPool);
         Objects.requireNonNull(fixContexts, "sessionContexts");
         Objects.requireNonNull(gatewaySessions, "gatewaySessions");
         Objects.requireNonNull(clock, "clock");
@@ -241,9 +240,12 @@ class FixReceiverEndPoint extends ReceiverEndPoint
 
         if (pendingAcceptorLogon != null)
         {
-            return pollPendingLogon();
+            final int result = pollPendingLogon();
+            returnReceiveBuffer();
+            return result;
         }
 
+        borrowReceiveBuffer();
         try
         {
             final long latestReadTimestampInNs = clock.nanoTime();
@@ -282,6 +284,10 @@ class FixReceiverEndPoint extends ReceiverEndPoint
             onDisconnectDetected();
             return 1;
         }
+        finally
+        {
+            returnReceiveBuffer();
+        }
     }
 
     private int pollPendingLogon()
@@ -386,7 +392,9 @@ class FixReceiverEndPoint extends ReceiverEndPoint
 
     boolean retryFrameMessages()
     {
-        return frameMessages(lastReadTimestampInNs);
+        final boolean framed = frameMessages(lastReadTimestampInNs);
+        returnReceiveBuffer();
+        return framed;
     }
 
     // true - no more framed messages in the buffer data to process. This could mean no more messages, or some data
@@ -1095,10 +1103,9 @@ class FixReceiverEndPoint extends ReceiverEndPoint
 
     void cleanupDisconnectState(final DisconnectReason reason)
     {
-        final Map.Entry<CompositeKey, SessionContext> entry = fixContexts.lookupById(sessionId);
-        if (entry != null)
+        final SessionContext sessionContext = fixContexts.lookupById(sessionId);
+        if (sessionContext != null)
         {
-            final SessionContext sessionContext = entry.getValue();
             final int currentSequenceIndex = sessionContext.sequenceIndex();
             if (pendingSequenceIndex > currentSequenceIndex)
             {
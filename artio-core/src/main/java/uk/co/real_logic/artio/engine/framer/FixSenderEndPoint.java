@@ -62,6 +62,9 @@ class FixSenderEndPoint extends SenderEndPoint
 
     protected static final int NO_REATTEMPT = 0;
 
+    // Bounds the number of buffers handed to a single gathering write
+    static final int MAX_GATHERED_MESSAGES = 64;
+
     static class Formatters
     {
         final CharFormatter replayComplete = new CharFormatter(
@@ -112,6 +115,16 @@ class FixSenderEndPoint extends SenderEndPoint
     private boolean requiresRetry;
     private int reattemptBytesWritten = NO_REATTEMPT;
 
+    // Messages waiting for a gathering write, stored in the same format as the reattempt buffers, null if disabled
+    private final ExpandableDirectByteBuffer gatherBuffer;
+    private final ByteBuffer[] gatherViews;
+    private final int[] gatherSeqNums;
+    private ByteBuffer gatherViewsBase;
+    private int gatherUsage;
+    private int gatherCount;
+    private long gatherTimeInMs;
+    private boolean gatherFlushScheduled;
+
     FixSenderEndPoint(
         final long connectionId,
         final int libraryId,
@@ -128,7 +141,8 @@ class FixSenderEndPoint extends SenderEndPoint
         final SenderSequenceNumber senderSequenceNumber,
         final MessageTimingHandler messageTimingHandler,
         final FixReceiverEndPoint receiverEndPoint,
-        final Formatters formatters)
+        final Formatters formatters,
+        final boolean gatheringWritesEnabled)
     {
         super(connectionId, inboundPublication, reproductionPublication, libraryId, channel, bytesInBuffer,
             maxBytesInBuffer, errorHandler,
@@ -143,6 +157,19 @@ class FixSenderEndPoint extends SenderEndPoint
         this.receiverEndPoint = receiverEndPoint;
         this.formatters = formatters;
         sendingTimeoutTimeInMs = timeInMs + slowConsumerTimeoutInMs;
+
+        if (gatheringWritesEnabled)
+        {
+            gatherBuffer = new ExpandableDirectByteBuffer();
+            gatherViews = new ByteBuffer[MAX_GATHERED_MESSAGES];
+            gatherSeqNums = new int[MAX_GATHERED_MESSAGES];
+        }
+        else
+        {
+            gatherBuffer = null;
+            gatherViews = null;
+            gatherSeqNums = null;
+        }
     }
 
     void onOutboundMessage(
@@ -252,6 +279,17 @@ class FixSenderEndPoint extends SenderEndPoint
         {
             final int metaDataOffset = offset - FixMessageDecoder.bodyHeaderLength() - metaDataLength;
 
+            if (gatherBuffer != null)
+            {
+                if (!replay && !replaying && !requiresRetry)
+                {
+                    gatherMessage(directBuffer, offset, bodyLength, metaDataOffset, metaDataLength, seqNum, timeInMs);
+                    return;
+                }
+
+                flushGatheredMessages();
+            }
+
             if ((replaying && !replay) || (!replaying && replay) || requiresRetry)
             {
                 enqueueMessage(directBuffer, offset, bodyLength, metaDataOffset, metaDataLength, seqNum, replay);
@@ -309,6 +347,147 @@ class FixSenderEndPoint extends SenderEndPoint
         }
     }
 
+    private void gatherMessage(
+        final DirectBuffer srcBuffer, final int srcOffset, final int bodyLength,
+        final int metaDataOffset, final int metaDataLength, final int sequenceNumber, final long timeInMs)
+    {
+        final int totalLength = ENQ_MESSAGE_BLOCK_LEN + bodyLength + metaDataLength;
+        final ExpandableDirectByteBuffer buffer = gatherBuffer;
+        final int gatherOffset = gatherUsage;
+        buffer.checkLimit(gatherOffset + totalLength);
+
+        putMessage(
+            buffer, gatherOffset, srcBuffer, srcOffset, bodyLength, metaDataOffset, metaDataLength, sequenceNumber);
+
+        gatherUsage = gatherOffset + totalLength;
+        gatherTimeInMs = timeInMs;
+        if (++gatherCount == MAX_GATHERED_MESSAGES)
+        {
+            flushGatheredMessages();
+        }
+    }
+
+    /**
+     * Marks that this end point has gathered messages that need flushing.
+     *
+     * @return true if the end point needs flushing and wasn't already marked.
+     */
+    boolean scheduleGatheredFlush()
+    {
+        if (gatherCount > 0 && !gatherFlushScheduled)
+        {
+            gatherFlushScheduled = true;
+            return true;
+        }
+
+        return false;
+    }
+
+    void flushGatheredMessages()
+    {
+        gatherFlushScheduled = false;
+        final int gatherCount = this.gatherCount;
+        if (gatherCount == 0)
+        {
+            return;
+        }
+
+        final int gatherUsage = this.gatherUsage;
+        this.gatherCount = 0;
+        this.gatherUsage = 0;
+
+        try
+        {
+            final ExpandableDirectByteBuffer buffer = gatherBuffer;
+            final ByteBuffer[] views = gatherViews(buffer.byteBuffer());
+            final int[] seqNums = gatherSeqNums;
+            final int wrapAdjustment = buffer.wrapAdjustment();
+
+            int offset = 0;
+            for (int i = 0; i < gatherCount; i++)
+            {
+                final int bodyLengthOffset = offset + SIZE_OF_INT + SIZE_OF_INT;
+                final int bodyLength = buffer.getInt(bodyLengthOffset);
+                final int bodyOffset = bodyLengthOffset + SIZE_OF_INT;
+
+                final ByteBuffer view = views[i];
+                ByteBufferUtil.limit(view, wrapAdjustment + bodyOffset + bodyLength);
+                ByteBufferUtil.position(view, wrapAdjustment + bodyOffset);
+                seqNums[i] = buffer.getInt(offset + SIZE_OF_INT);
+
+                offset = nextMessageOffset(buffer, bodyOffset, bodyLength);
+            }
+
+            final long written = channel.write(views, seqNums, gatherCount);
+
+            long remainingWritten = written;
+            offset = 0;
+            for (int i = 0; i < gatherCount; i++)
+            {
+                final int bodyLengthOffset = offset + SIZE_OF_INT + SIZE_OF_INT;
+                final int bodyLength = buffer.getInt(bodyLengthOffset);
+                final int bodyOffset = bodyLengthOffset + SIZE_OF_INT;
+
+                if (remainingWritten < bodyLength)
+                {
+                    // Hand the rest of the batch over to the normal reattempt logic
+                    final int partialWritten = (int)remainingWritten;
+                    DebugLogger.log(FIX_MESSAGE_TCP, "Written  ", buffer, bodyOffset, partialWritten);
+                    this.reattemptBytesWritten = partialWritten;
+
+                    final int length = gatherUsage - offset;
+                    final ReattemptState reattemptState = enqueue(length, false);
+                    reattemptState.buffer().putBytes(reattemptState.usage - length, buffer, offset, length);
+
+                    tryLogBackPressure(seqNums[i], false, partialWritten);
+                    break;
+                }
+
+                remainingWritten -= bodyLength;
+                DebugLogger.log(FIX_MESSAGE_TCP, "Written  ", buffer, bodyOffset, bodyLength);
+
+                final int metaDataLengthOffset = bodyOffset + bodyLength;
+                final int metaDataLength = buffer.getInt(metaDataLengthOffset);
+                final MessageTimingHandler messageTimingHandler = this.messageTimingHandler;
+                if (messageTimingHandler != null)
+                {
+                    messageTimingHandler.onMessage(
+                        seqNums[i], connectionId, buffer, metaDataLengthOffset + SIZE_OF_INT, metaDataLength);
+                }
+
+                offset = metaDataLengthOffset + SIZE_OF_INT + metaDataLength;
+            }
+
+            updateSendingTimeoutTimeInMs(gatherTimeInMs, written);
+        }
+        catch (final IOException e)
+        {
+            errorHandler.onError(e);
+        }
+    }
+
+    private ByteBuffer[] gatherViews(final ByteBuffer base)
+    {
+        final ByteBuffer[] views = gatherViews;
+        // The gather buffer has been reallocated since the views were created
+        if (base != gatherViewsBase)
+        {
+            for (int i = 0; i < views.length; i++)
+            {
+                views[i] = base.duplicate();
+            }
+            gatherViewsBase = base;
+        }
+        return views;
+    }
+
+    private static int nextMessageOffset(
+        final ExpandableDirectByteBuffer buffer, final int bodyOffset, final int bodyLength)
+    {
+        final int metaDataLengthOffset = bodyOffset + bodyLength;
+        return metaDataLengthOffset + SIZE_OF_INT + buffer.getInt(metaDataLengthOffset);
+    }
+
     private void tryLogBackPressure(final int seqNum, final boolean replay, final int written)
     {
         final ReproductionLogWriter reproductionLogWriter = this.reproductionLogWriter;
@@ -357,8 +536,23 @@ class FixSenderEndPoint extends SenderEndPoint
         final int totalLength = ENQ_MESSAGE_BLOCK_LEN + bodyLength + metaDataLength;
         final ReattemptState reattemptState = enqueue(totalLength, replay);
 
-        int reattemptOffset = reattemptState.usage - totalLength;
-        final ExpandableDirectByteBuffer buffer = reattemptState.buffer();
+        putMessage(
+            reattemptState.buffer(),
+            reattemptState.usage - totalLength,
+            srcBuffer,
+            srcOffset,
+            bodyLength,
+            metaDataOffset,
+            metaDataLength,
+            sequenceNumber);
+    }
+
+    private static void putMessage(
+        final ExpandableDirectByteBuffer buffer, final int offset,
+        final DirectBuffer srcBuffer, final int srcOffset, final int bodyLength,
+        final int metaDataOffset, final int metaDataLength, final int sequenceNumber)
+    {
+        int reattemptOffset = offset;
 
         buffer.putInt(reattemptOffset, ENQ_MSG);
         reattemptOffset += SIZE_OF_INT;
@@ -564,6 +758,8 @@ class FixSenderEndPoint extends SenderEndPoint
 
     public boolean reattempt()
     {
+        flushGatheredMessages();
+
         return reattempt(replaying);
     }
 
@@ -605,7 +801,7 @@ class FixSenderEndPoint extends SenderEndPoint
         return CONTINUE;
     }
 
-    private void updateSendingTimeoutTimeInMs(final long timeInMs, final int written)
+    private void updateSendingTimeoutTimeInMs(final long timeInMs, final long written)
     {
         if (written > 0)
         {
@@ -694,6 +890,8 @@ class FixSenderEndPoint extends SenderEndPoint
                 formatters.replayComplete.clear().with(connectionId).with(correlationId));
         }
 
+        flushGatheredMessages();
+
         // can receive this when we're not replaying, but if we've already detected the end
         // of the current replay then replayCorrelationId = correlationId
         if ((!replaying && replayCorrelationId != correlationId) || !reattempt(true))
@@ -740,6 +938,8 @@ class FixSenderEndPoint extends SenderEndPoint
                 .with(connectionId).with(correlationId));
         }
 
+        flushGatheredMessages();
+
         // We start the replay with this message, rather than VRR because it doesn't race with replay complete.
         if (replaying || requiresRetry)
         {
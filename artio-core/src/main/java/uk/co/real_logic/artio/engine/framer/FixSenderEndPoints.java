@@ -24,6 +24,7 @@ import uk.co.real_logic.artio.LogTag;
 import uk.co.real_logic.artio.engine.FixEngine;
 import uk.co.real_logic.artio.util.CharFormatter;
 
+import java.util.ArrayList;
 import java.util.function.LongToIntFunction;
 
 import static io.aeron.logbuffer.ControlledFragmentHandler.Action.CONTINUE;
@@ -35,6 +36,7 @@ class FixSenderEndPoints implements AutoCloseable
         "SEPs.missReplayComplete, connId=%s, corrId=%s, slow=%s");
 
     private final Long2ObjectHashMap<FixSenderEndPoint> connectionIdToSenderEndpoint = new Long2ObjectHashMap<>();
+    private final ArrayList<FixSenderEndPoint> gatheredEndPoints = new ArrayList<>();
     private final ErrorHandler errorHandler;
     private final LongToIntFunction libraryLookup = this::libraryLookup;
 
@@ -68,6 +70,7 @@ class FixSenderEndPoints implements AutoCloseable
         final FixSenderEndPoint senderEndPoint = connectionIdToSenderEndpoint.remove(connectionId);
         if (senderEndPoint != null)
         {
+            gatheredEndPoints.remove(senderEndPoint);
             senderEndPoint.close();
         }
     }
@@ -96,6 +99,7 @@ class FixSenderEndPoints implements AutoCloseable
                 messageType,
                 timeInMs,
                 metaDataLength);
+            checkGatheredFlush(endPoint);
             return true;
         }
 
@@ -120,11 +124,41 @@ class FixSenderEndPoints implements AutoCloseable
                 libraryId, refMsgType, refSeqNum, sequenceNumber, sequenceIndex,
                 businessRejectRefIDBuffer, businessRejectRefIDOffset, businessRejectRefIDLength,
                 timeInMs);
+            checkGatheredFlush(endPoint);
         }
 
         return null;
     }
 
+    private void checkGatheredFlush(final FixSenderEndPoint endPoint)
+    {
+        if (endPoint.scheduleGatheredFlush())
+        {
+            gatheredEndPoints.add(endPoint);
+        }
+    }
+
+    /**
+     * Write out any messages that have been gathered since the last flush.
+     *
+     * @return the number of end points flushed.
+     */
+    int flushGatheredMessages()
+    {
+        final ArrayList<FixSenderEndPoint> gatheredEndPoints = this.gatheredEndPoints;
+        final int size = gatheredEndPoints.size();
+        if (size > 0)
+        {
+            for (int i = 0; i < size; i++)
+            {
+                gatheredEndPoints.get(i).flushGatheredMessages();
+            }
+            gatheredEndPoints.clear();
+        }
+
+        return size;
+    }
+
     Action onReplayMessage(
         final long connectionId, final DirectBuffer buffer, final int offset, final int length,
         final int sequenceNumber)
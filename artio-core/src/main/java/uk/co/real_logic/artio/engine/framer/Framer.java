@@ -286,7 +286,8 @@ class Framer implements Agent, EngineEndPointHandler, ProtocolHandler
             configuration.acceptorfixDictionary(),
             configuration.acceptorFixDictionaryOverrides());
 
-        receiverEndPoints = new ReceiverEndPoints(errorHandler);
+        receiverEndPoints = new ReceiverEndPoints(
+            errorHandler, configuration.adaptiveReceiverPollingEnabled(), fixCounters);
 
         this.outboundLibraryFragmentLimit = configuration.outboundLibraryFragmentLimit();
         this.replayFragmentLimit = configuration.replayFragmentLimit();
@@ -452,6 +453,7 @@ class Framer implements Agent, EngineEndPointHandler, ProtocolHandler
     {
         return fixPSenderEndPoints.reattempt() +
             librarySubscription.controlledPoll(librarySubscriber, outboundLibraryFragmentLimit) +
+            fixSenderEndPoints.flushGatheredMessages() +
             adminEngineSubscription.poll(adminEngineProtocolSubscription, outboundLibraryFragmentLimit);
     }
 
@@ -911,14 +913,14 @@ class Framer implements Agent, EngineEndPointHandler, ProtocolHandler
         final CancelOnDisconnectTimeoutHandler handler = configuration.cancelOnDisconnectTimeoutHandler();
         if (handler != null)
         {
-            final Map.Entry<CompositeKey, SessionContext> entry = fixContexts.lookupById(sessionId);
-            if (entry == null)
+            final SessionContext context = fixContexts.lookupById(sessionId);
+            if (context == null)
             {
                 cancelOnDisconnectError(sessionId);
                 return;
             }
 
-            final CompositeKey sessionKey = entry.getKey();
+            final CompositeKey sessionKey = context.sessionKey();
             schedule(new CancelOnDisconnectTimeoutOperation(sessionId, timeInNs, clock, errorHandler)
             {
                 protected void onCancelOnDisconnectTimeout()
@@ -1719,20 +1721,18 @@ class Framer implements Agent, EngineEndPointHandler, ProtocolHandler
         if (messageType == LOGON_MESSAGE_TYPE)
         {
             // Always a sequence reset
-            final Map.Entry<CompositeKey, SessionContext> entry = fixContexts.lookupById(sessionId);
-            if (entry != null)
+            final SessionContext context = fixContexts.lookupById(sessionId);
+            if (context != null)
             {
-                final SessionContext context = entry.getValue();
                 context.onSequenceReset(clock.nanoTime());
             }
         }
         else if (messageType == SEQUENCE_RESET_MESSAGE_TYPE)
         {
             // If it's not a gap-fill it's a sequence reset
-            final Map.Entry<CompositeKey, SessionContext> entry = fixContexts.lookupById(sessionId);
-            if (entry != null)
+            final SessionContext context = fixContexts.lookupById(sessionId);
+            if (context != null)
             {
-                final SessionContext context = entry.getValue();
                 context.onSequenceIndex(clock.nanoTime(), sequenceIndex);
             }
         }
@@ -1797,6 +1797,8 @@ class Framer implements Agent, EngineEndPointHandler, ProtocolHandler
 
     public Action onDisconnect(final int libraryId, final long connectionId, final DisconnectReason reason)
     {
+        // Messages sent before the disconnect, for example a logout, need to be written before the channel is closed
+        fixSenderEndPoints.flushGatheredMessages();
         receiverEndPoints.removeConnection(connectionId, reason);
         fixSenderEndPoints.removeConnection(connectionId);
         fixPSenderEndPoints.removeConnection(connectionId);
@@ -2433,8 +2435,8 @@ class Framer implements Agent, EngineEndPointHandler, ProtocolHandler
         final int replayFromSequenceIndex,
         final int replayFromSequenceNumber)
     {
-        final Map.Entry<CompositeKey, SessionContext> entry = fixContexts.lookupById(sessionId);
-        if (entry == null)
+        final SessionContext context = fixContexts.lookupById(sessionId);
+        if (context == null)
         {
             return false;
         }
@@ -2451,8 +2453,8 @@ class Framer implements Agent, EngineEndPointHandler, ProtocolHandler
                 correlationId,
                 replayFromSequenceIndex,
                 replayFromSequenceNumber,
-                entry.getKey(),
-                entry.getValue()));
+                context.sessionKey(),
+                context));
         }
 
         return true;
@@ -0,0 +1,78 @@
+/*
+ * Copyright 2015-2024 Real Logic Limited.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.co.real_logic.artio.engine.framer;
+
+import uk.co.real_logic.artio.util.MutableAsciiBuffer;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+
+/**
+ * Receive buffers shared between receiver end points on the Framer thread. End points read into a single shared
+ * buffer and only take a buffer of their own from the pool whilst they have data left over that hasn't been
+ * processed, eg: a partially received message or a back-pressured message.
+ */
+class ReceiveBufferPool
+{
+    // Buffers beyond this are left to the GC when they are released
+    static final int MAX_FREE_BUFFERS = 64;
+
+    private final ArrayList<MutableAsciiBuffer> freeBuffers = new ArrayList<>();
+    private final MutableAsciiBuffer sharedBuffer;
+    private final int bufferSize;
+
+    ReceiveBufferPool(final int bufferSize)
+    {
+        this.bufferSize = bufferSize;
+        sharedBuffer = newBuffer();
+    }
+
+    MutableAsciiBuffer sharedBuffer()
+    {
+        return sharedBuffer;
+    }
+
+    MutableAsciiBuffer acquire()
+    {
+        final ArrayList<MutableAsciiBuffer> freeBuffers = this.freeBuffers;
+        final int size = freeBuffers.size();
+        if (size == 0)
+        {
+            return newBuffer();
+        }
+
+        return freeBuffers.remove(size - 1);
+    }
+
+    void release(final MutableAsciiBuffer buffer)
+    {
+        final ArrayList<MutableAsciiBuffer> freeBuffers = this.freeBuffers;
+        if (freeBuffers.size() < MAX_FREE_BUFFERS)
+        {
+            freeBuffers.add(buffer);
+        }
+    }
+
+    int freeBuffers()
+    {
+        return freeBuffers.size();
+    }
+
+    private MutableAsciiBuffer newBuffer()
+    {
+        return new MutableAsciiBuffer(ByteBuffer.allocateDirect(bufferSize));
+    }
+}
@@ -17,6 +17,8 @@ package uk.co.real_logic.artio.engine.framer;
 
 import org.agrona.BitUtil;
 import org.agrona.ErrorHandler;
+import org.agrona.concurrent.status.AtomicCounter;
+import uk.co.real_logic.artio.engine.ByteBufferUtil;
 import uk.co.real_logic.artio.messages.DisconnectReason;
 import uk.co.real_logic.artio.protocol.GatewayPublication;
 import uk.co.real_logic.artio.util.MutableAsciiBuffer;
@@ -41,10 +43,12 @@ public abstract class ReceiverEndPoint
     protected final TcpChannel channel;
     protected final long connectionId;
     protected boolean hasDisconnected = false;
-    protected final MutableAsciiBuffer buffer;
-    protected final ByteBuffer byteBuffer;
+    protected MutableAsciiBuffer buffer;
+    protected ByteBuffer byteBuffer;
     protected final ErrorHandler errorHandler;
     protected final Framer framer;
+    // null unless receive buffers are pooled
+    private final ReceiveBufferPool bufferPool;
 
     protected int libraryId;
     protected int usedBufferData = 0;
@@ -56,6 +60,12 @@ public abstract class ReceiverEndPoint
     private long[] lastMessageTimestampsInNs;
     private int lastMessageTimestampsInNsMask;
     private int throttlePosition;
+    private boolean ownsPooledBuffer;
+
+    // Adaptive polling state, managed by ReceiverEndPoints
+    private boolean hotPolled;
+    private int readsInWindow;
+    private AtomicCounter hotPollingCounter;
 
     public ReceiverEndPoint(
         final GatewayPublication publication,
@@ -66,7 +76,8 @@ public abstract class ReceiverEndPoint
         final Framer framer,
         final int libraryId,
         final int throttleWindowInMs,
-        final int throttleLimitOfMessages)
+        final int throttleLimitOfMessages,
+        final ReceiveBufferPool bufferPool)
     {
         Objects.requireNonNull(publication, "publication");
 
@@ -76,9 +87,17 @@ public abstract class ReceiverEndPoint
         this.errorHandler = errorHandler;
         this.framer = framer;
         this.libraryId = libraryId;
+        this.bufferPool = bufferPool;
 
-        byteBuffer = ByteBuffer.allocateDirect(bufferSize);
-        buffer = new MutableAsciiBuffer(byteBuffer);
+        if (bufferPool == null)
+        {
+            byteBuffer = ByteBuffer.allocateDirect(bufferSize);
+            buffer = new MutableAsciiBuffer(byteBuffer);
+        }
+        else
+        {
+            useSharedBuffer(bufferPool);
+        }
 
         configureThrottle(throttleWindowInMs, throttleLimitOfMessages);
     }
@@ -149,6 +168,126 @@ public abstract class ReceiverEndPoint
         return timeAgoOfOldestMessageInNs < throttleWindowInNs;
     }
 
+    /**
+     * Prepare to read when receive buffers are pooled. An end point without any unprocessed data reads into the
+     * pool's shared buffer.
+     */
+    protected final void borrowReceiveBuffer()
+    {
+        if (bufferPool != null && !ownsPooledBuffer)
+        {
+            byteBuffer.clear();
+        }
+    }
+
+    /**
+     * Called after data in the buffer has been processed when receive buffers are pooled. Unprocessed data is moved out
+     * of the shared buffer into a pooled buffer of this end point's own, and that buffer is returned to the pool once
+     * all of its data has been processed.
+     */
+    protected final void returnReceiveBuffer()
+    {
+        final ReceiveBufferPool bufferPool = this.bufferPool;
+        if (bufferPool == null || hasDisconnected)
+        {
+            return;
+        }
+
+        final int usedBufferData = this.usedBufferData;
+        final boolean hasUnprocessedData = usedBufferData > 0 || pendingAcceptorLogon != null;
+        if (ownsPooledBuffer)
+        {
+            if (!hasUnprocessedData)
+            {
+                bufferPool.release(buffer);
+                useSharedBuffer(bufferPool);
+            }
+        }
+        else if (hasUnprocessedData)
+        {
+            final MutableAsciiBuffer ownBuffer = bufferPool.acquire();
+            ownBuffer.putBytes(0, buffer, 0, usedBufferData);
+            final ByteBuffer ownByteBuffer = ownBuffer.byteBuffer();
+            ownByteBuffer.clear();
+            // position set to ensure that back pressure is applied to TCP when read(byteBuffer) called.
+            ByteBufferUtil.position(ownByteBuffer, usedBufferData);
+
+            buffer = ownBuffer;
+            byteBuffer = ownByteBuffer;
+            ownsPooledBuffer = true;
+        }
+    }
+
+    /**
+     * Returns an owned pooled buffer to the pool when the end point disconnects. Any unprocessed data is discarded.
+     */
+    private void releaseReceiveBuffer()
+    {
+        if (ownsPooledBuffer)
+        {
+            bufferPool.release(buffer);
+            useSharedBuffer(bufferPool);
+            usedBufferData = 0;
+        }
+    }
+
+    private void useSharedBuffer(final ReceiveBufferPool bufferPool)
+    {
+        buffer = bufferPool.sharedBuffer();
+        byteBuffer = buffer.byteBuffer();
+        ownsPooledBuffer = false;
+    }
+
+    boolean ownsPooledBuffer()
+    {
+        return ownsPooledBuffer;
+    }
+
+    void hotPollingCounter(final AtomicCounter hotPollingCounter)
+    {
+        this.hotPollingCounter = hotPollingCounter;
+    }
+
+    /**
+     * Sets whether this end point is polled directly on every duty cycle rather than when selected. Hot polled end
+     * points have their read interest removed from the selector so that they aren't polled twice.
+     *
+     * @param hotPolled true if this end point should be polled directly.
+     */
+    void hotPolled(final boolean hotPolled)
+    {
+        this.hotPolled = hotPolled;
+
+        final SelectionKey selectionKey = this.selectionKey;
+        if (selectionKey != null && selectionKey.isValid())
+        {
+            selectionKey.interestOps(hotPolled ? 0 : OP_READ);
+        }
+
+        final AtomicCounter hotPollingCounter = this.hotPollingCounter;
+        if (hotPollingCounter != null)
+        {
+            hotPollingCounter.setOrdered(hotPolled ? 1 : 0);
+        }
+    }
+
+    boolean hotPolled()
+    {
+        return hotPolled;
+    }
+
+    void onRead()
+    {
+        readsInWindow++;
+    }
+
+    int takeReadsInWindow()
+    {
+        final int readsInWindow = this.readsInWindow;
+        this.readsInWindow = 0;
+        return readsInWindow;
+    }
+
     long connectionId()
     {
         return connectionId;
@@ -168,6 +307,11 @@ public abstract class ReceiverEndPoint
     {
         closeResources();
 
+        if (hotPollingCounter != null)
+        {
+            hotPollingCounter.close();
+        }
+
         if (!hasDisconnected)
         {
             disconnectEndpoint(reason);
@@ -203,6 +347,7 @@ public abstract class ReceiverEndPoint
         {
             selectionKey.cancel();
         }
+        releaseReceiveBuffer();
         hasDisconnected = true;
     }
 
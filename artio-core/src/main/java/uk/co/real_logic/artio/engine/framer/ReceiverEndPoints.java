@@ -19,6 +19,7 @@ import org.agrona.ErrorHandler;
 import org.agrona.LangUtil;
 import org.agrona.collections.ArrayUtil;
 import org.agrona.nio.TransportPoller;
+import uk.co.real_logic.artio.FixCounters;
 import uk.co.real_logic.artio.messages.DisconnectReason;
 
 import java.io.IOException;
@@ -37,23 +38,44 @@ class ReceiverEndPoints extends TransportPoller
     public static final int ARTIO_ITERATION_THRESHOLD = Integer.getInteger(
         ARTIO_ITERATION_THRESHOLD_PROP_NAME, ITERATION_THRESHOLD_DEFAULT);
 
+    // Adaptive polling re-evaluates which end points are hot every window of polls. An end point becomes hot when it
+    // has read data on at least HOT_READS_PER_WINDOW polls in a window and only stops being hot when it has read data
+    // on no more than COLD_READS_PER_WINDOW, so that end points near the threshold don't flap between the two sets.
+    static final int ADAPTIVE_POLLING_WINDOW = 1024;
+    static final int HOT_READS_PER_WINDOW = ADAPTIVE_POLLING_WINDOW / 8;
+    static final int COLD_READS_PER_WINDOW = ADAPTIVE_POLLING_WINDOW / 64;
+
     private final ErrorHandler errorHandler;
+    // null unless adaptive polling is enabled
+    private final FixCounters fixCounters;
+    private final boolean adaptivePolling;
 
     // Authentication flow requires periodic polling of the receiver end points until the authentication is
     // complete, so these endpoints are always polled, rather than using the selector.
     private ReceiverEndPoint[] requiredPollingEndPoints = new ReceiverEndPoint[0];
     private ReceiverEndPoint[] endPoints = new ReceiverEndPoint[0];
+    // With adaptive polling, the subset of endPoints that are polled directly rather than through the selector
+    private ReceiverEndPoint[] hotEndPoints = new ReceiverEndPoint[0];
+    private int pollsInWindow = 0;
     // An endpoint that has read data out of the TCP layer but has been back-pressured when attempting to write
     // the data into the Aeron stream.
     private ReceiverEndPoint backpressuredEndPoint = null;
 
-    ReceiverEndPoints(final ErrorHandler errorHandler)
+    ReceiverEndPoints(final ErrorHandler errorHandler, final boolean adaptivePolling, final FixCounters fixCounters)
     {
         this.errorHandler = errorHandler;
+        this.adaptivePolling = adaptivePolling;
+        this.fixCounters = fixCounters;
     }
 
     void add(final ReceiverEndPoint endPoint)
     {
+        if (adaptivePolling && fixCounters != null)
+        {
+            endPoint.hotPollingCounter(fixCounters.receiverHotPolling(
+                endPoint.connectionId(), endPoint.channel.remoteAddr()));
+        }
+
         if (endPoint.requiresAuthentication())
         {
             addToRequiredPollingEndpoints(endPoint);
@@ -92,6 +114,7 @@ class ReceiverEndPoints extends TransportPoller
 
         if (index != UNKNOWN_INDEX)
         {
+            removeHotEndPoint(endPoints[index]);
             this.endPoints = ArrayUtil.remove(endPoints, index);
         }
         else
@@ -111,6 +134,7 @@ class ReceiverEndPoints extends TransportPoller
         {
             final ReceiverEndPoint endPoint = endPoints[index];
             this.endPoints = ArrayUtil.remove(endPoints, index);
+            removeHotEndPoint(endPoint);
 
             addToRequiredPollingEndpoints(endPoint);
         }
@@ -216,6 +240,11 @@ class ReceiverEndPoints extends TransportPoller
 
     private int pollNormalEndPoints(final int numRequiredPollingEndPoints) throws IOException
     {
+        if (adaptivePolling)
+        {
+            return pollAdaptiveEndPoints();
+        }
+
         int bytesReceived = 0;
         final ReceiverEndPoint[] endPoints = this.endPoints;
         final int numEndPoints = endPoints.length;
@@ -226,42 +255,114 @@ class ReceiverEndPoints extends TransportPoller
         }
         else
         {
-            selector.selectNow();
+            bytesReceived = pollSelectedEndPoints(bytesReceived);
+        }
+        return bytesReceived;
+    }
 
-            final SelectionKey[] keys = selectedKeySet.keys();
-            final int size = selectedKeySet.size();
-            int i;
-            for (i = 0; i < size; i++)
+    // Hot end points are polled directly, everything else goes through the selector
+    private int pollAdaptiveEndPoints() throws IOException
+    {
+        int bytesReceived = 0;
+        final ReceiverEndPoint[] hotEndPoints = this.hotEndPoints;
+        for (int i = hotEndPoints.length - 1; i >= 0; i--)
+        {
+            final ReceiverEndPoint endPoint = hotEndPoints[i];
+            final int polledBytes = endPoint.poll();
+            if (polledBytes != 0)
             {
-                final SelectionKey key = keys[i];
-                // key could be null if a ReceiverEndPoint was removed during the processing of a previous key in the
-                // current poll iteration
-                if (key != null)
+                endPoint.onRead();
+            }
+            bytesReceived += polledBytes;
+        }
+
+        bytesReceived = pollSelectedEndPoints(bytesReceived);
+
+        if (++pollsInWindow >= ADAPTIVE_POLLING_WINDOW)
+        {
+            pollsInWindow = 0;
+            updateHotEndPoints();
+        }
+
+        return bytesReceived;
+    }
+
+    private void updateHotEndPoints()
+    {
+        ReceiverEndPoint[] hotEndPoints = this.hotEndPoints;
+        final ReceiverEndPoint[] endPoints = this.endPoints;
+        for (final ReceiverEndPoint endPoint : endPoints)
+        {
+            final int readsInWindow = endPoint.takeReadsInWindow();
+            if (endPoint.hotPolled())
+            {
+                if (readsInWindow <= COLD_READS_PER_WINDOW)
                 {
-                    final ReceiverEndPoint endPoint = (ReceiverEndPoint)key.attachment();
-                    final int polledBytes = endPoint.poll();
-                    if (polledBytes < 0)
-                    {
-                        backpressuredEndPoint = endPoint;
-                        bytesReceived -= polledBytes;
-                        break;
-                    }
-
-                    bytesReceived += polledBytes;
+                    endPoint.hotPolled(false);
+                    hotEndPoints = ArrayUtil.remove(hotEndPoints, endPoint);
                 }
             }
+            else if (readsInWindow >= HOT_READS_PER_WINDOW)
+            {
+                endPoint.hotPolled(true);
+                hotEndPoints = ArrayUtil.add(hotEndPoints, endPoint);
+            }
+        }
+        this.hotEndPoints = hotEndPoints;
+    }
+
+    private void removeHotEndPoint(final ReceiverEndPoint endPoint)
+    {
+        if (endPoint.hotPolled())
+        {
+            endPoint.hotPolled(false);
+            hotEndPoints = ArrayUtil.remove(hotEndPoints, endPoint);
+        }
+    }
 
-            if (i != 0)
+    private int pollSelectedEndPoints(final int bytesAlreadyReceived) throws IOException
+    {
+        int bytesReceived = bytesAlreadyReceived;
+        selector.selectNow();
+
+        final SelectionKey[] keys = selectedKeySet.keys();
+        final int size = selectedKeySet.size();
+        int i;
+        for (i = 0; i < size; i++)
+        {
+            final SelectionKey key = keys[i];
+            // key could be null if a ReceiverEndPoint was removed during the processing of a previous key in the
+            // current poll iteration
+            if (key != null)
             {
-                if (i == size)
+                final ReceiverEndPoint endPoint = (ReceiverEndPoint)key.attachment();
+                final int polledBytes = endPoint.poll();
+                if (polledBytes != 0)
                 {
-                    selectedKeySet.reset();
+                    endPoint.onRead();
                 }
-                else
+
+                if (polledBytes < 0)
                 {
-                    final int skipCount = Math.min(i, selectedKeySet.size());
-                    selectedKeySet.reset(skipCount);
+                    backpressuredEndPoint = endPoint;
+                    bytesReceived -= polledBytes;
+                    break;
                 }
+
+                bytesReceived += polledBytes;
+            }
+        }
+
+        if (i != 0)
+        {
+            if (i == size)
+            {
+                selectedKeySet.reset();
+            }
+            else
+            {
+                final int skipCount = Math.min(i, selectedKeySet.size());
+                selectedKeySet.reset(skipCount);
             }
         }
         return bytesReceived;
@@ -305,6 +406,7 @@ class ReceiverEndPoints extends TransportPoller
     {
         endPoints = disconnectILinkConnections(libraryId, endPoints, removeFunc);
         requiredPollingEndPoints = disconnectILinkConnections(libraryId, requiredPollingEndPoints, removeFunc);
+        hotEndPoints = removeDisconnected(hotEndPoints);
         selectNowToForceProcessing();
     }
 
@@ -338,12 +440,26 @@ class ReceiverEndPoints extends TransportPoller
         }
     }
 
+    private static ReceiverEndPoint[] removeDisconnected(final ReceiverEndPoint[] endPoints)
+    {
+        ReceiverEndPoint[] remaining = endPoints;
+        for (final ReceiverEndPoint endPoint : endPoints)
+        {
+            if (endPoint.hasDisconnected())
+            {
+                remaining = ArrayUtil.remove(remaining, endPoint);
+            }
+        }
+        return remaining;
+    }
+
     public String toString()
     {
         return "ReceiverEndPoints{" +
             "errorHandler=" + errorHandler +
             ", requiredPollingEndPoints=" + Arrays.toString(requiredPollingEndPoints) +
             ", endPoints=" + Arrays.toString(endPoints) +
+            ", hotEndPoints=" + Arrays.toString(hotEndPoints) +
             ", backpressuredEndPoint=" + backpressuredEndPoint +
             '}';
     }
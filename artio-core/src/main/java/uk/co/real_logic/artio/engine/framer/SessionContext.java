@@ -41,6 +41,7 @@ class SessionContext implements SessionInfo
     private long lastSequenceResetTimeInNs;
     private FixDictionary lastFixDictionary;
     private int filePosition;
+    private int allSessionsIndex;
 
     SessionContext(
         final CompositeKey compositeKey,
@@ -116,6 +117,16 @@ class SessionContext implements SessionInfo
         this.filePosition = filePosition;
     }
 
+    void allSessionsIndex(final int allSessionsIndex)
+    {
+        this.allSessionsIndex = allSessionsIndex;
+    }
+
+    int allSessionsIndex()
+    {
+        return allSessionsIndex;
+    }
+
     void updateFrom(final Session session)
     {
         sequenceIndex = session.sequenceIndex();
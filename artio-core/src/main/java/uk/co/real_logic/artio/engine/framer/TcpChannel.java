@@ -43,6 +43,49 @@ public abstract class TcpChannel implements AutoCloseable
     // Any subclass should maintain the API that negative numbers of bytes are never returned
     public abstract int write(ByteBuffer src, int seqNum, boolean replay) throws IOException;
 
+    /**
+     * Write several messages, in order, to the channel. Subclasses backed by a
+     * {@link java.nio.channels.GatheringByteChannel} should override this in order to write all the messages with a
+     * single system call, by default each message is written in turn until one is only partially written.
+     *
+     * @param srcs the buffers holding the messages to write.
+     * @param seqNums the sequence numbers of the messages to write.
+     * @param length the number of messages to write.
+     * @return the number of bytes written, never negative.
+     * @throws IOException if the channel has been disconnected.
+     */
+    public long write(final ByteBuffer[] srcs, final int[] seqNums, final int length) throws IOException
+    {
+        return writeEach(srcs, seqNums, length);
+    }
+
+    /**
+     * Write several messages, in order, with a call to {@link #write(ByteBuffer, int, boolean)} per message until one
+     * is only partially written.
+     *
+     * @param srcs the buffers holding the messages to write.
+     * @param seqNums the sequence numbers of the messages to write.
+     * @param length the number of messages to write.
+     * @return the number of bytes written, never negative.
+     * @throws IOException if the channel has been disconnected.
+     */
+    protected final long writeEach(final ByteBuffer[] srcs, final int[] seqNums, final int length) throws IOException
+    {
+        long written = 0;
+        for (int i = 0; i < length; i++)
+        {
+            final ByteBuffer src = srcs[i];
+            final int remaining = src.remaining();
+            final int messageWritten = write(src, seqNums[i], false);
+            written += messageWritten;
+            if (messageWritten < remaining)
+            {
+                break;
+            }
+        }
+        return written;
+    }
+
     public abstract int read(ByteBuffer dst) throws IOException;
 
     public abstract void close();
@@ -0,0 +1,281 @@
+/*
+ * Copyright 2022 Monotonic Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.co.real_logic.artio.engine.logger;
+
+import io.aeron.FragmentAssembler;
+import io.aeron.Image;
+import io.aeron.Subscription;
+import io.aeron.archive.client.AeronArchive;
+import io.aeron.archive.client.ArchiveException;
+import io.aeron.logbuffer.FragmentHandler;
+import io.aeron.logbuffer.Header;
+import org.agrona.DirectBuffer;
+import org.agrona.ExpandableArrayBuffer;
+import org.agrona.concurrent.IdleStrategy;
+import org.agrona.concurrent.YieldingIdleStrategy;
+import uk.co.real_logic.artio.ArtioLogHeader;
+import uk.co.real_logic.artio.messages.FixMessageDecoder;
+import uk.co.real_logic.artio.messages.MessageHeaderDecoder;
+
+import java.util.Comparator;
+import java.util.concurrent.RecursiveAction;
+import java.util.function.Supplier;
+
+import static io.aeron.CommonContext.IPC_CHANNEL;
+import static org.agrona.BitUtil.SIZE_OF_INT;
+import static org.agrona.BitUtil.SIZE_OF_LONG;
+import static uk.co.real_logic.artio.messages.FixMessageDecoder.*;
+
+/**
+ * A range of positions within a recording that a parallel archive scan replays and filters independently of the
+ * other ranges. The FIX messages that match the predicate are copied into a buffer on the worker thread, along with
+ * their timestamps, and handed to the consumer on the scanning thread once the chunk is complete.
+ */
+class ArchiveScanChunk extends RecursiveAction implements FragmentHandler
+{
+    // Earliest match first, ties are broken by the order of the chunks in the archive
+    static final Comparator<ArchiveScanChunk> MATCH_ORDER = Comparator
+        .comparingLong(ArchiveScanChunk::matchTimestamp)
+        .thenComparingInt(chunk -> chunk.index);
+
+    private static final int TIMESTAMP_OFFSET = 0;
+    private static final int LENGTH_OFFSET = TIMESTAMP_OFFSET + SIZE_OF_LONG;
+    private static final int MATCH_HEADER_LENGTH = LENGTH_OFFSET + SIZE_OF_INT;
+
+    private final MessageHeaderDecoder messageHeader = new MessageHeaderDecoder();
+    private final FixMessageDecoder fixMessage = new FixMessageDecoder();
+    private final FragmentAssembler fragmentAssembler = new FragmentAssembler(this);
+    private final ExpandableArrayBuffer matches = new ExpandableArrayBuffer();
+    private final IdleStrategy idleStrategy = new YieldingIdleStrategy();
+
+    private final int index;
+    private final AeronArchive aeronArchive;
+    private final Subscription replaySubscription;
+    private final Supplier<FixMessagePredicate> predicateFactory;
+    private final int fragmentLimit;
+    private final ArtioLogHeader header;
+    private final long recordingId;
+    private final long startPosition;
+    private final long stopPosition;
+
+    private volatile boolean abandoned;
+
+    private FixMessagePredicate predicate;
+    private int matchesLength;
+    private int matchOffset;
+
+    ArchiveScanChunk(
+        final int index,
+        final AeronArchive aeronArchive,
+        final Subscription replaySubscription,
+        final Supplier<FixMessagePredicate> predicateFactory,
+        final int fragmentLimit,
+        final int streamId,
+        final long recordingId,
+        final long startPosition,
+        final long stopPosition)
+    {
+        this.index = index;
+        this.aeronArchive = aeronArchive;
+        this.replaySubscription = replaySubscription;
+        this.predicateFactory = predicateFactory;
+        this.fragmentLimit = fragmentLimit;
+        this.header = new ArtioLogHeader(streamId);
+        this.recordingId = recordingId;
+        this.startPosition = startPosition;
+        this.stopPosition = stopPosition;
+    }
+
+    protected void compute()
+    {
+        if (abandoned)
+        {
+            return;
+        }
+
+        // Predicates can hold decoding state, so each chunk tests with its own instance
+        predicate = predicateFactory.get();
+
+        final long replaySessionId = aeronArchive.startReplay(
+            recordingId,
+            startPosition,
+            stopPosition - startPosition,
+            IPC_CHANNEL,
+            replaySubscription.streamId());
+
+        final boolean complete;
+        try
+        {
+            complete = pollReplay((int)replaySessionId);
+        }
+        catch (final Throwable e)
+        {
+            try
+            {
+                stopReplay(replaySessionId);
+            }
+            catch (final Throwable stopException)
+            {
+                e.addSuppressed(stopException);
+            }
+
+            throw e;
+        }
+
+        if (!complete)
+        {
+            stopReplay(replaySessionId);
+        }
+    }
+
+    // Returns false if the chunk was abandoned before its replay ended
+    private boolean pollReplay(final int sessionId)
+    {
+        final IdleStrategy idleStrategy = this.idleStrategy;
+        Image image;
+        while ((image = replaySubscription.imageBySessionId(sessionId)) == null)
+        {
+            if (isAbandoned())
+            {
+                return false;
+            }
+
+            idleStrategy.idle();
+        }
+        idleStrategy.reset();
+
+        final long stopPosition = this.stopPosition;
+        while (image.position() < stopPosition && !(image.isClosed() || image.isEndOfStream()))
+        {
+            if (isAbandoned())
+            {
+                return false;
+            }
+
+            idleStrategy.idle(image.poll(fragmentAssembler, fragmentLimit));
+        }
+
+        return image.position() >= stopPosition || image.isEndOfStream();
+    }
+
+    /**
+     * Abandon the chunk when the scan fails, for example when another chunk fails. Unlike cancelling the task, the
+     * chunk still completes once it has stopped its replay, so the scan can wait for it with
+     * {@link #quietlyJoin()} before it closes the archive.
+     */
+    void abandon()
+    {
+        abandoned = true;
+    }
+
+    private boolean isAbandoned()
+    {
+        return abandoned || replaySubscription.isClosed();
+    }
+
+    private void stopReplay(final long replaySessionId)
+    {
+        try
+        {
+            aeronArchive.stopReplay(replaySessionId);
+        }
+        catch (final ArchiveException e)
+        {
+            // The replay may have already ended
+            if (e.errorCode() != ArchiveException.UNKNOWN_REPLAY)
+            {
+                throw e;
+            }
+        }
+    }
+
+    public void onFragment(final DirectBuffer buffer, final int offset, final int length, final Header header)
+    {
+        final MessageHeaderDecoder messageHeader = this.messageHeader;
+        messageHeader.wrap(buffer, offset);
+        if (messageHeader.templateId() != FixMessageDecoder.TEMPLATE_ID)
+        {
+            return;
+        }
+
+        final int version = messageHeader.version();
+        final FixMessageDecoder fixMessage = this.fixMessage;
+        fixMessage.wrap(buffer, offset + MessageHeaderDecoder.ENCODED_LENGTH, messageHeader.blockLength(), version);
+        if (version >= metaDataSinceVersion())
+        {
+            fixMessage.skipMetaData();
+        }
+
+        if (predicate.test(fixMessage))
+        {
+            final ExpandableArrayBuffer matches = this.matches;
+            final int matchesLength = this.matchesLength;
+            matches.putLong(matchesLength + TIMESTAMP_OFFSET, fixMessage.timestamp());
+            matches.putInt(matchesLength + LENGTH_OFFSET, length);
+            matches.putBytes(matchesLength + MATCH_HEADER_LENGTH, buffer, offset, length);
+            this.matchesLength = matchesLength + MATCH_HEADER_LENGTH + length;
+        }
+    }
+
+    boolean hasMatch()
+    {
+        return matchOffset < matchesLength;
+    }
+
+    long matchTimestamp()
+    {
+        return matches.getLong(matchOffset + TIMESTAMP_OFFSET);
+    }
+
+    /**
+     * Hand the next matching message in this chunk to a consumer, only called once the chunk is complete.
+     *
+     * @param fixHandler the consumer to hand the message to.
+     */
+    void onMatch(final FixMessageConsumer fixHandler)
+    {
+        final ExpandableArrayBuffer matches = this.matches;
+        final int start = matchOffset + MATCH_HEADER_LENGTH;
+        matchOffset = start + matches.getInt(matchOffset + LENGTH_OFFSET);
+
+        final MessageHeaderDecoder messageHeader = this.messageHeader;
+        messageHeader.wrap(matches, start);
+        final int version = messageHeader.version();
+
+        int offset = start + MessageHeaderDecoder.ENCODED_LENGTH;
+        final FixMessageDecoder fixMessage = this.fixMessage;
+        fixMessage.wrap(matches, offset, messageHeader.blockLength(), version);
+        if (version >= metaDataSinceVersion())
+        {
+            offset += metaDataHeaderLength() + fixMessage.metaDataLength();
+            fixMessage.skipMetaData();
+        }
+
+        fixHandler.onMessage(fixMessage, matches,
+            offset + FixMessageDecoder.BLOCK_LENGTH + bodyHeaderLength(), fixMessage.bodyLength(), header);
+    }
+
+    public String toString()
+    {
+        return "ArchiveScanChunk{" +
+            "index=" + index +
+            ", streamId=" + header.streamId() +
+            ", recordingId=" + recordingId +
+            ", startPosition=" + startPosition +
+            ", stopPosition=" + stopPosition +
+            '}';
+    }
+}
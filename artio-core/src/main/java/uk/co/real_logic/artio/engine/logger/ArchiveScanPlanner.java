@@ -15,8 +15,11 @@
  */
 package uk.co.real_logic.artio.engine.logger;
 
+import org.agrona.collections.LongHashSet;
 import uk.co.real_logic.artio.engine.logger.FixMessagePredicates.FilterBy;
 import uk.co.real_logic.artio.engine.logger.FixMessagePredicates.From;
+import uk.co.real_logic.artio.engine.logger.FixMessagePredicates.MessageTypeOf;
+import uk.co.real_logic.artio.engine.logger.FixMessagePredicates.SessionOf;
 import uk.co.real_logic.artio.engine.logger.FixMessagePredicates.To;
 
 final class ArchiveScanPlanner
@@ -43,7 +46,16 @@ final class ArchiveScanPlanner
     private static void extractIndexQuery(final FixMessagePredicate predicate, final IndexQuery indexQuery)
     {
         // NB: range returned by the index plan still needs filtering afterwards to ensure correctness
-        if (predicate instanceof CompositeFixMessagePredicate)
+        if (predicate instanceof FixMessageOr)
+        {
+            final FixMessageOr or = (FixMessageOr)predicate;
+            final IndexQuery left = new IndexQuery();
+            final IndexQuery right = new IndexQuery();
+            extractIndexQuery(or.left(), left);
+            extractIndexQuery(or.right(), right);
+            indexQuery.union(left, right);
+        }
+        else if (predicate instanceof CompositeFixMessagePredicate)
         {
             final CompositeFixMessagePredicate and = (CompositeFixMessagePredicate)predicate;
             extractIndexQuery(and.left(), indexQuery);
@@ -59,5 +71,15 @@ final class ArchiveScanPlanner
             final To to = (To)predicate;
             indexQuery.to(to.endTimestampExclusive());
         }
+        else if (predicate instanceof SessionOf)
+        {
+            final LongHashSet sessionIds = new LongHashSet();
+            sessionIds.add(((SessionOf)predicate).sessionId());
+            indexQuery.sessionIds(sessionIds);
+        }
+        else if (predicate instanceof MessageTypeOf)
+        {
+            indexQuery.messageTypes(((MessageTypeOf)predicate).messageTypes());
+        }
     }
 }
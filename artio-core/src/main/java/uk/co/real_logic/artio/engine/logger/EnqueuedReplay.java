@@ -26,6 +26,7 @@ public class EnqueuedReplay
     private final long endSeqNo;
     private final int sequenceIndex;
     private final AsciiBuffer asciiBuffer;
+    private final long requestTimeInNs;
 
     public EnqueuedReplay(
         final long sessionId,
@@ -33,7 +34,8 @@ public class EnqueuedReplay
         final long correlationId, final long beginSeqNo,
         final long endSeqNo,
         final int sequenceIndex,
-        final AsciiBuffer asciiBuffer)
+        final AsciiBuffer asciiBuffer,
+        final long requestTimeInNs)
     {
 
         this.sessionId = sessionId;
@@ -43,6 +45,7 @@ public class EnqueuedReplay
         this.endSeqNo = endSeqNo;
         this.sequenceIndex = sequenceIndex;
         this.asciiBuffer = asciiBuffer;
+        this.requestTimeInNs = requestTimeInNs;
     }
 
     public long sessionId()
@@ -75,6 +78,11 @@ public class EnqueuedReplay
         return correlationId;
     }
 
+    public long requestTimeInNs()
+    {
+        return requestTimeInNs;
+    }
+
     public String toString()
     {
         return "EnqueuedReplay{" +
@@ -85,6 +93,7 @@ public class EnqueuedReplay
             ", endSeqNo=" + endSeqNo +
             ", sequenceIndex=" + sequenceIndex +
             ", asciiBuffer=" + asciiBuffer.getAscii(0, asciiBuffer.capacity()) +
+            ", requestTimeInNs=" + requestTimeInNs +
             '}';
     }
 
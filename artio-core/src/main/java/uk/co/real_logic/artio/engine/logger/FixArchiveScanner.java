@@ -24,6 +24,9 @@ import uk.co.real_logic.artio.DebugLogger;
 import uk.co.real_logic.artio.engine.EngineConfiguration;
 import uk.co.real_logic.artio.fixp.FixPMessageConsumer;
 
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Supplier;
+
 import static uk.co.real_logic.artio.LogTag.ARCHIVE_SCAN;
 import static uk.co.real_logic.artio.engine.logger.FixMessageLogger.Configuration.*;
 
@@ -37,6 +40,7 @@ import static uk.co.real_logic.artio.engine.logger.FixMessageLogger.Configuratio
 public class FixArchiveScanner implements AutoCloseable
 {
     public static final int DEFAULT_FRAGMENT_LIMIT = 10000;
+    public static final int DEFAULT_SCAN_CHUNK_SIZE_IN_BYTES = 64 * 1024 * 1024;
 
     static final boolean DEBUG_LOG_ARCHIVE_SCAN = DebugLogger.isEnabled(ARCHIVE_SCAN);
 
@@ -50,6 +54,8 @@ public class FixArchiveScanner implements AutoCloseable
         private String logFileDir;
         private boolean enableIndexScan;
         private AeronArchive.Context archiveContext;
+        private int scanParallelism = Runtime.getRuntime().availableProcessors();
+        private int scanChunkSizeInBytes = DEFAULT_SCAN_CHUNK_SIZE_IN_BYTES;
 
         public Configuration()
         {
@@ -136,7 +142,9 @@ public class FixArchiveScanner implements AutoCloseable
         /**
          * Sets the logFileDir used by your {@link EngineConfiguration}. This configuration option isn't required, it
          * allows faster FixArchiveScanner operations for predicates where you're searching by time by using the
-         * {@link FixMessagePredicates#to(long)} or {@link FixMessagePredicates#from(long)} predicates.
+         * {@link FixMessagePredicates#to(long)} or {@link FixMessagePredicates#from(long)} predicates, or by
+         * session id and message type using the {@link FixMessagePredicates#sessionOf(long)} or
+         * {@link FixMessagePredicates#messageTypeOf(String...)} predicates.
          * Setting this configuration option automatically enables index scanning.
          *
          * @param logFileDir the logFileDir configured in your {@link EngineConfiguration}.
@@ -186,6 +194,56 @@ public class FixArchiveScanner implements AutoCloseable
             return this;
         }
 
+        /**
+         * Sets the number of threads that a parallel scan, see
+         * {@link FixArchiveScanner#scanParallel(String, IntHashSet, Supplier, FixMessageConsumer, boolean, int)},
+         * scans chunks of the archive on. Defaults to the number of available processors.
+         *
+         * @param scanParallelism the number of threads to scan on.
+         * @return this
+         */
+        public Configuration scanParallelism(final int scanParallelism)
+        {
+            if (scanParallelism <= 0)
+            {
+                throw new IllegalArgumentException("scanParallelism must be positive, but was: " + scanParallelism);
+            }
+
+            this.scanParallelism = scanParallelism;
+            return this;
+        }
+
+        public int scanParallelism()
+        {
+            return scanParallelism;
+        }
+
+        /**
+         * Sets the size of the chunks that a parallel scan, see
+         * {@link FixArchiveScanner#scanParallel(String, IntHashSet, Supplier, FixMessageConsumer, boolean, int)},
+         * splits recordings into. Recordings can only be split when index scanning is enabled, otherwise each
+         * recording is a single chunk.
+         *
+         * @param scanChunkSizeInBytes the minimum size of a chunk in bytes.
+         * @return this
+         */
+        public Configuration scanChunkSizeInBytes(final int scanChunkSizeInBytes)
+        {
+            if (scanChunkSizeInBytes <= 0)
+            {
+                throw new IllegalArgumentException(
+                    "scanChunkSizeInBytes must be positive, but was: " + scanChunkSizeInBytes);
+            }
+
+            this.scanChunkSizeInBytes = scanChunkSizeInBytes;
+            return this;
+        }
+
+        public int scanChunkSizeInBytes()
+        {
+            return scanChunkSizeInBytes;
+        }
+
         private void conclude()
         {
             if (enableIndexScan && logFileDir == null)
@@ -199,6 +257,10 @@ public class FixArchiveScanner implements AutoCloseable
 
     private final IdleStrategy idleStrategy;
     private final FixArchiveScanningAgent agent;
+    private final int scanParallelism;
+    private final int scanChunkSizeInBytes;
+
+    private ForkJoinPool scanPool;
 
     public FixArchiveScanner(final Configuration configuration)
     {
@@ -231,6 +293,8 @@ public class FixArchiveScanner implements AutoCloseable
         }
 
         idleStrategy = configuration.idleStrategy();
+        scanParallelism = configuration.scanParallelism;
+        scanChunkSizeInBytes = configuration.scanChunkSizeInBytes;
         agent = new FixArchiveScanningAgent(
             idleStrategy,
             configuration.compactionSize,
@@ -286,8 +350,56 @@ public class FixArchiveScanner implements AutoCloseable
         }
     }
 
+    /**
+     * Scan the archive for fix messages that match a predicate in parallel. Recordings, and the ranges between the
+     * positions in their time index when index scanning is enabled, are split into chunks that are replayed and
+     * filtered on a fork join pool. This only scans FIX messages and doesn't support following the archive.
+     *
+     * Matching messages are held in memory until they're handed to the consumer on the calling thread, so this is
+     * suited to selective queries. In unordered mode a chunk's messages are handed over as soon as it and the chunks
+     * before it are complete, so messages within a recording are in archive order. In ordered mode messages are
+     * handed over in timestamp order once all chunks are complete.
+     *
+     * @param aeronChannel the channel of the recordings to scan.
+     * @param queryStreamIds the stream ids of the recordings to scan.
+     * @param predicateFactory creates the predicate to filter messages with, each chunk tests with its own
+     *                         instance so the predicate doesn't have to be thread safe.
+     * @param fixHandler the consumer that matching messages are handed to, only called on the calling thread.
+     * @param ordered true to hand messages to the consumer in timestamp order.
+     * @param archiveScannerStreamId the stream id to replay the archive on.
+     * @return the number of chunks that the archive was scanned in.
+     */
+    public int scanParallel(
+        final String aeronChannel,
+        final IntHashSet queryStreamIds,
+        final Supplier<FixMessagePredicate> predicateFactory,
+        final FixMessageConsumer fixHandler,
+        final boolean ordered,
+        final int archiveScannerStreamId)
+    {
+        if (scanPool == null)
+        {
+            scanPool = new ForkJoinPool(scanParallelism);
+        }
+
+        return agent.scanParallel(
+            aeronChannel,
+            queryStreamIds,
+            predicateFactory,
+            fixHandler,
+            ordered,
+            archiveScannerStreamId,
+            scanPool,
+            scanChunkSizeInBytes);
+    }
+
     public void close()
     {
+        if (scanPool != null)
+        {
+            scanPool.shutdownNow();
+        }
+
         agent.close();
     }
 }
@@ -19,14 +19,17 @@ import io.aeron.*;
 import io.aeron.archive.client.AeronArchive;
 import org.agrona.collections.IntHashSet;
 import org.agrona.collections.Long2ObjectHashMap;
+import org.agrona.collections.LongArrayList;
 import org.agrona.concurrent.IdleStrategy;
 import uk.co.real_logic.artio.DebugLogger;
 import uk.co.real_logic.artio.dictionary.generation.Exceptions;
 import uk.co.real_logic.artio.fixp.FixPMessageConsumer;
 
 import java.util.ArrayList;
-import java.util.Iterator;
 import java.util.List;
+import java.util.PriorityQueue;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Supplier;
 
 import static io.aeron.CommonContext.IPC_CHANNEL;
 import static io.aeron.archive.client.AeronArchive.NULL_POSITION;
@@ -45,6 +48,7 @@ public class FixArchiveScanningAgent implements AutoCloseable
     private final String logFileDir;
 
     private final Long2ObjectHashMap<TimeIndexReader> streamIdToInboundTimeIndex = new Long2ObjectHashMap<>();
+    private final Long2ObjectHashMap<PostingsIndexReader> streamIdToPostingsIndex = new Long2ObjectHashMap<>();
 
     private StreamTimestampZipper timestampZipper;
     private Subscription replaySubscription;
@@ -83,7 +87,7 @@ public class FixArchiveScanningAgent implements AutoCloseable
         }
 
         final Long2ObjectHashMap<PositionRange> recordingIdToPositionRange =
-            scanIndexIfPossible(fixHandler, follow, queryStreamIds);
+            scanIndexIfPossible(fixHandler, fixPHandler, follow, queryStreamIds);
 
         this.follow = follow;
         replaySubscription = aeron.addSubscription(IPC_CHANNEL, archiveScannerStreamId);
@@ -139,7 +143,10 @@ public class FixArchiveScanningAgent implements AutoCloseable
     }
 
     private Long2ObjectHashMap<PositionRange> scanIndexIfPossible(
-        final FixMessageConsumer fixHandler, final boolean follow, final IntHashSet queryStreamIds)
+        final FixMessageConsumer fixHandler,
+        final FixPMessageConsumer fixPHandler,
+        final boolean follow,
+        final IntHashSet queryStreamIds)
     {
         if (DEBUG_LOG_ARCHIVE_SCAN)
         {
@@ -178,16 +185,25 @@ public class FixArchiveScanningAgent implements AutoCloseable
             final Long2ObjectHashMap<PositionRange> recordingIdToPositionRange = new Long2ObjectHashMap<>();
             for (final int streamId : queryStreamIds)
             {
-                TimeIndexReader reader = streamIdToInboundTimeIndex.get(streamId);
-                if (reader == null)
+                if (!timeIndexReader(streamId).findPositionRange(indexQuery, recordingIdToPositionRange))
                 {
-                    reader = new TimeIndexReader(logFileDir, streamId);
-                    streamIdToInboundTimeIndex.put(streamId, reader);
+                    return null;
                 }
+            }
 
-                if (!reader.findPositionRange(indexQuery, recordingIdToPositionRange))
+            // FIXP messages aren't filtered by the fix predicate so they could be anywhere in the recording
+            if (indexQuery.needsPostings() && fixPHandler == null)
+            {
+                for (final int streamId : queryStreamIds)
                 {
-                    return null;
+                    PostingsIndexReader reader = streamIdToPostingsIndex.get(streamId);
+                    if (reader == null)
+                    {
+                        reader = new PostingsIndexReader(logFileDir, streamId);
+                        streamIdToPostingsIndex.put(streamId, reader);
+                    }
+
+                    reader.narrowPositionRange(indexQuery, recordingIdToPositionRange);
                 }
             }
 
@@ -205,6 +221,196 @@ public class FixArchiveScanningAgent implements AutoCloseable
         }
     }
 
+    /**
+     * Scan the archive in parallel, see
+     * {@link FixArchiveScanner#scanParallel(String, IntHashSet, Supplier, FixMessageConsumer, boolean, int)}.
+     *
+     * @param aeronChannel the channel of the recordings to scan.
+     * @param queryStreamIds the stream ids of the recordings to scan.
+     * @param predicateFactory creates the predicate that each chunk filters messages with.
+     * @param fixHandler the consumer that matching messages are handed to on this thread.
+     * @param ordered true to hand messages to the consumer in timestamp order.
+     * @param archiveScannerStreamId the stream id to replay the archive on.
+     * @param pool the pool that chunks are scanned on.
+     * @param chunkSizeInBytes the size of the chunks that recordings are split into, where indexed.
+     * @return the number of chunks that the archive was scanned in.
+     */
+    public int scanParallel(
+        final String aeronChannel,
+        final IntHashSet queryStreamIds,
+        final Supplier<FixMessagePredicate> predicateFactory,
+        final FixMessageConsumer fixHandler,
+        final boolean ordered,
+        final int archiveScannerStreamId,
+        final ForkJoinPool pool,
+        final int chunkSizeInBytes)
+    {
+        fixHandler.reset();
+
+        // Narrow the scan down in the same way as a sequential scan filtered by the predicate
+        final Long2ObjectHashMap<PositionRange> recordingIdToPositionRange = scanIndexIfPossible(
+            FixMessagePredicates.filterBy(fixHandler, predicateFactory.get()), null, false, queryStreamIds);
+
+        final Subscription replaySubscription = aeron.addSubscription(IPC_CHANNEL, archiveScannerStreamId);
+        try
+        {
+            final List<ArchiveScanChunk> chunks = makeScanChunks(
+                aeronChannel,
+                queryStreamIds,
+                predicateFactory,
+                chunkSizeInBytes,
+                recordingIdToPositionRange,
+                replaySubscription);
+
+            if (DEBUG_LOG_ARCHIVE_SCAN)
+            {
+                DebugLogger.log(ARCHIVE_SCAN, "Chunks: " + chunks);
+            }
+
+            for (final ArchiveScanChunk chunk : chunks)
+            {
+                pool.execute(chunk);
+            }
+
+            try
+            {
+                if (ordered)
+                {
+                    mergeChunks(chunks, fixHandler);
+                }
+                else
+                {
+                    handChunks(chunks, fixHandler);
+                }
+            }
+            catch (final Throwable e)
+            {
+                for (final ArchiveScanChunk chunk : chunks)
+                {
+                    chunk.abandon();
+                }
+
+                // Chunks stop their replays on the pool, so wait for them before the caller can close the archive
+                for (final ArchiveScanChunk chunk : chunks)
+                {
+                    chunk.quietlyJoin();
+                }
+
+                throw e;
+            }
+
+            return chunks.size();
+        }
+        finally
+        {
+            Exceptions.closeAll(replaySubscription);
+        }
+    }
+
+    private List<ArchiveScanChunk> makeScanChunks(
+        final String aeronChannel,
+        final IntHashSet queryStreamIds,
+        final Supplier<FixMessagePredicate> predicateFactory,
+        final int chunkSizeInBytes,
+        final Long2ObjectHashMap<PositionRange> recordingIdToPositionRange,
+        final Subscription replaySubscription)
+    {
+        final List<ArchiveScanChunk> chunks = new ArrayList<>();
+        final LongArrayList chunkPositions = new LongArrayList();
+        for (final int streamId : queryStreamIds)
+        {
+            final List<ArchiveLocation> archiveLocations =
+                lookupArchiveLocations(streamId, false, aeronChannel, recordingIdToPositionRange);
+            for (final ArchiveLocation location : archiveLocations)
+            {
+                if (location.length() <= 0)
+                {
+                    continue;
+                }
+
+                // Recordings can only be split where the time index knows that a message ends
+                chunkPositions.clear();
+                if (logFileDir != null)
+                {
+                    timeIndexReader(streamId).findChunkPositions(
+                        location.recordingId,
+                        location.startPosition,
+                        location.stopPosition,
+                        chunkSizeInBytes,
+                        chunkPositions);
+                }
+
+                long startPosition = location.startPosition;
+                for (int i = 0, size = chunkPositions.size(); i <= size; i++)
+                {
+                    final long stopPosition = i < size ? chunkPositions.getLong(i) : location.stopPosition;
+                    chunks.add(new ArchiveScanChunk(
+                        chunks.size(),
+                        aeronArchive,
+                        replaySubscription,
+                        predicateFactory,
+                        fragmentLimit,
+                        streamId,
+                        location.recordingId,
+                        startPosition,
+                        stopPosition));
+                    startPosition = stopPosition;
+                }
+            }
+        }
+
+        return chunks;
+    }
+
+    // Hands over each chunk's messages as soon as it's complete, so messages are in archive order within a recording
+    private static void handChunks(final List<ArchiveScanChunk> chunks, final FixMessageConsumer fixHandler)
+    {
+        for (final ArchiveScanChunk chunk : chunks)
+        {
+            chunk.join();
+            while (chunk.hasMatch())
+            {
+                chunk.onMatch(fixHandler);
+            }
+        }
+    }
+
+    // A chunk's messages could be earlier than those of any other chunk, so all chunks need to complete first
+    private static void mergeChunks(final List<ArchiveScanChunk> chunks, final FixMessageConsumer fixHandler)
+    {
+        final PriorityQueue<ArchiveScanChunk> chunksByMatch =
+            new PriorityQueue<>(Math.max(1, chunks.size()), ArchiveScanChunk.MATCH_ORDER);
+        for (final ArchiveScanChunk chunk : chunks)
+        {
+            chunk.join();
+            if (chunk.hasMatch())
+            {
+                chunksByMatch.add(chunk);
+            }
+        }
+
+        ArchiveScanChunk chunk;
+        while ((chunk = chunksByMatch.poll()) != null)
+        {
+            chunk.onMatch(fixHandler);
+            if (chunk.hasMatch())
+            {
+                chunksByMatch.add(chunk);
+            }
+        }
+    }
+
+    private TimeIndexReader timeIndexReader(final int streamId)
+    {
+        TimeIndexReader reader = streamIdToInboundTimeIndex.get(streamId);
+        if (reader == null)
+        {
+            reader = new TimeIndexReader(logFileDir, streamId);
+            streamIdToInboundTimeIndex.put(streamId, reader);
+        }
+        return reader;
+    }
+
     private boolean checkCompletion(final RecordingPoller[] pollers)
     {
         for (final RecordingPoller poller : pollers)
@@ -259,35 +465,30 @@ public class FixArchiveScanningAgent implements AutoCloseable
             }
         }
 
-        // try to narrow down the scan range using the index
+        // try to narrow down the scan range using the index, a recording is scanned once per range
         if (recordingIdToPositionRange != null)
         {
-            final Iterator<ArchiveLocation> iterator = archiveLocations.iterator();
-            while (iterator.hasNext())
+            final List<ArchiveLocation> narrowedLocations = new ArrayList<>();
+            for (final ArchiveLocation location : archiveLocations)
             {
-                final ArchiveLocation location = iterator.next();
-
-                final PositionRange positionRange = recordingIdToPositionRange.get(location.recordingId);
-                if (positionRange == null)
+                PositionRange positionRange = recordingIdToPositionRange.get(location.recordingId);
+                while (positionRange != null)
                 {
-                    iterator.remove();
-                }
-                else
-                {
-                    final long startPosition = positionRange.startPosition();
+                    final long startPosition = Math.max(location.startPosition, positionRange.startPosition());
                     final long endPosition = positionRange.endPosition();
+                    final long stopPosition = location.stopPosition > endPosition ? endPosition : location.stopPosition;
 
-                    if (location.stopPosition > endPosition)
+                    // Skip ranges that are beyond the end of the recording
+                    if (stopPosition == NULL_POSITION || startPosition < stopPosition)
                     {
-                        location.stopPosition = endPosition;
+                        narrowedLocations.add(new ArchiveLocation(location.recordingId, startPosition, stopPosition));
                     }
 
-                    if (location.startPosition < startPosition)
-                    {
-                        location.startPosition = startPosition;
-                    }
+                    positionRange = positionRange.next();
                 }
             }
+
+            return narrowedLocations;
         }
 
         return archiveLocations;
@@ -79,6 +79,7 @@ class FixReplayerSession extends ReplayerSession
     private int beginGapFillSeqNum = NONE;
 
     private State state;
+    private ResendCache.CachedReplay cachedReplay;
 
     FixReplayerSession(
         final BufferClaim bufferClaim,
@@ -132,6 +133,18 @@ class FixReplayerSession extends ReplayerSession
         state = State.REPLAYING;
     }
 
+    /**
+     * Replay from the resend cache instead of querying the archive, if the cache holds the whole range.
+     *
+     * @param resendCache the cache of recently sent messages.
+     * @return true if the replay is served from the cache, false if it should be queried from the archive.
+     */
+    boolean replayFromCache(final ResendCache resendCache)
+    {
+        cachedReplay = resendCache.lookup(sessionId, sequenceIndex, beginSeqNo, endSeqNo);
+        return cachedReplay != null;
+    }
+
     MessageTracker messageTracker()
     {
         return new FixMessageTracker(REPLAY_MESSAGE, this, sessionId);
@@ -381,7 +394,7 @@ class FixReplayerSession extends ReplayerSession
         {
             case REPLAYING:
                 DebugLogger.log(REPLAY_ATTEMPT, "ReplayerSession: REPLAYING step");
-                if (replayOperation.pollReplay())
+                if (cachedReplay != null ? cachedReplay.poll(this) : replayOperation.pollReplay())
                 {
                     state = State.CHECK_REPLAY;
                     return attemptReplay();
@@ -401,7 +414,7 @@ class FixReplayerSession extends ReplayerSession
 
             case CLOSING:
             {
-                return replayOperation.pollReplay();
+                return cachedReplay != null || replayOperation.pollReplay();
             }
 
             default:
@@ -412,7 +425,8 @@ class FixReplayerSession extends ReplayerSession
     private boolean completeReplay()
     {
         // Load state needed to complete the replay
-        final int replayedMessages = replayOperation.replayedMessages();
+        final int replayedMessages = cachedReplay != null ?
+            cachedReplay.replayedMessages() : replayOperation.replayedMessages();
 
         // If the last N messages were admin messages then we need to send a gapfill
         // after the replay query has run.
@@ -15,6 +15,8 @@
  */
 package uk.co.real_logic.artio.engine.logger;
 
+import org.agrona.collections.LongHashSet;
+
 class IndexQuery
 {
     static final long NO_BEGIN = Long.MIN_VALUE;
@@ -23,6 +25,10 @@ class IndexQuery
     private long beginTimestampInclusive = Long.MIN_VALUE;
     private long endTimestampExclusive = Long.MAX_VALUE;
 
+    // null means that any value could match
+    private LongHashSet sessionIds;
+    private LongHashSet messageTypes;
+
     void from(final long beginTimestampInclusive)
     {
         final long existingBeginTimestampInclusive = this.beginTimestampInclusive;
@@ -43,10 +49,85 @@ class IndexQuery
         }
     }
 
+    void sessionIds(final LongHashSet sessionIds)
+    {
+        this.sessionIds = intersect(this.sessionIds, sessionIds);
+    }
+
+    void messageTypes(final LongHashSet messageTypes)
+    {
+        this.messageTypes = intersect(this.messageTypes, messageTypes);
+    }
+
+    /**
+     * Widen this query to cover anything that matches either of the given queries.
+     *
+     * @param left the first query.
+     * @param right the second query.
+     */
+    void union(final IndexQuery left, final IndexQuery right)
+    {
+        if (left.beginTimestampInclusive != NO_BEGIN && right.beginTimestampInclusive != NO_BEGIN)
+        {
+            from(Math.min(left.beginTimestampInclusive, right.beginTimestampInclusive));
+        }
+
+        if (left.endTimestampExclusive != NO_END && right.endTimestampExclusive != NO_END)
+        {
+            to(Math.max(left.endTimestampExclusive, right.endTimestampExclusive));
+        }
+
+        if (left.sessionIds != null && right.sessionIds != null)
+        {
+            sessionIds(union(left.sessionIds, right.sessionIds));
+        }
+
+        if (left.messageTypes != null && right.messageTypes != null)
+        {
+            messageTypes(union(left.messageTypes, right.messageTypes));
+        }
+    }
+
+    private static LongHashSet intersect(final LongHashSet existing, final LongHashSet values)
+    {
+        final LongHashSet result = new LongHashSet();
+        if (existing == null)
+        {
+            result.addAll(values);
+        }
+        else
+        {
+            final LongHashSet.LongIterator it = existing.iterator();
+            while (it.hasNext())
+            {
+                final long value = it.nextValue();
+                if (values.contains(value))
+                {
+                    result.add(value);
+                }
+            }
+        }
+        return result;
+    }
+
+    private static LongHashSet union(final LongHashSet left, final LongHashSet right)
+    {
+        final LongHashSet result = new LongHashSet();
+        result.addAll(left);
+        result.addAll(right);
+        return result;
+    }
+
     boolean needed()
     {
         return beginTimestampInclusive != NO_BEGIN ||
-            endTimestampExclusive != NO_END;
+            endTimestampExclusive != NO_END ||
+            needsPostings();
+    }
+
+    boolean needsPostings()
+    {
+        return sessionIds != null || messageTypes != null;
     }
 
     public String toString()
@@ -54,6 +135,8 @@ class IndexQuery
         return "IndexPlan{" +
             "beginTimestampInclusive=" + beginTimestampInclusive +
             ", endTimestampExclusive=" + endTimestampExclusive +
+            ", sessionIds=" + sessionIds +
+            ", messageTypes=" + messageTypes +
             '}';
     }
 
@@ -66,4 +149,14 @@ class IndexQuery
     {
         return endTimestampExclusive;
     }
+
+    LongHashSet sessionIds()
+    {
+        return sessionIds;
+    }
+
+    LongHashSet messageTypes()
+    {
+        return messageTypes;
+    }
 }
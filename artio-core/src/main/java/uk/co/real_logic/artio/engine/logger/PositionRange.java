@@ -20,6 +20,8 @@ class PositionRange
     private final long startPosition;
     private final long endPosition;
 
+    private PositionRange next;
+
     PositionRange(final long startPosition, final long endPosition)
     {
         this.startPosition = startPosition;
@@ -36,11 +38,28 @@ class PositionRange
         return endPosition;
     }
 
+    /**
+     * Get the next range within the same recording, ranges that are linked together are disjoint and in position
+     * order.
+     *
+     * @return the next range within the same recording or null if this is the last one.
+     */
+    public PositionRange next()
+    {
+        return next;
+    }
+
+    void next(final PositionRange next)
+    {
+        this.next = next;
+    }
+
     public String toString()
     {
         return "PositionRange{" +
             "startPosition=" + startPosition +
             ", endPosition=" + endPosition +
+            (next == null ? "" : ", next=" + next) +
             '}';
     }
 }
@@ -0,0 +1,199 @@
+/*
+ * Copyright 2015-2024 Real Logic Limited.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.co.real_logic.artio.engine.logger;
+
+import org.agrona.IoUtil;
+import org.agrona.collections.Long2ObjectHashMap;
+import org.agrona.collections.LongHashSet;
+import org.agrona.concurrent.UnsafeBuffer;
+
+import java.io.File;
+import java.nio.MappedByteBuffer;
+import java.util.Iterator;
+import java.util.Map;
+
+import static org.agrona.BitUtil.SIZE_OF_LONG;
+import static uk.co.real_logic.artio.engine.logger.PostingsIndexWriter.*;
+
+class PostingsIndexReader
+{
+    private static final long NO_POSITION = -1;
+
+    private final String logFileDir;
+    private final int streamId;
+
+    PostingsIndexReader(final String logFileDir, final int streamId)
+    {
+        this.logFileDir = logFileDir;
+        this.streamId = streamId;
+    }
+
+    /**
+     * Narrow down the position ranges found by the {@link TimeIndexReader} to the buckets that contain a session id
+     * and message type required by the query. Each run of adjacent matching buckets becomes its own range, linked
+     * through {@link PositionRange#next()}, so that the scan skips the buckets in between. Recordings without a
+     * postings index are left untouched and recordings where no bucket matches are removed.
+     *
+     * @param indexQuery the query to search for.
+     * @param recordingIdToPositionRange the ranges to narrow down, updated in place.
+     */
+    void narrowPositionRange(
+        final IndexQuery indexQuery, final Long2ObjectHashMap<PositionRange> recordingIdToPositionRange)
+    {
+        final Iterator<Map.Entry<Long, PositionRange>> it = recordingIdToPositionRange.entrySet().iterator();
+        while (it.hasNext())
+        {
+            final Map.Entry<Long, PositionRange> entry = it.next();
+            final File file = fileLocation(logFileDir, streamId, entry.getKey());
+            if (!file.exists() || file.length() == 0)
+            {
+                continue;
+            }
+
+            final PositionRange positionRanges = findPositionRanges(indexQuery, file, entry.getValue());
+            if (positionRanges == null)
+            {
+                it.remove();
+            }
+            else
+            {
+                entry.setValue(positionRanges);
+            }
+        }
+    }
+
+    private PositionRange findPositionRanges(
+        final IndexQuery indexQuery, final File file, final PositionRange timeRange)
+    {
+        final LongHashSet sessionIds = indexQuery.sessionIds();
+        final LongHashSet messageTypes = indexQuery.messageTypes();
+
+        final MappedByteBuffer mappedByteBuffer = LoggerUtil.mapExistingFile(file);
+        try
+        {
+            final UnsafeBuffer buffer = new UnsafeBuffer(mappedByteBuffer);
+            final int capacity = buffer.capacity();
+
+            // The ranges are linked onto a placeholder that's dropped at the end
+            final PositionRange firstRange = new PositionRange(NO_POSITION, NO_POSITION);
+            PositionRange lastRange = firstRange;
+            long runStartPosition = NO_POSITION;
+            long runEndPosition = NO_POSITION;
+            long previousEndPosition = 0;
+            boolean sealed = false;
+
+            int offset = 0;
+            while (offset + BUCKET_HEADER_LENGTH <= capacity)
+            {
+                final int sessionIdCount = buffer.getInt(offset + SESSION_ID_COUNT_OFFSET);
+                final int messageTypeCount = buffer.getInt(offset + MESSAGE_TYPE_COUNT_OFFSET);
+                final int bucketLength = bucketLength(sessionIdCount, messageTypeCount);
+                if (offset + bucketLength > capacity)
+                {
+                    // partially written bucket
+                    break;
+                }
+
+                final int flags = buffer.getInt(offset + FLAGS_OFFSET);
+                final boolean resumed = (flags & RESUMED_FLAG) != 0;
+                final long bucketStartPosition = resumed ?
+                    previousEndPosition : buffer.getLong(offset + START_POSITION_OFFSET);
+                final long bucketEndPosition = buffer.getLong(offset + END_POSITION_OFFSET);
+
+                final int sessionIdsOffset = offset + BUCKET_HEADER_LENGTH;
+                final int messageTypesOffset = sessionIdsOffset + sessionIdCount * SIZE_OF_LONG;
+                if (resumed ||
+                    (containsAny(buffer, sessionIdsOffset, sessionIdCount, sessionIds) &&
+                    containsAny(buffer, messageTypesOffset, messageTypeCount, messageTypes)))
+                {
+                    if (runStartPosition == NO_POSITION || runEndPosition != bucketStartPosition)
+                    {
+                        lastRange = appendRange(lastRange, timeRange, runStartPosition, runEndPosition);
+                        runStartPosition = bucketStartPosition;
+                    }
+                    runEndPosition = bucketEndPosition;
+                }
+
+                previousEndPosition = bucketEndPosition;
+                sealed = (flags & SEALED_FLAG) != 0;
+                offset += bucketLength;
+            }
+
+            // Messages after the last bucket haven't been indexed yet, so they could match.
+            if (!sealed)
+            {
+                if (runStartPosition == NO_POSITION || runEndPosition != previousEndPosition)
+                {
+                    lastRange = appendRange(lastRange, timeRange, runStartPosition, runEndPosition);
+                    runStartPosition = previousEndPosition;
+                }
+                runEndPosition = Long.MAX_VALUE;
+            }
+
+            appendRange(lastRange, timeRange, runStartPosition, runEndPosition);
+
+            return firstRange.next();
+        }
+        finally
+        {
+            IoUtil.unmap(mappedByteBuffer);
+        }
+    }
+
+    // Links the part of the run within the time range after the last range, returning the new last range
+    private static PositionRange appendRange(
+        final PositionRange lastRange,
+        final PositionRange timeRange,
+        final long runStartPosition,
+        final long runEndPosition)
+    {
+        if (runStartPosition == NO_POSITION)
+        {
+            return lastRange;
+        }
+
+        final long startPosition = Math.max(timeRange.startPosition(), runStartPosition);
+        final long endPosition = Math.min(timeRange.endPosition(), runEndPosition);
+        if (startPosition >= endPosition)
+        {
+            return lastRange;
+        }
+
+        final PositionRange range = new PositionRange(startPosition, endPosition);
+        lastRange.next(range);
+        return range;
+    }
+
+    private static boolean containsAny(
+        final UnsafeBuffer buffer, final int offset, final int count, final LongHashSet values)
+    {
+        if (values == null)
+        {
+            return true;
+        }
+
+        final int end = offset + count * SIZE_OF_LONG;
+        for (int position = offset; position < end; position += SIZE_OF_LONG)
+        {
+            if (values.contains(buffer.getLong(position)))
+            {
+                return true;
+            }
+        }
+
+        return false;
+    }
+}
@@ -0,0 +1,327 @@
+/*
+ * Copyright 2015-2024 Real Logic Limited.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.co.real_logic.artio.engine.logger;
+
+import org.agrona.ErrorHandler;
+import org.agrona.ExpandableArrayBuffer;
+import org.agrona.collections.Long2ObjectHashMap;
+import org.agrona.collections.LongHashSet;
+import uk.co.real_logic.artio.dictionary.generation.Exceptions;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+
+import static org.agrona.BitUtil.SIZE_OF_INT;
+import static org.agrona.BitUtil.SIZE_OF_LONG;
+
+/**
+ * Writes a secondary index of which fix session ids and message types occur within each time bucket of a
+ * recording. The archive scanner uses this to skip the parts of a recording that can't match a query.
+ *
+ * The file for each recording is a sequence of buckets, each one is a {@link #BUCKET_HEADER_LENGTH} header
+ * (start position, end position, flags, session id count and message type count) followed by the distinct
+ * session ids and then the distinct packed message types seen between the two positions. A bucket is written
+ * when its time interval elapses, when it has too many distinct values or when the writer is closed.
+ */
+class PostingsIndexWriter implements AutoCloseable
+{
+    static final String FILE_NAME = "postings-index-";
+
+    static final int START_POSITION_OFFSET = 0;
+    static final int END_POSITION_OFFSET = START_POSITION_OFFSET + SIZE_OF_LONG;
+    static final int FLAGS_OFFSET = END_POSITION_OFFSET + SIZE_OF_LONG;
+    static final int SESSION_ID_COUNT_OFFSET = FLAGS_OFFSET + SIZE_OF_INT;
+    static final int MESSAGE_TYPE_COUNT_OFFSET = SESSION_ID_COUNT_OFFSET + SIZE_OF_INT;
+    static final int BUCKET_HEADER_LENGTH = MESSAGE_TYPE_COUNT_OFFSET + SIZE_OF_INT + SIZE_OF_INT;
+
+    /**
+     * The bucket was the first written after an existing file was reopened, so messages between the end of the
+     * previous bucket and this bucket may not have been indexed.
+     */
+    static final int RESUMED_FLAG = 1;
+
+    /**
+     * The bucket was the last written before the writer was closed, so nothing after it has been indexed yet.
+     */
+    static final int SEALED_FLAG = 2;
+
+    static final int MAX_POSTINGS_PER_BUCKET = 4096;
+
+    private static final long NO_POSITION = -1;
+
+    static File fileLocation(final String logFileDir, final int streamId, final long recordingId)
+    {
+        return new File(logFileDir + File.separator + FILE_NAME + streamId + "-" + recordingId);
+    }
+
+    static int bucketLength(final int sessionIdCount, final int messageTypeCount)
+    {
+        return BUCKET_HEADER_LENGTH + (sessionIdCount + messageTypeCount) * SIZE_OF_LONG;
+    }
+
+    private final ExpandableArrayBuffer buffer = new ExpandableArrayBuffer(bucketLength(16, 16));
+    private final Long2ObjectHashMap<RecordingWriter> recordingIdToWriter = new Long2ObjectHashMap<>();
+    private final String logFileDir;
+    private final int streamId;
+    private final long bucketIntervalInNs;
+    private final ErrorHandler errorHandler;
+
+    private RecordingWriter continuedWriter;
+
+    PostingsIndexWriter(
+        final String logFileDir,
+        final int streamId,
+        final long bucketIntervalInNs,
+        final ErrorHandler errorHandler)
+    {
+        this.logFileDir = logFileDir;
+        this.streamId = streamId;
+        this.bucketIntervalInNs = bucketIntervalInNs;
+        this.errorHandler = errorHandler;
+    }
+
+    public void onMessage(
+        final long recordingId,
+        final long endPosition,
+        final int length,
+        final long fixSessionId,
+        final long messageType,
+        final long timestampInNs,
+        final boolean fragmented)
+    {
+        RecordingWriter writer = recordingIdToWriter.get(recordingId);
+        if (writer == null)
+        {
+            writer = new RecordingWriter(recordingId);
+            recordingIdToWriter.put(recordingId, writer);
+        }
+        writer.onMessage(endPosition, length, fixSessionId, messageType, timestampInNs);
+        continuedWriter = fragmented ? writer : null;
+    }
+
+    /**
+     * Extend the current bucket over a later fragment of the last message passed to
+     * {@link #onMessage(long, long, int, long, long, long, boolean)}.
+     *
+     * @param endPosition the end position of the fragment.
+     */
+    public void onContinuation(final long endPosition)
+    {
+        final RecordingWriter continuedWriter = this.continuedWriter;
+        if (continuedWriter != null)
+        {
+            continuedWriter.onContinuation(endPosition);
+        }
+    }
+
+    public void close()
+    {
+        recordingIdToWriter.values().forEach(RecordingWriter::close);
+        recordingIdToWriter.clear();
+        continuedWriter = null;
+    }
+
+    class RecordingWriter
+    {
+        private final LongHashSet sessionIds = new LongHashSet();
+        private final LongHashSet messageTypes = new LongHashSet();
+        private final RandomAccessFile file;
+
+        private long startPosition = NO_POSITION;
+        private long endPosition;
+        private long bucketEndTimeInNs;
+        private boolean inBucket;
+        private int flags;
+
+        RecordingWriter(final long recordingId)
+        {
+            final File file = fileLocation(logFileDir, streamId, recordingId);
+            if (file.exists())
+            {
+                this.file = loadFile(file);
+                flags = RESUMED_FLAG;
+            }
+            else
+            {
+                this.file = createFile(file);
+            }
+        }
+
+        private RandomAccessFile loadFile(final File file)
+        {
+            try
+            {
+                final RandomAccessFile raf = new RandomAccessFile(file, "rwd");
+                raf.setLength(lengthOfCompleteBuckets(raf));
+                raf.seek(raf.length());
+                return raf;
+            }
+            catch (final IOException e)
+            {
+                errorHandler.onError(e);
+                return null;
+            }
+        }
+
+        // Drop a bucket that was partially written when the engine stopped, so that appends stay aligned
+        private long lengthOfCompleteBuckets(final RandomAccessFile raf) throws IOException
+        {
+            final long fileLength = raf.length();
+            final byte[] header = buffer.byteArray();
+            long offset = 0;
+            while (offset + BUCKET_HEADER_LENGTH <= fileLength)
+            {
+                raf.seek(offset);
+                raf.readFully(header, 0, BUCKET_HEADER_LENGTH);
+                final long nextOffset = offset + bucketLength(
+                    buffer.getInt(SESSION_ID_COUNT_OFFSET), buffer.getInt(MESSAGE_TYPE_COUNT_OFFSET));
+                if (nextOffset > fileLength)
+                {
+                    break;
+                }
+                offset = nextOffset;
+            }
+            return offset;
+        }
+
+        private RandomAccessFile createFile(final File file)
+        {
+            try
+            {
+                return new RandomAccessFile(file, "rwd");
+            }
+            catch (final IOException e)
+            {
+                errorHandler.onError(e);
+                return null;
+            }
+        }
+
+        void onMessage(
+            final long endPosition,
+            final int length,
+            final long fixSessionId,
+            final long messageType,
+            final long timestampInNs)
+        {
+            final LongHashSet sessionIds = this.sessionIds;
+            final LongHashSet messageTypes = this.messageTypes;
+
+            if (inBucket && (timestampInNs >= bucketEndTimeInNs ||
+                sessionIds.size() >= MAX_POSTINGS_PER_BUCKET || messageTypes.size() >= MAX_POSTINGS_PER_BUCKET))
+            {
+                writeBucket();
+            }
+
+            if (!inBucket)
+            {
+                if (startPosition == NO_POSITION)
+                {
+                    startPosition = endPosition - length;
+                }
+                bucketEndTimeInNs = timestampInNs + bucketIntervalInNs;
+                inBucket = true;
+            }
+
+            sessionIds.add(fixSessionId);
+            messageTypes.add(messageType);
+            this.endPosition = endPosition;
+        }
+
+        void onContinuation(final long endPosition)
+        {
+            if (inBucket)
+            {
+                this.endPosition = endPosition;
+            }
+        }
+
+        private void writeBucket()
+        {
+            final LongHashSet sessionIds = this.sessionIds;
+            final LongHashSet messageTypes = this.messageTypes;
+            final ExpandableArrayBuffer buffer = PostingsIndexWriter.this.buffer;
+            final int sessionIdCount = sessionIds.size();
+            final int messageTypeCount = messageTypes.size();
+            final int length = bucketLength(sessionIdCount, messageTypeCount);
+
+            buffer.putLong(START_POSITION_OFFSET, startPosition);
+            buffer.putLong(END_POSITION_OFFSET, endPosition);
+            buffer.putInt(FLAGS_OFFSET, flags);
+            buffer.putInt(SESSION_ID_COUNT_OFFSET, sessionIdCount);
+            buffer.putInt(MESSAGE_TYPE_COUNT_OFFSET, messageTypeCount);
+
+            int offset = BUCKET_HEADER_LENGTH;
+            offset = putPostings(buffer, offset, sessionIds);
+            putPostings(buffer, offset, messageTypes);
+
+            try
+            {
+                final RandomAccessFile file = this.file;
+                if (file != null)
+                {
+                    file.write(buffer.byteArray(), 0, length);
+                }
+            }
+            catch (final IOException e)
+            {
+                errorHandler.onError(e);
+            }
+
+            sessionIds.clear();
+            messageTypes.clear();
+            startPosition = endPosition;
+            inBucket = false;
+            flags = 0;
+        }
+
+        private int putPostings(final ExpandableArrayBuffer buffer, final int offset, final LongHashSet values)
+        {
+            int position = offset;
+            final LongHashSet.LongIterator it = values.iterator();
+            while (it.hasNext())
+            {
+                buffer.putLong(position, it.nextValue());
+                position += SIZE_OF_LONG;
+            }
+            return position;
+        }
+
+        void close()
+        {
+            if (startPosition != NO_POSITION)
+            {
+                flags |= SEALED_FLAG;
+                writeBucket();
+            }
+
+            final RandomAccessFile file = this.file;
+            if (file != null)
+            {
+                try
+                {
+                    file.getFD().sync();
+                }
+                catch (final IOException e)
+                {
+                    errorHandler.onError(e);
+                }
+                Exceptions.closeAll(file);
+            }
+        }
+    }
+}
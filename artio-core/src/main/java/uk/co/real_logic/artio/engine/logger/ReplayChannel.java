@@ -24,13 +24,33 @@ import java.util.Objects;
  */
 class ReplayChannel
 {
+    private final long connectionId;
+
     private ReplayerSession session;
+    private long requestTimeInNs;
     private Deque<EnqueuedReplay> enqueuedReplays;
 
-    ReplayChannel(final ReplayerSession session)
+    // Scheduling state, see ReplayScheduler
+    private long remainingBytes;
+    private long budgetInBytes;
+    private long lastRefillTimeInNs;
+
+    ReplayChannel(
+        final long connectionId,
+        final ReplayerSession session,
+        final long requestTimeInNs,
+        final long budgetInBytes)
     {
         Objects.requireNonNull(session);
-        startReplay(session);
+        this.connectionId = connectionId;
+        this.budgetInBytes = budgetInBytes;
+        lastRefillTimeInNs = requestTimeInNs;
+        startReplay(session, requestTimeInNs);
+    }
+
+    long connectionId()
+    {
+        return connectionId;
     }
 
     void enqueueReplay(final EnqueuedReplay enqueuedReplay)
@@ -50,9 +70,20 @@ class ReplayChannel
     }
 
     // Can be null if back-pressured trying to create a new ReplayerSession
-    void startReplay(final ReplayerSession session)
+    void startReplay(final ReplayerSession session, final long requestTimeInNs)
     {
         this.session = session;
+        this.requestTimeInNs = requestTimeInNs;
+    }
+
+    boolean isReplaying()
+    {
+        return session != null;
+    }
+
+    long requestTimeInNs()
+    {
+        return requestTimeInNs;
     }
 
     EnqueuedReplay pollReplay()
@@ -66,6 +97,55 @@ class ReplayChannel
         return session == null || session.attemptReplay();
     }
 
+    boolean attemptReplay(final int pollLimitInBytes)
+    {
+        final ReplayerSession session = this.session;
+        if (session == null)
+        {
+            return true;
+        }
+
+        session.pollLimitInBytes(pollLimitInBytes);
+        return session.attemptReplay();
+    }
+
+    long polledBytes()
+    {
+        final ReplayerSession session = this.session;
+        return session == null ? 0 : session.polledBytes();
+    }
+
+    void updateRemainingBytes()
+    {
+        final ReplayerSession session = this.session;
+        remainingBytes = session == null ? 0 : session.remainingBytes();
+    }
+
+    long remainingBytes()
+    {
+        return remainingBytes;
+    }
+
+    long budgetInBytes()
+    {
+        return budgetInBytes;
+    }
+
+    void budgetInBytes(final long budgetInBytes)
+    {
+        this.budgetInBytes = budgetInBytes;
+    }
+
+    long lastRefillTimeInNs()
+    {
+        return lastRefillTimeInNs;
+    }
+
+    void lastRefillTimeInNs(final long lastRefillTimeInNs)
+    {
+        this.lastRefillTimeInNs = lastRefillTimeInNs;
+    }
+
     void closeNow()
     {
         if (session != null)
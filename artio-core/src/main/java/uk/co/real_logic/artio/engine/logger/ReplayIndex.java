@@ -26,7 +26,9 @@ import org.agrona.concurrent.AtomicBuffer;
 import org.agrona.concurrent.UnsafeBuffer;
 import uk.co.real_logic.artio.dictionary.generation.Exceptions;
 import uk.co.real_logic.artio.engine.SequenceNumberExtractor;
+import uk.co.real_logic.artio.engine.framer.MessageTypeExtractor;
 import uk.co.real_logic.artio.messages.*;
+import uk.co.real_logic.artio.storage.messages.ReplayIndexBlockEncoder;
 import uk.co.real_logic.artio.storage.messages.ReplayIndexRecordEncoder;
 
 import java.io.File;
@@ -55,10 +57,21 @@ import static uk.co.real_logic.artio.messages.MessageStatus.OK;
  * Head position counter
  * Tail position counter
  * Multiple ReplayIndexRecord entries
+ *
+ * If compression is enabled then new sessions are indexed in blocks of {@link ReplayIndexDescriptor#BLOCK_LENGTH}
+ * instead. Each block consists of:
+ *
+ * ReplayIndexBlock header, holding the first record in full
+ * Multiple varint encoded deltas of position and sequence number, and length, for the following records
+ *
+ * The template id of the header file's MessageHeader records which of these formats a session's index is in.
+ *
+ * Each session also has a sparse {@link ReplayIndexSeekTable} that queries use to find where to start reading.
  */
 public class ReplayIndex implements Index
 {
     private static final long NO_TIMESTAMP = -1;
+    private static final long NO_BLOCK = -1;
 
     private final LongFunction<SessionIndex> newSessionIndex = SessionIndex::new;
     private final MessageHeaderDecoder frameHeaderDecoder = new MessageHeaderDecoder();
@@ -68,7 +81,10 @@ public class ReplayIndex implements Index
     private final ResetSequenceNumberDecoder resetSequenceNumber = new ResetSequenceNumberDecoder();
     private final RedactSequenceUpdateDecoder redactSequenceUpdateDecoder = new RedactSequenceUpdateDecoder();
     private final ReplayIndexRecordEncoder replayIndexRecord = new ReplayIndexRecordEncoder();
+    private final ReplayIndexBlockEncoder replayIndexBlock = new ReplayIndexBlockEncoder();
+    private final UnsafeBuffer encodedRecordBuffer = new UnsafeBuffer(new byte[MAX_ENCODED_RECORD_LENGTH]);
     private final MessageHeaderEncoder indexHeaderEncoder = new MessageHeaderEncoder();
+    private final MessageHeaderDecoder indexHeaderDecoder = new MessageHeaderDecoder();
 
     private final IndexedPositionWriter positionWriter;
     private final IndexedPositionReader positionReader;
@@ -85,12 +101,15 @@ public class ReplayIndex implements Index
     private final ReplayEvictionHandler evictionHandler;
     private final int segmentSizeBitShift;
     private final int segmentCount;
+    private final int seekFileSize;
     private final BufferFactory bufferFactory;
     private final AtomicBuffer positionBuffer;
     private final ErrorHandler errorHandler;
     private final RecordingIdLookup recordingIdLookup;
     private final TimeIndexWriter timeIndex;
+    private final PostingsIndexWriter postingsIndex;
     private final SessionOwnershipTracker sessTracker;
+    private final boolean compressionEnabled;
 
     public ReplayIndex(
         final SequenceNumberExtractor sequenceNumberExtractor,
@@ -107,6 +126,7 @@ public class ReplayIndex implements Index
         final SequenceNumberIndexReader reader,
         final long timeIndexReplayFlushIntervalInNs,
         final boolean indexChecksumEnabled,
+        final boolean compressionEnabled,
         final ReplayEvictionHandler evictionHandler)
     {
         this.sequenceNumberExtractor = sequenceNumberExtractor;
@@ -117,14 +137,20 @@ public class ReplayIndex implements Index
         this.evictionHandler = evictionHandler;
         this.segmentSizeBitShift = Long.numberOfTrailingZeros(segmentSize);
         this.segmentCount = ReplayIndexDescriptor.segmentCount(indexFileCapacity, indexSegmentCapacity);
+        this.seekFileSize = ReplayIndexSeekTable.fileSize(indexFileSize);
         this.bufferFactory = bufferFactory;
         this.positionBuffer = positionBuffer;
         this.errorHandler = errorHandler;
         this.recordingIdLookup = recordingIdLookup;
+        this.compressionEnabled = compressionEnabled;
 
         checkPowerOfTwo("segmentCount", segmentCount);
         checkPowerOfTwo("segmentSize", segmentSize);
         checkPowerOfTwo("indexFileSize", indexFileSize);
+        if (compressionEnabled)
+        {
+            checkBlockSegmentSize(segmentSize);
+        }
 
         sessTracker = new SessionOwnershipTracker();
         fixPSequenceIndexer = new FixPSequenceIndexer(
@@ -139,6 +165,8 @@ public class ReplayIndex implements Index
         positionReader = new IndexedPositionReader(positionBuffer);
         timeIndex = new TimeIndexWriter(
             logFileDir, requiredStreamId, timeIndexReplayFlushIntervalInNs, errorHandler);
+        postingsIndex = new PostingsIndexWriter(
+            logFileDir, requiredStreamId, timeIndexReplayFlushIntervalInNs, errorHandler);
     }
 
     private void checkPowerOfTwo(final String name, final int value)
@@ -282,6 +310,15 @@ public class ReplayIndex implements Index
                 case FixMessageEncoder.TEMPLATE_ID:
                 {
                     messageFrame.wrap(srcBuffer, offset, blockLength, version);
+                    // Indexed before the library check as the archive scanner sees every message
+                    postingsIndex.onMessage(
+                        recordingId(recordingId, aeronSessionId),
+                        endPosition,
+                        length,
+                        messageFrame.session(),
+                        MessageTypeExtractor.getMessageType(messageFrame),
+                        messageFrame.timestamp(),
+                        (flags & UNFRAGMENTED) != UNFRAGMENTED);
                     if (!sessTracker.messageFromWrongLibrary(messageFrame.session(), messageFrame.libraryId()))
                     {
                         onFixMessage(
@@ -351,6 +388,7 @@ public class ReplayIndex implements Index
         }
         else
         {
+            postingsIndex.onContinuation(endPosition);
             sessionIndex(continuedFixSessionId).onRecord(
                 endPosition, length,
                 continuedSequenceNumber, continuedSequenceIndex, aeronSessionId, recordingId, continuedTimestamp);
@@ -458,6 +496,11 @@ public class ReplayIndex implements Index
             {
                 deleteFile(headerFile);
             }
+            final File seekFile = replayIndexSeekFile(fixSessionId);
+            if (seekFile.exists())
+            {
+                deleteFile(seekFile);
+            }
             for (int segmentIndex = 0; segmentIndex < segmentCount; segmentIndex++)
             {
                 final File segmentFile = replayIndexSegmentFile(fixSessionId, segmentIndex);
@@ -469,6 +512,12 @@ public class ReplayIndex implements Index
         }
     }
 
+    private long recordingId(final long knownRecordingId, final int aeronSessionId)
+    {
+        return knownRecordingId == NULL_RECORDING_ID ?
+            recordingIdLookup.getRecordingId(aeronSessionId) : knownRecordingId;
+    }
+
     private SessionIndex sessionIndex(final long fixSessionId)
     {
         return fixSessionIdToIndex
@@ -484,6 +533,7 @@ public class ReplayIndex implements Index
     {
         Exceptions.closeAll(
             timeIndex,
+            postingsIndex,
             positionWriter);
         fixSessionIdToIndex.values().forEach(SessionIndex::close);
         fixSessionIdToIndex.clear();
@@ -503,10 +553,21 @@ public class ReplayIndex implements Index
 
         private final UnsafeBuffer headerBuffer;
         private final File headerFile;
+        private final File seekFile;
+        private final ReplayIndexSeekTable seekTable;
 
         private final UnsafeBuffer[] segmentBuffers;
         private final File[] segmentBufferFiles;
 
+        private final boolean compressed;
+        private long blockPosition = NO_BLOCK;
+        private int blockUsed;
+        private int blockCount;
+        private long blockRecordingId;
+        private int blockSequenceIndex;
+        private long lastBeginPosition;
+        private int lastSequenceNumber;
+
         SessionIndex(final long fixSessionId)
         {
             final ReplayIndex replayIndex = ReplayIndex.this;
@@ -518,28 +579,65 @@ public class ReplayIndex implements Index
             segmentBufferFiles = new File[segmentCount];
 
             headerFile = replayIndexHeaderFile(fixSessionId);
+            seekFile = replayIndexSeekFile(fixSessionId);
             final boolean exists = headerFile.exists();
+            final boolean seekFileExists = seekFile.exists();
             this.headerBuffer = mapUnsafeBuffer(HEADER_FILE_SIZE, headerFile);
 
             if (!exists)
             {
-                final ReplayIndexRecordEncoder replayIndexRecord = replayIndex.replayIndexRecord;
-                final MessageHeaderEncoder indexHeaderEncoder = replayIndex.indexHeaderEncoder;
-                indexHeaderEncoder
-                    .wrap(headerBuffer, 0)
-                    .blockLength(replayIndexRecord.sbeBlockLength())
-                    .templateId(replayIndexRecord.sbeTemplateId())
-                    .schemaId(replayIndexRecord.sbeSchemaId())
-                    .version(replayIndexRecord.sbeSchemaVersion());
+                compressed = compressionEnabled;
+                final MessageHeaderEncoder indexHeaderEncoder = replayIndex.indexHeaderEncoder.wrap(headerBuffer, 0);
+                if (compressed)
+                {
+                    final ReplayIndexBlockEncoder replayIndexBlock = replayIndex.replayIndexBlock;
+                    indexHeaderEncoder
+                        .blockLength(replayIndexBlock.sbeBlockLength())
+                        .templateId(replayIndexBlock.sbeTemplateId())
+                        .schemaId(replayIndexBlock.sbeSchemaId())
+                        .version(replayIndexBlock.sbeSchemaVersion());
+                }
+                else
+                {
+                    final ReplayIndexRecordEncoder replayIndexRecord = replayIndex.replayIndexRecord;
+                    indexHeaderEncoder
+                        .blockLength(replayIndexRecord.sbeBlockLength())
+                        .templateId(replayIndexRecord.sbeTemplateId())
+                        .schemaId(replayIndexRecord.sbeSchemaId())
+                        .version(replayIndexRecord.sbeSchemaVersion());
+                }
                 notForNextSession(headerBuffer);
 
                 checkSegmentFilesDoNotExist();
+
+                seekTable = new ReplayIndexSeekTable(mapUnsafeBuffer(seekFileSize, seekFile), indexFileSize);
+                seekTable.reset();
             }
             else
             {
+                // Existing indices keep the format that they were written in
+                compressed = isCompressed(replayIndex.indexHeaderDecoder.wrap(headerBuffer, 0).templateId());
+
                 // Reset the positions in order to avoid wraps at the start.
                 final long resetPosition = beginChange(headerBuffer);
                 endChangeOrdered(headerBuffer, resetPosition);
+
+                // Indices that were created without a seek table don't know the keys that they hold, so can't have
+                // one until they are reset.
+                if (seekFileExists)
+                {
+                    seekTable = new ReplayIndexSeekTable(mapUnsafeBuffer(seekFileSize, seekFile), indexFileSize);
+                    seekTable.load();
+                }
+                else
+                {
+                    seekTable = null;
+                }
+            }
+
+            if (compressed)
+            {
+                checkBlockSegmentSize(segmentSize);
             }
         }
 
@@ -571,13 +669,36 @@ public class ReplayIndex implements Index
             final int aeronSessionId,
             final long knownRecordingId,
             final long timestamp)
+        {
+            final long recordingId = recordingId(knownRecordingId, aeronSessionId);
+            final long beginPosition = endPosition - length;
+
+            if (compressed)
+            {
+                onBlockRecord(beginPosition, length, sequenceNumber, sequenceIndex, recordingId);
+            }
+            else
+            {
+                onIndexRecord(beginPosition, length, sequenceNumber, sequenceIndex, recordingId);
+            }
+
+            if (timestamp != NO_TIMESTAMP)
+            {
+                timeIndex.onRecord(recordingId, endPosition, timestamp);
+            }
+        }
+
+        private void onIndexRecord(
+            final long beginPosition,
+            final int length,
+            final int sequenceNumber,
+            final int sequenceIndex,
+            final long recordingId)
         {
             final long beginChangePosition = beginChange(headerBuffer);
             final long changePosition = beginChangePosition + RECORD_LENGTH;
-            final long recordingId = knownRecordingId ==
-                NULL_RECORDING_ID ? recordingIdLookup.getRecordingId(aeronSessionId) : knownRecordingId;
-            final long beginPosition = endPosition - length;
 
+            onSeekRecord(beginChangePosition, sequenceIndex, sequenceNumber);
             beginChangeOrdered(headerBuffer, changePosition);
             UNSAFE.storeFence();
 
@@ -595,10 +716,88 @@ public class ReplayIndex implements Index
                 .length(length);
 
             endChangeOrdered(headerBuffer, changePosition);
+        }
 
-            if (timestamp != NO_TIMESTAMP)
+        private void onBlockRecord(
+            final long beginPosition,
+            final int length,
+            final int sequenceNumber,
+            final int sequenceIndex,
+            final long recordingId)
+        {
+            if (blockPosition != NO_BLOCK && recordingId == blockRecordingId && sequenceIndex == blockSequenceIndex)
             {
-                timeIndex.onRecord(recordingId, endPosition, timestamp);
+                final UnsafeBuffer encodedRecordBuffer = ReplayIndex.this.encodedRecordBuffer;
+                int encodedLength = putVarLong(
+                    encodedRecordBuffer, 0, zigZagEncode(beginPosition - lastBeginPosition));
+                encodedLength += putVarLong(
+                    encodedRecordBuffer, encodedLength, zigZagEncode((long)sequenceNumber - lastSequenceNumber));
+                encodedLength += putVarLong(encodedRecordBuffer, encodedLength, length & 0xFFFF_FFFFL);
+
+                if (blockUsed + encodedLength <= BLOCK_LENGTH)
+                {
+                    final long changePosition = blockPosition + blockUsed + encodedLength;
+
+                    onSeekRecord(blockPosition + blockUsed, sequenceIndex, sequenceNumber);
+                    beginChangeOrdered(headerBuffer, changePosition);
+                    UNSAFE.storeFence();
+
+                    final UnsafeBuffer segmentBuffer = segmentBuffer(ReplayIndexDescriptor.segmentIndex(
+                        blockPosition, segmentSizeBitShift, indexFileSize));
+                    final int offset = offsetInSegment(blockPosition, segmentSize);
+
+                    segmentBuffer.putBytes(offset + blockUsed, encodedRecordBuffer, 0, encodedLength);
+                    blockCount++;
+                    replayIndexBlock
+                        .wrap(segmentBuffer, offset)
+                        .count(blockCount);
+
+                    endChangeOrdered(headerBuffer, changePosition);
+
+                    blockUsed += encodedLength;
+                    lastBeginPosition = beginPosition;
+                    lastSequenceNumber = sequenceNumber;
+                    return;
+                }
+            }
+
+            // Start a new block, after a restart this is the next block after anything that is already indexed
+            blockPosition = blockPosition == NO_BLOCK ?
+                nextBlockPosition(beginChange(headerBuffer)) : blockPosition + BLOCK_LENGTH;
+            blockUsed = replayIndexBlock.sbeBlockLength();
+            final long changePosition = blockPosition + blockUsed;
+
+            onSeekRecord(blockPosition, sequenceIndex, sequenceNumber);
+            beginChangeOrdered(headerBuffer, changePosition);
+            UNSAFE.storeFence();
+
+            final UnsafeBuffer segmentBuffer = segmentBuffer(ReplayIndexDescriptor.segmentIndex(
+                blockPosition, segmentSizeBitShift, indexFileSize));
+            final int offset = offsetInSegment(blockPosition, segmentSize);
+
+            blockCount = 1;
+            replayIndexBlock
+                .wrap(segmentBuffer, offset)
+                .position(beginPosition)
+                .recordingId(recordingId)
+                .sequenceNumber(sequenceNumber)
+                .sequenceIndex(sequenceIndex)
+                .length(length)
+                .count(blockCount);
+
+            endChangeOrdered(headerBuffer, changePosition);
+
+            blockRecordingId = recordingId;
+            blockSequenceIndex = sequenceIndex;
+            lastBeginPosition = beginPosition;
+            lastSequenceNumber = sequenceNumber;
+        }
+
+        private void onSeekRecord(final long position, final int sequenceIndex, final int sequenceNumber)
+        {
+            if (seekTable != null)
+            {
+                seekTable.onRecord(position, sequenceIndex, sequenceNumber);
             }
         }
 
@@ -621,6 +820,10 @@ public class ReplayIndex implements Index
 
             evictionHandler.onReset(fixSessionId);
             deleteFile(headerFile);
+            if (seekFile.exists())
+            {
+                deleteFile(seekFile);
+            }
 
             for (int segmentIndex = 0; segmentIndex < segmentCount; segmentIndex++)
             {
@@ -635,6 +838,10 @@ public class ReplayIndex implements Index
         public void close()
         {
             ReplayIndexDescriptor.unmapBuffers(headerBuffer, segmentBuffers);
+            if (seekTable != null)
+            {
+                IoUtil.unmap(seekTable.buffer().byteBuffer());
+            }
         }
 
         public void checkForNextSession(final boolean forNextSession)
@@ -656,6 +863,11 @@ public class ReplayIndex implements Index
         return ReplayIndexDescriptor.replayIndexHeaderFile(logFileDir, fixSessionId, requiredStreamId);
     }
 
+    private File replayIndexSeekFile(final long fixSessionId)
+    {
+        return ReplayIndexDescriptor.replayIndexSeekFile(logFileDir, fixSessionId, requiredStreamId);
+    }
+
     private File replayIndexSegmentFile(final long fixSessionId, final int segmentIndex)
     {
         return ReplayIndexDescriptor.replayIndexSegmentFile(logFileDir, fixSessionId, requiredStreamId, segmentIndex);
@@ -0,0 +1,146 @@
+/*
+ * Copyright 2015-2024 Real Logic Limited.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.co.real_logic.artio.engine.logger;
+
+import org.agrona.DirectBuffer;
+import uk.co.real_logic.artio.storage.messages.ReplayIndexBlockDecoder;
+
+import static uk.co.real_logic.artio.engine.logger.ReplayIndexDescriptor.*;
+
+/**
+ * Decodes a block of the compressed replay index format, see {@link ReplayIndexDescriptor#BLOCK_LENGTH}.
+ *
+ * All the records of a block are decoded in one go so that a reader can check that the block was read without
+ * any concurrent updates from the writer before using any of them. A block that was being updated may decode to
+ * garbage, so decoding never reads beyond the end of the block.
+ */
+final class ReplayIndexBlockReader
+{
+    private final ReplayIndexBlockDecoder blockHeader = new ReplayIndexBlockDecoder();
+    private final long[] positions = new long[MAX_BLOCK_RECORD_COUNT];
+    private final int[] sequenceNumbers = new int[MAX_BLOCK_RECORD_COUNT];
+    private final int[] lengths = new int[MAX_BLOCK_RECORD_COUNT];
+
+    private DirectBuffer buffer;
+    private int readOffset;
+    private int endOffset;
+
+    private long recordingId;
+    private int sequenceIndex;
+    private int count;
+
+    void read(final DirectBuffer buffer, final int offset, final int actingBlockLength, final int actingVersion)
+    {
+        blockHeader.wrap(buffer, offset, actingBlockLength, actingVersion);
+        recordingId = blockHeader.recordingId();
+        sequenceIndex = blockHeader.sequenceIndex();
+        final int encodedCount = Math.min(blockHeader.count(), MAX_BLOCK_RECORD_COUNT);
+        if (encodedCount <= 0)
+        {
+            count = 0;
+            return;
+        }
+
+        long position = blockHeader.position();
+        int sequenceNumber = blockHeader.sequenceNumber();
+        positions[0] = position;
+        sequenceNumbers[0] = sequenceNumber;
+        lengths[0] = blockHeader.length();
+
+        this.buffer = buffer;
+        readOffset = offset + actingBlockLength;
+        endOffset = offset + BLOCK_LENGTH;
+
+        int count = 1;
+        while (count < encodedCount)
+        {
+            position += zigZagDecode(readVarLong());
+            sequenceNumber += (int)zigZagDecode(readVarLong());
+            final int length = (int)readVarLong();
+            if (readOffset > endOffset)
+            {
+                break;
+            }
+
+            positions[count] = position;
+            sequenceNumbers[count] = sequenceNumber;
+            lengths[count] = length;
+            count++;
+        }
+
+        this.count = count;
+        this.buffer = null;
+    }
+
+    private long readVarLong()
+    {
+        final DirectBuffer buffer = this.buffer;
+        final int endOffset = this.endOffset;
+        long value = 0;
+        int shift = 0;
+        int readOffset = this.readOffset;
+        while (readOffset < endOffset)
+        {
+            final byte b = buffer.getByte(readOffset++);
+            value |= (long)(b & 0x7F) << shift;
+            if ((b & 0x80) == 0)
+            {
+                this.readOffset = readOffset;
+                return value;
+            }
+            shift += 7;
+        }
+
+        // Ran off the end of the block
+        this.readOffset = endOffset + 1;
+        return 0;
+    }
+
+    /**
+     * Get the number of records in the block, 0 if nothing has been written to the block.
+     *
+     * @return the number of records in the block.
+     */
+    int count()
+    {
+        return count;
+    }
+
+    long recordingId()
+    {
+        return recordingId;
+    }
+
+    int sequenceIndex()
+    {
+        return sequenceIndex;
+    }
+
+    long position(final int index)
+    {
+        return positions[index];
+    }
+
+    int sequenceNumber(final int index)
+    {
+        return sequenceNumbers[index];
+    }
+
+    int length(final int index)
+    {
+        return lengths[index];
+    }
+}
@@ -17,10 +17,12 @@ package uk.co.real_logic.artio.engine.logger;
 
 import org.agrona.BitUtil;
 import org.agrona.IoUtil;
+import org.agrona.MutableDirectBuffer;
 import org.agrona.collections.LongHashSet;
 import org.agrona.concurrent.AtomicBuffer;
 import org.agrona.concurrent.UnsafeBuffer;
 import uk.co.real_logic.artio.messages.MessageHeaderEncoder;
+import uk.co.real_logic.artio.storage.messages.ReplayIndexBlockDecoder;
 import uk.co.real_logic.artio.storage.messages.ReplayIndexRecordDecoder;
 
 import java.io.File;
@@ -48,6 +50,29 @@ public final class ReplayIndexDescriptor
 
     public static final int MAX_FILE_SEGMENT_CAPACITY = Integer.MAX_VALUE / RECORD_LENGTH;
 
+    /**
+     * Length of a block in the compressed replay index format. Each block starts with a ReplayIndexBlock header
+     * holding the first record in full, followed by the records after it encoded as varint deltas. Blocks are
+     * aligned within segments, so segments must be at least this long.
+     */
+    public static final int BLOCK_LENGTH = 256;
+
+    // Every record after the first in a block is encoded as varints of its position delta, sequence number delta and
+    // length. These take at least a byte each, and at most 10, 5 and 5 bytes respectively.
+    static final int MIN_ENCODED_RECORD_LENGTH = 3;
+    static final int MAX_ENCODED_RECORD_LENGTH = 20;
+    static final int MAX_BLOCK_RECORD_COUNT =
+        1 + (BLOCK_LENGTH - ReplayIndexBlockDecoder.BLOCK_LENGTH) / MIN_ENCODED_RECORD_LENGTH;
+    static
+    {
+        // Safety check against making the ReplayIndexBlock big without modifying this
+        final int recordSpace = BLOCK_LENGTH - ReplayIndexBlockDecoder.BLOCK_LENGTH;
+        if (recordSpace < MAX_ENCODED_RECORD_LENGTH)
+        {
+            throw new IllegalStateException("Invalid block length");
+        }
+    }
+
     static File replayIndexHeaderFile(final String logFileDir, final long fixSessionId, final int streamId)
     {
         return new File(logFileDir + File.separator + "replay-index-" + fixSessionId + "-" + streamId + "-header");
@@ -60,6 +85,11 @@ public final class ReplayIndexDescriptor
             logFileDir + File.separator + "replay-index-" + fixSessionId + "-" + streamId + "-" + segmentIndex);
     }
 
+    static File replayIndexSeekFile(final String logFileDir, final long fixSessionId, final int streamId)
+    {
+        return new File(logFileDir + File.separator + "replay-index-" + fixSessionId + "-" + streamId + "-seek");
+    }
+
     static LongHashSet listReplayIndexSessionIds(final File logFileDir, final int streamId)
     {
         final String prefix = "replay-index-";
@@ -141,6 +171,61 @@ public final class ReplayIndexDescriptor
         buffer.putByte(FOR_NEXT_SESSION_VERSION_OFFSET, byteValue);
     }
 
+    static boolean isCompressed(final int templateId)
+    {
+        return templateId == ReplayIndexBlockDecoder.TEMPLATE_ID;
+    }
+
+    static void checkBlockSegmentSize(final int segmentSize)
+    {
+        if (segmentSize < BLOCK_LENGTH)
+        {
+            throw new IllegalStateException(
+                "Compressed replay index segments must be at least " + BLOCK_LENGTH + " bytes: segmentSize=" +
+                segmentSize);
+        }
+    }
+
+    static long blockPosition(final long changePosition)
+    {
+        return changePosition & -BLOCK_LENGTH;
+    }
+
+    static long nextBlockPosition(final long changePosition)
+    {
+        return blockPosition(changePosition + BLOCK_LENGTH - 1);
+    }
+
+    static long oldestBlockPosition(final long changePosition, final long indexFileSize)
+    {
+        // The block holding the last change is the newest one, every block in the ring before it is still intact
+        return Math.max(blockPosition(changePosition - 1) + BLOCK_LENGTH - indexFileSize, 0);
+    }
+
+    static int putVarLong(final MutableDirectBuffer buffer, final int offset, final long value)
+    {
+        int index = offset;
+        long remaining = value;
+        while ((remaining & ~0x7FL) != 0)
+        {
+            buffer.putByte(index++, (byte)((remaining & 0x7F) | 0x80));
+            remaining >>>= 7;
+        }
+        buffer.putByte(index++, (byte)remaining);
+
+        return index - offset;
+    }
+
+    static long zigZagEncode(final long value)
+    {
+        return (value << 1) ^ (value >> 63);
+    }
+
+    static long zigZagDecode(final long value)
+    {
+        return (value >>> 1) ^ -(value & 1);
+    }
+
     static int offsetInSegment(final long changePosition, final long capacity)
     {
         // changePosition % capacity = changePosition & (capacity - 1)
@@ -6,6 +6,7 @@ import org.agrona.collections.Long2ObjectHashMap;
 import org.agrona.concurrent.UnsafeBuffer;
 import uk.co.real_logic.artio.messages.MessageHeaderDecoder;
 import uk.co.real_logic.artio.storage.messages.ReplayIndexRecordDecoder;
+import uk.co.real_logic.artio.storage.messages.ReplayIndexRecordEncoder;
 
 import java.io.BufferedWriter;
 import java.io.File;
@@ -249,6 +250,15 @@ public final class ReplayIndexExtractor
             final int actingBlockLength = messageFrameHeader.blockLength();
             final int actingVersion = messageFrameHeader.version();
 
+            if (isCompressed(messageFrameHeader.templateId()))
+            {
+                checkBlockSegmentSize(segmentSize);
+                extractBlocks(
+                    headerBuffer, segmentBuffers, indexFileSize, segmentSize, actingBlockLength, actingVersion,
+                    fixSessionId, streamId, logFileDir, handler);
+                return;
+            }
+
             long iteratorPosition = Math.max(beginChangeVolatile(headerBuffer) - indexFileSize, 0);
             long stopIteratingPosition = iteratorPosition + indexFileSize;
 
@@ -293,6 +303,76 @@ public final class ReplayIndexExtractor
         }
     }
 
+    private static void extractBlocks(
+        final UnsafeBuffer headerBuffer,
+        final UnsafeBuffer[] segmentBuffers,
+        final long indexFileSize,
+        final int segmentSize,
+        final int actingBlockLength,
+        final int actingVersion,
+        final long fixSessionId,
+        final int streamId,
+        final String logFileDir,
+        final ReplayIndexHandler handler)
+    {
+        final int segmentSizeBitShift = Long.numberOfTrailingZeros(segmentSize);
+        final ReplayIndexBlockReader indexBlock = new ReplayIndexBlockReader();
+
+        // Records are handed over in the uncompressed format so that handlers don't depend upon the index format
+        final UnsafeBuffer recordBuffer = new UnsafeBuffer(new byte[ReplayIndexRecordEncoder.BLOCK_LENGTH]);
+        final ReplayIndexRecordEncoder recordEncoder = new ReplayIndexRecordEncoder().wrap(recordBuffer, 0);
+        final ReplayIndexRecordDecoder indexRecord = new ReplayIndexRecordDecoder().wrap(
+            recordBuffer, 0, ReplayIndexRecordDecoder.BLOCK_LENGTH, ReplayIndexRecordDecoder.SCHEMA_VERSION);
+
+        long iteratorPosition = oldestBlockPosition(beginChangeVolatile(headerBuffer), indexFileSize);
+        long stopIteratingPosition = iteratorPosition + indexFileSize;
+
+        while (iteratorPosition < stopIteratingPosition)
+        {
+            final long changePosition = endChangeVolatile(headerBuffer);
+
+            final long beginChangePosition;
+            if (changePosition > iteratorPosition &&
+                (iteratorPosition + indexFileSize) < (beginChangePosition = beginChangeVolatile(headerBuffer)))
+            {
+                handler.onLapped();
+                iteratorPosition = oldestBlockPosition(beginChangePosition, indexFileSize);
+                stopIteratingPosition = beginChangePosition;
+            }
+
+            if (iteratorPosition >= changePosition)
+            {
+                break; // caught up with the writer, the segment file might not exist yet
+            }
+
+            final UnsafeBuffer segmentBuffer = segmentBuffer(
+                iteratorPosition, segmentSizeBitShift, segmentBuffers, indexFileSize,
+                fixSessionId, streamId, logFileDir);
+            indexBlock.read(
+                segmentBuffer, offsetInSegment(iteratorPosition, segmentSize), actingBlockLength, actingVersion);
+
+            final int count = indexBlock.count();
+            if (count == 0)
+            {
+                break;
+            }
+
+            for (int i = 0; i < count; i++)
+            {
+                recordEncoder
+                    .position(indexBlock.position(i))
+                    .sequenceNumber(indexBlock.sequenceNumber(i))
+                    .sequenceIndex(indexBlock.sequenceIndex())
+                    .recordingId(indexBlock.recordingId())
+                    .length(indexBlock.length(i));
+
+                handler.onEntry(indexRecord);
+            }
+
+            iteratorPosition += BLOCK_LENGTH;
+        }
+    }
+
     private static UnsafeBuffer segmentBuffer(
         final long position,
         final int segmentSizeBitShift,
@@ -0,0 +1,184 @@
+/*
+ * Copyright 2015-2024 Real Logic Limited.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.co.real_logic.artio.engine.logger;
+
+import org.agrona.concurrent.AtomicBuffer;
+
+import static org.agrona.BitUtil.SIZE_OF_LONG;
+import static org.agrona.UnsafeAccess.UNSAFE;
+
+/**
+ * A sparse index over a session's replay index, used to find where a query should start reading with a binary search
+ * rather than by scanning forward from the oldest record.
+ *
+ * An entry is written every {@link #SEEK_INTERVAL} bytes of the replay index ring. It holds the position of the
+ * record, or block, that starts there and the highest (sequenceIndex, sequenceNumber) key of any record indexed
+ * before it. That key never decreases, even when sequence numbers go backwards due to resets, redactions or gap fills,
+ * so entries are sorted. Every record before an entry whose key is lower than a query's begin key is outside of
+ * the query. The entries form a ring that spans the same positions as the replay index, so each position has a fixed
+ * slot, and an entry is valid while the slot still holds its position.
+ *
+ * File consists of:
+ *
+ * Highest key indexed so far
+ * Padding
+ * Multiple (position, highest key before the position) entries
+ */
+final class ReplayIndexSeekTable
+{
+    /**
+     * Number of bytes of the replay index ring per entry, 64 records or 8 compressed blocks.
+     */
+    static final int SEEK_INTERVAL = 2048;
+    static final long NO_KEY = Long.MIN_VALUE;
+
+    private static final long NO_POSITION = -1;
+    private static final int HIGHEST_KEY_OFFSET = 0;
+    private static final int ENTRIES_OFFSET = 2 * SIZE_OF_LONG;
+    private static final int ENTRY_KEY_OFFSET = SIZE_OF_LONG;
+    private static final int ENTRY_LENGTH = 2 * SIZE_OF_LONG;
+
+    private final AtomicBuffer buffer;
+    private final long seekInterval;
+    private final int seekIntervalBitShift;
+    private final int capacityMask;
+
+    private long highestKey;
+
+    ReplayIndexSeekTable(final AtomicBuffer buffer, final long indexFileSize)
+    {
+        this.buffer = buffer;
+        seekInterval = seekInterval(indexFileSize);
+        seekIntervalBitShift = Long.numberOfTrailingZeros(seekInterval);
+        capacityMask = capacity(indexFileSize) - 1;
+    }
+
+    static int fileSize(final long indexFileSize)
+    {
+        return ENTRIES_OFFSET + capacity(indexFileSize) * ENTRY_LENGTH;
+    }
+
+    private static long seekInterval(final long indexFileSize)
+    {
+        return Math.min(SEEK_INTERVAL, indexFileSize);
+    }
+
+    private static int capacity(final long indexFileSize)
+    {
+        return (int)(indexFileSize / seekInterval(indexFileSize));
+    }
+
+    static long key(final int sequenceIndex, final int sequenceNumber)
+    {
+        // Offset the sequence number so that it compares as an unsigned low half of the key
+        return ((long)sequenceIndex << 32) + ((long)sequenceNumber - Integer.MIN_VALUE);
+    }
+
+    void reset()
+    {
+        buffer.setMemory(0, buffer.capacity(), (byte)0);
+        highestKey = NO_KEY;
+        buffer.putLong(HIGHEST_KEY_OFFSET, NO_KEY);
+    }
+
+    void load()
+    {
+        highestKey = buffer.getLong(HIGHEST_KEY_OFFSET);
+    }
+
+    /**
+     * Called by the writer before it starts to write a record or a block at a position in the replay index.
+     *
+     * @param position the position of the record in the replay index.
+     * @param sequenceIndex the sequence index of the record.
+     * @param sequenceNumber the sequence number of the record.
+     */
+    void onRecord(final long position, final int sequenceIndex, final int sequenceNumber)
+    {
+        final AtomicBuffer buffer = this.buffer;
+        if ((position & (seekInterval - 1)) == 0)
+        {
+            final int offset = entryOffset(position);
+            buffer.putLongOrdered(offset, NO_POSITION);
+            UNSAFE.storeFence();
+            buffer.putLong(offset + ENTRY_KEY_OFFSET, highestKey);
+            buffer.putLongOrdered(offset, position);
+        }
+
+        final long key = key(sequenceIndex, sequenceNumber);
+        if (key > highestKey)
+        {
+            highestKey = key;
+            buffer.putLong(HIGHEST_KEY_OFFSET, key);
+        }
+    }
+
+    /**
+     * Find the latest position in the replay index that no record at or after the begin key precedes.
+     *
+     * @param oldestPosition the position of the oldest record in the replay index.
+     * @param changePosition the end change position of the replay index, entries are only searched before this.
+     * @param beginKey the key of the first record that the query is looking for.
+     * @return the position to start reading the replay index from, oldestPosition if no later one is known.
+     */
+    long seek(final long oldestPosition, final long changePosition, final long beginKey)
+    {
+        final AtomicBuffer buffer = this.buffer;
+        final int seekIntervalBitShift = this.seekIntervalBitShift;
+
+        long low = (oldestPosition + seekInterval - 1) >> seekIntervalBitShift;
+        long high = (changePosition - 1) >> seekIntervalBitShift;
+        long position = oldestPosition;
+        while (low <= high)
+        {
+            final long middle = (low + high) >>> 1;
+            final long entryPosition = middle << seekIntervalBitShift;
+            final int offset = entryOffset(entryPosition);
+
+            final long readPosition = buffer.getLongVolatile(offset);
+            final long highestKeyBefore = buffer.getLong(offset + ENTRY_KEY_OFFSET);
+            UNSAFE.loadFence(); // LoadLoad required so the key load doesn't move past the position check below.
+
+            if (readPosition != entryPosition || buffer.getLongVolatile(offset) != entryPosition)
+            {
+                // Lapped by the writer, the caller's lapping checks deal with this when scanning from the oldest
+                return oldestPosition;
+            }
+
+            if (highestKeyBefore < beginKey)
+            {
+                position = entryPosition;
+                low = middle + 1;
+            }
+            else
+            {
+                high = middle - 1;
+            }
+        }
+
+        return position;
+    }
+
+    private int entryOffset(final long position)
+    {
+        return ENTRIES_OFFSET + (int)((position >> seekIntervalBitShift) & capacityMask) * ENTRY_LENGTH;
+    }
+
+    AtomicBuffer buffer()
+    {
+        return buffer;
+    }
+}
@@ -22,7 +22,10 @@ import io.aeron.Subscription;
 import io.aeron.archive.client.AeronArchive;
 import io.aeron.archive.client.ArchiveException;
 import io.aeron.archive.status.RecordingPos;
+import io.aeron.logbuffer.ControlledFragmentHandler.Action;
 import io.aeron.logbuffer.FragmentHandler;
+import io.aeron.logbuffer.Header;
+import org.agrona.DirectBuffer;
 import org.agrona.ErrorHandler;
 import org.agrona.concurrent.status.CountersReader;
 import uk.co.real_logic.artio.DebugLogger;
@@ -40,6 +43,8 @@ import static io.aeron.CommonContext.IPC_CHANNEL;
  */
 public class ReplayOperation
 {
+    static final int NO_POLL_LIMIT = Integer.MAX_VALUE;
+
     private static final FragmentHandler EMPTY_FRAGMENT_HANDLER = (buffer, offset, length, header) -> {};
 
     private static final ThreadLocal<CharFormatter> RECORDING_RANGE_FORMATTER =
@@ -84,6 +89,11 @@ public class ReplayOperation
     private final LogTag logTag;
     private final CountersReader countersReader;
     private final Subscription subscription;
+    private final SharedArchiveReplays sharedReplays;
+
+    private long unstartedRangeBytes;
+    private int pollLimitInBytes = NO_POLL_LIMIT;
+    private long polledBytes;
 
     // fields reset for each recordingRange
     private int replayedMessages = 0;
@@ -92,6 +102,9 @@ public class ReplayOperation
     private long replaySessionId;
     private int aeronSessionId;
     private Image image;
+    private SharedArchiveReplays.Replay sharedReplay;
+    private long sharedConsumedPosition;
+    private boolean closingSharedReplay;
 
     private enum State
     {
@@ -111,7 +124,8 @@ public class ReplayOperation
         final Subscription subscription,
         final int archiveReplayStream,
         final LogTag logTag,
-        final MessageTracker messageTracker)
+        final MessageTracker messageTracker,
+        final SharedArchiveReplays sharedReplays)
     {
         this.messageTracker = messageTracker;
         assembler = new ControlledFragmentAssembler(this.messageTracker);
@@ -125,6 +139,12 @@ public class ReplayOperation
         final Aeron aeron = aeronArchive.context().aeron();
         countersReader = aeron.countersReader();
         this.subscription = subscription;
+        this.sharedReplays = sharedReplays;
+
+        for (int i = 0, size = ranges.size(); i < size; i++)
+        {
+            unstartedRangeBytes += ranges.get(i).length;
+        }
 
         logTagEnabled = DebugLogger.isEnabled(logTag);
     }
@@ -136,16 +156,38 @@ public class ReplayOperation
      */
     public boolean pollReplay()
     {
+        polledBytes = 0;
         if (state == State.REPLAYING)
         {
             return attemptReplay();
         }
+        else if (closingSharedReplay)
+        {
+            return attemptCloseSharedReplay();
+        }
         else
         {
             return attemptClose();
         }
     }
 
+    // Stops and drains a shared replay that was left unfinished by this operation, then carries on with its ranges
+    private boolean attemptCloseSharedReplay()
+    {
+        if (!attemptClose())
+        {
+            return false;
+        }
+
+        closingSharedReplay = false;
+        aeronSessionId = 0;
+        replaySessionId = 0;
+        image = null;
+        state = State.REPLAYING;
+
+        return ranges.isEmpty();
+    }
+
 
     private boolean attemptClose()
     {
@@ -277,6 +319,17 @@ public class ReplayOperation
             else
             {
                 ranges.remove(0);
+                unstartedRangeBytes -= length;
+            }
+
+            if (sharedReplays != null)
+            {
+                // The shared replay is started when next polled, so other operations can join it until then
+                messageTracker.reset(count);
+                sharedConsumedPosition = beginPosition;
+                sharedReplay = sharedReplays.join(this, recordingRange, subscription);
+                DebugLogger.log(logTag, "ReplayOperation : Joined Shared Replay");
+                return false;
             }
 
             try
@@ -307,6 +360,11 @@ public class ReplayOperation
             }
         }
 
+        if (sharedReplay != null)
+        {
+            return pollSharedReplay();
+        }
+
         if (image == null)
         {
             return attemptAcquireImage();
@@ -318,7 +376,16 @@ public class ReplayOperation
                 DebugLogger.log(LogTag.REPLAY_ATTEMPT, POLLING_REPLAY_FORMATTER.get().clear().with(image.position()));
             }
 
-            image.controlledPoll(assembler, Integer.MAX_VALUE);
+            final long position = image.position();
+            if (pollLimitInBytes == NO_POLL_LIMIT)
+            {
+                image.controlledPoll(assembler, Integer.MAX_VALUE);
+            }
+            else
+            {
+                image.boundedControlledPoll(assembler, position + pollLimitInBytes, Integer.MAX_VALUE);
+            }
+            polledBytes = image.position() - position;
 
             final int messageTrackerCount = messageTracker.count;
             final int recordingRangeCount = recordingRange.count;
@@ -342,6 +409,78 @@ public class ReplayOperation
         }
     }
 
+    private boolean pollSharedReplay()
+    {
+        final SharedArchiveReplays.Replay sharedReplay = this.sharedReplay;
+        polledBytes = sharedReplay.poll(pollLimitInBytes);
+
+        if (sharedReplay.hasFailed())
+        {
+            // As when an unshared replay fails to start
+            leaveSharedReplay();
+            return true;
+        }
+
+        final int recordingRangeCount = recordingRange.count;
+        if (messageTracker.count >= recordingRangeCount ||
+            sharedReplay.position() >= endPosition ||
+            sharedReplay.isEndOfImage())
+        {
+            final boolean lastToLeave = leaveSharedReplay();
+            replayedMessages += recordingRangeCount;
+            recordingRange = null;
+
+            if (lastToLeave && !(sharedReplay.position() >= sharedReplay.endPosition() || sharedReplay.isEndOfImage()))
+            {
+                // Nothing else is reading the rest of the replay, so it must be stopped and its image drained
+                adoptSharedReplay(sharedReplay);
+                closingSharedReplay = true;
+                state = State.INIT_CLOSING;
+                return false;
+            }
+
+            return ranges.isEmpty();
+        }
+
+        return false;
+    }
+
+    // Returns true if this was the last operation sharing the replay
+    private boolean leaveSharedReplay()
+    {
+        final SharedArchiveReplays.Replay sharedReplay = this.sharedReplay;
+        this.sharedReplay = null;
+        return sharedReplays.leave(this, sharedReplay);
+    }
+
+    // The last operation to leave a shared replay closes it as though it was its own
+    private void adoptSharedReplay(final SharedArchiveReplays.Replay sharedReplay)
+    {
+        replaySessionId = sharedReplay.replaySessionId();
+        aeronSessionId = (int)replaySessionId;
+        image = sharedReplay.image();
+        endPosition = sharedReplay.endPosition();
+    }
+
+    // Called by a shared replay for each fragment that it reads, whether or not it's within this operation's range
+    Action onSharedFragment(
+        final DirectBuffer buffer, final int offset, final int length, final Header header, final long position)
+    {
+        // Fragments are redelivered if another operation aborts, so filter those that have already been consumed
+        if (position <= sharedConsumedPosition || position > endPosition)
+        {
+            return Action.CONTINUE;
+        }
+
+        final Action action = messageTracker.onFragment(buffer, offset, length, header);
+        if (action != Action.ABORT)
+        {
+            sharedConsumedPosition = position;
+        }
+
+        return action;
+    }
+
     private boolean attemptAcquireImage()
     {
         if (DebugLogger.IS_REPLAY_ATTEMPT_ENABLED)
@@ -423,6 +562,56 @@ public class ReplayOperation
         return replayedMessages;
     }
 
+    /**
+     * Sets the maximum number of bytes that subsequent calls to {@link #pollReplay()} read from the replay image.
+     * A fragment that starts within the limit is read in full, so this can be exceeded by up to one fragment.
+     *
+     * @param pollLimitInBytes the maximum number of bytes to read, or {@link #NO_POLL_LIMIT}.
+     */
+    void pollLimitInBytes(final int pollLimitInBytes)
+    {
+        this.pollLimitInBytes = pollLimitInBytes;
+    }
+
+    /**
+     * Get the number of bytes read from the replay image by the last call to {@link #pollReplay()}.
+     *
+     * @return the number of bytes read from the replay image by the last call to {@link #pollReplay()}.
+     */
+    long polledBytes()
+    {
+        return polledBytes;
+    }
+
+    /**
+     * Get an estimate of the number of bytes that are still to be replayed.
+     *
+     * @return an estimate of the number of bytes that are still to be replayed.
+     */
+    long remainingBytes()
+    {
+        long remainingBytes = unstartedRangeBytes;
+        final RecordingRange recordingRange = this.recordingRange;
+        if (recordingRange != null)
+        {
+            final Image image = this.image;
+            if (sharedReplay != null)
+            {
+                remainingBytes += endPosition - sharedConsumedPosition;
+            }
+            else if (image != null)
+            {
+                remainingBytes += Math.max(0, endPosition - image.position());
+            }
+            else
+            {
+                remainingBytes += recordingRange.length;
+            }
+        }
+
+        return remainingBytes;
+    }
+
     private boolean archivingNotComplete(final long endPosition, final long recordingId)
     {
         final int counterId =
@@ -440,6 +629,19 @@ public class ReplayOperation
 
     public void startClose()
     {
+        if (closingSharedReplay)
+        {
+            // Already closing a shared replay that it adopted, which is all there is left to close
+            closingSharedReplay = false;
+            return;
+        }
+
+        final SharedArchiveReplays.Replay sharedReplay = this.sharedReplay;
+        if (sharedReplay != null && leaveSharedReplay())
+        {
+            adoptSharedReplay(sharedReplay);
+        }
+
         state = State.INIT_CLOSING;
     }
 
@@ -54,6 +54,7 @@ public class ReplayQuery implements AutoCloseable
 {
     private final MessageHeaderDecoder messageFrameHeader = new MessageHeaderDecoder();
     private final ReplayIndexRecordDecoder indexRecord = new ReplayIndexRecordDecoder();
+    private final ReplayIndexBlockReader indexBlock = new ReplayIndexBlockReader();
 
     private final CharFormatter startQueryFormatter = new CharFormatter("ReplayQuery:query," +
         "beginSequenceNumber=%s,beginSequenceIndex=%s,endSequenceNumber=%s,endSequenceIndex=%s");
@@ -76,6 +77,8 @@ public class ReplayQuery implements AutoCloseable
     private final int segmentSizeBitShift;
     private final int segmentCount;
     private final long indexFileSize;
+    private final int seekFileSize;
+    private final SharedArchiveReplays sharedReplays;
 
     private Subscription replaySubscription;
 
@@ -91,7 +94,8 @@ public class ReplayQuery implements AutoCloseable
         final ReplayQueryListener replayQueryListener,
         final int archiveReplayStream,
         final int indexFileCapacity,
-        final int indexSegmentCapacity)
+        final int indexSegmentCapacity,
+        final boolean sharedReplaysEnabled)
     {
         this.logFileDir = logFileDir;
         this.indexBufferFactory = indexBufferFactory;
@@ -106,6 +110,9 @@ public class ReplayQuery implements AutoCloseable
         this.segmentSize = ReplayIndexDescriptor.capacityToBytesInt(indexSegmentCapacity);
         this.segmentSizeBitShift = Long.numberOfTrailingZeros(segmentSize);
         this.segmentCount = ReplayIndexDescriptor.segmentCount(indexFileCapacity, indexSegmentCapacity);
+        this.seekFileSize = ReplayIndexSeekTable.fileSize(indexFileSize);
+        this.sharedReplays = sharedReplaysEnabled ?
+            new SharedArchiveReplays(aeronArchive, errorHandler, archiveReplayStream) : null;
 
         logFileDirFile = new File(logFileDir);
         fixSessionToIndex = new Long2ObjectCache<>(cacheNumSets, cacheSetSize, SessionQuery::close);
@@ -200,9 +207,11 @@ public class ReplayQuery implements AutoCloseable
         private final File headerFile;
         private final UnsafeBuffer headerBuffer;
         private final UnsafeBuffer[] segmentBuffers;
+        private final ReplayIndexSeekTable seekTable;
 
         private final int actingBlockLength;
         private final int actingVersion;
+        private final boolean compressed;
 
         SessionQuery(final long fixSessionId)
         {
@@ -214,6 +223,31 @@ public class ReplayQuery implements AutoCloseable
             messageFrameHeader.wrap(headerBuffer, 0);
             actingBlockLength = messageFrameHeader.blockLength();
             actingVersion = messageFrameHeader.version();
+            compressed = isCompressed(messageFrameHeader.templateId());
+            if (compressed)
+            {
+                checkBlockSegmentSize(segmentSize);
+            }
+
+            seekTable = mapSeekTable(replayIndexSeekFile(logFileDir, fixSessionId, requiredStreamId));
+        }
+
+        private ReplayIndexSeekTable mapSeekTable(final File seekFile)
+        {
+            if (!seekFile.exists())
+            {
+                return null;
+            }
+
+            final UnsafeBuffer seekBuffer = new UnsafeBuffer(indexBufferFactory.map(seekFile));
+            if (seekBuffer.capacity() != seekFileSize)
+            {
+                // Written with a different index file size
+                IoUtil.unmap(seekBuffer.byteBuffer());
+                return null;
+            }
+
+            return new ReplayIndexSeekTable(seekBuffer, indexFileSize);
         }
 
         @SuppressWarnings("MethodLength")
@@ -232,6 +266,13 @@ public class ReplayQuery implements AutoCloseable
                     beginSequenceNumber, beginSequenceIndex, endSequenceNumber, endSequenceIndex);
             }
 
+            if (compressed)
+            {
+                final List<RecordingRange> ranges = queryBlocks(
+                    beginSequenceNumber, beginSequenceIndex, endSequenceNumber, endSequenceIndex, log);
+                return newReplayOperation(ranges, logTag, messageTracker);
+            }
+
             final UnsafeBuffer[] segmentBuffers = this.segmentBuffers;
             final int segmentSize = ReplayQuery.this.segmentSize;
             final int segmentSizeBitShift = ReplayQuery.this.segmentSizeBitShift;
@@ -251,6 +292,7 @@ public class ReplayQuery implements AutoCloseable
 
             long iteratorPosition = getIteratorPosition();
             long stopIteratingPosition = iteratorPosition + indexFileSize;
+            iteratorPosition = seekPosition(iteratorPosition, beginSequenceNumber, beginSequenceIndex);
 
             int lastSequenceNumber = -1;
             while (iteratorPosition < stopIteratingPosition)
@@ -333,6 +375,120 @@ public class ReplayQuery implements AutoCloseable
             return newReplayOperation(ranges, logTag, messageTracker);
         }
 
+        @SuppressWarnings("MethodLength")
+        private List<RecordingRange> queryBlocks(
+            final int beginSequenceNumber,
+            final int beginSequenceIndex,
+            final int endSequenceNumber,
+            final int endSequenceIndex,
+            final boolean log)
+        {
+            final UnsafeBuffer[] segmentBuffers = this.segmentBuffers;
+            final int segmentSize = ReplayQuery.this.segmentSize;
+            final int segmentSizeBitShift = ReplayQuery.this.segmentSizeBitShift;
+            final ReplayIndexBlockReader indexBlock = ReplayQuery.this.indexBlock;
+            final IdleStrategy idleStrategy = ReplayQuery.this.idleStrategy;
+            final UnsafeBuffer headerBuffer = this.headerBuffer;
+            final long indexFileSize = ReplayQuery.this.indexFileSize;
+            final int actingBlockLength = this.actingBlockLength;
+            final int actingVersion = this.actingVersion;
+
+            final boolean upToMostRecentMessage = endSequenceNumber == MOST_RECENT_MESSAGE;
+
+            final List<RecordingRange> ranges = new ArrayList<>();
+            RecordingRange currentRange = null;
+
+            long iteratorPosition = oldestBlockPosition(beginChangeVolatile(headerBuffer), indexFileSize);
+            long stopIteratingPosition = iteratorPosition + indexFileSize;
+            iteratorPosition = seekPosition(iteratorPosition, beginSequenceNumber, beginSequenceIndex);
+
+            int lastSequenceNumber = -1;
+            boolean afterEnd = false;
+            while (!afterEnd && iteratorPosition < stopIteratingPosition)
+            {
+                final long changePosition = endChangeVolatile(headerBuffer);
+                replayQueryListener.onEndChangeRead();
+
+                // Lapped by writer
+                final long beginChangePosition;
+                if (changePosition > iteratorPosition &&
+                    (iteratorPosition + indexFileSize) < (beginChangePosition = beginChangeVolatile(headerBuffer)))
+                {
+                    iteratorPosition = oldestBlockPosition(beginChangePosition, indexFileSize);
+                    stopIteratingPosition = beginChangePosition;
+                    replayQueryListener.onLapped();
+                }
+
+                if (iteratorPosition >= changePosition)
+                {
+                    break; // caught up with the writer, the segment file might not exist yet
+                }
+
+                final UnsafeBuffer segmentBuffer = segmentBuffer(
+                    iteratorPosition, segmentSizeBitShift, segmentBuffers, indexFileSize);
+                indexBlock.read(
+                    segmentBuffer, offsetInSegment(iteratorPosition, segmentSize), actingBlockLength, actingVersion);
+
+                UNSAFE.loadFence(); // LoadLoad required so previous loads don't move past version check below.
+
+                // if the block was read atomically with no updates
+                if (changePosition == beginChangeVolatile(headerBuffer))
+                {
+                    idleStrategy.reset();
+
+                    final int count = indexBlock.count();
+                    if (count == 0)
+                    {
+                        break;
+                    }
+
+                    final long recordingId = indexBlock.recordingId();
+                    final int sequenceIndex = indexBlock.sequenceIndex();
+                    for (int i = 0; i < count; i++)
+                    {
+                        final long beginPosition = indexBlock.position(i);
+                        final int sequenceNumber = indexBlock.sequenceNumber(i);
+
+                        if (log)
+                        {
+                            DebugLogger.log(LogTag.REPLAY_ATTEMPT, onRowFormatter,
+                                beginPosition, recordingId, sequenceNumber, sequenceIndex);
+                        }
+
+                        afterEnd = !upToMostRecentMessage && (sequenceIndex > endSequenceIndex ||
+                            (sequenceIndex == endSequenceIndex && sequenceNumber > endSequenceNumber));
+                        if (afterEnd)
+                        {
+                            break;
+                        }
+
+                        final boolean withinQueryRange = sequenceIndex > beginSequenceIndex ||
+                            (sequenceIndex == beginSequenceIndex && sequenceNumber >= beginSequenceNumber);
+                        if (withinQueryRange)
+                        {
+                            currentRange = addRange(
+                                ranges, currentRange, lastSequenceNumber, beginPosition, sequenceNumber,
+                                recordingId, indexBlock.length(i));
+                            lastSequenceNumber = sequenceNumber;
+                        }
+                    }
+
+                    iteratorPosition += BLOCK_LENGTH;
+                }
+                else
+                {
+                    idleStrategy.idle();
+                }
+            }
+
+            if (currentRange != null)
+            {
+                ranges.add(currentRange);
+            }
+
+            return ranges;
+        }
+
         private UnsafeBuffer segmentBuffer(
             final long position,
             final int segmentSizeBitShift,
@@ -388,7 +544,8 @@ public class ReplayQuery implements AutoCloseable
                 replaySubscription,
                 archiveReplayStream,
                 logTag,
-                messageTracker);
+                messageTracker,
+                sharedReplays);
         }
 
         private RecordingRange addRange(
@@ -423,6 +580,19 @@ public class ReplayQuery implements AutoCloseable
             return range;
         }
 
+        private long seekPosition(
+            final long oldestPosition, final int beginSequenceNumber, final int beginSequenceIndex)
+        {
+            final ReplayIndexSeekTable seekTable = this.seekTable;
+            if (seekTable == null)
+            {
+                return oldestPosition;
+            }
+
+            final long beginKey = ReplayIndexSeekTable.key(beginSequenceIndex, beginSequenceNumber);
+            return seekTable.seek(oldestPosition, endChangeVolatile(headerBuffer), beginKey);
+        }
+
         private long getIteratorPosition()
         {
             // positions on a monotonically increasing scale
@@ -433,6 +603,11 @@ public class ReplayQuery implements AutoCloseable
         public Long2ObjectHashMap<PrunePosition> queryStartPositions()
         {
             final StartPositionQuery startPositionQuery = new StartPositionQuery();
+            if (compressed)
+            {
+                queryBlockStartPositions(startPositionQuery);
+                return startPositionQuery.recordingIdToStartPosition();
+            }
 
             final UnsafeBuffer headerBuffer = this.headerBuffer;
             final long indexFileSize = ReplayQuery.this.indexFileSize;
@@ -500,9 +675,81 @@ public class ReplayQuery implements AutoCloseable
             return startPositionQuery.recordingIdToStartPosition();
         }
 
+        private void queryBlockStartPositions(final StartPositionQuery startPositionQuery)
+        {
+            final UnsafeBuffer headerBuffer = this.headerBuffer;
+            final long indexFileSize = ReplayQuery.this.indexFileSize;
+            final ReplayIndexBlockReader indexBlock = ReplayQuery.this.indexBlock;
+            final int actingBlockLength = this.actingBlockLength;
+            final int actingVersion = this.actingVersion;
+            final int segmentSizeBitShift = ReplayQuery.this.segmentSizeBitShift;
+            final UnsafeBuffer[] segmentBuffers = this.segmentBuffers;
+            final int segmentSize = ReplayQuery.this.segmentSize;
+            final IdleStrategy idleStrategy = ReplayQuery.this.idleStrategy;
+
+            long iteratorPosition = oldestBlockPosition(beginChangeVolatile(headerBuffer), indexFileSize);
+            long stopIteratingPosition = iteratorPosition + indexFileSize;
+
+            while (iteratorPosition < stopIteratingPosition)
+            {
+                final long changePosition = endChangeVolatile(headerBuffer);
+
+                // Lapped by writer
+                final long beginChangePosition;
+                if (changePosition > iteratorPosition &&
+                    (iteratorPosition + indexFileSize) < (beginChangePosition = beginChangeVolatile(headerBuffer)))
+                {
+                    iteratorPosition = oldestBlockPosition(beginChangePosition, indexFileSize);
+                    stopIteratingPosition = beginChangePosition;
+                }
+
+                if (iteratorPosition >= changePosition)
+                {
+                    break; // caught up with the writer, the segment file might not exist yet
+                }
+
+                final UnsafeBuffer segmentBuffer = segmentBuffer(
+                    iteratorPosition, segmentSizeBitShift, segmentBuffers, indexFileSize);
+                indexBlock.read(
+                    segmentBuffer, offsetInSegment(iteratorPosition, segmentSize), actingBlockLength, actingVersion);
+
+                UNSAFE.loadFence(); // LoadLoad required so previous loads don't move past version check below.
+
+                // if the block was read atomically with no updates
+                if (changePosition == beginChangeVolatile(headerBuffer))
+                {
+                    idleStrategy.reset();
+
+                    final int count = indexBlock.count();
+                    if (count == 0)
+                    {
+                        return;
+                    }
+
+                    final long recordingId = indexBlock.recordingId();
+                    final int sequenceIndex = indexBlock.sequenceIndex();
+                    for (int i = 0; i < count; i++)
+                    {
+                        startPositionQuery.updateStartPosition(
+                            indexBlock.sequenceNumber(i), sequenceIndex, recordingId, indexBlock.position(i));
+                    }
+
+                    iteratorPosition += BLOCK_LENGTH;
+                }
+                else
+                {
+                    idleStrategy.idle();
+                }
+            }
+        }
+
         public void close()
         {
             IoUtil.unmap(headerBuffer.byteBuffer());
+            if (seekTable != null)
+            {
+                IoUtil.unmap(seekTable.buffer().byteBuffer());
+            }
             for (final UnsafeBuffer segmentBuffer : segmentBuffers)
             {
                 if (segmentBuffer != null)
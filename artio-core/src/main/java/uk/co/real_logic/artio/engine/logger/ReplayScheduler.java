@@ -0,0 +1,140 @@
+/*
+ * Copyright 2015-2024 Real Logic Limited, Adaptive Financial Consulting Ltd., Monotonic Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.co.real_logic.artio.engine.logger;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+
+import static uk.co.real_logic.artio.engine.logger.ReplayOperation.NO_POLL_LIMIT;
+
+/**
+ * Shares the archive replay stream between the replays of different sessions.
+ *
+ * Every replaying session is polled in each duty cycle of the replayer, those with the fewest bytes left to replay
+ * first. A session can read at most a chunk of bytes from its replay image per duty cycle, so a large replay doesn't
+ * hold up the small resends of other sessions. Optionally a session is also limited to a rate by a token bucket that
+ * holds up to one chunk. When disabled sessions are polled in no particular order and read as much as is available.
+ */
+class ReplayScheduler
+{
+    private static final long NANOS_PER_SECOND = 1_000_000_000L;
+    private static final Comparator<ReplayChannel> SHORTEST_REMAINING_FIRST =
+        Comparator.comparingLong(ReplayChannel::remainingBytes);
+
+    private final ArrayList<ReplayChannel> scheduledChannels = new ArrayList<>();
+    private final int chunkSizeInBytes;
+    private final int sessionRateInBytesPerSecond;
+
+    ReplayScheduler(final int chunkSizeInBytes, final int sessionRateInBytesPerSecond)
+    {
+        this.chunkSizeInBytes = chunkSizeInBytes;
+        this.sessionRateInBytesPerSecond = sessionRateInBytesPerSecond;
+    }
+
+    boolean isEnabled()
+    {
+        return chunkSizeInBytes > 0;
+    }
+
+    /**
+     * Get the budget that a newly replaying session starts with, it can replay a chunk straight away.
+     *
+     * @return the budget that a newly replaying session starts with.
+     */
+    long initialBudgetInBytes()
+    {
+        return chunkSizeInBytes;
+    }
+
+    /**
+     * Decide the order that channels are polled in for this duty cycle and refill their budgets.
+     *
+     * @param channels the channels with a replay in progress.
+     * @param timeInNs the current time.
+     * @return the channels in the order that they should be polled, only valid until the next call.
+     */
+    List<ReplayChannel> schedule(final Collection<ReplayChannel> channels, final long timeInNs)
+    {
+        final ArrayList<ReplayChannel> scheduledChannels = this.scheduledChannels;
+        scheduledChannels.clear();
+
+        if (isEnabled())
+        {
+            for (final ReplayChannel channel : channels)
+            {
+                channel.updateRemainingBytes();
+                refill(channel, timeInNs);
+                scheduledChannels.add(channel);
+            }
+
+            scheduledChannels.sort(SHORTEST_REMAINING_FIRST);
+        }
+        else
+        {
+            for (final ReplayChannel channel : channels)
+            {
+                scheduledChannels.add(channel);
+            }
+        }
+
+        return scheduledChannels;
+    }
+
+    /**
+     * Attempt a step of a channel's replay within its budget.
+     *
+     * @param channel the channel to replay.
+     * @return true if the channel's current replay is complete.
+     */
+    boolean attemptReplay(final ReplayChannel channel)
+    {
+        if (!isEnabled())
+        {
+            return channel.attemptReplay(NO_POLL_LIMIT);
+        }
+
+        final long budgetInBytes = channel.budgetInBytes();
+        final int pollLimitInBytes = (int)Math.max(0, Math.min(chunkSizeInBytes, budgetInBytes));
+        final boolean complete = channel.attemptReplay(pollLimitInBytes);
+        channel.budgetInBytes(budgetInBytes - channel.polledBytes());
+
+        return complete;
+    }
+
+    private void refill(final ReplayChannel channel, final long timeInNs)
+    {
+        final int chunkSizeInBytes = this.chunkSizeInBytes;
+        final int sessionRateInBytesPerSecond = this.sessionRateInBytesPerSecond;
+        if (sessionRateInBytesPerSecond == 0)
+        {
+            channel.budgetInBytes(chunkSizeInBytes);
+            return;
+        }
+
+        final long elapsedInNs = timeInNs - channel.lastRefillTimeInNs();
+        final long refillInBytes = elapsedInNs >= NANOS_PER_SECOND ?
+            chunkSizeInBytes : (elapsedInNs * sessionRateInBytesPerSecond) / NANOS_PER_SECOND;
+
+        // Don't move the refill time on if the rate is too low to refill a byte yet, otherwise nothing accumulates
+        if (refillInBytes > 0)
+        {
+            channel.budgetInBytes(Math.min(chunkSizeInBytes, channel.budgetInBytes() + refillInBytes));
+            channel.lastRefillTimeInNs(timeInNs);
+        }
+    }
+}
@@ -29,6 +29,7 @@ import org.agrona.concurrent.EpochNanoClock;
 import org.agrona.concurrent.IdleStrategy;
 import org.agrona.concurrent.status.AtomicCounter;
 import uk.co.real_logic.artio.DebugLogger;
+import uk.co.real_logic.artio.FixCounters;
 import uk.co.real_logic.artio.FixGatewayException;
 import uk.co.real_logic.artio.decoder.AbstractResendRequestDecoder;
 import uk.co.real_logic.artio.engine.*;
@@ -59,6 +60,8 @@ import static uk.co.real_logic.artio.util.MessageTypeEncoding.packAllMessageType
  * This agent subscribes to the stream of incoming fix data messages. It parses
  * Resend Request messages and searches the log, using the replay index to find
  * relevant messages to resend.
+ *
+ * Replays of different sessions are interleaved by a {@link ReplayScheduler}.
  */
 public class Replayer extends AbstractReplayer
 {
@@ -99,13 +102,17 @@ public class Replayer extends AbstractReplayer
 
     private final List<ReplayChannel> closingChannels = new ArrayList<>();
     private final Long2ObjectHashMap<ReplayChannel> connectionIdToReplayerChannel = new Long2ObjectHashMap<>();
+    private final Long2ObjectHashMap<AtomicCounter> connectionIdToReplayLatency = new Long2ObjectHashMap<>();
     private final RequestDisconnectDecoder requestDisconnect = new RequestDisconnectDecoder();
     private final DisconnectDecoder disconnect = new DisconnectDecoder();
 
     private final int maxBytesInBuffer;
     private final ReplayerCommandQueue replayerCommandQueue;
     private final AtomicCounter currentReplayCount;
+    private final AtomicCounter enqueuedReplayCount;
+    private final FixCounters fixCounters;
     private final int maxConcurrentSessionReplays;
+    private final ReplayScheduler replayScheduler;
     private final EpochNanoClock clock;
     private final EngineConfiguration configuration;
     private final ReplayQuery outboundReplayQuery;
@@ -117,6 +124,7 @@ public class Replayer extends AbstractReplayer
     private final ReplayHandler replayHandler;
     private final FixPRetransmitHandler fixPRetransmitHandler;
     private final UtcTimestampEncoder utcTimestampEncoder;
+    private final ResendCache resendCache;
 
     public Replayer(
         final ReplayQuery outboundReplayQuery,
@@ -136,11 +144,12 @@ public class Replayer extends AbstractReplayer
         final int maxBytesInBuffer,
         final ReplayerCommandQueue replayerCommandQueue,
         final EpochFractionFormat epochFractionFormat,
-        final AtomicCounter currentReplayCount,
+        final FixCounters fixCounters,
         final int maxConcurrentSessionReplays,
         final EpochNanoClock clock,
         final FixPProtocolType fixPProtocolType,
-        final EngineConfiguration configuration)
+        final EngineConfiguration configuration,
+        final ResendCache resendCache)
     {
         super(publication, fixSessionCodecsFactory, bufferClaim, senderSequenceNumbers);
         this.outboundReplayQuery = outboundReplayQuery;
@@ -155,11 +164,16 @@ public class Replayer extends AbstractReplayer
         this.fixSessionCodecsFactory = fixSessionCodecsFactory;
         this.maxBytesInBuffer = maxBytesInBuffer;
         this.replayerCommandQueue = replayerCommandQueue;
-        this.currentReplayCount = currentReplayCount;
+        this.fixCounters = fixCounters;
         this.maxConcurrentSessionReplays = maxConcurrentSessionReplays;
         this.clock = clock;
         this.configuration = configuration;
+        this.resendCache = resendCache;
 
+        currentReplayCount = fixCounters.currentReplayCount();
+        enqueuedReplayCount = fixCounters.enqueuedReplayCount();
+        replayScheduler = new ReplayScheduler(
+            configuration.replayChunkSizeInBytes(), configuration.replaySessionRateInBytesPerSecond());
         gapFillMessageTypes = packAllMessageTypes(gapfillOnReplayMessageTypes);
         utcTimestampEncoder = new UtcTimestampEncoder(epochFractionFormat);
 
@@ -261,12 +275,19 @@ public class Replayer extends AbstractReplayer
         if (replayChannel != null)
         {
             currentReplayCount.decrement();
+            enqueuedReplayCount.getAndAdd(-replayChannel.enqueuedReplayCount());
             // replay was in progress at the time of disconnect
             if (!replayChannel.startClose())
             {
                 closingChannels.add(replayChannel);
             }
         }
+
+        final AtomicCounter replayLatency = connectionIdToReplayLatency.remove(connectionId);
+        if (replayLatency != null)
+        {
+            replayLatency.close();
+        }
     }
 
     Action onResendRequest(
@@ -286,14 +307,14 @@ public class Replayer extends AbstractReplayer
         final ReplayChannel replayChannel = connectionIdToReplayerChannel.get(connectionId);
         if (replayChannel != null)
         {
-            final int enqueuedReplayCount = replayChannel.enqueuedReplayCount();
-            if (enqueuedReplayCount >= maxConcurrentSessionReplays)
+            final int channelEnqueuedCount = replayChannel.enqueuedReplayCount();
+            if (channelEnqueuedCount >= maxConcurrentSessionReplays)
             {
                 errorHandler.onError(new FixGatewayException(String.format(
                     "Ignore resend request for sessionId=%d,connectionId=%d as %d requests in flight",
                     sessionId,
                     connectionId,
-                    enqueuedReplayCount)));
+                    channelEnqueuedCount)));
                 return CONTINUE;
             }
 
@@ -303,7 +324,9 @@ public class Replayer extends AbstractReplayer
             copiedBuffer.putBytes(0, asciiBuffer, 0, length);
 
             replayChannel.enqueueReplay(new EnqueuedReplay(
-                sessionId, connectionId, correlationId, beginSeqNo, endSeqNo, sequenceIndex, copiedBuffer));
+                sessionId, connectionId, correlationId, beginSeqNo, endSeqNo, sequenceIndex, copiedBuffer,
+                clock.nanoTime()));
+            enqueuedReplayCount.increment();
 
             return COMMIT;
         }
@@ -319,10 +342,16 @@ public class Replayer extends AbstractReplayer
                     return ABORT;
                 }
 
-                final ReplayChannel channel = new ReplayChannel(session);
+                final ReplayChannel channel = new ReplayChannel(
+                    connectionId, session, clock.nanoTime(), replayScheduler.initialBudgetInBytes());
                 connectionIdToReplayerChannel.put(connectionId, channel);
                 currentReplayCount.increment();
 
+                if (!connectionIdToReplayLatency.containsKey(connectionId))
+                {
+                    connectionIdToReplayLatency.put(connectionId, fixCounters.replayLatency(connectionId, sessionId));
+                }
+
                 return COMMIT;
             }
             catch (final IllegalStateException e)
@@ -459,7 +488,10 @@ public class Replayer extends AbstractReplayer
             this,
             throttleRejectBuilder);
 
-        fixReplayerSession.query();
+        if (resendCache == null || !fixReplayerSession.replayFromCache(resendCache))
+        {
+            fixReplayerSession.query();
+        }
 
         return fixReplayerSession;
     }
@@ -475,41 +507,20 @@ public class Replayer extends AbstractReplayer
 
     private int pollReplayerChannels()
     {
-        final Long2ObjectHashMap<ReplayChannel>.EntryIterator replayerChannels =
-            connectionIdToReplayerChannel.entrySet().iterator();
+        final Long2ObjectHashMap<ReplayChannel> connectionIdToReplayerChannel = this.connectionIdToReplayerChannel;
         final int size = connectionIdToReplayerChannel.size();
-
-        while (replayerChannels.hasNext())
+        if (size > 0)
         {
-            final ReplayChannel channel = replayerChannels.next().getValue();
-            if (channel.attemptReplay())
+            final ReplayScheduler replayScheduler = this.replayScheduler;
+            final List<ReplayChannel> channels = replayScheduler.schedule(
+                connectionIdToReplayerChannel.values(), clock.nanoTime());
+
+            for (int i = 0; i < size; i++)
             {
-                // Replay complete
-                final EnqueuedReplay enqueuedReplay = channel.pollReplay();
-                if (enqueuedReplay == null)
-                {
-                    currentReplayCount.decrementOrdered();
-                    replayerChannels.remove();
-                }
-                else
+                final ReplayChannel channel = channels.get(i);
+                if (replayScheduler.attemptReplay(channel))
                 {
-                    try
-                    {
-                        final ReplayerSession session = processResendRequest(
-                            enqueuedReplay.sessionId(),
-                            enqueuedReplay.connectionId(),
-                            enqueuedReplay.correlationId(),
-                            enqueuedReplay.beginSeqNo(),
-                            enqueuedReplay.endSeqNo(),
-                            enqueuedReplay.sequenceIndex(),
-                            enqueuedReplay.asciiBuffer());
-
-                        channel.startReplay(session);
-                    }
-                    catch (final IllegalStateException e)
-                    {
-                        errorHandler.onError(e);
-                    }
+                    onReplayComplete(channel);
                 }
             }
         }
@@ -517,12 +528,57 @@ public class Replayer extends AbstractReplayer
         return size + CollectionUtil.removeIf(closingChannels, ReplayChannel::attemptReplay);
     }
 
+    private void onReplayComplete(final ReplayChannel channel)
+    {
+        final long connectionId = channel.connectionId();
+        if (channel.isReplaying())
+        {
+            final AtomicCounter replayLatency = connectionIdToReplayLatency.get(connectionId);
+            if (replayLatency != null)
+            {
+                replayLatency.setOrdered(clock.nanoTime() - channel.requestTimeInNs());
+            }
+        }
+
+        final EnqueuedReplay enqueuedReplay = channel.pollReplay();
+        if (enqueuedReplay == null)
+        {
+            currentReplayCount.decrementOrdered();
+            connectionIdToReplayerChannel.remove(connectionId);
+        }
+        else
+        {
+            enqueuedReplayCount.decrementOrdered();
+            try
+            {
+                final ReplayerSession session = processResendRequest(
+                    enqueuedReplay.sessionId(),
+                    enqueuedReplay.connectionId(),
+                    enqueuedReplay.correlationId(),
+                    enqueuedReplay.beginSeqNo(),
+                    enqueuedReplay.endSeqNo(),
+                    enqueuedReplay.sequenceIndex(),
+                    enqueuedReplay.asciiBuffer());
+
+                channel.startReplay(session, enqueuedReplay.requestTimeInNs());
+            }
+            catch (final IllegalStateException e)
+            {
+                errorHandler.onError(e);
+            }
+        }
+    }
+
     public void onClose()
     {
         connectionIdToReplayerChannel.values().forEach(ReplayChannel::closeNow);
         connectionIdToReplayerChannel.clear();
         currentReplayCount.set(0);
         currentReplayCount.close();
+        enqueuedReplayCount.set(0);
+        enqueuedReplayCount.close();
+        connectionIdToReplayLatency.values().forEach(AtomicCounter::close);
+        connectionIdToReplayLatency.clear();
         outboundReplayQuery.close();
         super.onClose();
     }
@@ -131,6 +131,25 @@ abstract class ReplayerSession implements ControlledFragmentHandler
 
     abstract boolean attemptReplay();
 
+    void pollLimitInBytes(final int pollLimitInBytes)
+    {
+        if (replayOperation != null)
+        {
+            replayOperation.pollLimitInBytes(pollLimitInBytes);
+        }
+    }
+
+    long polledBytes()
+    {
+        return replayOperation == null ? 0 : replayOperation.polledBytes();
+    }
+
+    // Replays that don't read from the archive have nothing to schedule
+    long remainingBytes()
+    {
+        return replayOperation == null ? 0 : replayOperation.remainingBytes();
+    }
+
     void closeNow()
     {
         if (replayOperation != null)
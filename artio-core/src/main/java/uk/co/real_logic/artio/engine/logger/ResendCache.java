@@ -0,0 +1,402 @@
+/*
+ * Copyright 2015-2024 Real Logic Limited.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.co.real_logic.artio.engine.logger;
+
+import io.aeron.logbuffer.ControlledFragmentHandler;
+import io.aeron.logbuffer.Header;
+import org.agrona.CloseHelper;
+import org.agrona.DirectBuffer;
+import org.agrona.ExpandableArrayBuffer;
+import org.agrona.collections.Long2ObjectHashMap;
+import org.agrona.concurrent.EpochNanoClock;
+import org.agrona.concurrent.status.AtomicCounter;
+import uk.co.real_logic.artio.engine.SequenceNumberExtractor;
+import uk.co.real_logic.artio.messages.*;
+
+import static io.aeron.logbuffer.ControlledFragmentHandler.Action.ABORT;
+import static io.aeron.logbuffer.ControlledFragmentHandler.Action.BREAK;
+import static io.aeron.logbuffer.FrameDescriptor.UNFRAGMENTED;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static org.agrona.BitUtil.SIZE_OF_INT;
+import static uk.co.real_logic.artio.engine.SequenceNumberExtractor.NO_SEQUENCE_NUMBER;
+import static uk.co.real_logic.artio.engine.logger.Replayer.MOST_RECENT_MESSAGE;
+import static uk.co.real_logic.artio.engine.logger.Replayer.MESSAGE_FRAME_BLOCK_LENGTH;
+import static uk.co.real_logic.artio.messages.FixMessageDecoder.metaDataHeaderLength;
+import static uk.co.real_logic.artio.messages.FixMessageDecoder.metaDataSinceVersion;
+import static uk.co.real_logic.artio.messages.MessageStatus.OK;
+
+/**
+ * Keeps the most recently sent messages of each FIX session in memory so that resend requests for them can be served
+ * without an archive replay.
+ * <p>
+ * Runs as an outbound {@link Index} on the same thread as the {@link Replayer}. Each session holds a single
+ * contiguous run of sequence numbers within one sequence index, bounded by a number of messages and of bytes. Anything
+ * that the archive would replay differently from a simple run of messages, eg: a gap fill, a throttle reject, a
+ * fragmented message or a sequence reset, restarts the run, so a request is only ever served from the cache when
+ * it would be replayed identically from the archive.
+ */
+public class ResendCache implements Index
+{
+    // Messages replayed per poll of a cached replay
+    private static final int POLL_LIMIT = 10;
+
+    private final Long2ObjectHashMap<SessionCache> sessionIdToCache = new Long2ObjectHashMap<>();
+    private final SessionOwnershipTracker sessionOwnershipTracker = new SessionOwnershipTracker();
+    private final SequenceNumberExtractor sequenceNumberExtractor = new SequenceNumberExtractor();
+    private final MessageHeaderDecoder messageHeader = new MessageHeaderDecoder();
+    private final FixMessageDecoder messageFrame = new FixMessageDecoder();
+    private final ThrottleNotificationDecoder throttleNotification = new ThrottleNotificationDecoder();
+    private final ThrottleRejectDecoder throttleReject = new ThrottleRejectDecoder();
+    private final ResetSequenceNumberDecoder resetSequenceNumber = new ResetSequenceNumberDecoder();
+    private final RedactSequenceUpdateDecoder redactSequenceUpdate = new RedactSequenceUpdateDecoder();
+
+    private final int requiredStreamId;
+    private final int maxMessages;
+    private final int maxBytes;
+    private final long maxAgeInNs;
+    private final EpochNanoClock clock;
+    private final AtomicCounter hits;
+    private final AtomicCounter misses;
+
+    public ResendCache(
+        final int requiredStreamId,
+        final int maxMessages,
+        final int maxBytes,
+        final long maxAgeInMs,
+        final EpochNanoClock clock,
+        final AtomicCounter hits,
+        final AtomicCounter misses)
+    {
+        this.requiredStreamId = requiredStreamId;
+        this.maxMessages = maxMessages;
+        this.maxBytes = maxBytes;
+        this.maxAgeInNs = MILLISECONDS.toNanos(maxAgeInMs);
+        this.clock = clock;
+        this.hits = hits;
+        this.misses = misses;
+    }
+
+    public void onFragment(final DirectBuffer buffer, final int offset, final int length, final Header header)
+    {
+        if (header.streamId() != requiredStreamId || (header.flags() & UNFRAGMENTED) != UNFRAGMENTED)
+        {
+            // Fragmented messages leave a gap in the sequence numbers of their session, restarting its run
+            return;
+        }
+
+        final MessageHeaderDecoder messageHeader = this.messageHeader.wrap(buffer, offset);
+        final int templateId = messageHeader.templateId();
+        final int blockLength = messageHeader.blockLength();
+        final int version = messageHeader.version();
+        final int bodyOffset = offset + MessageHeaderDecoder.ENCODED_LENGTH;
+
+        switch (templateId)
+        {
+            case FixMessageDecoder.TEMPLATE_ID:
+            {
+                final FixMessageDecoder messageFrame = this.messageFrame;
+                messageFrame.wrap(buffer, bodyOffset, blockLength, version);
+                if (messageFrame.status() == OK &&
+                    !sessionOwnershipTracker.messageFromWrongLibrary(messageFrame.session(), messageFrame.libraryId()))
+                {
+                    onFixMessage(buffer, offset, length, version);
+                }
+                break;
+            }
+
+            case ThrottleNotificationDecoder.TEMPLATE_ID:
+            {
+                throttleNotification.wrap(buffer, bodyOffset, blockLength, version);
+                reset(throttleNotification.session());
+                break;
+            }
+
+            case ThrottleRejectDecoder.TEMPLATE_ID:
+            {
+                throttleReject.wrap(buffer, bodyOffset, blockLength, version);
+                reset(throttleReject.session());
+                break;
+            }
+
+            case ResetSequenceNumberDecoder.TEMPLATE_ID:
+            {
+                resetSequenceNumber.wrap(buffer, bodyOffset, blockLength, version);
+                reset(resetSequenceNumber.session());
+                break;
+            }
+
+            case RedactSequenceUpdateDecoder.TEMPLATE_ID:
+            {
+                redactSequenceUpdate.wrap(buffer, bodyOffset, blockLength, version);
+                reset(redactSequenceUpdate.session());
+                break;
+            }
+
+            case ManageSessionDecoder.TEMPLATE_ID:
+            {
+                sessionOwnershipTracker.onManageSession(buffer, bodyOffset, blockLength, version);
+                break;
+            }
+        }
+    }
+
+    private void onFixMessage(final DirectBuffer buffer, final int offset, final int length, final int version)
+    {
+        final FixMessageDecoder messageFrame = this.messageFrame;
+        final long sessionId = messageFrame.session();
+        final int sequenceIndex = messageFrame.sequenceIndex();
+        final int metaDataAdjustment = version >= metaDataSinceVersion() ?
+            metaDataHeaderLength() + messageFrame.metaDataLength() : 0;
+        final int messageFrameBlockLength = MESSAGE_FRAME_BLOCK_LENGTH + metaDataAdjustment;
+
+        final SequenceNumberExtractor sequenceNumberExtractor = this.sequenceNumberExtractor;
+        final int sequenceNumber = sequenceNumberExtractor.extract(
+            buffer, offset + messageFrameBlockLength, length - messageFrameBlockLength);
+        if (sequenceNumber == NO_SEQUENCE_NUMBER)
+        {
+            return;
+        }
+
+        SessionCache sessionCache = sessionIdToCache.get(sessionId);
+        if (sessionCache == null)
+        {
+            sessionCache = new SessionCache(maxMessages);
+            sessionIdToCache.put(sessionId, sessionCache);
+        }
+
+        if (sequenceNumberExtractor.newSequenceNumber() != NO_SEQUENCE_NUMBER)
+        {
+            // Sequence resets are replayed as gap fills covering several sequence numbers
+            sessionCache.reset();
+        }
+        else
+        {
+            sessionCache.onMessage(sequenceIndex, sequenceNumber, buffer, offset, length, clock.nanoTime(), maxBytes);
+        }
+    }
+
+    private void reset(final long sessionId)
+    {
+        final SessionCache sessionCache = sessionIdToCache.get(sessionId);
+        if (sessionCache != null)
+        {
+            sessionCache.reset();
+        }
+    }
+
+    /**
+     * Lookup a replay of the given range if it's fully held in the cache. The messages are copied so later messages
+     * can't evict them whilst they're being replayed.
+     *
+     * @param sessionId the session to replay.
+     * @param sequenceIndex the sequence index of the resend request.
+     * @param beginSeqNo the first sequence number to replay, inclusive.
+     * @param endSeqNo the last sequence number to replay, inclusive.
+     * @return the cached replay or null if the range isn't in the cache.
+     */
+    CachedReplay lookup(final long sessionId, final int sequenceIndex, final int beginSeqNo, final int endSeqNo)
+    {
+        final SessionCache sessionCache = sessionIdToCache.get(sessionId);
+        if (endSeqNo == MOST_RECENT_MESSAGE || sessionCache == null ||
+            !sessionCache.covers(sequenceIndex, beginSeqNo, endSeqNo, clock.nanoTime() - maxAgeInNs))
+        {
+            misses.incrementOrdered();
+            return null;
+        }
+
+        hits.incrementOrdered();
+        final CachedReplay cachedReplay = new CachedReplay();
+        sessionCache.copyTo(beginSeqNo, endSeqNo, cachedReplay);
+        return cachedReplay;
+    }
+
+    public void close()
+    {
+        CloseHelper.closeAll(hits, misses);
+    }
+
+    public void readLastPosition(final IndexedPositionConsumer consumer)
+    {
+    }
+
+    public void onCatchup(
+        final DirectBuffer buffer, final int offset, final int length, final Header header, final long recordingId)
+    {
+        // Only messages sent whilst this engine is running are cached
+    }
+
+    static final class SessionCache
+    {
+        private final ExpandableArrayBuffer[] messages;
+        private final int[] lengths;
+        private final long[] timesInNs;
+
+        private int sequenceIndex;
+        private int firstSeqNo;
+        private int head;
+        private int count;
+        private int bytes;
+
+        SessionCache(final int maxMessages)
+        {
+            messages = new ExpandableArrayBuffer[maxMessages];
+            lengths = new int[maxMessages];
+            timesInNs = new long[maxMessages];
+        }
+
+        void onMessage(
+            final int sequenceIndex,
+            final int sequenceNumber,
+            final DirectBuffer buffer,
+            final int offset,
+            final int length,
+            final long timeInNs,
+            final int maxBytes)
+        {
+            if (count > 0 && (sequenceIndex != this.sequenceIndex || sequenceNumber != firstSeqNo + count))
+            {
+                reset();
+            }
+
+            if (length > maxBytes)
+            {
+                reset();
+                return;
+            }
+
+            final int capacity = messages.length;
+            while (count == capacity || bytes + length > maxBytes)
+            {
+                evictOldest();
+            }
+
+            if (count == 0)
+            {
+                this.sequenceIndex = sequenceIndex;
+                firstSeqNo = sequenceNumber;
+            }
+
+            final int slot = slot(count);
+            ExpandableArrayBuffer message = messages[slot];
+            if (message == null)
+            {
+                message = new ExpandableArrayBuffer(length);
+                messages[slot] = message;
+            }
+            message.putBytes(0, buffer, offset, length);
+            lengths[slot] = length;
+            timesInNs[slot] = timeInNs;
+            bytes += length;
+            count++;
+        }
+
+        boolean covers(final int sequenceIndex, final int beginSeqNo, final int endSeqNo, final long oldestTimeInNs)
+        {
+            return count > 0 &&
+                sequenceIndex == this.sequenceIndex &&
+                beginSeqNo >= firstSeqNo &&
+                beginSeqNo <= endSeqNo &&
+                endSeqNo < firstSeqNo + count &&
+                timesInNs[slot(beginSeqNo - firstSeqNo)] >= oldestTimeInNs;
+        }
+
+        void copyTo(final int beginSeqNo, final int endSeqNo, final CachedReplay cachedReplay)
+        {
+            for (int sequenceNumber = beginSeqNo; sequenceNumber <= endSeqNo; sequenceNumber++)
+            {
+                final int slot = slot(sequenceNumber - firstSeqNo);
+                cachedReplay.add(messages[slot], lengths[slot]);
+            }
+        }
+
+        void reset()
+        {
+            head = 0;
+            count = 0;
+            bytes = 0;
+        }
+
+        private void evictOldest()
+        {
+            bytes -= lengths[head];
+            head = slot(1);
+            firstSeqNo++;
+            count--;
+        }
+
+        private int slot(final int index)
+        {
+            return (head + index) % messages.length;
+        }
+    }
+
+    /**
+     * A replay of messages copied out of the cache, polled by the {@link FixReplayerSession} in place of a
+     * {@link ReplayOperation}.
+     */
+    static final class CachedReplay
+    {
+        private final ExpandableArrayBuffer buffer = new ExpandableArrayBuffer();
+
+        private int limit;
+        private int position;
+        private int replayedMessages;
+
+        void add(final DirectBuffer message, final int length)
+        {
+            final ExpandableArrayBuffer buffer = this.buffer;
+            buffer.putInt(limit, length);
+            buffer.putBytes(limit + SIZE_OF_INT, message, 0, length);
+            limit += SIZE_OF_INT + length;
+        }
+
+        /**
+         * Poll the next messages of the replay.
+         *
+         * @param handler the handler to replay messages to.
+         * @return true if the replay is complete, false otherwise.
+         */
+        boolean poll(final ControlledFragmentHandler handler)
+        {
+            final ExpandableArrayBuffer buffer = this.buffer;
+            for (int i = 0; i < POLL_LIMIT && position < limit; i++)
+            {
+                final int length = buffer.getInt(position);
+                final ControlledFragmentHandler.Action action = handler.onFragment(
+                    buffer, position + SIZE_OF_INT, length, null);
+                if (action == ABORT)
+                {
+                    return false;
+                }
+
+                position += SIZE_OF_INT + length;
+                replayedMessages++;
+
+                if (action == BREAK)
+                {
+                    break;
+                }
+            }
+
+            return position >= limit;
+        }
+
+        int replayedMessages()
+        {
+            return replayedMessages;
+        }
+    }
+}
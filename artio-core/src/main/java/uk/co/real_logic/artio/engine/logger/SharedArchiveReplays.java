@@ -0,0 +1,275 @@
+/*
+ * Copyright 2015-2024 Real Logic Limited, Adaptive Financial Consulting Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.co.real_logic.artio.engine.logger;
+
+import io.aeron.ControlledFragmentAssembler;
+import io.aeron.Image;
+import io.aeron.Subscription;
+import io.aeron.archive.client.AeronArchive;
+import io.aeron.logbuffer.ControlledFragmentHandler;
+import io.aeron.logbuffer.Header;
+import org.agrona.DirectBuffer;
+import org.agrona.ErrorHandler;
+
+import java.util.ArrayList;
+
+import static io.aeron.CommonContext.IPC_CHANNEL;
+import static io.aeron.logbuffer.ControlledFragmentHandler.Action.ABORT;
+import static io.aeron.logbuffer.ControlledFragmentHandler.Action.CONTINUE;
+import static uk.co.real_logic.artio.engine.logger.ReplayOperation.NO_POLL_LIMIT;
+
+/**
+ * Serves the replay operations of different sessions whose recording ranges overlap from a single archive replay.
+ *
+ * When many sessions reconnect at once their resend requests tend to cover overlapping parts of the same recording.
+ * Rather than each operation starting its own archive replay, an operation joins a shared replay of the recording
+ * and the shared replay passes each fragment on to the operations whose ranges contain it. Operations that acquire
+ * overlapping ranges in the same duty cycle join a pending replay, which is extended to cover all of their ranges
+ * and started the next time that one of them is polled. An operation can also join a replay that has already
+ * started if its range lies within the part of the replay that is still to be read.
+ *
+ * A fragment is only consumed once every operation whose range contains it has accepted it, so an operation that
+ * is back-pressured holds up the others sharing its replay.
+ *
+ * Single threaded, used on the same thread as the {@link ReplayQuery} that owns it.
+ */
+final class SharedArchiveReplays
+{
+    private final ArrayList<Replay> replays = new ArrayList<>();
+    private final AeronArchive aeronArchive;
+    private final ErrorHandler errorHandler;
+    private final int archiveReplayStream;
+
+    SharedArchiveReplays(
+        final AeronArchive aeronArchive, final ErrorHandler errorHandler, final int archiveReplayStream)
+    {
+        this.aeronArchive = aeronArchive;
+        this.errorHandler = errorHandler;
+        this.archiveReplayStream = archiveReplayStream;
+    }
+
+    Replay join(final ReplayOperation operation, final RecordingRange range, final Subscription subscription)
+    {
+        final long recordingId = range.recordingId;
+        final long beginPosition = range.position;
+        final long endPosition = beginPosition + range.length;
+
+        final ArrayList<Replay> replays = this.replays;
+        for (int i = 0, size = replays.size(); i < size; i++)
+        {
+            final Replay replay = replays.get(i);
+            if (replay.tryJoin(operation, recordingId, beginPosition, endPosition))
+            {
+                return replay;
+            }
+        }
+
+        final Replay replay = new Replay(recordingId, beginPosition, endPosition, subscription);
+        replay.operations.add(operation);
+        replays.add(replay);
+        return replay;
+    }
+
+    /**
+     * Remove an operation from a shared replay.
+     *
+     * @param operation the operation that has finished with the replay.
+     * @param replay the replay that it has finished with.
+     * @return true if this was the last operation sharing the replay, it's then responsible for closing the replay.
+     */
+    boolean leave(final ReplayOperation operation, final Replay replay)
+    {
+        final ArrayList<ReplayOperation> operations = replay.operations;
+        operations.remove(operation);
+        if (operations.isEmpty())
+        {
+            replays.remove(replay);
+            return true;
+        }
+
+        return false;
+    }
+
+    int replayCount()
+    {
+        return replays.size();
+    }
+
+    final class Replay implements ControlledFragmentHandler
+    {
+        private final ArrayList<ReplayOperation> operations = new ArrayList<>();
+        private final ControlledFragmentAssembler assembler = new ControlledFragmentAssembler(this);
+        private final long recordingId;
+        private final Subscription subscription;
+
+        private long beginPosition;
+        private long endPosition;
+        private boolean started;
+        private boolean failed;
+        private long replaySessionId;
+        private Image image;
+
+        Replay(
+            final long recordingId, final long beginPosition, final long endPosition, final Subscription subscription)
+        {
+            this.recordingId = recordingId;
+            this.beginPosition = beginPosition;
+            this.endPosition = endPosition;
+            this.subscription = subscription;
+        }
+
+        private boolean tryJoin(
+            final ReplayOperation operation, final long recordingId, final long beginPosition, final long endPosition)
+        {
+            if (this.recordingId != recordingId || failed)
+            {
+                return false;
+            }
+
+            if (started)
+            {
+                if (beginPosition < position() || endPosition > this.endPosition)
+                {
+                    return false;
+                }
+            }
+            else
+            {
+                // Extending the replay over a gap between two ranges would read data that nobody needs
+                if (beginPosition > this.endPosition || endPosition < this.beginPosition)
+                {
+                    return false;
+                }
+
+                this.beginPosition = Math.min(beginPosition, this.beginPosition);
+                this.endPosition = Math.max(endPosition, this.endPosition);
+            }
+
+            operations.add(operation);
+            return true;
+        }
+
+        /**
+         * Poll the replay, starting it if this is the first time that it has been polled.
+         *
+         * @param pollLimitInBytes the maximum number of bytes to read, or {@link ReplayOperation#NO_POLL_LIMIT}.
+         * @return the number of bytes read from the replay image.
+         */
+        long poll(final int pollLimitInBytes)
+        {
+            if (!started)
+            {
+                start();
+                return 0;
+            }
+
+            Image image = this.image;
+            if (image == null)
+            {
+                if (failed)
+                {
+                    return 0;
+                }
+
+                image = subscription.imageBySessionId((int)replaySessionId);
+                if (image == null)
+                {
+                    return 0;
+                }
+                this.image = image;
+            }
+
+            final long position = image.position();
+            if (pollLimitInBytes == NO_POLL_LIMIT)
+            {
+                image.controlledPoll(assembler, Integer.MAX_VALUE);
+            }
+            else
+            {
+                image.boundedControlledPoll(assembler, position + pollLimitInBytes, Integer.MAX_VALUE);
+            }
+            return image.position() - position;
+        }
+
+        private void start()
+        {
+            started = true;
+            try
+            {
+                replaySessionId = aeronArchive.startReplay(
+                    recordingId,
+                    beginPosition,
+                    endPosition - beginPosition,
+                    IPC_CHANNEL,
+                    archiveReplayStream);
+            }
+            catch (final Throwable e)
+            {
+                failed = true;
+                errorHandler.onError(e);
+            }
+        }
+
+        public Action onFragment(final DirectBuffer buffer, final int offset, final int length, final Header header)
+        {
+            final long position = header.position();
+            final ArrayList<ReplayOperation> operations = this.operations;
+
+            Action action = CONTINUE;
+            for (int i = 0, size = operations.size(); i < size; i++)
+            {
+                if (operations.get(i).onSharedFragment(buffer, offset, length, header, position) == ABORT)
+                {
+                    action = ABORT;
+                }
+            }
+
+            return action;
+        }
+
+        long position()
+        {
+            final Image image = this.image;
+            return image == null ? beginPosition : image.position();
+        }
+
+        boolean hasFailed()
+        {
+            return failed;
+        }
+
+        boolean isEndOfImage()
+        {
+            final Image image = this.image;
+            return image != null && (image.isClosed() || image.isEndOfStream());
+        }
+
+        long replaySessionId()
+        {
+            return replaySessionId;
+        }
+
+        Image image()
+        {
+            return image;
+        }
+
+        long endPosition()
+        {
+            return endPosition;
+        }
+    }
+}
@@ -17,6 +17,7 @@ package uk.co.real_logic.artio.engine.logger;
 
 import org.agrona.IoUtil;
 import org.agrona.collections.Long2ObjectHashMap;
+import org.agrona.collections.LongArrayList;
 import org.agrona.concurrent.UnsafeBuffer;
 import uk.co.real_logic.artio.storage.messages.MessageHeaderDecoder;
 import uk.co.real_logic.artio.storage.messages.TimeIndexRecordDecoder;
@@ -25,6 +26,7 @@ import java.io.File;
 import java.nio.MappedByteBuffer;
 
 import static uk.co.real_logic.artio.engine.logger.TimeIndexWriter.FILE_NAME;
+import static uk.co.real_logic.artio.engine.logger.TimeIndexWriter.fileLocation;
 
 class TimeIndexReader
 {
@@ -63,6 +65,70 @@ class TimeIndexReader
         return true;
     }
 
+    /**
+     * Find positions that split the scan of a recording into chunks of at least a given size. The time index records
+     * the end positions of whole messages, so a replay can start from any of these positions.
+     *
+     * @param recordingId the recording to split.
+     * @param startPosition the position that the scan of the recording starts from.
+     * @param stopPosition the position that the scan of the recording stops at.
+     * @param chunkSizeInBytes the minimum size of a chunk.
+     * @param chunkPositions the positions between chunks, in ascending order, are added to this list.
+     */
+    void findChunkPositions(
+        final long recordingId,
+        final long startPosition,
+        final long stopPosition,
+        final long chunkSizeInBytes,
+        final LongArrayList chunkPositions)
+    {
+        final File file = fileLocation(logFileDir, streamid, recordingId);
+        if (!file.exists())
+        {
+            return;
+        }
+
+        final MappedByteBuffer mappedByteBuffer = LoggerUtil.mapExistingFile(file);
+        try
+        {
+            final UnsafeBuffer buffer = new UnsafeBuffer(mappedByteBuffer);
+            final MessageHeaderDecoder headerDecoder = new MessageHeaderDecoder();
+            final TimeIndexRecordDecoder timeIndexRecord = new TimeIndexRecordDecoder();
+            headerDecoder.wrap(buffer, 0);
+
+            final int blockLength = headerDecoder.blockLength();
+            final int version = headerDecoder.version();
+
+            int offset = MessageHeaderDecoder.ENCODED_LENGTH;
+            final int capacity = buffer.capacity();
+
+            long chunkStartPosition = startPosition;
+            while ((offset + TimeIndexRecordDecoder.BLOCK_LENGTH) <= capacity)
+            {
+                timeIndexRecord.wrap(buffer, offset, blockLength, version);
+
+                final long position = timeIndexRecord.position();
+                if (stopPosition - position < chunkSizeInBytes)
+                {
+                    // Don't leave a small chunk at the end of the recording
+                    break;
+                }
+
+                if (position - chunkStartPosition >= chunkSizeInBytes)
+                {
+                    chunkPositions.addLong(position);
+                    chunkStartPosition = position;
+                }
+
+                offset += TimeIndexRecordDecoder.BLOCK_LENGTH;
+            }
+        }
+        finally
+        {
+            IoUtil.unmap(mappedByteBuffer);
+        }
+    }
+
     private PositionRange findPositionRange(final IndexQuery indexQuery, final File file)
     {
         final long beginTimestampInclusive = indexQuery.beginTimestampInclusive();
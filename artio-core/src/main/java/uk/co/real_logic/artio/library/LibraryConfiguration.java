@@ -83,6 +83,7 @@ public final class LibraryConfiguration extends CommonConfiguration
     private FixPConnectionExistsHandler fixPConnectionExistsHandler;
     private FixPConnectionAcquiredHandler fixPConnectionAcquiredHandler;
     private LibraryReproductionConfiguration reproductionConfiguration;
+    private boolean timerDrivenSessionPolling = false;
 
     /**
      * When a new FIX session connects to the gateway you register a callback handler to find
@@ -179,6 +180,24 @@ public final class LibraryConfiguration extends CommonConfiguration
         return this;
     }
 
+    /**
+     * Sets whether FIX sessions are polled only when one of their timeouts, for example a heartbeat, test request or
+     * logout timeout, is due or when their state changes, rather than on every duty cycle. This reduces the cost of
+     * polling a library that owns a large number of mostly idle sessions. Sessions are still polled on the library's
+     * duty cycle, so timeouts are honoured to within roughly a millisecond of their deadline.
+     *
+     * Defaults to false.
+     *
+     * @param timerDrivenSessionPolling true to enable timer driven session polling, false to poll every session on
+     *                                  every duty cycle.
+     * @return this
+     */
+    public LibraryConfiguration timerDrivenSessionPolling(final boolean timerDrivenSessionPolling)
+    {
+        this.timerDrivenSessionPolling = timerDrivenSessionPolling;
+        return this;
+    }
+
     public SessionAcquireHandler sessionAcquireHandler()
     {
         return sessionAcquireHandler;
@@ -214,6 +233,11 @@ public final class LibraryConfiguration extends CommonConfiguration
         return sessionProxyFactory;
     }
 
+    public boolean timerDrivenSessionPolling()
+    {
+        return timerDrivenSessionPolling;
+    }
+
     /**
      * {@inheritDoc}
      */
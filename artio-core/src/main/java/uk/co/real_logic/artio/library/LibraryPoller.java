@@ -229,6 +229,8 @@ final class LibraryPoller implements LibraryEndPointHandler, ProtocolHandler, Au
     };
 
     private final InternalSession.Formatters formatters = new InternalSession.Formatters();
+    // null unless timer driven session polling is enabled
+    private final SessionPollTimers sessionPollTimers;
 
     LibraryPoller(
         final LibraryConfiguration configuration,
@@ -258,6 +260,8 @@ final class LibraryPoller implements LibraryEndPointHandler, ProtocolHandler, Au
             epochClock, configuration.epochNanoClock(), configuration.sessionEpochFractionFormat());
         this.isReproductionEnabled = configuration.isReproductionEnabled();
         this.reproductionClock = isReproductionEnabled ? configuration.reproductionConfiguration().clock() : null;
+        this.sessionPollTimers = configuration.timerDrivenSessionPolling() ?
+            new SessionPollTimers(epochNanoClock.nanoTime()) : null;
     }
 
     boolean isConnected()
@@ -822,10 +826,18 @@ final class LibraryPoller implements LibraryEndPointHandler, ProtocolHandler, Au
         final InternalSession[] sessions = this.sessions;
         int total = 0;
 
-        for (int i = 0, size = sessions.length; i < size; i++)
+        final SessionPollTimers sessionPollTimers = this.sessionPollTimers;
+        if (sessionPollTimers != null)
         {
-            final InternalSession session = sessions[i];
-            total += session.poll(timeInNs);
+            total += sessionPollTimers.poll(sessions, timeInNs);
+        }
+        else
+        {
+            for (int i = 0, size = sessions.length; i < size; i++)
+            {
+                final InternalSession session = sessions[i];
+                total += session.poll(timeInNs);
+            }
         }
 
         final long timeInMs = System.currentTimeMillis();
@@ -839,6 +851,15 @@ final class LibraryPoller implements LibraryEndPointHandler, ProtocolHandler, Au
         return total;
     }
 
+    void onPollRequired(final InternalSession session)
+    {
+        final SessionPollTimers sessionPollTimers = this.sessionPollTimers;
+        if (sessionPollTimers != null)
+        {
+            sessionPollTimers.wake(session);
+        }
+    }
+
     private int pollPendingInitiatorSessions(final long timeInNs)
     {
         InternalSession[] pendingSessions = this.pendingInitiatorSessions;
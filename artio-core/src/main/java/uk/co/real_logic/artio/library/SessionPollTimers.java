@@ -0,0 +1,209 @@
+/*
+ * Copyright 2015-2024 Real Logic Limited, Adaptive Financial Consulting Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.co.real_logic.artio.library;
+
+import org.agrona.DeadlineTimerWheel;
+import org.agrona.collections.Long2ObjectHashMap;
+import org.agrona.collections.Object2LongHashMap;
+import org.agrona.collections.ObjectHashSet;
+import uk.co.real_logic.artio.session.InternalSession;
+
+import java.util.ArrayList;
+import java.util.concurrent.TimeUnit;
+
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+import static uk.co.real_logic.artio.session.InternalSession.NO_POLL_REQUIRED;
+
+/**
+ * Polls sessions only when one of their timeouts has expired or when they've been notified as needing a poll,
+ * for example due to a state change, rather than polling every session on every duty cycle. Idle sessions sit in a
+ * {@link DeadlineTimerWheel} keyed by {@link InternalSession#nextPollTimeInNs()}.
+ */
+class SessionPollTimers implements DeadlineTimerWheel.TimerHandler
+{
+    // ~1ms ticks, must be a power of 2
+    private static final long TICK_RESOLUTION_IN_NS = 1L << 20;
+    private static final int TICKS_PER_WHEEL = 1024;
+
+    private static final long NO_TIMER = -1;
+    private static final long DUE = -2;
+
+    private final Long2ObjectHashMap<InternalSession> timerIdToSession = new Long2ObjectHashMap<>();
+    private final Object2LongHashMap<InternalSession> sessionToTimerId = new Object2LongHashMap<>(NO_TIMER);
+    private final ObjectHashSet<InternalSession> currentSessions = new ObjectHashSet<>();
+    private final DeadlineTimerWheel timerWheel;
+
+    private ArrayList<InternalSession> dueSessions = new ArrayList<>();
+    private ArrayList<InternalSession> pollingSessions = new ArrayList<>();
+    private InternalSession[] sessions;
+
+    SessionPollTimers(final long startTimeInNs)
+    {
+        timerWheel = new DeadlineTimerWheel(NANOSECONDS, startTimeInNs, TICK_RESOLUTION_IN_NS, TICKS_PER_WHEEL);
+    }
+
+    /**
+     * Poll the sessions that are due.
+     *
+     * @param sessions the sessions currently owned by the library, a new array when sessions are added or removed.
+     * @param timeInNs the current time.
+     * @return the number of actions performed.
+     */
+    int poll(final InternalSession[] sessions, final long timeInNs)
+    {
+        if (sessions != this.sessions)
+        {
+            onSessionsChanged(sessions);
+        }
+
+        final DeadlineTimerWheel timerWheel = this.timerWheel;
+        if (timerWheel.timerCount() == 0)
+        {
+            // Avoid ticking through a long idle period one tick at a time
+            timerWheel.resetStartTime(timeInNs);
+        }
+
+        do
+        {
+            timerWheel.poll(timeInNs, this, Integer.MAX_VALUE);
+        }
+        while (timerWheel.currentTickTime() <= timeInNs);
+
+        // Sessions that are woken whilst polling are polled on the next duty cycle
+        final ArrayList<InternalSession> pollingSessions = this.dueSessions;
+        this.dueSessions = this.pollingSessions;
+        this.pollingSessions = pollingSessions;
+
+        int total = 0;
+        for (int i = 0, size = pollingSessions.size(); i < size; i++)
+        {
+            final InternalSession session = pollingSessions.get(i);
+            if (sessionToTimerId.getValue(session) != DUE)
+            {
+                continue;
+            }
+
+            sessionToTimerId.removeKey(session);
+            if (currentSessions.contains(session))
+            {
+                total += session.poll(timeInNs);
+                schedule(session, timeInNs);
+            }
+        }
+        pollingSessions.clear();
+
+        return total;
+    }
+
+    /**
+     * Notify that a session needs polling on the next duty cycle, regardless of its timeouts.
+     *
+     * @param session the session to poll.
+     */
+    void wake(final InternalSession session)
+    {
+        final long timerId = sessionToTimerId.getValue(session);
+        if (timerId == DUE)
+        {
+            return;
+        }
+
+        if (timerId != NO_TIMER)
+        {
+            cancel(timerId);
+        }
+
+        sessionToTimerId.put(session, DUE);
+        dueSessions.add(session);
+    }
+
+    public boolean onTimerExpiry(final TimeUnit timeUnit, final long now, final long timerId)
+    {
+        final InternalSession session = timerIdToSession.remove(timerId);
+        if (session != null)
+        {
+            sessionToTimerId.put(session, DUE);
+            dueSessions.add(session);
+        }
+
+        return true;
+    }
+
+    private void schedule(final InternalSession session, final long timeInNs)
+    {
+        // Already woken again during its poll
+        if (sessionToTimerId.getValue(session) != NO_TIMER)
+        {
+            return;
+        }
+
+        final long nextPollTimeInNs = session.nextPollTimeInNs();
+        if (nextPollTimeInNs == NO_POLL_REQUIRED)
+        {
+            return;
+        }
+
+        if (nextPollTimeInNs <= timeInNs)
+        {
+            // Still due, for example when back pressured, so retry on the next duty cycle
+            wake(session);
+        }
+        else
+        {
+            final long timerId = timerWheel.scheduleTimer(nextPollTimeInNs);
+            timerIdToSession.put(timerId, session);
+            sessionToTimerId.put(session, timerId);
+        }
+    }
+
+    private void cancel(final long timerId)
+    {
+        timerWheel.cancelTimer(timerId);
+        timerIdToSession.remove(timerId);
+    }
+
+    private void onSessionsChanged(final InternalSession[] sessions)
+    {
+        final ObjectHashSet<InternalSession> currentSessions = this.currentSessions;
+        currentSessions.clear();
+        for (final InternalSession session : sessions)
+        {
+            currentSessions.add(session);
+            if (sessionToTimerId.getValue(session) == NO_TIMER)
+            {
+                wake(session);
+            }
+        }
+
+        final InternalSession[] oldSessions = this.sessions;
+        if (oldSessions != null)
+        {
+            for (final InternalSession session : oldSessions)
+            {
+                if (!currentSessions.contains(session))
+                {
+                    final long timerId = sessionToTimerId.removeKey(session);
+                    if (timerId != NO_TIMER && timerId != DUE)
+                    {
+                        cancel(timerId);
+                    }
+                }
+            }
+        }
+
+        this.sessions = sessions;
+    }
+}
@@ -265,6 +265,11 @@ class SessionSubscriber implements AutoCloseable, FixSessionOwner
         libraryPoller.enqueueTask(task);
     }
 
+    public void onPollRequired(final Session session)
+    {
+        libraryPoller.onPollRequired(this.session);
+    }
+
     void onTimeout(final int libraryId)
     {
         handler.onTimeout(libraryId, session);
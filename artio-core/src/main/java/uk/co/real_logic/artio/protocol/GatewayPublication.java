@@ -390,6 +390,116 @@ public class GatewayPublication extends ClaimablePublication
         return position;
     }
 
+    /**
+     * Claims space in the publication for a FIX message of a known length so that it can be written in place,
+     * avoiding a copy from an intermediate buffer. The FIX message bytes should be written into
+     * {@link #claimedMessageBuffer()} starting at {@link #claimedMessageOffset()} and then either
+     * {@link #commitMessage()} or {@link #abortMessage()} must be called.
+     *
+     * Only messages that fit within a single fragment can be claimed, larger messages should use
+     * {@link #saveMessage(DirectBuffer, int, int, int, long, long, int, long, MessageStatus, int)}.
+     *
+     * @param messageLength the exact length of the FIX message that will be written.
+     * @param libraryId the id of the library sending the message.
+     * @param messageType the long encoded message type.
+     * @param sessionId the id of the session that the message is sent on.
+     * @param sequenceIndex the sequence index of the message.
+     * @param connectionId the connection id to send the message on.
+     * @param status the status of the message.
+     * @param sequenceNumber the sequence number of the message.
+     * @return the position of the claimed message or a negative number indicating an error status.
+     * @throws IllegalArgumentException if the message would require fragmentation.
+     */
+    public long claimMessage(
+        final int messageLength,
+        final int libraryId,
+        final long messageType,
+        final long sessionId,
+        final int sequenceIndex,
+        final long connectionId,
+        final MessageStatus status,
+        final int sequenceNumber)
+    {
+        final int framedLength = FRAMED_MESSAGE_SIZE + messageLength;
+        if (framedLength > maxPayloadLength)
+        {
+            throw new IllegalArgumentException(
+                "Message of length " + messageLength + " is too large to claim, maxPayloadLength=" + maxPayloadLength);
+        }
+
+        final long position = claim(framedLength);
+        if (position < 0)
+        {
+            return position;
+        }
+
+        final BufferClaim bufferClaim = this.bufferClaim;
+        int offset = bufferClaim.offset();
+        final MutableDirectBuffer destBuffer = bufferClaim.buffer();
+
+        header.wrap(destBuffer, offset)
+            .blockLength(fixMessage.sbeBlockLength())
+            .templateId(fixMessage.sbeTemplateId())
+            .schemaId(fixMessage.sbeSchemaId())
+            .version(fixMessage.sbeSchemaVersion());
+
+        offset += header.encodedLength();
+
+        fixMessage.wrap(destBuffer, offset)
+            .libraryId(libraryId)
+            .messageType(messageType)
+            .session(sessionId)
+            .sequenceIndex(sequenceIndex)
+            .connection(connectionId)
+            .timestamp(clock.nanoTime())
+            .status(status)
+            .sequenceNumber(sequenceNumber)
+            .metaDataUpdateOffset(0)
+            .putMetaData(NO_METADATA, 0, 0);
+
+        putBodyLength(messageLength, offset, 0, destBuffer);
+
+        return position;
+    }
+
+    /**
+     * Gets the buffer that a message claimed by {@link #claimMessage(int, int, long, long, int, long, MessageStatus,
+     * int)} should be written into.
+     *
+     * @return the buffer that a message claimed should be written into.
+     */
+    public MutableDirectBuffer claimedMessageBuffer()
+    {
+        return bufferClaim.buffer();
+    }
+
+    /**
+     * Gets the offset within {@link #claimedMessageBuffer()} that the claimed FIX message starts at.
+     *
+     * @return the offset within {@link #claimedMessageBuffer()} that the claimed FIX message starts at.
+     */
+    public int claimedMessageOffset()
+    {
+        return bufferClaim.offset() + FRAMED_MESSAGE_SIZE;
+    }
+
+    /**
+     * Commits a message claimed by {@link #claimMessage(int, int, long, long, int, long, MessageStatus, int)}.
+     */
+    public void commitMessage()
+    {
+        bufferClaim.commit();
+    }
+
+    /**
+     * Aborts a message claimed by {@link #claimMessage(int, int, long, long, int, long, MessageStatus, int)}, it will
+     * be turned into padding and not be delivered.
+     */
+    public void abortMessage()
+    {
+        bufferClaim.abort();
+    }
+
     private void putBodyLength(
         final int srcLength, final int offset, final int metaDataLength, final MutableDirectBuffer destBuffer)
     {
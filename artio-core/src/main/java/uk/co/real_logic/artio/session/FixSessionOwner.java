@@ -44,4 +44,12 @@ public interface FixSessionOwner
         long sessionId, int throttleWindowInMs, int throttleLimitOfMessages);
 
     long inboundMessagePosition();
+
+    /**
+     * Notifies the owner that the session's state or timeouts have changed so that it may need polling earlier than
+     * it previously did.
+     *
+     * @param session the session that needs polling.
+     */
+    void onPollRequired(Session session);
 }
@@ -44,6 +44,7 @@ public class InternalSession extends Session implements AutoCloseable
     public static final int INITIAL_LAST_RESEND_CHUNK_MSG_SEQ_NUM = 0;
     public static final int INITIAL_END_OF_RESEND_REQUEST_RANGE = 0;
     public static final boolean INITIAL_AWAITING_HEARTBEAT = false;
+    public static final long NO_POLL_REQUIRED = Long.MAX_VALUE;
 
     public static class Formatters
     {
@@ -115,6 +116,11 @@ public class InternalSession extends Session implements AutoCloseable
         return super.poll(timeInNs);
     }
 
+    public long nextPollTimeInNs()
+    {
+        return super.nextPollTimeInNs();
+    }
+
     public void disable()
     {
         super.disable();
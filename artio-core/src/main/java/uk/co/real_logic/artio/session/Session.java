@@ -104,6 +104,7 @@ public class Session
     static final String TEST_REQ_ID = "TEST";
     private static final char[] TEST_REQ_ID_CHARS = TEST_REQ_ID.toCharArray();
     private static final int NO_LOGOUT_REJECT_REASON = -1;
+    private static final long NO_CLAIMED_POSITION = -1;
 
     private final UtcTimestampEncoder timestampEncoder;
 
@@ -132,6 +133,7 @@ public class Session
     private boolean disconnectOnFirstMessageNotLogon;
 
     private final BooleanSupplier saveSeqIndexSyncFunc = this::saveSeqIndexSync;
+    private final MutableAsciiBuffer claimBuffer = new MutableAsciiBuffer();
     private final Formatters formatters;
     private boolean initiatorResetSeqNum;
 
@@ -168,6 +170,10 @@ public class Session
     // engine/library hand-over.
     private long nextReplayCorrelationId = ThreadLocalRandom.current().nextLong(1, Long.MAX_VALUE);
 
+    private long claimedPosition = NO_CLAIMED_POSITION;
+    private int claimedSeqNum;
+    private long claimedMessageType;
+
     private long heartbeatIntervalInNs;
     private long nextRequiredInboundMessageTimeInNs;
     private long sendingHeartbeatIntervalInNs;
@@ -793,6 +799,108 @@ public class Session
         return position;
     }
 
+    /**
+     * Tries to claim space in the log buffer for a message of a known length so that it can be written in place
+     * without first being copied into the session's buffer. If the claim succeeds then the message should be
+     * written into {@link #claimBuffer()}, which is wrapped around exactly <code>length</code> bytes, and then
+     * either {@link #commit()} or {@link #abort()} must be called before any other message is sent on this session.
+     *
+     * The message should be a complete FIX message, including its header, body length and checksum. See
+     * {{@link #trySend(Encoder)}} for scenarios where this could fail.
+     *
+     * @param length      the exact length of the FIX message to be written.
+     * @param seqNum      the sequence number of the sent message
+     * @param messageType the long encoded message type.
+     * @return the position in the stream that corresponds to the end of this message or a negative
+     * number indicating an error status.
+     * @throws IllegalArgumentException if the message is too large to fit into a single claim, use
+     *                                  {@link #trySend(DirectBuffer, int, int, int, long)} for these messages.
+     * @throws IllegalStateException if there is already a claimed message that hasn't been committed or aborted.
+     * @throws NotConnectedException if the underlying Publication to the FixEngine has been closed or its max position
+     *                               exceeded.
+     */
+    public long tryClaim(final int length, final int seqNum, final long messageType)
+    {
+        if (claimedPosition != NO_CLAIMED_POSITION)
+        {
+            throw new IllegalStateException("Previous claim has not been committed or aborted, seqNum=" +
+                claimedSeqNum);
+        }
+
+        // If someone attempts to send a message during a logon / logout or offline then we should archive the message
+        // but not send it.
+        final long connectionId = this.state == ACTIVE ? this.connectionId : NO_CONNECTION_ID;
+        final GatewayPublication outboundPublication = this.outboundPublication;
+        final long position = outboundPublication.claimMessage(
+            length, libraryId, messageType, id(), sequenceIndex(), connectionId, OK, seqNum);
+
+        if (position > 0)
+        {
+            claimBuffer.wrap(
+                outboundPublication.claimedMessageBuffer(), outboundPublication.claimedMessageOffset(), length);
+            claimedPosition = position;
+            claimedSeqNum = seqNum;
+            claimedMessageType = messageType;
+        }
+
+        return position;
+    }
+
+    /**
+     * Gets the buffer that a message claimed by {@link #tryClaim(int, int, long)} should be written into. The buffer
+     * is only valid between a successful claim and the corresponding {@link #commit()} or {@link #abort()}.
+     *
+     * @return the buffer that a claimed message should be written into.
+     */
+    public MutableAsciiBuffer claimBuffer()
+    {
+        return claimBuffer;
+    }
+
+    /**
+     * Commits a message claimed by {@link #tryClaim(int, int, long)}, sending it.
+     *
+     * @return the position in the stream that corresponds to the end of the committed message.
+     * @throws IllegalStateException if there is no claimed message.
+     */
+    public long commit()
+    {
+        final long position = checkClaimed();
+
+        outboundPublication.commitMessage();
+        lastSentMsgSeqNum(claimedSeqNum, position);
+
+        DebugLogger.logFixMessage(FIX_MESSAGE, claimedMessageType, "Sent ", claimBuffer, 0, claimBuffer.capacity());
+
+        claimedPosition = NO_CLAIMED_POSITION;
+        return position;
+    }
+
+    /**
+     * Aborts a message claimed by {@link #tryClaim(int, int, long)}, it won't be sent and the sequence number of
+     * the session isn't changed.
+     *
+     * @throws IllegalStateException if there is no claimed message.
+     */
+    public void abort()
+    {
+        checkClaimed();
+
+        outboundPublication.abortMessage();
+
+        claimedPosition = NO_CLAIMED_POSITION;
+    }
+
+    private long checkClaimed()
+    {
+        final long claimedPosition = this.claimedPosition;
+        if (claimedPosition == NO_CLAIMED_POSITION)
+        {
+            throw new IllegalStateException("No claimed message");
+        }
+        return claimedPosition;
+    }
+
     /**
      * Deprecated, uses should be removed. This method will be removed in a future version.
      *
@@ -2289,17 +2397,33 @@ public class Session
         incNextReceivedInboundMessageTime(timeInNs);
         sendingHeartbeatIntervalInNs = (long)(heartbeatIntervalInNs * HEARTBEAT_PAUSE_FACTOR);
         nextRequiredHeartbeatTimeInNs = timeInNs + sendingHeartbeatIntervalInNs;
+        onPollRequired();
     }
 
     protected Session state(final SessionState state)
     {
+        final boolean changed = this.state != state;
         this.state = state;
+        if (changed)
+        {
+            onPollRequired();
+        }
         return this;
     }
 
     void id(final long id)
     {
         this.id = id;
+        onPollRequired();
+    }
+
+    private void onPollRequired()
+    {
+        final FixSessionOwner fixSessionOwner = this.fixSessionOwner;
+        if (fixSessionOwner != null)
+        {
+            fixSessionOwner.onPollRequired(this);
+        }
     }
 
     protected long timeInNs()
@@ -2493,6 +2617,53 @@ public class Session
         }
     }
 
+    /**
+     * Gets the earliest time at which calling {@link #poll(long)} could have an effect, given the session's current
+     * state and timeouts. Polling earlier is harmless. Changes to the state, the heartbeat interval or the session id
+     * can make this earlier and are notified via {@link FixSessionOwner#onPollRequired(Session)}.
+     *
+     * @return the earliest time, in nanoseconds, at which this session needs polling or
+     *         {@link InternalSession#NO_POLL_REQUIRED} if it doesn't need polling until it's notified.
+     */
+    long nextPollTimeInNs()
+    {
+        if (connectionType == ConnectionType.INITIATOR && state() == SessionState.CONNECTED && id() != UNKNOWN)
+        {
+            return 0;
+        }
+
+        final short state = state().value();
+        switch (state)
+        {
+            case DISCONNECTING_VALUE:
+            case LOGGING_OUT_VALUE:
+            case LOGGING_OUT_AND_DISCONNECTING_VALUE:
+            {
+                return 0;
+            }
+
+            case AWAITING_LOGOUT_VALUE:
+            {
+                return awaitingLogoutTimeoutInNs + 1;
+            }
+
+            case DISCONNECTED_VALUE:
+            case DISABLED_VALUE:
+            case AWAITING_ASYNC_PROXY_LOGOUT_VALUE:
+            {
+                return NO_POLL_REQUIRED;
+            }
+
+            default:
+            {
+                final long nextRequiredInboundMessageTimeInNs = this.nextRequiredInboundMessageTimeInNs;
+                return state == ACTIVE_VALUE ?
+                    Math.min(nextRequiredHeartbeatTimeInNs, nextRequiredInboundMessageTimeInNs) :
+                    nextRequiredInboundMessageTimeInNs;
+            }
+        }
+    }
+
     private int initiatorPoll()
     {
         int actions = 0;
@@ -34,15 +34,21 @@ import static uk.co.real_logic.artio.messages.MessageStatus.OK;
  */
 public class SessionWriter
 {
+    private static final long NO_CLAIMED_POSITION = -1;
+
     private final int libraryId;
     private final long sessionId;
     private final MutableAsciiBuffer asciiBuffer;
     private final GatewayPublication publication;
+    private final MutableAsciiBuffer claimBuffer = new MutableAsciiBuffer();
 
     private long connectionId;
     private int sequenceIndex;
     private InternalSession session;
     private boolean closed = false;
+    private long claimedPosition = NO_CLAIMED_POSITION;
+    private int claimedSeqNum;
+    private long claimedMessageType;
 
     public SessionWriter(
         final int libraryId,
@@ -157,21 +163,91 @@ public class SessionWriter
 
         if (position > 0)
         {
-            final InternalSession session = this.session;
-            if (session != null)
-            {
-                session.lastSentMsgSeqNum(seqNum);
+            onSent(seqNum, messageType);
+        }
 
-                if (messageType == SessionConstants.LOGOUT_MESSAGE_TYPE)
-                {
-                    session.onSessionWriterLogout();
-                }
-            }
+        return position;
+    }
+
+    /**
+     * Claim space for a message of a known length so that it can be written in place without being copied. If the
+     * claim succeeds then the message should be written into {@link #claimBuffer()} and then either
+     * {@link #commit()} or {@link #abort()} must be called before any other message is sent by this writer.
+     *
+     * @param length the exact length of the FIX message to be written.
+     * @param seqNum the sequence number of the sent message
+     * @param messageType the long encoded message type.
+     * @return the position in the stream that corresponds to the end of this message or a negative
+     * number indicating an error status.
+     * @throws IllegalArgumentException if the message is too large to fit into a single claim.
+     * @throws IllegalStateException if the owning FixLibrary object has been closed or if there is already a
+     *                               claimed message.
+     */
+    public long tryClaim(final int length, final int seqNum, final long messageType)
+    {
+        checkState();
+
+        if (claimedPosition != NO_CLAIMED_POSITION)
+        {
+            throw new IllegalStateException("Previous claim has not been committed or aborted, seqNum=" +
+                claimedSeqNum);
+        }
+
+        final GatewayPublication publication = this.publication;
+        final long position = publication.claimMessage(
+            length, libraryId, messageType, sessionId, sequenceIndex, connectionId, OK, seqNum);
+
+        if (position > 0)
+        {
+            claimBuffer.wrap(publication.claimedMessageBuffer(), publication.claimedMessageOffset(), length);
+            claimedPosition = position;
+            claimedSeqNum = seqNum;
+            claimedMessageType = messageType;
         }
 
         return position;
     }
 
+    /**
+     * Gets the buffer that a message claimed by {@link #tryClaim(int, int, long)} should be written into.
+     *
+     * @return the buffer that a claimed message should be written into.
+     */
+    public MutableAsciiBuffer claimBuffer()
+    {
+        return claimBuffer;
+    }
+
+    /**
+     * Commits a message claimed by {@link #tryClaim(int, int, long)}.
+     *
+     * @return the position in the stream that corresponds to the end of the committed message.
+     * @throws IllegalStateException if there is no claimed message.
+     */
+    public long commit()
+    {
+        final long position = checkClaimed();
+
+        publication.commitMessage();
+        claimedPosition = NO_CLAIMED_POSITION;
+        onSent(claimedSeqNum, claimedMessageType);
+
+        return position;
+    }
+
+    /**
+     * Aborts a message claimed by {@link #tryClaim(int, int, long)}.
+     *
+     * @throws IllegalStateException if there is no claimed message.
+     */
+    public void abort()
+    {
+        checkClaimed();
+
+        publication.abortMessage();
+        claimedPosition = NO_CLAIMED_POSITION;
+    }
+
     /**
      * Request the TCP disconnect of a session.
      *
@@ -207,6 +283,30 @@ public class SessionWriter
         this.connectionId = session.connectionId();
     }
 
+    private void onSent(final int seqNum, final long messageType)
+    {
+        final InternalSession session = this.session;
+        if (session != null)
+        {
+            session.lastSentMsgSeqNum(seqNum);
+
+            if (messageType == SessionConstants.LOGOUT_MESSAGE_TYPE)
+            {
+                session.onSessionWriterLogout();
+            }
+        }
+    }
+
+    private long checkClaimed()
+    {
+        final long claimedPosition = this.claimedPosition;
+        if (claimedPosition == NO_CLAIMED_POSITION)
+        {
+            throw new IllegalStateException("No claimed message");
+        }
+        return claimedPosition;
+    }
+
     void checkState()
     {
         if (closed)
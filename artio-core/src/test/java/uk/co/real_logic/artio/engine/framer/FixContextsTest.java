@@ -25,8 +25,10 @@ import uk.co.real_logic.artio.builder.LogonEncoder;
 import uk.co.real_logic.artio.dictionary.FixDictionary;
 import uk.co.real_logic.artio.engine.EngineConfiguration;
 import uk.co.real_logic.artio.engine.MappedFile;
+import uk.co.real_logic.artio.engine.SessionInfo;
 import uk.co.real_logic.artio.fixt.FixDictionaryImpl;
 import uk.co.real_logic.artio.session.CompositeKey;
+import uk.co.real_logic.artio.session.Session;
 import uk.co.real_logic.artio.session.SessionIdStrategy;
 import uk.co.real_logic.artio.util.MutableAsciiBuffer;
 
@@ -35,6 +37,7 @@ import java.io.IOException;
 import java.io.InputStream;
 import java.nio.ByteBuffer;
 import java.nio.file.Files;
+import java.util.Iterator;
 import java.util.List;
 import java.util.stream.IntStream;
 
@@ -45,7 +48,10 @@ import static org.hamcrest.Matchers.greaterThanOrEqualTo;
 import static org.hamcrest.Matchers.lessThan;
 import static org.hamcrest.Matchers.hasSize;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
 import static org.mockito.Mockito.any;
 import static org.mockito.Mockito.*;
 import static uk.co.real_logic.artio.engine.EngineConfiguration.DEFAULT_INITIAL_SEQUENCE_INDEX;
@@ -117,6 +123,27 @@ public class FixContextsTest
         assertEquals(time, reloadedBContext.lastSequenceResetTime());
     }
 
+    @Test
+    public void indexesSessionContextsByIdOverARestart()
+    {
+        final SessionContext aContext = fixContexts.onLogon(aSession, fixDictionary);
+        final SessionContext bContext = fixContexts.onLogon(bSession, fixDictionary);
+        final Iterator<SessionInfo> snapshot = fixContexts.allSessions().iterator();
+        fixContexts.onLogon(cSession, fixDictionary);
+
+        assertThat(fixContexts.allSessions(), hasSize(3));
+        assertEquals(bContext, fixContexts.lookupById(bContext.sessionId()));
+        assertEquals(aContext, snapshot.next());
+        assertEquals(bContext, snapshot.next());
+        assertFalse(snapshot.hasNext());
+
+        final FixContexts fixContextsAfterRestart = newSessionContexts(buffer);
+        assertThat(fixContextsAfterRestart.allSessions(), hasSize(3));
+        assertValuesEqual(aContext, fixContextsAfterRestart.lookupById(aContext.sessionId()));
+        assertTrue(fixContextsAfterRestart.isKnownSessionId(bContext.sessionId()));
+        assertFalse(fixContextsAfterRestart.isKnownSessionId(Session.UNKNOWN));
+    }
+
     @Test
     public void sessionPersistedCorrectlyAfterARestart()
     {
@@ -288,8 +315,11 @@ public class FixContextsTest
 
         // Restart with compaction
         fixContexts = newSessionContexts(buffer);
-        final SessionContext reloadedAContext = fixContexts.lookupById(sessionIdA).getValue();
+        final SessionContext reloadedAContext = fixContexts.lookupById(sessionIdA);
         assertEquals(fixtDictionary.getClass(), reloadedAContext.lastFixDictionary().getClass());
+        assertThat(fixContexts.allSessions(), hasSize(2));
+        // The later record replaces the earlier one in place, so A keeps its position
+        assertSame(reloadedAContext, fixContexts.allSessions().get(0));
         final int filePosition3 = fixContexts.filePosition();
         assertThat(filePosition3, lessThan(filePosition2));
     }
@@ -316,7 +346,7 @@ public class FixContextsTest
         // Check that reloaded information is read
         final FixContexts fixContexts2 = newSessionContexts(oldBuffer);
         assertThat(fixContexts2.allSessions(), hasSize(1));
-        final SessionContext newContext = fixContexts2.lookupById(context.sessionId()).getValue();
+        final SessionContext newContext = fixContexts2.lookupById(context.sessionId());
         assertEquals(fixtDictionary.getClass(), newContext.lastFixDictionary().getClass());
     }
 
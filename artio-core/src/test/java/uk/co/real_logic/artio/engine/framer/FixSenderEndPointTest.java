@@ -88,7 +88,26 @@ public class FixSenderEndPointTest
         senderSequenceNumber,
         messageTimingHandler,
         receiverEndPoint,
-        new FixSenderEndPoint.Formatters());
+        new FixSenderEndPoint.Formatters(),
+        false);
+    private final FixSenderEndPoint gatheringEndPoint = new FixSenderEndPoint(
+        CONNECTION_ID,
+        LIBRARY_ID,
+        inboundPublication,
+        reproductionLogWriter,
+        tcpChannel,
+        bytesInBuffer,
+        invalidLibraryAttempts,
+        errorHandler,
+        framer,
+        MAX_BYTES_IN_BUFFER,
+        DEFAULT_SLOW_CONSUMER_TIMEOUT_IN_MS,
+        0,
+        senderSequenceNumber,
+        messageTimingHandler,
+        receiverEndPoint,
+        new FixSenderEndPoint.Formatters(),
+        true);
 
     @Before
     public void setup()
@@ -123,6 +142,53 @@ public class FixSenderEndPointTest
         verifyNoMoreErrors();
     }
 
+    @Test
+    public void shouldGatherMessagesIntoASingleWrite() throws IOException
+    {
+        channelWillGather(2 * BODY_LENGTH);
+
+        gatheringEndPoint.onOutboundMessage(LIBRARY_ID, buffer, MSG_OFFSET, BODY_LENGTH, 1, 0, 0L, 0, 0);
+        gatheringEndPoint.onOutboundMessage(LIBRARY_ID, buffer, MSG_OFFSET, BODY_LENGTH, 2, 0, 0L, 0, 0);
+        assertTrue(gatheringEndPoint.scheduleGatheredFlush());
+        verify(tcpChannel, never()).write(any(ByteBuffer.class), anyInt(), anyBoolean());
+
+        gatheringEndPoint.flushGatheredMessages();
+
+        verify(tcpChannel, times(1)).write(any(ByteBuffer[].class), any(int[].class), eq(2));
+        verify(messageTimingHandler, times(2)).onMessage(anyInt(), eq(CONNECTION_ID), any(), anyInt(), eq(0));
+        assertFalse(gatheringEndPoint.requiresRetry());
+        assertEquals(0, bytesInBuffer.get());
+        verifyNoMoreErrors();
+    }
+
+    @Test
+    public void shouldReattemptPartiallyWrittenGatheredMessages() throws IOException
+    {
+        final int firstWrites = 41;
+        channelWillGather(BODY_LENGTH + firstWrites);
+
+        gatheringEndPoint.onOutboundMessage(LIBRARY_ID, buffer, MSG_OFFSET, BODY_LENGTH, 1, 0, 0L, 0, 0);
+        gatheringEndPoint.onOutboundMessage(LIBRARY_ID, buffer, MSG_OFFSET, BODY_LENGTH, 2, 0, 0L, 0, 0);
+        gatheringEndPoint.flushGatheredMessages();
+
+        assertTrue(gatheringEndPoint.requiresRetry());
+        assertEquals(firstWrites, gatheringEndPoint.reattemptBytesWritten());
+        assertEquals(BODY_LENGTH + ENQ_MESSAGE_BLOCK_LEN, bytesInBuffer.get());
+
+        channelWillWrite(BODY_LENGTH - firstWrites);
+        gatheringEndPoint.poll(0);
+
+        byteBufferWritten();
+        assertFalse(gatheringEndPoint.requiresRetry());
+        assertEquals(0, bytesInBuffer.get());
+        verifyNoMoreErrors();
+    }
+
+    private void channelWillGather(final long bytes) throws IOException
+    {
+        when(tcpChannel.write(any(ByteBuffer[].class), any(int[].class), anyInt())).thenReturn(bytes);
+    }
+
     private void assertReattemptBytesWritten(final int firstWrites)
     {
         assertEquals(firstWrites, endPoint.reattemptBytesWritten());
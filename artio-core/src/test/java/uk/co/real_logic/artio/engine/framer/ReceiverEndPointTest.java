@@ -148,6 +148,11 @@ class ReceiverEndPointTest
     }
 
     private void givenReceiverEndPoint(final long sessionId)
+    {
+        givenReceiverEndPoint(sessionId, null);
+    }
+
+    private void givenReceiverEndPoint(final long sessionId, final ReceiveBufferPool bufferPool)
     {
         endPoint = new FixReceiverEndPoint(
             mockChannel, BUFFER_SIZE, publication,
@@ -159,7 +164,8 @@ class ReceiverEndPointTest
             new FixReceiverEndPoint.FixReceiverEndPointFormatters(),
             NO_THROTTLE_WINDOW,
             NO_THROTTLE_WINDOW,
-            false);
+            false,
+            bufferPool);
         endPoint.gatewaySession(gatewaySession);
     }
 
@@ -316,6 +322,61 @@ class ReceiverEndPointTest
         sessionReceivesOneMessage();
     }
 
+    @Test
+    void shouldOnlyHoldPooledBufferWhilstMessageIsIncomplete()
+    {
+        final ReceiveBufferPool bufferPool = new ReceiveBufferPool(BUFFER_SIZE);
+        givenReceiverEndPoint(SESSION_ID, bufferPool);
+
+        theEndpointReceivesAnIncompleteMessage();
+        endPoint.poll();
+        assertTrue(endPoint.ownsPooledBuffer());
+
+        theEndpointReceivesTheRestOfTheMessage();
+        endPoint.poll();
+        assertFalse(endPoint.ownsPooledBuffer());
+        assertEquals(1, bufferPool.freeBuffers());
+
+        savesAFramedMessage();
+        sessionReceivesOneMessage();
+    }
+
+    @Test
+    void shouldReturnPooledBufferWhenDisconnectedWithIncompleteMessage() throws IOException
+    {
+        final ReceiveBufferPool bufferPool = new ReceiveBufferPool(BUFFER_SIZE);
+        givenReceiverEndPoint(SESSION_ID, bufferPool);
+
+        theEndpointReceivesAnIncompleteMessage();
+        endPoint.poll();
+        assertTrue(endPoint.ownsPooledBuffer());
+        assertEquals(0, bufferPool.freeBuffers());
+
+        theChannelIsClosed();
+        endPoint.poll();
+
+        verifyDisconnected(REMOTE_DISCONNECT);
+        assertFalse(endPoint.ownsPooledBuffer());
+        assertEquals(1, bufferPool.freeBuffers());
+    }
+
+    @Test
+    void shouldFrameMessageFromSharedBufferWhenBackpressured()
+    {
+        givenReceiverEndPoint(SESSION_ID, new ReceiveBufferPool(BUFFER_SIZE));
+        firstSaveAttemptIsBackPressured();
+
+        theEndpointReceivesACompleteMessage();
+        polls(-MSG_LEN);
+        assertTrue(endPoint.ownsPooledBuffer());
+
+        assertTrue(endPoint.retryFrameMessages());
+        assertFalse(endPoint.ownsPooledBuffer());
+
+        savesFramedMessages(2, OK, MSG_LEN);
+        sessionReceivesOneMessage();
+    }
+
     @Test
     void shouldFrameTwoCompleteFixMessagesInOnePacket()
     {
@@ -15,16 +15,20 @@
  */
 package uk.co.real_logic.artio.engine.framer;
 
+import org.agrona.ErrorHandler;
 import org.junit.Test;
+import uk.co.real_logic.artio.messages.DisconnectReason;
+import uk.co.real_logic.artio.protocol.GatewayPublication;
 
+import java.io.IOException;
 import java.util.Arrays;
 import java.util.function.LongConsumer;
 
-import static org.junit.Assert.assertArrayEquals;
-import static org.junit.Assert.assertSame;
+import static org.junit.Assert.*;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.when;
-import static uk.co.real_logic.artio.engine.framer.ReceiverEndPoints.disconnectILinkConnections;
+import static uk.co.real_logic.artio.engine.EngineConfiguration.NO_THROTTLE_WINDOW;
+import static uk.co.real_logic.artio.engine.framer.ReceiverEndPoints.*;
 
 public class ReceiverEndPointsTest
 {
@@ -70,6 +74,50 @@ public class ReceiverEndPointsTest
         assertSame(endPoints, result);
     }
 
+    @Test
+    public void shouldDirectlyPollFrequentlyActiveEndPoints() throws IOException
+    {
+        final StubReceiverEndPoint endPoint = new StubReceiverEndPoint();
+        try (ReceiverEndPoints receiverEndPoints = new ReceiverEndPoints(mock(ErrorHandler.class), true, null))
+        {
+            receiverEndPoints.add(endPoint);
+
+            readsInWindow(endPoint, HOT_READS_PER_WINDOW);
+            pollWindow(receiverEndPoints);
+            assertTrue(endPoint.hotPolled());
+
+            // Hysteresis: a quieter window that's still above the cold threshold stays hot
+            endPoint.bytesPerPoll = 0;
+            readsInWindow(endPoint, COLD_READS_PER_WINDOW + 1);
+            pollWindow(receiverEndPoints);
+            assertTrue(endPoint.hotPolled());
+            assertEquals(ADAPTIVE_POLLING_WINDOW, endPoint.polls);
+
+            pollWindow(receiverEndPoints);
+            assertFalse(endPoint.hotPolled());
+
+            endPoint.polls = 0;
+            receiverEndPoints.pollEndPoints();
+            assertEquals(0, endPoint.polls);
+        }
+    }
+
+    private void readsInWindow(final ReceiverEndPoint endPoint, final int reads)
+    {
+        for (int i = 0; i < reads; i++)
+        {
+            endPoint.onRead();
+        }
+    }
+
+    private void pollWindow(final ReceiverEndPoints receiverEndPoints)
+    {
+        for (int i = 0; i < ADAPTIVE_POLLING_WINDOW; i++)
+        {
+            receiverEndPoints.pollEndPoints();
+        }
+    }
+
     private ReceiverEndPoint[] makeEndPoints()
     {
         final ReceiverEndPoint[] endPoints = new ReceiverEndPoint[5];
@@ -85,4 +133,49 @@ public class ReceiverEndPointsTest
     {
         when(endPoints[i].libraryId()).thenReturn(LIBRARY_ID);
     }
+
+    static class StubReceiverEndPoint extends ReceiverEndPoint
+    {
+        int polls;
+        int bytesPerPoll = 10;
+
+        StubReceiverEndPoint()
+        {
+            super(mock(GatewayPublication.class), mock(TcpChannel.class), 1, 64, mock(ErrorHandler.class),
+                mock(Framer.class), LIBRARY_ID, NO_THROTTLE_WINDOW, NO_THROTTLE_WINDOW, null);
+        }
+
+        int poll()
+        {
+            polls++;
+            return bytesPerPoll;
+        }
+
+        void removeEndpointFromFramer()
+        {
+        }
+
+        boolean sendRejectedPendingLogon()
+        {
+            return true;
+        }
+
+        void cleanupDisconnectState(final DisconnectReason reason)
+        {
+        }
+
+        boolean retryFrameMessages()
+        {
+            return true;
+        }
+
+        boolean requiresAuthentication()
+        {
+            return false;
+        }
+
+        void closeResources()
+        {
+        }
+    }
 }
@@ -0,0 +1,125 @@
+/*
+ * Copyright 2022 Monotonic Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.co.real_logic.artio.engine.logger;
+
+import io.aeron.Image;
+import io.aeron.Subscription;
+import io.aeron.archive.client.AeronArchive;
+import org.junit.Before;
+import org.junit.Test;
+
+import static io.aeron.CommonContext.IPC_CHANNEL;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+public class ArchiveScanChunkTest
+{
+    private static final int STREAM_ID = 1;
+    private static final int REPLAY_STREAM_ID = 2;
+    private static final long RECORDING_ID = 3;
+    private static final long REPLAY_SESSION_ID = 4;
+
+    private final AeronArchive aeronArchive = mock(AeronArchive.class);
+    private final Subscription replaySubscription = mock(Subscription.class);
+    private final Image image = mock(Image.class);
+
+    private final ArchiveScanChunk chunk = new ArchiveScanChunk(
+        0,
+        aeronArchive,
+        replaySubscription,
+        FixMessagePredicates::alwaysTrue,
+        10,
+        STREAM_ID,
+        RECORDING_ID,
+        0,
+        1024);
+
+    @Before
+    public void setUp()
+    {
+        when(replaySubscription.streamId()).thenReturn(REPLAY_STREAM_ID);
+        when(aeronArchive.startReplay(anyLong(), anyLong(), anyLong(), anyString(), anyInt()))
+            .thenReturn(REPLAY_SESSION_ID);
+    }
+
+    @Test
+    public void shouldStopReplayWhenSubscriptionClosesBeforeImageIsAvailable()
+    {
+        when(replaySubscription.isClosed()).thenReturn(true);
+
+        chunk.invoke();
+
+        verify(aeronArchive).startReplay(RECORDING_ID, 0, 1024, IPC_CHANNEL, REPLAY_STREAM_ID);
+        verify(aeronArchive).stopReplay(REPLAY_SESSION_ID);
+        assertFalse(chunk.hasMatch());
+    }
+
+    @Test
+    public void shouldStopReplayWhenSubscriptionClosesWhilstPolling()
+    {
+        when(replaySubscription.imageBySessionId((int)REPLAY_SESSION_ID)).thenReturn(image);
+        when(image.poll(any(), anyInt())).thenAnswer(inv ->
+        {
+            when(replaySubscription.isClosed()).thenReturn(true);
+            return 0;
+        });
+
+        chunk.invoke();
+
+        verify(aeronArchive).stopReplay(REPLAY_SESSION_ID);
+    }
+
+    @Test
+    public void shouldStopReplayAndCompleteWhenAbandonedWhilstPolling()
+    {
+        when(replaySubscription.imageBySessionId((int)REPLAY_SESSION_ID)).thenReturn(image);
+        when(image.poll(any(), anyInt())).thenAnswer(inv ->
+        {
+            chunk.abandon();
+            return 0;
+        });
+
+        chunk.invoke();
+
+        verify(aeronArchive).stopReplay(REPLAY_SESSION_ID);
+        // Completing rather than being cancelled means that joining waits for the replay to be stopped
+        assertTrue(chunk.isCompletedNormally());
+    }
+
+    @Test
+    public void shouldNotStartReplayWhenAbandonedBeforeRunning()
+    {
+        chunk.abandon();
+
+        chunk.invoke();
+
+        verify(aeronArchive, never()).startReplay(anyLong(), anyLong(), anyLong(), anyString(), anyInt());
+        assertTrue(chunk.isCompletedNormally());
+    }
+
+    @Test
+    public void shouldNotStopReplayThatReachedItsEnd()
+    {
+        when(replaySubscription.imageBySessionId((int)REPLAY_SESSION_ID)).thenReturn(image);
+        when(image.position()).thenReturn(1024L);
+
+        chunk.invoke();
+
+        verify(aeronArchive, never()).stopReplay(anyLong());
+    }
+}
@@ -18,9 +18,12 @@ package uk.co.real_logic.artio.engine.logger;
 import org.junit.Test;
 import uk.co.real_logic.artio.decoder.SessionHeaderDecoder;
 import uk.co.real_logic.artio.dictionary.FixDictionary;
+import uk.co.real_logic.artio.util.MessageTypeEncoding;
 
 import java.util.function.Predicate;
 
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.containsInAnyOrder;
 import static org.junit.Assert.*;
 import static uk.co.real_logic.artio.engine.logger.FixMessagePredicates.*;
 
@@ -46,4 +49,49 @@ public class ArchiveScanPlannerTest
         assertEquals(epochStartTimeInNs, indexQuery.beginTimestampInclusive());
         assertEquals(epochEndTimeInNs, indexQuery.endTimestampExclusive());
     }
+
+    @Test
+    public void shouldPushDownSessionAndMessageTypePredicates()
+    {
+        final FixMessagePredicate predicate = sessionOf(1L)
+            .and(messageTypeOf("D", "8"))
+            .and(messageTypeOf("8"));
+
+        final IndexQuery indexQuery = ArchiveScanPlanner.extractIndexQuery(filterBy(consumer(), predicate));
+
+        assertTrue(indexQuery.needsPostings());
+        assertThat(indexQuery.sessionIds(), containsInAnyOrder(1L));
+        assertThat(indexQuery.messageTypes(), containsInAnyOrder(MessageTypeEncoding.packMessageType("8")));
+        assertEquals(IndexQuery.NO_BEGIN, indexQuery.beginTimestampInclusive());
+        assertEquals(IndexQuery.NO_END, indexQuery.endTimestampExclusive());
+    }
+
+    @Test
+    public void shouldUnionSessionsOfOrPredicates()
+    {
+        final FixMessagePredicate predicate = sessionOf(1L).or(sessionOf(2L));
+
+        final IndexQuery indexQuery = ArchiveScanPlanner.extractIndexQuery(filterBy(consumer(), predicate));
+
+        assertThat(indexQuery.sessionIds(), containsInAnyOrder(1L, 2L));
+        assertNull(indexQuery.messageTypes());
+    }
+
+    @Test
+    public void shouldNotPushDownOrWithUnindexedPredicate()
+    {
+        final FixMessagePredicate predicate = sessionOf(1L).or(alwaysTrue()).and(from(100));
+
+        final IndexQuery indexQuery = ArchiveScanPlanner.extractIndexQuery(filterBy(consumer(), predicate));
+
+        assertFalse(indexQuery.needsPostings());
+        assertEquals(100, indexQuery.beginTimestampInclusive());
+    }
+
+    private static FixMessageConsumer consumer()
+    {
+        return (message, buffer, offset, length, header) ->
+        {
+        };
+    }
 }
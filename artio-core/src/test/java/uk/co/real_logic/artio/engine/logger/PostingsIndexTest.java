@@ -0,0 +1,244 @@
+/*
+ * Copyright 2015-2024 Real Logic Limited.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.co.real_logic.artio.engine.logger;
+
+import org.agrona.ErrorHandler;
+import org.agrona.IoUtil;
+import org.agrona.collections.Long2ObjectHashMap;
+import org.agrona.collections.LongHashSet;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import uk.co.real_logic.artio.dictionary.generation.Exceptions;
+
+import java.io.File;
+
+import static org.junit.Assert.*;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static uk.co.real_logic.artio.engine.EngineConfiguration.*;
+
+public class PostingsIndexTest
+{
+    private static final int REC_ID = 1;
+    private static final long INTERVAL_IN_NS = DEFAULT_TIME_INDEX_FLUSH_INTERVAL_IN_NS;
+    private static final int LENGTH = 64;
+    private static final long SESSION_ID = 10;
+    private static final long OTHER_SESSION_ID = 11;
+    private static final long MESSAGE_TYPE = 'D';
+    private static final long OTHER_MESSAGE_TYPE = '8';
+
+    private final ErrorHandler errorHandler = spy(new ErrorHandler()
+    {
+        public void onError(final Throwable throwable)
+        {
+            throwable.printStackTrace();
+        }
+    });
+
+    private final PostingsIndexReader reader = new PostingsIndexReader(
+        DEFAULT_LOG_FILE_DIR, DEFAULT_OUTBOUND_LIBRARY_STREAM);
+    private final IndexQuery query = new IndexQuery();
+
+    private PostingsIndexWriter writer;
+    private long position;
+    private long timestampInNs;
+
+    @After
+    public void teardown()
+    {
+        verifyNoInteractions(errorHandler);
+        Exceptions.closeAll(writer);
+    }
+
+    @Before
+    public void setup()
+    {
+        final File logFileDir = new File(DEFAULT_LOG_FILE_DIR);
+        if (logFileDir.exists())
+        {
+            IoUtil.delete(logFileDir, false);
+        }
+        assertTrue(logFileDir.mkdirs());
+
+        newWriter();
+    }
+
+    @Test
+    public void shouldNarrowToBucketsContainingSession()
+    {
+        writeBucket(OTHER_SESSION_ID, OTHER_MESSAGE_TYPE);
+        final long matchStart = position;
+        writeBucket(SESSION_ID, MESSAGE_TYPE);
+        final long matchEnd = position;
+        writeBucket(OTHER_SESSION_ID, MESSAGE_TYPE);
+        writer.close();
+
+        query.sessionIds(setOf(SESSION_ID));
+
+        assertPositions(matchStart, matchEnd);
+    }
+
+    @Test
+    public void shouldRequireBothSessionAndMessageType()
+    {
+        writeBucket(SESSION_ID, OTHER_MESSAGE_TYPE);
+        final long matchStart = position;
+        writeBucket(SESSION_ID, MESSAGE_TYPE);
+        final long matchEnd = position;
+        writeBucket(OTHER_SESSION_ID, MESSAGE_TYPE);
+        writer.close();
+
+        query.sessionIds(setOf(SESSION_ID));
+        query.messageTypes(setOf(MESSAGE_TYPE));
+
+        assertPositions(matchStart, matchEnd);
+    }
+
+    @Test
+    public void shouldSplitIntoRangePerRunOfMatchingBuckets()
+    {
+        final long firstMatchStart = position;
+        writeBucket(SESSION_ID, MESSAGE_TYPE);
+        writeBucket(SESSION_ID, MESSAGE_TYPE);
+        final long firstMatchEnd = position;
+        writeBucket(OTHER_SESSION_ID, MESSAGE_TYPE);
+        final long secondMatchStart = position;
+        writeBucket(SESSION_ID, MESSAGE_TYPE);
+        final long secondMatchEnd = position;
+        writeBucket(OTHER_SESSION_ID, MESSAGE_TYPE);
+        writer.close();
+
+        query.sessionIds(setOf(SESSION_ID));
+
+        final PositionRange positionRange = narrowPositionRange().get(REC_ID);
+        assertNotNull(positionRange);
+        assertPositions(positionRange, firstMatchStart, firstMatchEnd);
+        final PositionRange nextPositionRange = positionRange.next();
+        assertNotNull(positionRange.toString(), nextPositionRange);
+        assertPositions(nextPositionRange, secondMatchStart, secondMatchEnd);
+        assertNull(positionRange.toString(), nextPositionRange.next());
+    }
+
+    @Test
+    public void shouldNarrowRangesToTimeRange()
+    {
+        writeBucket(SESSION_ID, MESSAGE_TYPE);
+        writeBucket(OTHER_SESSION_ID, MESSAGE_TYPE);
+        final long secondMatchStart = position;
+        writeBucket(SESSION_ID, MESSAGE_TYPE);
+        final long secondMatchEnd = position;
+        writer.close();
+
+        query.sessionIds(setOf(SESSION_ID));
+
+        final Long2ObjectHashMap<PositionRange> recordingIdToPositionRange = new Long2ObjectHashMap<>();
+        final long timeRangeStart = secondMatchStart - LENGTH;
+        recordingIdToPositionRange.put(REC_ID, new PositionRange(timeRangeStart, Long.MAX_VALUE));
+        reader.narrowPositionRange(query, recordingIdToPositionRange);
+
+        final PositionRange positionRange = recordingIdToPositionRange.get(REC_ID);
+        assertNotNull(positionRange);
+        assertPositions(positionRange, secondMatchStart, secondMatchEnd);
+        assertNull(positionRange.toString(), positionRange.next());
+    }
+
+    @Test
+    public void shouldRemoveRecordingWithoutMatches()
+    {
+        writeBucket(OTHER_SESSION_ID, MESSAGE_TYPE);
+        writer.close();
+
+        query.sessionIds(setOf(SESSION_ID));
+
+        assertTrue(narrowPositionRange().isEmpty());
+    }
+
+    @Test
+    public void shouldIncludeUnindexedTailOfOpenRecording()
+    {
+        writeBucket(OTHER_SESSION_ID, MESSAGE_TYPE);
+        final long tailStart = position;
+        writeBucket(OTHER_SESSION_ID, MESSAGE_TYPE);
+
+        query.sessionIds(setOf(SESSION_ID));
+
+        assertPositions(tailStart, Long.MAX_VALUE);
+    }
+
+    @Test
+    public void shouldIncludeFirstBucketAfterReload()
+    {
+        writeBucket(OTHER_SESSION_ID, MESSAGE_TYPE);
+        final long reloadPosition = position;
+        writer.close();
+        newWriter();
+        writeBucket(OTHER_SESSION_ID, MESSAGE_TYPE);
+        final long resumedEnd = position;
+        writeBucket(OTHER_SESSION_ID, MESSAGE_TYPE);
+        writer.close();
+
+        query.sessionIds(setOf(SESSION_ID));
+
+        assertPositions(reloadPosition, resumedEnd);
+    }
+
+    private void newWriter()
+    {
+        writer = new PostingsIndexWriter(
+            DEFAULT_LOG_FILE_DIR, DEFAULT_OUTBOUND_LIBRARY_STREAM, INTERVAL_IN_NS, errorHandler);
+    }
+
+    private void writeBucket(final long sessionId, final long messageType)
+    {
+        timestampInNs += INTERVAL_IN_NS;
+        for (int i = 0; i < 3; i++)
+        {
+            position += LENGTH;
+            writer.onMessage(REC_ID, position, LENGTH, sessionId, messageType, timestampInNs + i, false);
+        }
+    }
+
+    private Long2ObjectHashMap<PositionRange> narrowPositionRange()
+    {
+        final Long2ObjectHashMap<PositionRange> recordingIdToPositionRange = new Long2ObjectHashMap<>();
+        recordingIdToPositionRange.put(REC_ID, new PositionRange(0, Long.MAX_VALUE));
+        reader.narrowPositionRange(query, recordingIdToPositionRange);
+        return recordingIdToPositionRange;
+    }
+
+    private void assertPositions(final long startPosition, final long endPosition)
+    {
+        final PositionRange positionRange = narrowPositionRange().get(REC_ID);
+        assertNotNull(positionRange);
+        assertPositions(positionRange, startPosition, endPosition);
+        assertNull(positionRange.toString(), positionRange.next());
+    }
+
+    private static void assertPositions(
+        final PositionRange positionRange, final long startPosition, final long endPosition)
+    {
+        assertEquals(positionRange.toString(), startPosition, positionRange.startPosition());
+        assertEquals(positionRange.toString(), endPosition, positionRange.endPosition());
+    }
+
+    private static LongHashSet setOf(final long value)
+    {
+        final LongHashSet set = new LongHashSet();
+        set.add(value);
+        return set;
+    }
+}
@@ -0,0 +1,151 @@
+/*
+ * Copyright 2015-2024 Real Logic Limited.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.co.real_logic.artio.engine.logger;
+
+import org.agrona.concurrent.UnsafeBuffer;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static uk.co.real_logic.artio.engine.logger.ReplayIndexDescriptor.RECORD_LENGTH;
+import static uk.co.real_logic.artio.engine.logger.ReplayIndexSeekTable.SEEK_INTERVAL;
+import static uk.co.real_logic.artio.engine.logger.ReplayIndexSeekTable.key;
+
+public class ReplayIndexSeekTableTest
+{
+    private static final long INDEX_FILE_SIZE = 4 * SEEK_INTERVAL;
+    private static final int SEQUENCE_INDEX = 0;
+
+    private final UnsafeBuffer buffer = new UnsafeBuffer(new byte[ReplayIndexSeekTable.fileSize(INDEX_FILE_SIZE)]);
+
+    private ReplayIndexSeekTable seekTable;
+    private long position;
+
+    @Before
+    public void setUp()
+    {
+        seekTable = new ReplayIndexSeekTable(buffer, INDEX_FILE_SIZE);
+        seekTable.reset();
+    }
+
+    @Test
+    public void shouldStartAtOldestPositionWhenNothingIndexed()
+    {
+        assertEquals(0, seek(1, SEQUENCE_INDEX));
+    }
+
+    @Test
+    public void shouldSeekToLatestEntryBeforeBeginKey()
+    {
+        indexRecords(1, 256, SEQUENCE_INDEX);
+
+        assertEquals(0, seek(1, SEQUENCE_INDEX));
+        assertEquals(0, seek(64, SEQUENCE_INDEX));
+        assertEquals(SEEK_INTERVAL, seek(65, SEQUENCE_INDEX));
+        assertEquals(2 * SEEK_INTERVAL, seek(150, SEQUENCE_INDEX));
+        assertEquals(3 * SEEK_INTERVAL, seek(256, SEQUENCE_INDEX));
+        assertEquals(3 * SEEK_INTERVAL, seek(1000, SEQUENCE_INDEX));
+    }
+
+    @Test
+    public void shouldSeekAcrossSequenceIndices()
+    {
+        indexRecords(1, 128, SEQUENCE_INDEX);
+        indexRecords(1, 128, SEQUENCE_INDEX + 1);
+
+        assertEquals(2 * SEEK_INTERVAL, seek(1, SEQUENCE_INDEX + 1));
+        assertEquals(3 * SEEK_INTERVAL, seek(70, SEQUENCE_INDEX + 1));
+        assertEquals(SEEK_INTERVAL, seek(100, SEQUENCE_INDEX));
+    }
+
+    @Test
+    public void shouldNotSkipRecordsWhenSequenceNumbersGoBackwards()
+    {
+        indexRecords(1, 100, SEQUENCE_INDEX);
+        indexRecords(1, 156, SEQUENCE_INDEX);
+
+        // Sequence number 50 occurs twice and the first one needs to be read
+        assertEquals(0, seek(50, SEQUENCE_INDEX));
+        assertEquals(3 * SEEK_INTERVAL, seek(101, SEQUENCE_INDEX));
+    }
+
+    @Test
+    public void shouldOnlySeekWithinTheIndexRing()
+    {
+        indexRecords(1, 1000, SEQUENCE_INDEX);
+
+        final long oldestPosition = position - INDEX_FILE_SIZE;
+        assertEquals(oldestPosition, seek(1, SEQUENCE_INDEX, oldestPosition));
+        assertEquals(positionOf(769), seek(800, SEQUENCE_INDEX, oldestPosition));
+        assertEquals(positionOf(897), seek(900, SEQUENCE_INDEX, oldestPosition));
+    }
+
+    @Test
+    public void shouldReturnOldestPositionWhenLappedDuringSeek()
+    {
+        indexRecords(1, 256, SEQUENCE_INDEX);
+        final long changePosition = position;
+
+        indexRecords(257, 384, SEQUENCE_INDEX);
+
+        assertEquals(0, seekTable.seek(0, changePosition, key(SEQUENCE_INDEX, 200)));
+    }
+
+    @Test
+    public void shouldContinueFromHighestKeyAfterRestart()
+    {
+        indexRecords(1, 100, SEQUENCE_INDEX);
+
+        seekTable = new ReplayIndexSeekTable(buffer, INDEX_FILE_SIZE);
+        seekTable.load();
+        indexRecords(1, 156, SEQUENCE_INDEX);
+
+        assertEquals(0, seek(50, SEQUENCE_INDEX));
+        assertEquals(3 * SEEK_INTERVAL, seek(101, SEQUENCE_INDEX));
+    }
+
+    @Test
+    public void shouldOrderKeysBySequenceIndexThenSequenceNumber()
+    {
+        assertEquals(-1, Long.signum(key(0, Integer.MAX_VALUE) - key(1, -1)));
+        assertEquals(-1, Long.signum(key(0, -1) - key(0, 0)));
+        assertEquals(-1, Long.signum(key(-1, Integer.MAX_VALUE) - key(0, Integer.MIN_VALUE)));
+    }
+
+    private void indexRecords(final int fromSequenceNumber, final int toSequenceNumber, final int sequenceIndex)
+    {
+        for (int sequenceNumber = fromSequenceNumber; sequenceNumber <= toSequenceNumber; sequenceNumber++)
+        {
+            seekTable.onRecord(position, sequenceIndex, sequenceNumber);
+            position += RECORD_LENGTH;
+        }
+    }
+
+    private static long positionOf(final int sequenceNumber)
+    {
+        return (long)(sequenceNumber - 1) * RECORD_LENGTH;
+    }
+
+    private long seek(final int sequenceNumber, final int sequenceIndex)
+    {
+        return seek(sequenceNumber, sequenceIndex, 0);
+    }
+
+    private long seek(final int sequenceNumber, final int sequenceIndex, final long oldestPosition)
+    {
+        return seekTable.seek(oldestPosition, position, key(sequenceIndex, sequenceNumber));
+    }
+}
@@ -101,6 +101,7 @@ public class ReplayIndexTest extends AbstractLogTest
     private ExclusivePublication publication;
     private Subscription subscription;
     private RecordingIdLookup recordingIdLookup;
+    private boolean compressionEnabled = DEFAULT_REPLAY_INDEX_COMPRESSION_ENABLED;
 
     private void newReplayIndex()
     {
@@ -119,6 +120,7 @@ public class ReplayIndexTest extends AbstractLogTest
             mock(SequenceNumberIndexReader.class),
             DEFAULT_TIME_INDEX_FLUSH_INTERVAL_IN_NS,
             DEFAULT_INDEX_CHECKSUM_ENABLED,
+            compressionEnabled,
             new ReplayEvictionHandler(errorHandler));
     }
 
@@ -160,7 +162,8 @@ public class ReplayIndexTest extends AbstractLogTest
             NoOpReplayQueryListener.INSTANCE,
             DEFAULT_ARCHIVE_REPLAY_STREAM,
             DEFAULT_REPLAY_INDEX_RECORD_CAPACITY,
-            DEFAULT_REPLAY_INDEX_SEGMENT_CAPACITY);
+            DEFAULT_REPLAY_INDEX_SEGMENT_CAPACITY,
+            false);
     }
 
     @After
@@ -475,6 +478,106 @@ public class ReplayIndexTest extends AbstractLogTest
         assertFalse(segmentFile(SESSION_ID, 3).exists());
     }
 
+    @Test(timeout = 20_000L)
+    public void shouldReturnRecordsMatchingQueryFromCompressedIndex()
+    {
+        restartWithCompression(true);
+
+        indexExampleMessage();
+
+        final int msgCount = query();
+
+        verifyMappedFile(SESSION_ID, 1);
+        verifyMessagesRead(1);
+        assertEquals(1, msgCount);
+    }
+
+    @Test(timeout = 20_000L)
+    public void shouldQueryCompressedIndexAcrossBlocksAndSequenceIndices()
+    {
+        restartWithCompression(true);
+
+        final int nextSequenceIndex = SEQUENCE_INDEX + 1;
+        final int recordsPerIndex = 200;
+        for (int seqNum = 1; seqNum <= recordsPerIndex; seqNum++)
+        {
+            indexExampleMessage(SESSION_ID, seqNum, SEQUENCE_INDEX);
+        }
+        for (int seqNum = 1; seqNum <= recordsPerIndex; seqNum++)
+        {
+            indexExampleMessage(SESSION_ID, seqNum, nextSequenceIndex);
+        }
+
+        assertEquals(recordsPerIndex + 10, query(1, SEQUENCE_INDEX, 10, nextSequenceIndex));
+        assertEquals(51, query(150, nextSequenceIndex, MOST_RECENT_MESSAGE, nextSequenceIndex));
+        assertEquals(101, query(100, SEQUENCE_INDEX, 200, SEQUENCE_INDEX));
+        assertEquals(0, query(201, nextSequenceIndex, MOST_RECENT_MESSAGE, nextSequenceIndex));
+    }
+
+    @Test(timeout = 20_000L)
+    public void shouldReadCompressedRecordsFromBeforeARestart()
+    {
+        restartWithCompression(true);
+
+        indexExampleMessage(SESSION_ID, 1, SEQUENCE_INDEX);
+        indexExampleMessage(SESSION_ID, 2, SEQUENCE_INDEX);
+
+        replayIndex.close();
+        newReplayIndex();
+
+        indexExampleMessage(SESSION_ID, 3, SEQUENCE_INDEX);
+
+        final int msgCount = query(1, SEQUENCE_INDEX, MOST_RECENT_MESSAGE, SEQUENCE_INDEX);
+
+        verifyMessagesRead(3);
+        assertEquals(3, msgCount);
+    }
+
+    @Test(timeout = 20_000L)
+    public void shouldKeepTheFormatOfAnExistingIndex()
+    {
+        indexExampleMessage(SESSION_ID, 1, SEQUENCE_INDEX);
+
+        restartWithCompression(true);
+        indexExampleMessage(SESSION_ID, 2, SEQUENCE_INDEX);
+        indexExampleMessage(SESSION_ID_2, 1, SEQUENCE_INDEX);
+
+        restartWithCompression(false);
+        indexExampleMessage(SESSION_ID, 3, SEQUENCE_INDEX);
+        indexExampleMessage(SESSION_ID_2, 2, SEQUENCE_INDEX);
+
+        assertEquals(3, query(SESSION_ID, 1, SEQUENCE_INDEX, MOST_RECENT_MESSAGE, SEQUENCE_INDEX));
+        assertEquals(2, query(SESSION_ID_2, 1, SEQUENCE_INDEX, MOST_RECENT_MESSAGE, SEQUENCE_INDEX));
+    }
+
+    @Test(timeout = 20_000L)
+    public void shouldIndexMoreRecordsPerSegmentWhenCompressed()
+    {
+        restartWithCompression(true);
+
+        final int recordCount = DEFAULT_REPLAY_INDEX_SEGMENT_CAPACITY + 1;
+        for (int seqNum = 1; seqNum <= recordCount; seqNum++)
+        {
+            indexExampleMessage(SESSION_ID, seqNum, SEQUENCE_INDEX);
+        }
+
+        assertTrue(segmentFile(SESSION_ID, 0).exists());
+        assertFalse(segmentFile(SESSION_ID, 1).exists());
+
+        assertEquals(recordCount, query(1, SEQUENCE_INDEX, MOST_RECENT_MESSAGE, SEQUENCE_INDEX));
+
+        final Long2LongHashMap startPositions = new Long2LongHashMap(NULL_VALUE);
+        query.queryStartPositions(startPositions);
+        assertThat(startPositions, hasEntry(0L, 0L));
+    }
+
+    private void restartWithCompression(final boolean compressionEnabled)
+    {
+        replayIndex.close();
+        this.compressionEnabled = compressionEnabled;
+        newReplayIndex();
+    }
+
     private void resetSequenceNumber()
     {
         final int offset = START;
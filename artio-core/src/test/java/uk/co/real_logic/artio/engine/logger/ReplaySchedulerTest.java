@@ -0,0 +1,135 @@
+/*
+ * Copyright 2015-2024 Real Logic Limited, Adaptive Financial Consulting Ltd., Monotonic Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.co.real_logic.artio.engine.logger;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.mockito.Mockito.*;
+import static uk.co.real_logic.artio.engine.logger.ReplayOperation.NO_POLL_LIMIT;
+
+public class ReplaySchedulerTest
+{
+    private static final int CHUNK_SIZE = 4096;
+    private static final int RATE = 1024 * 1024;
+    private static final long START_TIME_IN_NS = 1_000_000_000L;
+
+    private final ReplayerSession largeSession = mockSession(10_000_000);
+    private final ReplayerSession smallSession = mockSession(512);
+
+    @Test
+    public void shouldPollShortestRemainingReplayFirst()
+    {
+        final ReplayScheduler scheduler = new ReplayScheduler(CHUNK_SIZE, 0);
+        final ReplayChannel largeChannel = newChannel(scheduler, 1, largeSession);
+        final ReplayChannel smallChannel = newChannel(scheduler, 2, smallSession);
+
+        final List<ReplayChannel> channels = scheduler.schedule(
+            Arrays.asList(largeChannel, smallChannel), START_TIME_IN_NS);
+
+        assertEquals(2, channels.size());
+        assertSame(smallChannel, channels.get(0));
+        assertSame(largeChannel, channels.get(1));
+    }
+
+    @Test
+    public void shouldLimitEachReplayToAChunkPerDutyCycle()
+    {
+        final ReplayScheduler scheduler = new ReplayScheduler(CHUNK_SIZE, 0);
+        final ReplayChannel channel = newChannel(scheduler, 1, largeSession);
+        when(largeSession.polledBytes()).thenReturn((long)CHUNK_SIZE);
+
+        for (int i = 0; i < 3; i++)
+        {
+            scheduler.schedule(Arrays.asList(channel), START_TIME_IN_NS + i);
+            assertFalse(scheduler.attemptReplay(channel));
+        }
+
+        verify(largeSession, times(3)).pollLimitInBytes(CHUNK_SIZE);
+    }
+
+    @Test
+    public void shouldLimitEachReplayToTheSessionRate()
+    {
+        final ReplayScheduler scheduler = new ReplayScheduler(CHUNK_SIZE, RATE);
+        final ReplayChannel channel = newChannel(scheduler, 1, largeSession);
+        when(largeSession.polledBytes()).thenReturn((long)CHUNK_SIZE);
+
+        scheduler.schedule(Arrays.asList(channel), START_TIME_IN_NS);
+        scheduler.attemptReplay(channel);
+        verify(largeSession).pollLimitInBytes(CHUNK_SIZE);
+
+        // A millisecond later the bucket only holds a millisecond's worth of bytes
+        when(largeSession.polledBytes()).thenReturn(0L);
+        scheduler.schedule(Arrays.asList(channel), START_TIME_IN_NS + 1_000_000);
+        scheduler.attemptReplay(channel);
+        verify(largeSession).pollLimitInBytes(RATE / 1000);
+
+        // And after a second it holds no more than a chunk
+        scheduler.schedule(Arrays.asList(channel), START_TIME_IN_NS + 2_000_000_000L);
+        scheduler.attemptReplay(channel);
+        verify(largeSession, times(2)).pollLimitInBytes(CHUNK_SIZE);
+    }
+
+    @Test
+    public void shouldNotPollReplayThatHasOverdrawnItsBudget()
+    {
+        final ReplayScheduler scheduler = new ReplayScheduler(CHUNK_SIZE, RATE);
+        final ReplayChannel channel = newChannel(scheduler, 1, largeSession);
+        when(largeSession.polledBytes()).thenReturn(2L * CHUNK_SIZE);
+
+        scheduler.schedule(Arrays.asList(channel), START_TIME_IN_NS);
+        scheduler.attemptReplay(channel);
+        scheduler.schedule(Arrays.asList(channel), START_TIME_IN_NS + 1_000_000);
+        scheduler.attemptReplay(channel);
+
+        verify(largeSession).pollLimitInBytes(0);
+    }
+
+    @Test
+    public void shouldNotLimitReplaysWhenDisabled()
+    {
+        final ReplayScheduler scheduler = new ReplayScheduler(0, 0);
+        final ReplayChannel largeChannel = newChannel(scheduler, 1, largeSession);
+        final ReplayChannel smallChannel = newChannel(scheduler, 2, smallSession);
+
+        final List<ReplayChannel> channels = scheduler.schedule(
+            Arrays.asList(largeChannel, smallChannel), START_TIME_IN_NS);
+        assertSame(largeChannel, channels.get(0));
+
+        scheduler.attemptReplay(largeChannel);
+        verify(largeSession).pollLimitInBytes(NO_POLL_LIMIT);
+        verify(largeSession, never()).remainingBytes();
+    }
+
+    private static ReplayChannel newChannel(
+        final ReplayScheduler scheduler, final long connectionId, final ReplayerSession session)
+    {
+        return new ReplayChannel(connectionId, session, START_TIME_IN_NS, scheduler.initialBudgetInBytes());
+    }
+
+    private static ReplayerSession mockSession(final long remainingBytes)
+    {
+        final ReplayerSession session = mock(ReplayerSession.class);
+        when(session.remainingBytes()).thenReturn(remainingBytes);
+        return session;
+    }
+}
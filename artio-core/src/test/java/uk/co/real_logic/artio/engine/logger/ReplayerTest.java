@@ -35,6 +35,7 @@ import org.mockito.stubbing.Answer;
 import org.mockito.stubbing.OngoingStubbing;
 import org.mockito.verification.VerificationMode;
 import uk.co.real_logic.artio.Constants;
+import uk.co.real_logic.artio.FixCounters;
 import uk.co.real_logic.artio.builder.Encoder;
 import uk.co.real_logic.artio.decoder.ExampleMessageDecoder;
 import uk.co.real_logic.artio.decoder.HeaderDecoder;
@@ -97,6 +98,7 @@ public class ReplayerTest extends AbstractLogTest
     private final ReplayOperation replayOperation = mock(ReplayOperation.class);
     private final AtomicCounter bytesInBufferCounter = mock(AtomicCounter.class);
     private final AtomicCounter currentReplayCounter = mock(AtomicCounter.class);
+    private final FixCounters fixCounters = mock(FixCounters.class);
 
     private Replayer replayer;
     private boolean sendsStartReplay = true;
@@ -113,6 +115,9 @@ public class ReplayerTest extends AbstractLogTest
             .thenReturn(replayOperation);
         when(replayOperation.pollReplay()).thenReturn(true);
         when(senderSequenceNumbers.bytesInBufferCounter(anyLong())).thenReturn(bytesInBufferCounter);
+        when(fixCounters.currentReplayCount()).thenReturn(currentReplayCounter);
+        when(fixCounters.enqueuedReplayCount()).thenReturn(mock(AtomicCounter.class));
+        when(fixCounters.replayLatency(anyLong(), anyLong())).thenReturn(mock(AtomicCounter.class));
 
         setReplayedMessages(1);
 
@@ -134,11 +139,12 @@ public class ReplayerTest extends AbstractLogTest
             DEFAULT_SENDER_MAX_BYTES_IN_BUFFER,
             mock(ReplayerCommandQueue.class),
             EpochFractionFormat.MILLISECONDS,
-            currentReplayCounter,
+            fixCounters,
             DEFAULT_MAX_CONCURRENT_SESSION_REPLAYS,
             clock,
             FixPProtocolType.ILINK_3,
-            mock(EngineConfiguration.class));
+            mock(EngineConfiguration.class),
+            null);
     }
 
     private void setReplayedMessages(final int replayedMessages)
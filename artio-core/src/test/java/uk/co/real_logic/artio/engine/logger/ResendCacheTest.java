@@ -0,0 +1,144 @@
+/*
+ * Copyright 2015-2024 Real Logic Limited.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.co.real_logic.artio.engine.logger;
+
+import io.aeron.logbuffer.ControlledFragmentHandler;
+import io.aeron.logbuffer.Header;
+import io.aeron.protocol.DataHeaderFlyweight;
+import org.agrona.concurrent.EpochNanoClock;
+import org.agrona.concurrent.status.AtomicCounter;
+import org.junit.Before;
+import org.junit.Test;
+
+import static io.aeron.logbuffer.ControlledFragmentHandler.Action.ABORT;
+import static io.aeron.logbuffer.ControlledFragmentHandler.Action.CONTINUE;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static org.junit.Assert.*;
+import static org.mockito.Mockito.*;
+
+public class ResendCacheTest extends AbstractLogTest
+{
+    private static final int MAX_MESSAGES = 4;
+    private static final int MAX_AGE_IN_MS = 1000;
+    private static final long START_TIME_IN_NS = MILLISECONDS.toNanos(5000);
+
+    private final Header fragmentHeader = mock(Header.class);
+    private final EpochNanoClock clock = mock(EpochNanoClock.class);
+    private final AtomicCounter hits = mock(AtomicCounter.class);
+    private final AtomicCounter misses = mock(AtomicCounter.class);
+    private final ControlledFragmentHandler handler = mock(ControlledFragmentHandler.class);
+    private final ResendCache resendCache = new ResendCache(
+        STREAM_ID, MAX_MESSAGES, BIG_BUFFER_LENGTH, MAX_AGE_IN_MS, clock, hits, misses);
+
+    @Before
+    public void setUp()
+    {
+        when(fragmentHeader.streamId()).thenReturn(STREAM_ID);
+        when(fragmentHeader.flags()).thenReturn((byte)DataHeaderFlyweight.BEGIN_AND_END_FLAGS);
+        when(clock.nanoTime()).thenReturn(START_TIME_IN_NS);
+        when(handler.onFragment(any(), anyInt(), anyInt(), any())).thenReturn(CONTINUE);
+    }
+
+    @Test
+    public void shouldReplayContiguousRangeOfSentMessages()
+    {
+        sendMessages(1, 3);
+
+        final ResendCache.CachedReplay cachedReplay = resendCache.lookup(SESSION_ID, SEQUENCE_INDEX, 2, 3);
+
+        assertNotNull(cachedReplay);
+        verify(hits).incrementOrdered();
+        assertTrue(cachedReplay.poll(handler));
+        assertEquals(2, cachedReplay.replayedMessages());
+        verify(handler, times(2)).onFragment(any(), anyInt(), eq(fragmentLength()), any());
+    }
+
+    @Test
+    public void shouldRetryBackPressuredMessage()
+    {
+        sendMessages(1, 2);
+        final ResendCache.CachedReplay cachedReplay = resendCache.lookup(SESSION_ID, SEQUENCE_INDEX, 1, 2);
+        when(handler.onFragment(any(), anyInt(), anyInt(), any())).thenReturn(CONTINUE, ABORT, CONTINUE);
+
+        assertFalse(cachedReplay.poll(handler));
+        assertEquals(1, cachedReplay.replayedMessages());
+        assertTrue(cachedReplay.poll(handler));
+        assertEquals(2, cachedReplay.replayedMessages());
+    }
+
+    @Test
+    public void shouldMissRangesNotInCache()
+    {
+        sendMessages(1, 2);
+        sendMessages(4, 5);
+
+        assertMiss(1, 2);
+        assertMiss(3, 4);
+        assertMiss(5, 6);
+        assertMiss(5, Replayer.MOST_RECENT_MESSAGE);
+        assertNull(resendCache.lookup(SESSION_ID_2, SEQUENCE_INDEX, 4, 5));
+        assertNotNull(resendCache.lookup(SESSION_ID, SEQUENCE_INDEX, 4, 5));
+    }
+
+    @Test
+    public void shouldEvictOldestMessagesBeyondMaxMessages()
+    {
+        sendMessages(1, MAX_MESSAGES + 1);
+
+        assertMiss(1, 2);
+        assertNotNull(resendCache.lookup(SESSION_ID, SEQUENCE_INDEX, 2, MAX_MESSAGES + 1));
+    }
+
+    @Test
+    public void shouldMissMessagesOlderThanMaxAge()
+    {
+        sendMessages(1, 1);
+        when(clock.nanoTime()).thenReturn(START_TIME_IN_NS + MILLISECONDS.toNanos(MAX_AGE_IN_MS / 2));
+        sendMessages(2, 2);
+        when(clock.nanoTime()).thenReturn(START_TIME_IN_NS + MILLISECONDS.toNanos(MAX_AGE_IN_MS + 1));
+
+        assertMiss(1, 2);
+        assertNotNull(resendCache.lookup(SESSION_ID, SEQUENCE_INDEX, 2, 2));
+    }
+
+    @Test
+    public void shouldMissAfterSequenceIndexChange()
+    {
+        sendMessages(1, 2);
+
+        bufferContainsExampleMessage(false, SESSION_ID, 1, SEQUENCE_INDEX + 1);
+        resendCache.onFragment(buffer, START, fragmentLength(), fragmentHeader);
+
+        assertMiss(1, 1);
+        assertNotNull(resendCache.lookup(SESSION_ID, SEQUENCE_INDEX + 1, 1, 1));
+    }
+
+    private void assertMiss(final int beginSeqNo, final int endSeqNo)
+    {
+        reset(misses);
+        assertNull(resendCache.lookup(SESSION_ID, SEQUENCE_INDEX, beginSeqNo, endSeqNo));
+        verify(misses).incrementOrdered();
+    }
+
+    private void sendMessages(final int beginSeqNo, final int endSeqNo)
+    {
+        for (int sequenceNumber = beginSeqNo; sequenceNumber <= endSeqNo; sequenceNumber++)
+        {
+            bufferContainsExampleMessage(false, SESSION_ID, sequenceNumber, SEQUENCE_INDEX);
+            resendCache.onFragment(buffer, START, fragmentLength(), fragmentHeader);
+        }
+    }
+}
@@ -0,0 +1,287 @@
+/*
+ * Copyright 2015-2024 Real Logic Limited, Adaptive Financial Consulting Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.co.real_logic.artio.engine.logger;
+
+import io.aeron.Aeron;
+import io.aeron.Image;
+import io.aeron.Subscription;
+import io.aeron.archive.client.AeronArchive;
+import io.aeron.logbuffer.ControlledFragmentHandler;
+import io.aeron.logbuffer.Header;
+import io.aeron.protocol.DataHeaderFlyweight;
+import org.agrona.DirectBuffer;
+import org.agrona.ErrorHandler;
+import org.agrona.concurrent.UnsafeBuffer;
+import org.agrona.concurrent.status.CountersReader;
+import org.junit.Before;
+import org.junit.Test;
+import uk.co.real_logic.artio.LogTag;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static io.aeron.CommonContext.IPC_CHANNEL;
+import static io.aeron.logbuffer.ControlledFragmentHandler.Action.ABORT;
+import static io.aeron.logbuffer.ControlledFragmentHandler.Action.CONTINUE;
+import static org.junit.Assert.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+public class SharedArchiveReplaysTest
+{
+    private static final long RECORDING_ID = 1;
+    private static final long OTHER_RECORDING_ID = 2;
+    private static final int ARCHIVE_REPLAY_STREAM = 3;
+    private static final long REPLAY_SESSION_ID = 4;
+    private static final long SESSION_ID = 5;
+
+    private final AeronArchive aeronArchive = mock(AeronArchive.class);
+    private final Subscription subscription = mock(Subscription.class);
+    private final Image image = mock(Image.class);
+    private final ErrorHandler errorHandler = mock(ErrorHandler.class);
+    private final UnsafeBuffer buffer = new UnsafeBuffer(new byte[64]);
+    private final List<Header> fragments = new ArrayList<>();
+    private final SharedArchiveReplays sharedReplays =
+        new SharedArchiveReplays(aeronArchive, errorHandler, ARCHIVE_REPLAY_STREAM);
+
+    private long imagePosition;
+
+    @Before
+    public void setUp()
+    {
+        final AeronArchive.Context context = mock(AeronArchive.Context.class);
+        final Aeron aeron = mock(Aeron.class);
+        when(aeronArchive.context()).thenReturn(context);
+        when(context.aeron()).thenReturn(aeron);
+        when(aeron.countersReader()).thenReturn(mock(CountersReader.class));
+        when(aeronArchive.startReplay(anyLong(), anyLong(), anyLong(), anyString(), anyInt()))
+            .thenReturn(REPLAY_SESSION_ID);
+
+        when(subscription.imageBySessionId((int)REPLAY_SESSION_ID)).thenReturn(image);
+        when(image.position()).thenAnswer(inv -> imagePosition);
+        when(image.controlledPoll(any(), anyInt())).thenAnswer(inv -> poll(inv.getArgument(0)));
+    }
+
+    @Test
+    public void shouldServeOverlappingRangesFromOneArchiveReplay()
+    {
+        final TestTracker trackerA = new TestTracker();
+        final TestTracker trackerB = new TestTracker();
+        final ReplayOperation operationA = newOperation(trackerA, RECORDING_ID, 0, 1024, 2);
+        final ReplayOperation operationB = newOperation(trackerB, RECORDING_ID, 512, 1024, 2);
+
+        assertFalse(operationA.pollReplay());
+        assertFalse(operationB.pollReplay());
+        assertEquals(1, sharedReplays.replayCount());
+
+        assertFalse(operationA.pollReplay());
+        verify(aeronArchive).startReplay(RECORDING_ID, 0, 1536, IPC_CHANNEL, ARCHIVE_REPLAY_STREAM);
+
+        addFragments(512, 1024, 1536);
+        assertTrue(operationA.pollReplay());
+        assertTrue(operationB.pollReplay());
+
+        assertEquals(Arrays.asList(512L, 1024L), trackerA.positions);
+        assertEquals(Arrays.asList(1024L, 1536L), trackerB.positions);
+        assertEquals(0, sharedReplays.replayCount());
+        verify(aeronArchive, times(1)).startReplay(anyLong(), anyLong(), anyLong(), anyString(), anyInt());
+        verify(aeronArchive, never()).stopReplay(anyLong());
+    }
+
+    @Test
+    public void shouldNotRedeliverFragmentsWhenAnotherOperationAborts()
+    {
+        final TestTracker trackerA = new TestTracker();
+        final TestTracker trackerB = new TestTracker();
+        final ReplayOperation operationA = newOperation(trackerA, RECORDING_ID, 0, 1280, 3);
+        final ReplayOperation operationB = newOperation(trackerB, RECORDING_ID, 512, 1024, 3);
+        startSharedReplay(operationA, operationB);
+
+        trackerB.abortOncePosition = 1024;
+        addFragments(512, 1024, 1280, 1536);
+        assertFalse(operationA.pollReplay());
+        assertEquals(512, imagePosition);
+
+        assertTrue(operationA.pollReplay());
+        assertTrue(operationB.pollReplay());
+
+        assertEquals(Arrays.asList(512L, 1024L, 1280L), trackerA.positions);
+        assertEquals(Arrays.asList(1024L, 1280L, 1536L), trackerB.positions);
+    }
+
+    @Test
+    public void shouldStartSeparateReplaysForDisjointRangesAndRecordings()
+    {
+        final ReplayOperation operationA = newOperation(new TestTracker(), RECORDING_ID, 0, 512, 1);
+        final ReplayOperation operationB = newOperation(new TestTracker(), RECORDING_ID, 1024, 512, 1);
+        final ReplayOperation operationC = newOperation(new TestTracker(), OTHER_RECORDING_ID, 0, 512, 1);
+
+        operationA.pollReplay();
+        operationB.pollReplay();
+        operationC.pollReplay();
+
+        assertEquals(3, sharedReplays.replayCount());
+    }
+
+    @Test
+    public void shouldOnlyJoinStartedReplayAheadOfItsPosition()
+    {
+        final TestTracker trackerA = new TestTracker();
+        final ReplayOperation operationA = newOperation(trackerA, RECORDING_ID, 0, 1536, 3);
+        startSharedReplay(operationA);
+        addFragments(512);
+        assertFalse(operationA.pollReplay());
+
+        final TestTracker trackerC = new TestTracker();
+        final ReplayOperation operationC = newOperation(trackerC, RECORDING_ID, 1024, 512, 1);
+        assertFalse(operationC.pollReplay());
+        assertEquals(1, sharedReplays.replayCount());
+
+        final ReplayOperation operationD = newOperation(new TestTracker(), RECORDING_ID, 0, 512, 1);
+        assertFalse(operationD.pollReplay());
+        assertEquals(2, sharedReplays.replayCount());
+
+        addFragments(1024, 1536);
+        assertTrue(operationA.pollReplay());
+        assertTrue(operationC.pollReplay());
+        assertEquals(Arrays.asList(1536L), trackerC.positions);
+    }
+
+    @Test
+    public void shouldStopReplayWhenLastOperationCloses()
+    {
+        final ReplayOperation operationA = newOperation(new TestTracker(), RECORDING_ID, 0, 1024, 2);
+        final ReplayOperation operationB = newOperation(new TestTracker(), RECORDING_ID, 512, 1024, 2);
+        startSharedReplay(operationA, operationB);
+
+        operationA.closeNow();
+        verify(aeronArchive, never()).stopReplay(anyLong());
+
+        operationB.startClose();
+        assertFalse(operationB.pollReplay());
+        verify(aeronArchive).stopReplay(REPLAY_SESSION_ID);
+    }
+
+    @Test
+    public void shouldStopReplayWhenLastOperationCompletesBeforeItsEnd()
+    {
+        final TestTracker trackerB = new TestTracker();
+        final ReplayOperation operationA = newOperation(new TestTracker(), RECORDING_ID, 0, 1024, 2);
+        final ReplayOperation operationB = newOperation(trackerB, RECORDING_ID, 0, 512, 1);
+        startSharedReplay(operationA, operationB);
+
+        operationA.closeNow();
+        assertEquals(1, sharedReplays.replayCount());
+
+        addFragments(512);
+        assertFalse(operationB.pollReplay());
+        assertEquals(Arrays.asList(512L), trackerB.positions);
+        assertEquals(0, sharedReplays.replayCount());
+        verify(aeronArchive, never()).stopReplay(anyLong());
+
+        assertFalse(operationB.pollReplay());
+        verify(aeronArchive).stopReplay(REPLAY_SESSION_ID);
+
+        when(image.isEndOfStream()).thenReturn(true);
+        assertTrue(operationB.pollReplay());
+    }
+
+    private void startSharedReplay(final ReplayOperation... operations)
+    {
+        for (final ReplayOperation operation : operations)
+        {
+            assertFalse(operation.pollReplay());
+        }
+        assertFalse(operations[0].pollReplay());
+    }
+
+    private ReplayOperation newOperation(
+        final TestTracker tracker, final long recordingId, final long position, final int length, final int count)
+    {
+        final RecordingRange range = new RecordingRange(recordingId, SESSION_ID);
+        range.add(position, length);
+        range.count = count;
+
+        final List<RecordingRange> ranges = new ArrayList<>();
+        ranges.add(range);
+
+        return new ReplayOperation(
+            ranges,
+            aeronArchive,
+            errorHandler,
+            subscription,
+            ARCHIVE_REPLAY_STREAM,
+            LogTag.REPLAY,
+            tracker,
+            sharedReplays);
+    }
+
+    private void addFragments(final long... positions)
+    {
+        for (final long position : positions)
+        {
+            final Header header = mock(Header.class);
+            when(header.flags()).thenReturn((byte)DataHeaderFlyweight.BEGIN_AND_END_FLAGS);
+            when(header.position()).thenReturn(position);
+            fragments.add(header);
+        }
+    }
+
+    private int poll(final ControlledFragmentHandler handler)
+    {
+        int fragmentsRead = 0;
+        while (!fragments.isEmpty())
+        {
+            final Header header = fragments.get(0);
+            if (handler.onFragment(buffer, 0, buffer.capacity(), header) == ABORT)
+            {
+                break;
+            }
+
+            fragments.remove(0);
+            imagePosition = header.position();
+            fragmentsRead++;
+        }
+
+        return fragmentsRead;
+    }
+
+    private static final class TestTracker extends MessageTracker
+    {
+        private final List<Long> positions = new ArrayList<>();
+        private long abortOncePosition = -1;
+
+        TestTracker()
+        {
+            super(LogTag.REPLAY, null);
+        }
+
+        public Action onFragment(final DirectBuffer buffer, final int offset, final int length, final Header header)
+        {
+            final long position = header.position();
+            if (position == abortOncePosition)
+            {
+                abortOncePosition = -1;
+                return ABORT;
+            }
+
+            positions.add(position);
+            count++;
+            return CONTINUE;
+        }
+    }
+}
@@ -37,6 +37,9 @@ import org.agrona.concurrent.YieldingIdleStrategy;
 import org.junit.After;
 import org.junit.Before;
 import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.Parameterized;
+import org.junit.runners.Parameterized.Parameters;
 import uk.co.real_logic.artio.CommonConfiguration;
 import uk.co.real_logic.artio.TestFixtures;
 import uk.co.real_logic.artio.dictionary.generation.Exceptions;
@@ -44,11 +47,15 @@ import uk.co.real_logic.artio.engine.EngineConfiguration;
 import uk.co.real_logic.artio.engine.SequenceNumberExtractor;
 import uk.co.real_logic.artio.messages.FixPProtocolType;
 import uk.co.real_logic.artio.session.Session;
+import uk.co.real_logic.artio.storage.messages.ReplayIndexBlockDecoder;
 
 import java.io.File;
 import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.Collection;
 
 import static io.aeron.Aeron.NULL_VALUE;
+import static io.aeron.protocol.DataHeaderFlyweight.HEADER_LENGTH;
 import static org.junit.Assert.assertEquals;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.spy;
@@ -56,11 +63,18 @@ import static uk.co.real_logic.artio.LogTag.REPLAY;
 import static uk.co.real_logic.artio.TestFixtures.aeronArchiveContext;
 import static uk.co.real_logic.artio.TestFixtures.cleanupMediaDriver;
 import static uk.co.real_logic.artio.engine.EngineConfiguration.*;
+import static uk.co.real_logic.artio.engine.logger.ReplayIndexDescriptor.BLOCK_LENGTH;
+import static uk.co.real_logic.artio.engine.logger.ReplayIndexDescriptor.MAX_ENCODED_RECORD_LENGTH;
+import static uk.co.real_logic.artio.engine.logger.ReplayIndexDescriptor.RECORD_LENGTH;
+import static uk.co.real_logic.artio.engine.logger.ReplayIndexDescriptor.putVarLong;
+import static uk.co.real_logic.artio.engine.logger.ReplayIndexDescriptor.zigZagEncode;
 import static uk.co.real_logic.artio.engine.logger.Replayer.MOST_RECENT_MESSAGE;
 
 /**
  * Similar to {@link ReplayIndexTest}, but with small capacity for easier and faster testing of wrapping and lapping.
+ * Runs against both the record and the compressed block formats, the latter wraps and laps a block at a time.
  */
+@RunWith(Parameterized.class)
 public class SmallReplayIndexTest extends AbstractLogTest implements ReplayQueryListener
 {
     private static final String CHANNEL = CommonContext.IPC_CHANNEL;
@@ -68,6 +82,25 @@ public class SmallReplayIndexTest extends AbstractLogTest implements ReplayQuery
     private static final int INDEX_CAPACITY = 8;
     private static final int INDEX_SEGMENT_CAPACITY = 4;
 
+    // Compressed segments must hold at least a block
+    private static final int INDEX_BLOCK_COUNT = 2;
+    private static final int BLOCK_INDEX_CAPACITY = INDEX_BLOCK_COUNT * BLOCK_LENGTH / RECORD_LENGTH;
+    private static final int BLOCK_INDEX_SEGMENT_CAPACITY = BLOCK_LENGTH / RECORD_LENGTH;
+
+    @Parameters(name = "compressed={0}")
+    public static Collection<Object[]> data()
+    {
+        return Arrays.asList(new Object[][]
+        {
+            {false},
+            {true},
+        });
+    }
+
+    private final boolean compressed;
+    private final int indexCapacity;
+    private final int indexSegmentCapacity;
+
     private final ExistingBufferFactory existingBufferFactory = spy(new ExistingBufferFactory()
     {
         public ByteBuffer map(final File fileName)
@@ -84,6 +117,8 @@ public class SmallReplayIndexTest extends AbstractLogTest implements ReplayQuery
     });
 
     private ReplayIndex replayIndex;
+    private int recordsPerBlock;
+    private int recordCapacity;
 
     private final UnsafeBuffer replayPositionBuffer =
         new UnsafeBuffer(new byte[EngineConfiguration.DEFAULT_REPLAY_POSITION_BUFFER_SIZE]);
@@ -104,8 +139,8 @@ public class SmallReplayIndexTest extends AbstractLogTest implements ReplayQuery
             new SequenceNumberExtractor(),
             DEFAULT_LOG_FILE_DIR,
             STREAM_ID,
-            INDEX_CAPACITY,
-            INDEX_SEGMENT_CAPACITY,
+            indexCapacity,
+            indexSegmentCapacity,
             newBufferFactory,
             replayPositionBuffer,
             errorHandler,
@@ -115,9 +150,17 @@ public class SmallReplayIndexTest extends AbstractLogTest implements ReplayQuery
             mock(SequenceNumberIndexReader.class),
             DEFAULT_TIME_INDEX_FLUSH_INTERVAL_IN_NS,
             DEFAULT_INDEX_CHECKSUM_ENABLED,
+            compressed,
             new ReplayEvictionHandler(errorHandler));
     }
 
+    public SmallReplayIndexTest(final boolean compressed)
+    {
+        this.compressed = compressed;
+        indexCapacity = compressed ? BLOCK_INDEX_CAPACITY : INDEX_CAPACITY;
+        indexSegmentCapacity = compressed ? BLOCK_INDEX_SEGMENT_CAPACITY : INDEX_SEGMENT_CAPACITY;
+    }
+
     private Aeron aeron()
     {
         return aeronArchive.context().aeron();
@@ -160,8 +203,54 @@ public class SmallReplayIndexTest extends AbstractLogTest implements ReplayQuery
             errorHandler,
             this,
             DEFAULT_ARCHIVE_REPLAY_STREAM,
-            INDEX_CAPACITY,
-            INDEX_SEGMENT_CAPACITY);
+            indexCapacity,
+            indexSegmentCapacity,
+            false);
+
+        if (compressed)
+        {
+            recordsPerBlock = recordsPerBlock();
+            recordCapacity = INDEX_BLOCK_COUNT * recordsPerBlock;
+        }
+        else
+        {
+            recordCapacity = INDEX_CAPACITY;
+        }
+    }
+
+    // The example messages have consecutive sequence numbers and similar lengths, so every record after the first in
+    // a block is encoded with the same number of bytes
+    private int recordsPerBlock()
+    {
+        bufferContainsExampleMessage(true, SESSION_ID, 1, SEQUENCE_INDEX);
+        final int frameLength = alignedEndPosition();
+        final UnsafeBuffer encodedRecordBuffer = new UnsafeBuffer(new byte[MAX_ENCODED_RECORD_LENGTH]);
+        final int encodedRecordLength =
+            putVarLong(encodedRecordBuffer, 0, zigZagEncode(frameLength)) +
+            putVarLong(encodedRecordBuffer, 0, zigZagEncode(1)) +
+            putVarLong(encodedRecordBuffer, 0, frameLength - HEADER_LENGTH);
+
+        return 1 + (BLOCK_LENGTH - ReplayIndexBlockDecoder.BLOCK_LENGTH) / encodedRecordLength;
+    }
+
+    // The number of most recent records that the index holds once a number of records have been indexed
+    private int retainedRecords(final int indexedRecords)
+    {
+        if (!compressed)
+        {
+            return Math.min(indexedRecords, INDEX_CAPACITY);
+        }
+
+        // Only the newest block can be partially full, a wrap overwrites the whole of the oldest block
+        final int newestBlockRecords = (indexedRecords - 1) % recordsPerBlock + 1;
+        final int olderBlocks = Math.min(INDEX_BLOCK_COUNT - 1, (indexedRecords - 1) / recordsPerBlock);
+        return olderBlocks * recordsPerBlock + newestBlockRecords;
+    }
+
+    // The number of records up to a sequence number that the index holds once a number of records have been indexed
+    private int retainedRecordsUpTo(final int lastSeqNum, final int indexedRecords)
+    {
+        return Math.max(0, lastSeqNum - (indexedRecords - retainedRecords(indexedRecords)));
     }
 
     @After
@@ -176,18 +265,18 @@ public class SmallReplayIndexTest extends AbstractLogTest implements ReplayQuery
     {
         final LongArrayList positions = new LongArrayList();
 
-        for (int i = 1; i <= INDEX_CAPACITY * 2 + 1; i++)
+        for (int i = 1; i <= recordCapacity * 2 + 1; i++)
         {
             final long position = indexExampleMessage(SESSION_ID, i, SEQUENCE_INDEX);
             positions.addLong(position);
 
-            final int expectedCount = Math.min(i, INDEX_CAPACITY);
+            final int expectedCount = retainedRecords(i);
             fakeHandler.reset();
             assertEquals(expectedCount, query(1, SEQUENCE_INDEX, i, SEQUENCE_INDEX));
             assertEquals(expectedCount, query(1, SEQUENCE_INDEX, MOST_RECENT_MESSAGE, SEQUENCE_INDEX));
             verifyMessagesRead(expectedCount * 2);
 
-            final long expectedStartPosition = positions.getLong(Math.max(i - INDEX_CAPACITY, 0));
+            final long expectedStartPosition = positions.getLong(i - expectedCount);
             assertEquals(expectedStartPosition, queryStartPosition());
         }
 
@@ -227,7 +316,7 @@ public class SmallReplayIndexTest extends AbstractLogTest implements ReplayQuery
         {
             if (endChangeReadCount == 1)
             {
-                for (int i = 0; i < INDEX_CAPACITY - 1; i++)
+                for (int i = 0; i < recordCapacity - 1; i++)
                 {
                     indexNextMessage();
                 }
@@ -235,20 +324,21 @@ public class SmallReplayIndexTest extends AbstractLogTest implements ReplayQuery
         };
 
         final int result = query(1, SEQUENCE_INDEX, MOST_RECENT_MESSAGE, SEQUENCE_INDEX);
-        assertEquals(INDEX_CAPACITY, result);
+        assertEquals(recordCapacity, result);
         assertEquals(0, lappedCount);
-        verifyMessagesRead(INDEX_CAPACITY);
+        verifyMessagesRead(recordCapacity);
     }
 
     @Test(timeout = 20_000L)
     public void testLappingQueryStartedBeforeWrapping()
     {
-        for (int i = 0; i < INDEX_CAPACITY - 1; i++)
+        for (int i = 0; i < recordCapacity - 1; i++)
         {
             indexNextMessage();
         }
 
         final int lastSeqNum = seqNum;
+        final int expectedResult = retainedRecordsUpTo(lastSeqNum, lastSeqNum + 2);
 
         onEndChangeRead = () ->
         {
@@ -262,20 +352,21 @@ public class SmallReplayIndexTest extends AbstractLogTest implements ReplayQuery
         final int lappedResult = query(1, SEQUENCE_INDEX, lastSeqNum, SEQUENCE_INDEX);
         final int stableResult = query(1, SEQUENCE_INDEX, lastSeqNum, SEQUENCE_INDEX);
         assertEquals(stableResult, lappedResult);
-        assertEquals(INDEX_CAPACITY - 2, lappedResult);
+        assertEquals(expectedResult, lappedResult);
         assertEquals(1, lappedCount);
-        verifyMessagesRead((INDEX_CAPACITY - 2) * 2);
+        verifyMessagesRead(expectedResult * 2);
     }
 
     @Test(timeout = 20_000L)
     public void testLappingQueryStartedAfterWrapping()
     {
-        for (int i = 0; i < INDEX_CAPACITY; i++)
+        for (int i = 0; i < recordCapacity; i++)
         {
             indexNextMessage();
         }
 
         final int lastSeqNum = seqNum;
+        final int expectedResult = retainedRecordsUpTo(lastSeqNum, lastSeqNum + 1);
 
         onEndChangeRead = () ->
         {
@@ -288,15 +379,15 @@ public class SmallReplayIndexTest extends AbstractLogTest implements ReplayQuery
         final int lappedResult = query(1, SEQUENCE_INDEX, lastSeqNum, SEQUENCE_INDEX);
         final int stableResult = query(1, SEQUENCE_INDEX, lastSeqNum, SEQUENCE_INDEX);
         assertEquals(stableResult, lappedResult);
-        assertEquals(INDEX_CAPACITY - 1, lappedResult);
+        assertEquals(expectedResult, lappedResult);
         assertEquals(1, lappedCount);
-        verifyMessagesRead((INDEX_CAPACITY - 1) * 2);
+        verifyMessagesRead(expectedResult * 2);
     }
 
     @Test(timeout = 20_000L)
     public void testLappingMoreThanCapacity()
     {
-        for (int i = 0; i < INDEX_CAPACITY; i++)
+        for (int i = 0; i < recordCapacity; i++)
         {
             indexNextMessage();
         }
@@ -307,7 +398,7 @@ public class SmallReplayIndexTest extends AbstractLogTest implements ReplayQuery
         {
             if (endChangeReadCount == 1)
             {
-                for (int i = 0; i < INDEX_CAPACITY + 2; i++)
+                for (int i = 0; i < recordCapacity + 2; i++)
                 {
                     indexNextMessage();
                 }
@@ -325,7 +416,7 @@ public class SmallReplayIndexTest extends AbstractLogTest implements ReplayQuery
     @Test(timeout = 20_000L)
     public void testGettingLappedTwice()
     {
-        for (int i = 0; i < INDEX_CAPACITY; i++)
+        for (int i = 0; i < recordCapacity; i++)
         {
             indexNextMessage();
         }
@@ -340,7 +431,7 @@ public class SmallReplayIndexTest extends AbstractLogTest implements ReplayQuery
             }
             else if (endChangeReadCount == 2)
             {
-                for (int i = 0; i < INDEX_CAPACITY + 1; i++)
+                for (int i = 0; i < recordCapacity + 1; i++)
                 {
                     indexNextMessage();
                 }
@@ -18,6 +18,7 @@ package uk.co.real_logic.artio.engine.logger;
 import org.agrona.ErrorHandler;
 import org.agrona.IoUtil;
 import org.agrona.collections.Long2ObjectHashMap;
+import org.agrona.collections.LongArrayList;
 import org.junit.After;
 import org.junit.Before;
 import org.junit.Test;
@@ -26,6 +27,7 @@ import uk.co.real_logic.artio.dictionary.generation.Exceptions;
 import java.io.File;
 import java.util.stream.LongStream;
 
+import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertTrue;
 import static org.mockito.Mockito.spy;
@@ -132,6 +134,24 @@ public class TimeIndexTest
         shouldReadWrittenTimestamps(positions[1], Long.MAX_VALUE);
     }
 
+    @Test
+    public void shouldSplitRecordingIntoChunksAtIndexedPositions()
+    {
+        final LongArrayList chunkPositions = new LongArrayList();
+        reader.findChunkPositions(REC_ID, 0, positions[4] + 1, 2, chunkPositions);
+
+        assertArrayEquals(new long[]{positions[1], positions[3]}, chunkPositions.toLongArray());
+    }
+
+    @Test
+    public void shouldNotSplitRecordingWithoutTimeIndex()
+    {
+        final LongArrayList chunkPositions = new LongArrayList();
+        reader.findChunkPositions(REC_ID_2 + 1, 0, positions[4] + 1, 2, chunkPositions);
+
+        assertEquals(0, chunkPositions.size());
+    }
+
     private void shouldReadWrittenTimestamps(final long startPosition, final long endPosition)
     {
         final Long2ObjectHashMap<PositionRange> recordingIdToPositionRange = new Long2ObjectHashMap<>();
@@ -0,0 +1,99 @@
+/*
+ * Copyright 2015-2024 Real Logic Limited.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.co.real_logic.artio.library;
+
+import org.junit.Before;
+import org.junit.Test;
+import uk.co.real_logic.artio.session.InternalSession;
+
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static org.mockito.Mockito.*;
+import static uk.co.real_logic.artio.session.InternalSession.NO_POLL_REQUIRED;
+
+public class SessionPollTimersTest
+{
+    private static final long START_TIME_IN_NS = MILLISECONDS.toNanos(1000);
+    private static final long HEARTBEAT_TIMEOUT_IN_NS = MILLISECONDS.toNanos(100);
+
+    private final InternalSession session = mock(InternalSession.class);
+    private final InternalSession otherSession = mock(InternalSession.class);
+    private final SessionPollTimers sessionPollTimers = new SessionPollTimers(START_TIME_IN_NS);
+
+    @Before
+    public void setUp()
+    {
+        when(session.nextPollTimeInNs()).thenReturn(START_TIME_IN_NS + HEARTBEAT_TIMEOUT_IN_NS);
+        when(otherSession.nextPollTimeInNs()).thenReturn(NO_POLL_REQUIRED);
+    }
+
+    @Test
+    public void shouldPollNewSessionsThenOnlyWhenTimeoutIsDue()
+    {
+        when(session.nextPollTimeInNs()).thenReturn(START_TIME_IN_NS + HEARTBEAT_TIMEOUT_IN_NS, NO_POLL_REQUIRED);
+        final InternalSession[] sessions = { session };
+
+        sessionPollTimers.poll(sessions, START_TIME_IN_NS);
+        verify(session, times(1)).poll(START_TIME_IN_NS);
+
+        final long beforeTimeout = START_TIME_IN_NS + HEARTBEAT_TIMEOUT_IN_NS / 2;
+        sessionPollTimers.poll(sessions, beforeTimeout);
+        verify(session, never()).poll(beforeTimeout);
+
+        final long afterTimeout = START_TIME_IN_NS + HEARTBEAT_TIMEOUT_IN_NS + MILLISECONDS.toNanos(2);
+        sessionPollTimers.poll(sessions, afterTimeout);
+        sessionPollTimers.poll(sessions, afterTimeout);
+        verify(session, times(1)).poll(afterTimeout);
+    }
+
+    @Test
+    public void shouldPollWokenSessionOnNextPoll()
+    {
+        final InternalSession[] sessions = { session, otherSession };
+        sessionPollTimers.poll(sessions, START_TIME_IN_NS);
+
+        final long timeInNs = START_TIME_IN_NS + 1;
+        sessionPollTimers.wake(otherSession);
+        sessionPollTimers.poll(sessions, timeInNs);
+
+        verify(otherSession, times(1)).poll(timeInNs);
+        verify(session, never()).poll(timeInNs);
+    }
+
+    @Test
+    public void shouldRepollSessionThatIsStillDue()
+    {
+        when(session.nextPollTimeInNs()).thenReturn(START_TIME_IN_NS);
+        final InternalSession[] sessions = { session };
+
+        sessionPollTimers.poll(sessions, START_TIME_IN_NS);
+        sessionPollTimers.poll(sessions, START_TIME_IN_NS);
+
+        verify(session, times(2)).poll(START_TIME_IN_NS);
+    }
+
+    @Test
+    public void shouldNotPollRemovedSessions()
+    {
+        sessionPollTimers.poll(new InternalSession[]{ session, otherSession }, START_TIME_IN_NS);
+        sessionPollTimers.wake(otherSession);
+
+        final long afterTimeout = START_TIME_IN_NS + HEARTBEAT_TIMEOUT_IN_NS + MILLISECONDS.toNanos(2);
+        sessionPollTimers.poll(new InternalSession[0], afterTimeout);
+
+        verify(session, never()).poll(afterTimeout);
+        verify(otherSession, never()).poll(afterTimeout);
+    }
+}
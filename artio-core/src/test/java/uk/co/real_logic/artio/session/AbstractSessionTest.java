@@ -18,6 +18,7 @@ package uk.co.real_logic.artio.session;
 import io.aeron.logbuffer.ControlledFragmentHandler.Action;
 import org.agrona.DirectBuffer;
 import org.agrona.concurrent.EpochNanoClock;
+import org.agrona.concurrent.UnsafeBuffer;
 import org.agrona.concurrent.status.AtomicCounter;
 import org.junit.Test;
 import org.mockito.ArgumentCaptor;
@@ -50,6 +51,7 @@ import static org.mockito.Mockito.*;
 import static uk.co.real_logic.artio.CommonConfiguration.DEFAULT_REASONABLE_TRANSMISSION_TIME_IN_S;
 import static uk.co.real_logic.artio.CommonConfiguration.NO_FORCED_HEARTBEAT_INTERVAL;
 import static uk.co.real_logic.artio.Constants.NEW_SEQ_NO;
+import static uk.co.real_logic.artio.dictionary.SessionConstants.TEST_REQUEST_MESSAGE_TYPE;
 import static uk.co.real_logic.artio.dictionary.generation.CodecUtil.MISSING_INT;
 import static uk.co.real_logic.artio.dictionary.generation.CodecUtil.MISSING_LONG;
 import static uk.co.real_logic.artio.fields.RejectReason.*;
@@ -77,6 +79,7 @@ public abstract class AbstractSessionTest
     final char[] testReqId = "ABC".toCharArray();
 
     static final long POSITION = 1024;
+    static final int CLAIM_LENGTH = 64;
 
     OnMessageInfo messageInfo = mock(OnMessageInfo.class);
     DirectSessionProxy sessionProxy = mock(DirectSessionProxy.class);
@@ -1161,6 +1164,54 @@ public abstract class AbstractSessionTest
         assertForcedHeartbeatInterval();
     }
 
+    @Test
+    public void shouldUpdateSentSequenceNumberWhenClaimedMessageCommitted()
+    {
+        givenActive();
+        givenClaimableMessage();
+
+        final int seqNum = nextMsgSeqNum();
+        assertEquals(POSITION, session().tryClaim(CLAIM_LENGTH, seqNum, TEST_REQUEST_MESSAGE_TYPE));
+        assertEquals(CLAIM_LENGTH, session().claimBuffer().capacity());
+        assertEquals(seqNum - 1, session().lastSentMsgSeqNum());
+
+        assertEquals(POSITION, session().commit());
+        verify(mockPublication).commitMessage();
+        assertEquals(seqNum, session().lastSentMsgSeqNum());
+    }
+
+    @Test
+    public void shouldNotUpdateSentSequenceNumberWhenClaimedMessageAborted()
+    {
+        givenActive();
+        givenClaimableMessage();
+
+        final int lastSentMsgSeqNum = session().lastSentMsgSeqNum();
+        session().tryClaim(CLAIM_LENGTH, lastSentMsgSeqNum + 1, TEST_REQUEST_MESSAGE_TYPE);
+        session().abort();
+
+        verify(mockPublication).abortMessage();
+        verify(mockPublication, never()).commitMessage();
+        assertEquals(lastSentMsgSeqNum, session().lastSentMsgSeqNum());
+    }
+
+    @Test
+    public void shouldNotCommitWithoutClaim()
+    {
+        givenActive();
+
+        assertThrows(IllegalStateException.class, () -> session().commit());
+    }
+
+    private void givenClaimableMessage()
+    {
+        when(mockPublication.claimMessage(
+            eq(CLAIM_LENGTH), anyInt(), anyLong(), anyLong(), anyInt(), anyLong(), any(), anyInt()))
+            .thenReturn(POSITION);
+        when(mockPublication.claimedMessageBuffer()).thenReturn(new UnsafeBuffer(new byte[CLAIM_LENGTH * 2]));
+        when(mockPublication.claimedMessageOffset()).thenReturn(CLAIM_LENGTH);
+    }
+
     void assertForcedHeartbeatInterval()
     {
         assertEquals(5_000, session().heartbeatIntervalInMs());
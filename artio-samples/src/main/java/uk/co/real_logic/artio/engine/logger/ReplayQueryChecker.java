@@ -46,7 +46,8 @@ public final class ReplayQueryChecker
             NoOpReplayQueryListener.INSTANCE,
             -1,
             DEFAULT_REPLAY_INDEX_RECORD_CAPACITY,
-            DEFAULT_REPLAY_INDEX_SEGMENT_CAPACITY);
+            DEFAULT_REPLAY_INDEX_SEGMENT_CAPACITY,
+            false);
 
         query.query(
             sessionId,
@@ -0,0 +1,153 @@
+/*
+ * Copyright 2015-2024 Real Logic Limited.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.co.real_logic.artio;
+
+import org.openjdk.jmh.annotations.*;
+import uk.co.real_logic.artio.util.MutableAsciiBuffer;
+
+import java.util.concurrent.TimeUnit;
+
+import static uk.co.real_logic.artio.util.AsciiBuffer.SEPARATOR;
+import static uk.co.real_logic.artio.util.AsciiBuffer.UNKNOWN_INDEX;
+
+/**
+ * Benchmark for the {@link MutableAsciiBuffer#scan(int, int, byte)} and
+ * {@link MutableAsciiBuffer#computeChecksum(int, int)} methods used by the receive framer, compared against a
+ * byte at a time loop, over messages of typical sizes.
+ */
+@Fork(1)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@State(Scope.Benchmark)
+public class AsciiBufferScanBenchmark
+{
+    private static final String FIELD = "\00158=Some free text padding out the message";
+
+    @Param({ "200", "400", "600" })
+    private int messageLength;
+
+    private MutableAsciiBuffer buffer;
+    private int checksumEnd;
+
+    @Setup
+    public void setup()
+    {
+        final StringBuilder message = new StringBuilder("8=FIX.4.4\0019=000\00135=8");
+        while (message.length() < messageLength - FIELD.length() - 7)
+        {
+            message.append(FIELD);
+        }
+        message.append("\00110=");
+        checksumEnd = message.length();
+        message.append("123\001");
+
+        buffer = new MutableAsciiBuffer(new byte[message.length()]);
+        buffer.putAscii(0, message.toString());
+    }
+
+    /**
+     * Finds every field separator in the message with {@link MutableAsciiBuffer#scan(int, int, byte)}.
+     *
+     * @return the number of fields found.
+     */
+    @Benchmark
+    public int scanFields()
+    {
+        final MutableAsciiBuffer buffer = this.buffer;
+        final int end = buffer.capacity();
+        int fields = 0;
+        int index = buffer.scan(0, end, SEPARATOR);
+        while (index != UNKNOWN_INDEX)
+        {
+            fields++;
+            index = buffer.scan(index + 1, end, SEPARATOR);
+        }
+        return fields;
+    }
+
+    /**
+     * Finds every field separator in the message one byte at a time.
+     *
+     * @return the number of fields found.
+     */
+    @Benchmark
+    public int scanFieldsByteAtATime()
+    {
+        final MutableAsciiBuffer buffer = this.buffer;
+        final int end = buffer.capacity();
+        int fields = 0;
+        int index = scanByteAtATime(buffer, 0, end, SEPARATOR);
+        while (index != UNKNOWN_INDEX)
+        {
+            fields++;
+            index = scanByteAtATime(buffer, index + 1, end, SEPARATOR);
+        }
+        return fields;
+    }
+
+    /**
+     * Scans for the end of the message, as the framer does when locating the checksum.
+     *
+     * @return the index of the last separator.
+     */
+    @Benchmark
+    public int scanToEndOfMessage()
+    {
+        return buffer.scan(checksumEnd, buffer.capacity(), SEPARATOR) +
+            buffer.scan(FIELD.length(), buffer.capacity(), (byte)'Z');
+    }
+
+    @Benchmark
+    public int scanToEndOfMessageByteAtATime()
+    {
+        return scanByteAtATime(buffer, checksumEnd, buffer.capacity(), SEPARATOR) +
+            scanByteAtATime(buffer, FIELD.length(), buffer.capacity(), (byte)'Z');
+    }
+
+    @Benchmark
+    public int computeChecksum()
+    {
+        return buffer.computeChecksum(0, checksumEnd);
+    }
+
+    @Benchmark
+    public int computeChecksumByteAtATime()
+    {
+        final MutableAsciiBuffer buffer = this.buffer;
+        final int end = checksumEnd;
+        int total = 0;
+        for (int index = 0; index < end; index++)
+        {
+            total += buffer.getByte(index);
+        }
+        return total % 256;
+    }
+
+    private static int scanByteAtATime(
+        final MutableAsciiBuffer buffer, final int startInclusive, final int endExclusive, final byte terminator)
+    {
+        for (int i = startInclusive; i < endExclusive; i++)
+        {
+            if (buffer.getByte(i) == terminator)
+            {
+                return i;
+            }
+        }
+        return UNKNOWN_INDEX;
+    }
+}
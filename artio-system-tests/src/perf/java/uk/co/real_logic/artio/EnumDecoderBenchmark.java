@@ -0,0 +1,123 @@
+/*
+ * Copyright 2015-2024 Real Logic Limited.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.co.real_logic.artio;
+
+import org.openjdk.jmh.annotations.*;
+import uk.co.real_logic.artio.dictionary.CharArrayWrapper;
+import uk.co.real_logic.artio.fixt.MsgType;
+import uk.co.real_logic.artio.util.MutableAsciiBuffer;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmark for the decode methods of a generated string enum, using the 116 message types of the FIXT 1.1
+ * dictionary. Each invocation decodes the next message type in turn so that the lookup can't be predicted.
+ */
+@Fork(1)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@State(Scope.Benchmark)
+public class EnumDecoderBenchmark
+{
+    private final CharArrayWrapper wrapper = new CharArrayWrapper();
+
+    private String[] strings;
+    private char[][] chars;
+    private int[] offsets;
+    private MutableAsciiBuffer buffer;
+    private int index;
+
+    @Setup
+    public void setup()
+    {
+        final MsgType[] values = MsgType.values();
+        // Skip the NULL_VAL and ARTIO_UNKNOWN sentinels
+        final int count = values.length - 2;
+        strings = new String[count];
+        chars = new char[count][];
+        offsets = new int[count];
+        buffer = new MutableAsciiBuffer(new byte[count * 4]);
+
+        int offset = 0;
+        for (int i = 0; i < count; i++)
+        {
+            final String representation = values[i].representation();
+            strings[i] = representation;
+            chars[i] = representation.toCharArray();
+            offsets[i] = offset;
+            offset += buffer.putAscii(offset, representation);
+        }
+    }
+
+    /**
+     * Benchmark the perfect hash based {@link MsgType#decode(char[], int, int)} method.
+     *
+     * @return the decoded value.
+     */
+    @Benchmark
+    public MsgType perfectHash()
+    {
+        final char[] value = chars[next()];
+        return MsgType.decode(value, 0, value.length);
+    }
+
+    /**
+     * Benchmark the perfect hash based {@link MsgType#decode(uk.co.real_logic.artio.util.AsciiBuffer, int, int)}
+     * method.
+     *
+     * @return the decoded value.
+     */
+    @Benchmark
+    public MsgType perfectHashFromBuffer()
+    {
+        final int i = next();
+        return MsgType.decode(buffer, offsets[i], chars[i].length);
+    }
+
+    /**
+     * Benchmark the {@link uk.co.real_logic.artio.dictionary.CharArrayMap} based
+     * {@link MsgType#decode(CharArrayWrapper)} method.
+     *
+     * @return the decoded value.
+     */
+    @Benchmark
+    public MsgType charArrayMap()
+    {
+        final char[] value = chars[next()];
+        wrapper.wrap(value, value.length);
+        return MsgType.decode(wrapper);
+    }
+
+    /**
+     * Benchmark the switch based {@link MsgType#decode(String)} method.
+     *
+     * @return the decoded value.
+     */
+    @Benchmark
+    public MsgType stringSwitch()
+    {
+        return MsgType.decode(strings[next()]);
+    }
+
+    private int next()
+    {
+        final int i = index;
+        index = i + 1 == chars.length ? 0 : i + 1;
+        return i;
+    }
+}
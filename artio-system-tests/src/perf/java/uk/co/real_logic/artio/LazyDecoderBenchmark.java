@@ -0,0 +1,94 @@
+/*
+ * Copyright 2015-2024 Real Logic Limited.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.co.real_logic.artio;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import uk.co.real_logic.artio.builder.Validation;
+import uk.co.real_logic.artio.decoder.LogonDecoder;
+import uk.co.real_logic.artio.util.AsciiBuffer;
+import uk.co.real_logic.artio.util.MutableAsciiBuffer;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the eager, flyweight and lazy decoders when only reading a few fields of a message, each field is read
+ * twice to show the cost of re-parsing on access.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@Fork(1)
+public class LazyDecoderBenchmark
+{
+    private final LogonDecoder eagerDecoder = new LogonDecoder();
+    private final uk.co.real_logic.artio.decoder_flyweight.LogonDecoder flyweightDecoder =
+        new uk.co.real_logic.artio.decoder_flyweight.LogonDecoder();
+    private final uk.co.real_logic.artio.decoder_lazy.LogonDecoder lazyDecoder =
+        new uk.co.real_logic.artio.decoder_lazy.LogonDecoder();
+    private final AsciiBuffer buffer = new MutableAsciiBuffer(TestData.LOGON);
+
+    @Setup
+    public void setup()
+    {
+        if (Validation.CODEC_VALIDATION_ENABLED)
+        {
+            throw new IllegalStateException(
+                "Benchmark cannot run with validation enabled, set -Dfix.codecs.no_validation=true");
+        }
+    }
+
+    @Benchmark
+    public void decodeEagerLogon(final Blackhole bh)
+    {
+        bh.consume(eagerDecoder.decode(buffer, 0, buffer.capacity()));
+
+        for (int i = 0; i < 2; i++)
+        {
+            bh.consume(eagerDecoder.header().msgSeqNum());
+            bh.consume(eagerDecoder.heartBtInt());
+            bh.consume(eagerDecoder.username());
+        }
+    }
+
+    @Benchmark
+    public void decodeFlyweightLogon(final Blackhole bh)
+    {
+        bh.consume(flyweightDecoder.decode(buffer, 0, buffer.capacity()));
+
+        for (int i = 0; i < 2; i++)
+        {
+            bh.consume(flyweightDecoder.header().msgSeqNum());
+            bh.consume(flyweightDecoder.heartBtInt());
+            bh.consume(flyweightDecoder.username());
+        }
+    }
+
+    @Benchmark
+    public void decodeLazyLogon(final Blackhole bh)
+    {
+        bh.consume(lazyDecoder.decode(buffer, 0, buffer.capacity()));
+
+        for (int i = 0; i < 2; i++)
+        {
+            bh.consume(lazyDecoder.header().msgSeqNum());
+            bh.consume(lazyDecoder.heartBtInt());
+            bh.consume(lazyDecoder.username());
+        }
+    }
+}
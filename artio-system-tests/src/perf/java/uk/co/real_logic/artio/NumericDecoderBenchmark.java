@@ -0,0 +1,92 @@
+/*
+ * Copyright 2015-2024 Real Logic Limited.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.co.real_logic.artio;
+
+import org.openjdk.jmh.annotations.*;
+import uk.co.real_logic.artio.fields.DecimalFloat;
+import uk.co.real_logic.artio.util.MutableAsciiBuffer;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmark for the numeric decoding methods of {@link uk.co.real_logic.artio.util.MutableAsciiBuffer}.
+ */
+@Fork(1)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+public class NumericDecoderBenchmark
+{
+    @State(Scope.Benchmark)
+    public static class NaturalState
+    {
+        @Param({ "7", "1234", "27085146", "2147483647", "123456789012" })
+        private String natural;
+
+        private final MutableAsciiBuffer buffer = new MutableAsciiBuffer(new byte[64]);
+
+        private int length;
+
+        @Setup
+        public void setup()
+        {
+            length = buffer.putAscii(0, natural);
+        }
+    }
+
+    @State(Scope.Benchmark)
+    public static class DecimalState
+    {
+        @Param({ "0", "1.5", "-9182.25", "27085146.125", "123456789.12345678" })
+        private String decimal;
+
+        private final MutableAsciiBuffer buffer = new MutableAsciiBuffer(new byte[64]);
+        private final DecimalFloat number = new DecimalFloat();
+
+        private int length;
+
+        @Setup
+        public void setup()
+        {
+            length = buffer.putAscii(0, decimal);
+        }
+    }
+
+    /**
+     * Benchmark {@link uk.co.real_logic.artio.util.MutableAsciiBuffer#getNaturalLong(int, int)} method
+     *
+     * @param state the encoded natural number.
+     * @return the decoded value.
+     */
+    @Benchmark
+    public long getNaturalLong(final NaturalState state)
+    {
+        return state.buffer.getNaturalLong(0, state.length);
+    }
+
+    /**
+     * Benchmark {@link uk.co.real_logic.artio.util.MutableAsciiBuffer#getFloat(DecimalFloat, int, int)} method
+     *
+     * @param state the encoded decimal number.
+     * @return the decoded value.
+     */
+    @Benchmark
+    public DecimalFloat getFloat(final DecimalState state)
+    {
+        return state.buffer.getFloat(state.number, 0, state.length);
+    }
+}
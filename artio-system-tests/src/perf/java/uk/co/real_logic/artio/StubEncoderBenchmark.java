@@ -17,6 +17,7 @@ package uk.co.real_logic.artio;
 
 import org.openjdk.jmh.annotations.*;
 import org.openjdk.jmh.infra.Blackhole;
+import uk.co.real_logic.artio.builder.HeartbeatEncoder;
 import uk.co.real_logic.artio.builder.LogonEncoder;
 import uk.co.real_logic.artio.fields.UtcTimestampEncoder;
 import uk.co.real_logic.artio.util.MutableAsciiBuffer;
@@ -33,6 +34,7 @@ public class StubEncoderBenchmark
 {
     private final UtcTimestampEncoder timestampEncoder = new UtcTimestampEncoder();
     private final LogonEncoder logonEncoder = new LogonEncoder();
+    private final HeartbeatEncoder heartbeatEncoder = new HeartbeatEncoder();
     private final MutableAsciiBuffer buffer = new MutableAsciiBuffer(new byte[8 * 1024]);
 
     // deliberately not static/final
@@ -47,6 +49,11 @@ public class StubEncoderBenchmark
             .header()
             .senderCompID("ABC_DEFG01")
             .targetCompID("CCG");
+
+        heartbeatEncoder
+            .header()
+            .senderCompID("ABC_DEFG01")
+            .targetCompID("CCG");
     }
 
     @Benchmark
@@ -66,4 +73,18 @@ public class StubEncoderBenchmark
         bh.consume(logonEncoder.encode(buffer, 0));
     }
 
+    // Repeated sends of a message that's mostly made up of constant header fields
+    @Benchmark
+    public void encodeHeartbeat(final Blackhole bh)
+    {
+        final UtcTimestampEncoder timestampEncoder = this.timestampEncoder;
+
+        heartbeatEncoder
+            .header()
+            .msgSeqNum(sequenceNumber)
+            .sendingTime(timestampEncoder.buffer(), timestampEncoder.encode(System.currentTimeMillis()));
+
+        bh.consume(heartbeatEncoder.encode(buffer, 0));
+    }
+
 }
@@ -0,0 +1,131 @@
+/*
+ * Copyright 2015-2024 Real Logic Limited.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.co.real_logic.artio.engine.framer;
+
+import org.agrona.concurrent.UnsafeBuffer;
+import org.openjdk.jmh.annotations.*;
+import uk.co.real_logic.artio.dictionary.FixDictionary;
+import uk.co.real_logic.artio.engine.MappedFile;
+import uk.co.real_logic.artio.session.CompositeKey;
+import uk.co.real_logic.artio.session.SessionIdStrategy;
+
+import java.io.File;
+import java.nio.ByteBuffer;
+import java.util.concurrent.TimeUnit;
+
+import static uk.co.real_logic.artio.engine.EngineConfiguration.DEFAULT_INITIAL_SEQUENCE_INDEX;
+
+/**
+ * Benchmark for loading the session id file on engine startup and for looking up sessions on logon with large
+ * numbers of historical sessions.
+ */
+@Fork(value = 1, jvmArgs = "-Xmx4g")
+@BenchmarkMode(Mode.AverageTime)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@State(Scope.Benchmark)
+public class FixContextsBenchmark
+{
+    // Comfortably larger than a session id record with a short sender and target comp id
+    private static final int BYTES_PER_SESSION = 256;
+
+    @Param({ "100000", "1000000" })
+    private int sessionCount;
+
+    private final SessionIdStrategy idStrategy = SessionIdStrategy.senderAndTarget();
+    private final FixDictionary fixDictionary = FixDictionary.of(FixDictionary.findDefault());
+
+    private MappedFile mappedFile;
+    private FixContexts fixContexts;
+    private CompositeKey[] keys;
+    private long[] sessionIds;
+    private int index;
+
+    @Setup
+    public void setup()
+    {
+        final UnsafeBuffer buffer = new UnsafeBuffer(ByteBuffer.allocateDirect(sessionCount * BYTES_PER_SESSION));
+        mappedFile = new MappedFile(new File("fix-contexts-benchmark"), null, buffer)
+        {
+            public void force()
+            {
+                // Measure the index, not the disk
+            }
+        };
+
+        fixContexts = newFixContexts();
+        keys = new CompositeKey[sessionCount];
+        sessionIds = new long[sessionCount];
+        for (int i = 0; i < sessionCount; i++)
+        {
+            final CompositeKey key = idStrategy.onInitiateLogon(
+                "SENDER" + i, null, null, "TARGET" + i, null, null);
+            keys[i] = key;
+            sessionIds[i] = fixContexts.newSessionContext(key, fixDictionary).sessionId();
+        }
+    }
+
+    /**
+     * Reloads every session from the session id file, as happens when the engine starts.
+     *
+     * @return the loaded session contexts.
+     */
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public FixContexts startup()
+    {
+        return newFixContexts();
+    }
+
+    /**
+     * Logs on and then disconnects an existing session.
+     *
+     * @return the session id.
+     */
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.NANOSECONDS)
+    public long logonLookup()
+    {
+        final long sessionId = fixContexts.onLogon(keys[nextIndex()], fixDictionary).sessionId();
+        fixContexts.onDisconnect(sessionId);
+        return sessionId;
+    }
+
+    /**
+     * Looks up an existing session by its session id, as happens on sequence resets and admin operations.
+     *
+     * @return the session context.
+     */
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.NANOSECONDS)
+    public SessionContext lookupById()
+    {
+        return fixContexts.lookupById(sessionIds[nextIndex()]);
+    }
+
+    private int nextIndex()
+    {
+        final int index = this.index;
+        this.index = index + 1 == sessionCount ? 0 : index + 1;
+        return index;
+    }
+
+    private FixContexts newFixContexts()
+    {
+        return new FixContexts(
+            mappedFile, idStrategy, DEFAULT_INITIAL_SEQUENCE_INDEX, Throwable::printStackTrace, false);
+    }
+}
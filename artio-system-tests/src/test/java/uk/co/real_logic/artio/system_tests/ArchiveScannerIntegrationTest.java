@@ -34,6 +34,7 @@ import java.util.function.Predicate;
 
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.*;
+import static org.junit.Assert.assertEquals;
 import static uk.co.real_logic.artio.TestFixtures.largeTestReqId;
 import static uk.co.real_logic.artio.TestFixtures.launchMediaDriver;
 import static uk.co.real_logic.artio.engine.logger.FixMessageConsumerValidator.validateFixMessageConsumer;
@@ -42,6 +43,8 @@ import static uk.co.real_logic.artio.system_tests.SystemTestUtil.*;
 
 public class ArchiveScannerIntegrationTest extends AbstractGatewayToGatewaySystemTest
 {
+    private static final int SMALL_SCAN_CHUNK_SIZE_IN_BYTES = 64;
+
     private final FakeConnectHandler fakeConnectHandler = new FakeConnectHandler();
 
     @Before
@@ -127,6 +130,72 @@ public class ArchiveScannerIntegrationTest extends AbstractGatewayToGatewaySyste
         canIndexScanArchive(false);
     }
 
+    @Test(timeout = TEST_TIMEOUT_IN_MS)
+    public void canScanArchiveInParallelInTimestampOrder()
+    {
+        setupAndExchangeMessages();
+
+        closeLibrariesAndEngines();
+
+        final EngineConfiguration configuration = acceptingEngine.configuration();
+        final IntHashSet queryStreamIds = new IntHashSet();
+        queryStreamIds.add(configuration.outboundLibraryStream());
+        queryStreamIds.add(configuration.inboundLibraryStream());
+
+        // Chunks this large only split the archive by recording
+        final List<String> recordingMessages = new ArrayList<>();
+        final int recordingChunks = SystemTestUtil.getMessagesFromArchiveInParallel(configuration, queryStreamIds,
+            FixMessagePredicates::alwaysTrue,
+            (message, buffer, offset, length, header) ->
+            recordingMessages.add(validateFixMessageConsumer(message, buffer, offset, length)),
+            true,
+            Integer.MAX_VALUE);
+
+        final List<String> messages = new ArrayList<>();
+        final int chunks = SystemTestUtil.getMessagesFromArchiveInParallel(configuration, queryStreamIds,
+            FixMessagePredicates::alwaysTrue,
+            (message, buffer, offset, length, header) ->
+            messages.add(validateFixMessageConsumer(message, buffer, offset, length)),
+            true,
+            SMALL_SCAN_CHUNK_SIZE_IN_BYTES);
+
+        assertThat(chunks, greaterThan(recordingChunks));
+
+        final List<String> sequentialMessages = getMessagesFromArchive(configuration, queryStreamIds);
+        assertEquals(sequentialMessages, recordingMessages);
+        assertEquals(sequentialMessages, messages);
+        assertThat(messages.toString(), messages.subList(0, 4), contains(
+            containsString("35=A\00149=initiator\00156=acceptor\00134=1"),
+            containsString("35=A\00149=acceptor\00156=initiator\00134=1"),
+            containsString("35=1\00149=initiator\00156=acceptor\00134=2"),
+            containsString("\001112=hi")));
+    }
+
+    @Test(timeout = TEST_TIMEOUT_IN_MS)
+    public void canFilterArchiveInParallel()
+    {
+        setupAndExchangeMessages();
+
+        closeLibrariesAndEngines();
+
+        final EngineConfiguration configuration = acceptingEngine.configuration();
+        final IntHashSet queryStreamIds = new IntHashSet();
+        queryStreamIds.add(configuration.outboundLibraryStream());
+        queryStreamIds.add(configuration.inboundLibraryStream());
+
+        final List<String> messages = new ArrayList<>();
+        final FixDictionary fixDictionary = FixDictionary.of(FixDictionary.findDefault());
+        SystemTestUtil.getMessagesFromArchiveInParallel(configuration, queryStreamIds,
+            () -> whereHeader(fixDictionary, senderCompIdOf(ACCEPTOR_ID)),
+            (message, buffer, offset, length, header) ->
+            messages.add(validateFixMessageConsumer(message, buffer, offset, length)),
+            false,
+            SMALL_SCAN_CHUNK_SIZE_IN_BYTES);
+
+        assertThat(messages, hasItem(containsString("35=A\00149=acceptor\00156=initiator\00134=1")));
+        assertThat(messages, everyItem(containsString("\00149=acceptor\001")));
+    }
+
     private void canIndexScanArchive(final boolean close)
     {
         messagesCanBeExchanged(initiatingSession, initiatingOtfAcceptor, testReqId());
@@ -196,5 +196,16 @@ public class DebugTcpChannelSupplier extends DefaultTcpChannelSupplier
 
             return super.write(src, seqNum, replay);
         }
+
+        public long write(final ByteBuffer[] srcs, final int[] seqNums, final int length) throws IOException
+        {
+            if (index < bytesToBeWritten.size())
+            {
+                // Fake back-pressure on each message in turn rather than writing them all at once.
+                return writeEach(srcs, seqNums, length);
+            }
+
+            return super.write(srcs, seqNums, length);
+        }
     }
 }
@@ -37,6 +37,7 @@ import uk.co.real_logic.artio.engine.framer.EngineStreamInfo;
 import uk.co.real_logic.artio.engine.framer.LibraryInfo;
 import uk.co.real_logic.artio.engine.logger.FixArchiveScanner;
 import uk.co.real_logic.artio.engine.logger.FixMessageConsumer;
+import uk.co.real_logic.artio.engine.logger.FixMessagePredicate;
 import uk.co.real_logic.artio.fixp.FixPMessageConsumer;
 import uk.co.real_logic.artio.library.*;
 import uk.co.real_logic.artio.messages.SessionReplyStatus;
@@ -50,6 +51,7 @@ import java.util.Arrays;
 import java.util.List;
 import java.util.Optional;
 import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
 
 import static io.aeron.CommonContext.IPC_CHANNEL;
 import static java.util.Collections.singletonList;
@@ -623,6 +625,35 @@ public final class SystemTestUtil
         }
     }
 
+    public static int getMessagesFromArchiveInParallel(
+        final EngineConfiguration configuration,
+        final IntHashSet queryStreamIds,
+        final Supplier<FixMessagePredicate> predicateFactory,
+        final FixMessageConsumer fixMessageConsumer,
+        final boolean ordered,
+        final int scanChunkSizeInBytes)
+    {
+        final FixArchiveScanner.Configuration context = new FixArchiveScanner.Configuration()
+            .aeronDirectoryName(configuration.aeronContext().aeronDirectoryName())
+            .archiveContext(aeronArchiveContext())
+            .idleStrategy(CommonConfiguration.backoffIdleStrategy())
+            .compactionSize(TEST_COMPACTION_SIZE)
+            .logFileDir(configuration.logFileDir())
+            .scanParallelism(2)
+            .scanChunkSizeInBytes(scanChunkSizeInBytes);
+
+        try (FixArchiveScanner scanner = new FixArchiveScanner(context))
+        {
+            return scanner.scanParallel(
+                configuration.libraryAeronChannel(),
+                queryStreamIds,
+                predicateFactory,
+                fixMessageConsumer,
+                ordered,
+                DEFAULT_ARCHIVE_SCANNER_STREAM);
+        }
+    }
+
     static void awaitIndexerCaughtUp(
         final TestSystem testSystem,
         final String aeronDirectoryName,